@@ -0,0 +1,10 @@
+package com.magadiflo.app.balancestream;
+
+import java.util.Collection;
+
+/**
+ * Cuentas cuyo saldo cambió (o que se eliminaron) en la transacción en curso. Se publica dentro de la transacción y
+ * los listeners lo reciben después del commit.
+ */
+public record AccountsChangedEvent(Collection<Long> accountIds) {
+}
@@ -0,0 +1,30 @@
+package com.magadiflo.app.balancestream;
+
+import com.magadiflo.app.engine.DatabaseBalancesGuard;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.repositories.IAccountRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.stream.Collectors;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.balance-stream", name = "enabled", havingValue = "true")
+public class BalanceStreamConfig {
+
+    /**
+     * Solo {@code AccountServiceImpl} publica {@link AccountsChangedEvent}; con el motor, la compensación o los shards
+     * los suscriptores nunca recibirían actualizaciones.
+     */
+    public BalanceStreamConfig(Environment environment) {
+        DatabaseBalancesGuard.requireDatabaseBalances(environment, "El stream de saldos", "app.balance-stream.enabled");
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public BalanceStreamHub balanceStreamHub(BalanceStreamProperties properties, IAccountRepository accountRepository) {
+        return new BalanceStreamHub(properties, accountIds -> accountRepository.findUnmanagedByIdIn(accountIds).stream()
+                .collect(Collectors.toMap(Account::getId, Account::getBalance)));
+    }
+}
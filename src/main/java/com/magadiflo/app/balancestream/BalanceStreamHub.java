@@ -0,0 +1,267 @@
+package com.magadiflo.app.balancestream;
+
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Reparte los cambios de saldo entre los suscriptores SSE. Los cambios confirmados solo marcan la cuenta; cada
+ * {@code flushInterval} se leen en una sola consulta los saldos de las cuentas marcadas que tienen suscriptores, así
+ * que varios cambios seguidos de una cuenta llegan como una única actualización con el saldo más reciente. Cada
+ * suscriptor tiene una cola acotada que vacían unos pocos hilos de envío; si un cliente no la consume a tiempo, se
+ * desconecta en lugar de acumular sin límite.
+ */
+public class BalanceStreamHub implements MeterBinder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(BalanceStreamHub.class);
+    private static final BalanceUpdate HEARTBEAT = new BalanceUpdate(null, null, false);
+
+    private final BalanceStreamProperties properties;
+    private final Function<Set<Long>, Map<Long, BigDecimal>> balanceLoader;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Set<Subscriber>> subscribersByAccount = new ConcurrentHashMap<>();
+    private final Set<Long> changedAccountIds = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService senders;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder conflated = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    public BalanceStreamHub(BalanceStreamProperties properties, Function<Set<Long>, Map<Long, BigDecimal>> balanceLoader) {
+        this.properties = properties;
+        this.balanceLoader = balanceLoader;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "balance-stream-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderCount = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(1, properties.senderThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "balance-stream-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long flush = this.properties.flushInterval().toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, flush, flush, TimeUnit.MILLISECONDS);
+        long heartbeat = this.properties.heartbeatInterval().toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeat, heartbeat, TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(Collection<Long> accountIds) {
+        SseEmitter emitter = new SseEmitter(this.properties.timeout().toMillis());
+        this.subscribe(accountIds, emitter);
+        return emitter;
+    }
+
+    /**
+     * Registra el emisor y le envía de inmediato el saldo actual de cada cuenta.
+     */
+    public void subscribe(Collection<Long> accountIds, SseEmitter emitter) {
+        Set<Long> ids = new LinkedHashSet<>(accountIds);
+        if (ids.isEmpty() || ids.size() > this.properties.maxAccountsPerSubscriber()) {
+            throw new IllegalArgumentException("Debe suscribirse a entre 1 y %d cuentas"
+                    .formatted(this.properties.maxAccountsPerSubscriber()));
+        }
+        if (this.subscribers.size() >= this.properties.maxSubscribers()) {
+            throw new TooManyRequestsException("Demasiadas suscripciones a saldos",
+                    Math.max(1L, this.properties.heartbeatInterval().toSeconds()));
+        }
+
+        Subscriber subscriber = new Subscriber(emitter, ids, this.properties.bufferSize());
+        emitter.onCompletion(() -> this.unsubscribe(subscriber));
+        emitter.onTimeout(() -> this.unsubscribe(subscriber));
+        emitter.onError(error -> this.unsubscribe(subscriber));
+        this.subscribers.add(subscriber);
+        for (Long id : ids) {
+            this.subscribersByAccount.compute(id, (key, accountSubscribers) -> {
+                Set<Subscriber> updated = accountSubscribers == null ? ConcurrentHashMap.newKeySet() : accountSubscribers;
+                updated.add(subscriber);
+                return updated;
+            });
+        }
+
+        Map<Long, BigDecimal> balances = this.balanceLoader.apply(ids);
+        for (Long id : ids) {
+            this.deliver(subscriber, toUpdate(id, balances));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccountsChanged(AccountsChangedEvent event) {
+        for (Long accountId : event.accountIds()) {
+            if (this.subscribersByAccount.containsKey(accountId) && !this.changedAccountIds.add(accountId)) {
+                this.conflated.increment();
+            }
+        }
+    }
+
+    /**
+     * Lee los saldos de las cuentas marcadas y los encola para sus suscriptores.
+     */
+    public void flush() {
+        Set<Long> ids = new HashSet<>();
+        for (Iterator<Long> iterator = this.changedAccountIds.iterator(); iterator.hasNext(); ) {
+            ids.add(iterator.next());
+            iterator.remove();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, BigDecimal> balances;
+        try {
+            balances = this.balanceLoader.apply(ids);
+        } catch (RuntimeException e) {
+            this.changedAccountIds.addAll(ids);
+            throw e;
+        }
+        for (Long id : ids) {
+            Set<Subscriber> accountSubscribers = this.subscribersByAccount.get(id);
+            if (accountSubscribers == null) {
+                continue;
+            }
+            BalanceUpdate update = toUpdate(id, balances);
+            for (Subscriber subscriber : accountSubscribers) {
+                this.deliver(subscriber, update);
+            }
+        }
+    }
+
+    public int subscribers() {
+        return this.subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("accounts.balance_stream.subscribers", this.subscribers, Set::size)
+                .description("Suscriptores conectados al stream de saldos")
+                .register(registry);
+        FunctionCounter.builder("accounts.balance_stream.sent", this.sent, LongAdder::sum)
+                .description("Actualizaciones de saldo enviadas")
+                .register(registry);
+        FunctionCounter.builder("accounts.balance_stream.conflated", this.conflated, LongAdder::sum)
+                .description("Cambios de saldo agrupados con otro pendiente de la misma cuenta")
+                .register(registry);
+        FunctionCounter.builder("accounts.balance_stream.dropped", this.dropped, LongAdder::sum)
+                .description("Suscriptores desconectados por no consumir a tiempo")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        this.scheduler.shutdownNow();
+        this.senders.shutdownNow();
+        for (Subscriber subscriber : this.subscribers) {
+            this.unsubscribe(subscriber);
+            subscriber.emitter.complete();
+        }
+    }
+
+    private void deliver(Subscriber subscriber, BalanceUpdate update) {
+        if (!subscriber.queue.offer(update)) {
+            if (this.unsubscribe(subscriber)) {
+                this.dropped.increment();
+                log.debug("Suscriptor de saldos desconectado por no consumir las actualizaciones a tiempo");
+                subscriber.emitter.complete();
+            }
+            return;
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            this.senders.execute(() -> this.drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        do {
+            BalanceUpdate update;
+            while ((update = subscriber.queue.poll()) != null) {
+                try {
+                    subscriber.emitter.send(update == HEARTBEAT
+                            ? SseEmitter.event().comment("heartbeat")
+                            : SseEmitter.event().name("balance").data(update, MediaType.APPLICATION_JSON));
+                    this.sent.increment();
+                } catch (IOException | IllegalStateException e) {
+                    this.unsubscribe(subscriber);
+                    subscriber.queue.clear();
+                }
+            }
+            subscriber.draining.set(false);
+        } while (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true));
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : this.subscribers) {
+            if (subscriber.queue.isEmpty()) {
+                this.deliver(subscriber, HEARTBEAT);
+            }
+        }
+    }
+
+    private boolean unsubscribe(Subscriber subscriber) {
+        if (!this.subscribers.remove(subscriber)) {
+            return false;
+        }
+        for (Long id : subscriber.accountIds) {
+            this.subscribersByAccount.computeIfPresent(id, (key, accountSubscribers) -> {
+                accountSubscribers.remove(subscriber);
+                return accountSubscribers.isEmpty() ? null : accountSubscribers;
+            });
+        }
+        return true;
+    }
+
+    private void flushQuietly() {
+        try {
+            this.flush();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron leer los saldos para el stream: {}", e.getMessage());
+        }
+    }
+
+    private static BalanceUpdate toUpdate(Long accountId, Map<Long, BigDecimal> balances) {
+        BigDecimal balance = balances.get(accountId);
+        return balance == null ? BalanceUpdate.deleted(accountId) : BalanceUpdate.of(accountId, balance);
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<Long> accountIds;
+        private final BlockingQueue<BalanceUpdate> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Subscriber(SseEmitter emitter, Set<Long> accountIds, int bufferSize) {
+            this.emitter = emitter;
+            this.accountIds = accountIds;
+            this.queue = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        }
+    }
+}
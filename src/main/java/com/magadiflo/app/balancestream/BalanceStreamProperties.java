@@ -0,0 +1,21 @@
+package com.magadiflo.app.balancestream;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param flushInterval ventana en la que varios cambios de una misma cuenta se agrupan en una sola actualización.
+ * @param bufferSize    actualizaciones pendientes por suscriptor; si se llena, el suscriptor se desconecta.
+ */
+@ConfigurationProperties(prefix = "app.balance-stream")
+public record BalanceStreamProperties(@DefaultValue("false") boolean enabled,
+                                      @DefaultValue("100ms") Duration flushInterval,
+                                      @DefaultValue("32") int bufferSize,
+                                      @DefaultValue("10000") int maxSubscribers,
+                                      @DefaultValue("50") int maxAccountsPerSubscriber,
+                                      @DefaultValue("15s") Duration heartbeatInterval,
+                                      @DefaultValue("30m") Duration timeout,
+                                      @DefaultValue("4") int senderThreads) {
+}
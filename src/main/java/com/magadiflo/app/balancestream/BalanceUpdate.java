@@ -0,0 +1,16 @@
+package com.magadiflo.app.balancestream;
+
+import java.math.BigDecimal;
+
+/**
+ * Saldo vigente de una cuenta al momento de enviarse; {@code balance} es nulo si la cuenta fue eliminada.
+ */
+public record BalanceUpdate(Long accountId, BigDecimal balance, boolean deleted) {
+    public static BalanceUpdate of(Long accountId, BigDecimal balance) {
+        return new BalanceUpdate(accountId, balance, false);
+    }
+
+    public static BalanceUpdate deleted(Long accountId) {
+        return new BalanceUpdate(accountId, null, true);
+    }
+}
@@ -0,0 +1,81 @@
+package com.magadiflo.app.bulkhead;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limita las solicitudes concurrentes de una clase de trabajo. Las que no consiguen lugar esperan en una cola acotada
+ * hasta {@code maxWait}; con la cola llena se rechazan de inmediato, sin ocupar más hilos del servidor.
+ */
+public class Bulkhead {
+    private final Workload workload;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private final Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    public Bulkhead(Workload workload, int maxConcurrent, int maxQueued, Duration maxWait) {
+        if (maxConcurrent < 1 || maxQueued < 0) {
+            throw new IllegalArgumentException("Los límites del bulkhead " + workload + " deben ser positivos");
+        }
+        this.workload = workload;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = Math.max(0L, maxWait.toNanos());
+        this.permits = new Semaphore(maxConcurrent, true);
+    }
+
+    public boolean tryAcquire() {
+        return this.tryAcquire(this.maxWaitNanos);
+    }
+
+    /**
+     * @param maxWaitNanos espera máxima en la cola para esta solicitud; nunca mayor que {@code maxWait}.
+     */
+    public boolean tryAcquire(long maxWaitNanos) {
+        if (this.permits.tryAcquire()) {
+            return true;
+        }
+        if (this.queued.incrementAndGet() > this.maxQueued) {
+            this.queued.decrementAndGet();
+            this.rejected.increment();
+            return false;
+        }
+        try {
+            if (this.permits.tryAcquire(Math.min(maxWaitNanos, this.maxWaitNanos), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            this.queued.decrementAndGet();
+        }
+        this.rejected.increment();
+        return false;
+    }
+
+    public void release() {
+        this.permits.release();
+    }
+
+    public Workload workload() {
+        return this.workload;
+    }
+
+    public int inFlight() {
+        return this.maxConcurrent - this.permits.availablePermits();
+    }
+
+    public int queued() {
+        return this.queued.get();
+    }
+
+    public long rejected() {
+        return this.rejected.sum();
+    }
+}
@@ -0,0 +1,43 @@
+package com.magadiflo.app.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Reemplaza el {@link DataSource} principal por un {@link BulkheadRoutingDataSource}. Las propiedades se leen del
+ * entorno porque un post-procesador se crea antes que los beans de configuración. Cada bulkhead necesita su propio
+ * pool, así que un {@link DataSource} que no sea de Hikari detiene el arranque.
+ */
+public class BulkheadBeanPostProcessor implements BeanPostProcessor {
+    private final Environment environment;
+
+    public BulkheadBeanPostProcessor(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!(bean instanceof DataSource dataSource)) {
+            return bean;
+        }
+        try {
+            if (dataSource.isWrapperFor(BulkheadRoutingDataSource.class)) {
+                return bean;
+            }
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                throw new IllegalStateException("Los bulkheads (app.bulkhead.enabled) necesitan un DataSource de Hikari "
+                        + "para crear sus pools, pero " + beanName + " es " + bean.getClass().getName());
+            }
+            BulkheadProperties properties = Binder.get(this.environment)
+                    .bindOrCreate("app.bulkhead", BulkheadProperties.class);
+            return new BulkheadRoutingDataSource(dataSource, dataSource.unwrap(HikariDataSource.class), properties);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo preparar el DataSource " + beanName + " para los bulkheads", e);
+        }
+    }
+}
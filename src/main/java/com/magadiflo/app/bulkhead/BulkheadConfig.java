@@ -0,0 +1,36 @@
+package com.magadiflo.app.bulkhead;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.bulkhead", name = "enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    @Bean
+    public static BulkheadBeanPostProcessor bulkheadBeanPostProcessor(Environment environment) {
+        return new BulkheadBeanPostProcessor(environment);
+    }
+
+    @Bean
+    public Bulkheads bulkheads(BulkheadProperties properties, DataSource dataSource) throws SQLException {
+        return new Bulkheads(properties, dataSource.unwrap(BulkheadRoutingDataSource.class));
+    }
+
+    @Bean
+    public WebMvcConfigurer bulkheadInterceptorConfigurer(Bulkheads bulkheads) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new BulkheadInterceptor(bulkheads));
+            }
+        };
+    }
+}
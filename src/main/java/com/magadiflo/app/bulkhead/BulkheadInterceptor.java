@@ -0,0 +1,39 @@
+package com.magadiflo.app.bulkhead;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Hace pasar cada endpoint anotado con {@link BulkheadWorkload} por el bulkhead de su clase de trabajo durante toda la
+ * solicitud.
+ */
+public class BulkheadInterceptor implements HandlerInterceptor {
+    private static final String ATTRIBUTE = BulkheadInterceptor.class.getName() + ".bulkhead";
+
+    private final Bulkheads bulkheads;
+
+    public BulkheadInterceptor(Bulkheads bulkheads) {
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            BulkheadWorkload workload = method.getMethodAnnotation(BulkheadWorkload.class);
+            if (workload != null) {
+                request.setAttribute(ATTRIBUTE, this.bulkheads.enter(workload.value()));
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(ATTRIBUTE) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(ATTRIBUTE);
+            this.bulkheads.exit(bulkhead);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.magadiflo.app.bulkhead;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.bulkhead")
+public record BulkheadProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("1s") Duration retryAfter,
+                                 @DefaultValue Lane list,
+                                 @DefaultValue Lane read,
+                                 @DefaultValue Lane write) {
+
+    public Lane lane(Workload workload) {
+        return switch (workload) {
+            case LIST -> this.list;
+            case READ -> this.read;
+            case WRITE -> this.write;
+        };
+    }
+
+    /**
+     * @param poolSize      conexiones del pool propio de la clase de trabajo.
+     * @param maxConcurrent solicitudes atendidas a la vez.
+     * @param maxQueued     solicitudes esperando lugar; las demás se rechazan con 429.
+     * @param maxWait       espera máxima en la cola.
+     */
+    public record Lane(@DefaultValue("4") int poolSize,
+                       @DefaultValue("8") int maxConcurrent,
+                       @DefaultValue("16") int maxQueued,
+                       @DefaultValue("500ms") Duration maxWait) {
+    }
+}
@@ -0,0 +1,62 @@
+package com.magadiflo.app.bulkhead;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Entrega las conexiones del pool de la clase de trabajo del hilo ({@link WorkloadContext}), o del pool principal si no
+ * tiene. Los pools por clase copian la configuración del principal y cambian solo el nombre y el tamaño.
+ */
+public class BulkheadRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    private final DataSource primary;
+    private final Map<Workload, HikariDataSource> pools = new EnumMap<>(Workload.class);
+
+    public BulkheadRoutingDataSource(DataSource primary, HikariDataSource primaryPool, BulkheadProperties properties) {
+        this.primary = primary;
+        for (Workload workload : Workload.values()) {
+            BulkheadProperties.Lane lane = properties.lane(workload);
+            if (lane.poolSize() < 1) {
+                throw new IllegalArgumentException("El pool del bulkhead " + workload + " debe tener al menos una conexión");
+            }
+            HikariDataSource pool = new HikariDataSource();
+            primaryPool.copyStateTo(pool);
+            pool.setPoolName(primaryPool.getPoolName() + "-" + workload.name().toLowerCase());
+            pool.setMaximumPoolSize(lane.poolSize());
+            pool.setMinimumIdle(Math.min(lane.poolSize(), Math.max(0, primaryPool.getMinimumIdle())));
+            this.pools.put(workload, pool);
+        }
+        Map<Object, Object> targets = new HashMap<>(this.pools);
+        this.setTargetDataSources(targets);
+        this.setDefaultTargetDataSource(primary);
+        this.setLenientFallback(false);
+        this.afterPropertiesSet();
+    }
+
+    /**
+     * @return {@code null} mientras el pool no haya abierto su primera conexión.
+     */
+    public HikariPoolMXBean pool(Workload workload) {
+        return this.pools.get(workload).getHikariPoolMXBean();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (HikariDataSource pool : this.pools.values()) {
+            pool.close();
+        }
+        if (this.primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+}
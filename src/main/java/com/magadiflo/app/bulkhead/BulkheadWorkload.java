@@ -0,0 +1,17 @@
+package com.magadiflo.app.bulkhead;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Clase de trabajo de un endpoint. Sin bulkheads habilitados no tiene efecto.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface BulkheadWorkload {
+    Workload value();
+}
@@ -0,0 +1,91 @@
+package com.magadiflo.app.bulkhead;
+
+import com.magadiflo.app.deadline.RequestDeadline;
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Un {@link Bulkhead} por clase de trabajo, con sus métricas y las de su pool de conexiones.
+ */
+public class Bulkheads implements MeterBinder {
+    private final BulkheadProperties properties;
+    private final BulkheadRoutingDataSource dataSource;
+    private final Map<Workload, Bulkhead> bulkheads = new EnumMap<>(Workload.class);
+
+    public Bulkheads(BulkheadProperties properties, BulkheadRoutingDataSource dataSource) {
+        this.properties = properties;
+        this.dataSource = dataSource;
+        for (Workload workload : Workload.values()) {
+            BulkheadProperties.Lane lane = properties.lane(workload);
+            this.bulkheads.put(workload, new Bulkhead(workload, lane.maxConcurrent(), lane.maxQueued(), lane.maxWait()));
+        }
+    }
+
+    /**
+     * Ocupa un lugar de la clase de trabajo y la asocia al hilo actual. Si la solicitud tiene plazo, no espera en la
+     * cola más de lo que le queda.
+     *
+     * @throws TooManyRequestsException si la cola de la clase de trabajo está llena o se agotó la espera.
+     */
+    public Bulkhead enter(Workload workload) {
+        Bulkhead bulkhead = this.bulkheads.get(workload);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (!bulkhead.tryAcquire(deadline == null ? Long.MAX_VALUE : Math.max(0L, deadline.remainingNanos()))) {
+            throw new TooManyRequestsException("Demasiadas solicitudes de tipo " + workload.name().toLowerCase()
+                    + ", intente nuevamente", Math.max(1L, this.properties.retryAfter().toSeconds()));
+        }
+        WorkloadContext.set(workload);
+        return bulkhead;
+    }
+
+    public void exit(Bulkhead bulkhead) {
+        WorkloadContext.clear();
+        bulkhead.release();
+    }
+
+    public Bulkhead bulkhead(Workload workload) {
+        return this.bulkheads.get(workload);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Bulkhead bulkhead : this.bulkheads.values()) {
+            String workload = bulkhead.workload().name().toLowerCase();
+            Gauge.builder("accounts.bulkhead.in_flight", bulkhead, Bulkhead::inFlight)
+                    .description("Solicitudes en curso por clase de trabajo")
+                    .tag("workload", workload)
+                    .register(registry);
+            Gauge.builder("accounts.bulkhead.queued", bulkhead, Bulkhead::queued)
+                    .description("Solicitudes esperando lugar por clase de trabajo")
+                    .tag("workload", workload)
+                    .register(registry);
+            FunctionCounter.builder("accounts.bulkhead.rejected", bulkhead, Bulkhead::rejected)
+                    .description("Solicitudes rechazadas con 429 por clase de trabajo")
+                    .tag("workload", workload)
+                    .register(registry);
+            this.poolGauge(registry, "accounts.bulkhead.connections.active", "Conexiones en uso del pool",
+                    bulkhead.workload(), HikariPoolMXBean::getActiveConnections);
+            this.poolGauge(registry, "accounts.bulkhead.connections.pending", "Hilos esperando una conexión del pool",
+                    bulkhead.workload(), HikariPoolMXBean::getThreadsAwaitingConnection);
+        }
+    }
+
+    private void poolGauge(MeterRegistry registry, String name, String description, Workload workload,
+                           ToIntFunction<HikariPoolMXBean> value) {
+        Gauge.builder(name, this.dataSource, dataSource -> {
+                    HikariPoolMXBean pool = dataSource.pool(workload);
+                    return pool == null ? 0 : value.applyAsInt(pool);
+                })
+                .description(description)
+                .tag("workload", workload.name().toLowerCase())
+                .register(registry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.magadiflo.app.bulkhead;
+
+/**
+ * Clases de trabajo aisladas entre sí: cada una tiene su propio pool de conexiones y su propio límite de solicitudes
+ * concurrentes y en espera.
+ */
+public enum Workload {
+    /**
+     * Listados y exportaciones que recorren tablas completas.
+     */
+    LIST,
+    /**
+     * Lecturas puntuales por id.
+     */
+    READ,
+    /**
+     * Altas, bajas y transferencias.
+     */
+    WRITE
+}
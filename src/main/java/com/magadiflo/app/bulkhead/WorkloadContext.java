@@ -0,0 +1,24 @@
+package com.magadiflo.app.bulkhead;
+
+/**
+ * Clase de trabajo del hilo actual; la usa {@link BulkheadRoutingDataSource} para elegir el pool. Los hilos sin clase
+ * (tareas programadas, procesos en segundo plano) usan el pool principal.
+ */
+public final class WorkloadContext {
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static Workload current() {
+        return CURRENT.get();
+    }
+
+    static void set(Workload workload) {
+        CURRENT.set(workload);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+}
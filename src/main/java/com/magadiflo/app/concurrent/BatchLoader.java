@@ -0,0 +1,186 @@
+package com.magadiflo.app.concurrent;
+
+import com.magadiflo.app.deadline.RequestDeadline;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Agrupa las cargas por clave que llegan dentro de una ventana corta (o hasta completar el tamaño máximo) en una sola
+ * llamada a la función de lote. No usa hilos propios: quien abre un lote espera la ventana y lo despacha.
+ * <p>
+ * El lote corre con el plazo que vence más tarde entre quienes lo esperan (sin plazo si alguno no lo tiene). Si varias
+ * llamadas esperan la misma clave, cada una recibe el valor pasado por {@code share}, para no compartir objetos
+ * mutables entre solicitudes.
+ */
+public class BatchLoader<K, V> {
+    private final int maxBatchSize;
+    private final long windowNanos;
+    private final Function<Set<K>, Map<K, V>> batchFunction;
+    private final UnaryOperator<V> share;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchClosed = this.lock.newCondition();
+    private Batch<K, V> open;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder keys = new LongAdder();
+
+    public BatchLoader(int maxBatchSize, long windowNanos, Function<Set<K>, Map<K, V>> batchFunction) {
+        this(maxBatchSize, windowNanos, batchFunction, UnaryOperator.identity());
+    }
+
+    public BatchLoader(int maxBatchSize, long windowNanos, Function<Set<K>, Map<K, V>> batchFunction,
+                       UnaryOperator<V> share) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("El tamaño máximo del lote debe ser positivo");
+        }
+        this.maxBatchSize = maxBatchSize;
+        this.windowNanos = Math.max(0L, windowNanos);
+        this.batchFunction = batchFunction;
+        this.share = share;
+    }
+
+    public V load(K key) {
+        return this.loadAll(List.of(key)).get(key);
+    }
+
+    /**
+     * @return los valores encontrados, en el orden de las claves solicitadas; las claves sin valor no se incluyen.
+     */
+    public Map<K, V> loadAll(Collection<K> keys) {
+        Map<K, Entry<V>> entries = new LinkedHashMap<>();
+        List<Batch<K, V>> ledBatches = new ArrayList<>(1);
+        RequestDeadline deadline = RequestDeadline.current();
+        Batch<K, V> joined = null;
+
+        this.lock.lock();
+        try {
+            for (K key : keys) {
+                if (entries.containsKey(key)) {
+                    continue;
+                }
+                if (this.open == null) {
+                    this.open = new Batch<>(System.nanoTime());
+                    ledBatches.add(this.open);
+                }
+                if (joined != this.open) {
+                    joined = this.open;
+                    joined.deadlines.add(deadline);
+                }
+                Entry<V> entry = this.open.entries.computeIfAbsent(key, k -> new Entry<>());
+                entry.waiters++;
+                entries.put(key, entry);
+                if (this.open.entries.size() >= this.maxBatchSize) {
+                    this.close(this.open);
+                }
+            }
+        } finally {
+            this.lock.unlock();
+        }
+
+        for (Batch<K, V> batch : ledBatches) {
+            this.awaitWindow(batch);
+            this.dispatch(batch);
+        }
+
+        Map<K, V> values = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> {
+            V value = join(entry.future);
+            if (value != null) {
+                values.put(key, entry.waiters > 1 ? this.share.apply(value) : value);
+            }
+        });
+        return values;
+    }
+
+    public long batches() {
+        return this.batches.sum();
+    }
+
+    public long keys() {
+        return this.keys.sum();
+    }
+
+    private void awaitWindow(Batch<K, V> batch) {
+        this.lock.lock();
+        try {
+            long remaining = batch.openedAt + this.windowNanos - System.nanoTime();
+            while (!batch.closed && remaining > 0) {
+                remaining = this.batchClosed.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (!batch.closed) {
+                this.close(batch);
+            }
+            this.lock.unlock();
+        }
+    }
+
+    private void close(Batch<K, V> batch) {
+        batch.closed = true;
+        if (this.open == batch) {
+            this.open = null;
+        }
+        this.batchClosed.signalAll();
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        this.batches.increment();
+        this.keys.add(batch.entries.size());
+        try {
+            Map<K, V> values = RequestDeadline.callWith(RequestDeadline.latest(batch.deadlines),
+                    () -> this.batchFunction.apply(Collections.unmodifiableSet(batch.entries.keySet())));
+            batch.entries.forEach((key, entry) -> entry.future.complete(values.get(key)));
+        } catch (RuntimeException | Error e) {
+            batch.entries.values().forEach(entry -> entry.future.completeExceptionally(e));
+        }
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch<K, V> {
+        private final long openedAt;
+        private final Map<K, Entry<V>> entries = new LinkedHashMap<>();
+        private final List<RequestDeadline> deadlines = new ArrayList<>();
+        private boolean closed;
+
+        private Batch(long openedAt) {
+            this.openedAt = openedAt;
+        }
+    }
+
+    /**
+     * {@code waiters} solo cambia con el lock tomado y antes de cerrar el lote; se lee después de completar el valor.
+     */
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private int waiters;
+    }
+}
@@ -0,0 +1,82 @@
+package com.magadiflo.app.concurrent;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parte de un pool de conexiones que puede ocupar un proceso por rangos de ids (conciliación, intereses): como máximo
+ * {@code maxShare} de las conexiones y cediendo mientras haya peticiones esperando una. Si el pool no es Hikari, se
+ * asume un pool de una conexión y no se cede.
+ */
+public class ConnectionPoolShare {
+    private final DataSource dataSource;
+    private final double maxShare;
+    private final long backoffNanos;
+
+    public ConnectionPoolShare(DataSource dataSource, double maxShare, Duration backoff) {
+        this.dataSource = dataSource;
+        this.maxShare = maxShare;
+        this.backoffNanos = backoff.toNanos();
+    }
+
+    /**
+     * @return cuántas conexiones puede usar a la vez el proceso; al menos una.
+     */
+    public int permits() {
+        return permits(this.poolSize(), this.maxShare);
+    }
+
+    /**
+     * Espera mientras haya peticiones esperando una conexión del pool.
+     */
+    public void awaitIdlePool() throws InterruptedException {
+        HikariPoolMXBean pool = this.hikariPool();
+        while (pool != null && this.backoffNanos > 0 && pool.getThreadsAwaitingConnection() > 0) {
+            TimeUnit.NANOSECONDS.sleep(this.backoffNanos);
+        }
+    }
+
+    /**
+     * @return el primer id de cada rango de {@code chunkSize} ids entre {@code minId} y {@code maxId}.
+     */
+    public static List<Long> chunkStarts(long minId, long maxId, int chunkSize) {
+        List<Long> starts = new ArrayList<>();
+        for (long start = minId; start <= maxId; start += chunkSize) {
+            starts.add(start);
+        }
+        return starts;
+    }
+
+    static int permits(int poolSize, double share) {
+        return Math.max(1, (int) Math.floor(poolSize * share));
+    }
+
+    private int poolSize() {
+        try {
+            if (this.dataSource.isWrapperFor(HikariDataSource.class)) {
+                return this.dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+            }
+        } catch (SQLException e) {
+            return 1;
+        }
+        return 1;
+    }
+
+    private HikariPoolMXBean hikariPool() {
+        try {
+            if (this.dataSource.isWrapperFor(HikariDataSource.class)) {
+                return this.dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,81 @@
+package com.magadiflo.app.concurrent;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Agrupa las llamadas concurrentes con la misma clave: solo la primera ejecuta la carga y las demás esperan su
+ * resultado. Cada llamada que se une recibe el valor pasado por {@code share}, para no compartir objetos mutables.
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final UnaryOperator<V> share;
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    public SingleFlight(UnaryOperator<V> share) {
+        this.share = share;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = this.inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            this.shared.increment();
+            return this.share.apply(join(existing));
+        }
+
+        this.executions.increment();
+        try {
+            V value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            this.inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Desvincula la carga en curso para la clave, de modo que las siguientes llamadas lean de nuevo la fuente.
+     */
+    public void forget(K key) {
+        this.inFlight.remove(key);
+    }
+
+    public long executions() {
+        return this.executions.sum();
+    }
+
+    public long shared() {
+        return this.shared.sum();
+    }
+
+    public double coalescingRatio() {
+        long executions = this.executions.sum();
+        long shared = this.shared.sum();
+        long total = executions + shared;
+        return total == 0 ? 0D : (double) shared / total;
+    }
+
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
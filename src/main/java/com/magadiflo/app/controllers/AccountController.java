@@ -1,33 +1,80 @@
 package com.magadiflo.app.controllers;
 
+import com.magadiflo.app.balancestream.BalanceStreamHub;
+import com.magadiflo.app.bulkhead.BulkheadWorkload;
+import com.magadiflo.app.bulkhead.Workload;
+import com.magadiflo.app.engine.TransferEngine;
+import com.magadiflo.app.exceptions.OperationNotAvailableException;
+import com.magadiflo.app.groupcommit.GroupCommitTransferExecutor;
 import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.models.dto.PayrollTransferDTO;
+import com.magadiflo.app.models.dto.PayrollTransferResponseDTO;
+import com.magadiflo.app.models.dto.ScheduledTransferDTO;
 import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.models.dto.TransferResponseDTO;
+import com.magadiflo.app.netting.NettingTransferExecutor;
+import com.magadiflo.app.ratelimit.TransferRateLimiter;
+import com.magadiflo.app.scheduledtransfer.ScheduledTransfer;
+import com.magadiflo.app.scheduledtransfer.ScheduledTransferScheduler;
 import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.velocity.VelocityGuard;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.math.BigDecimal;
 import java.net.URI;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @RestController
-@RequestMapping(path = "/api/v1/accounts")
+@RequestMapping(path = "/api/v1/accounts", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
 public class AccountController {
 
     private final IAccountService accountService;
+    private final TransferRateLimiter transferRateLimiter;
+    private final VelocityGuard velocityGuard;
+    private final ObjectProvider<TransferEngine> transferEngine;
+    private final ObjectProvider<GroupCommitTransferExecutor> groupCommitExecutor;
+    private final ObjectProvider<NettingTransferExecutor> nettingExecutor;
+    private final ObjectProvider<BalanceStreamHub> balanceStreamHub;
+    private final ObjectProvider<ScheduledTransferScheduler> scheduledTransfers;
 
-    public AccountController(IAccountService accountService) {
+    public AccountController(IAccountService accountService, TransferRateLimiter transferRateLimiter,
+                             VelocityGuard velocityGuard,
+                             ObjectProvider<TransferEngine> transferEngine,
+                             ObjectProvider<GroupCommitTransferExecutor> groupCommitExecutor,
+                             ObjectProvider<NettingTransferExecutor> nettingExecutor,
+                             ObjectProvider<BalanceStreamHub> balanceStreamHub,
+                             ObjectProvider<ScheduledTransferScheduler> scheduledTransfers) {
         this.accountService = accountService;
+        this.transferRateLimiter = transferRateLimiter;
+        this.velocityGuard = velocityGuard;
+        this.transferEngine = transferEngine;
+        this.groupCommitExecutor = groupCommitExecutor;
+        this.nettingExecutor = nettingExecutor;
+        this.balanceStreamHub = balanceStreamHub;
+        this.scheduledTransfers = scheduledTransfers;
     }
 
+    @BulkheadWorkload(Workload.LIST)
     @GetMapping
     public ResponseEntity<List<Account>> listAllAccounts() {
         return ResponseEntity.ok(this.accountService.findAll());
     }
 
+    @BulkheadWorkload(Workload.READ)
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Account>> listAccountsById(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(this.accountService.findAllById(ids));
+    }
+
+    @BulkheadWorkload(Workload.READ)
     @GetMapping(path = "/{id}")
     public ResponseEntity<Account> details(@PathVariable Long id) {
         return this.accountService.findById(id)
@@ -35,31 +82,122 @@ public class AccountController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @PostMapping
+    @GetMapping(path = "/stream", params = "ids", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamBalances(@RequestParam List<Long> ids) {
+        BalanceStreamHub hub = this.balanceStreamHub.getIfAvailable();
+        if (hub == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.ok(hub.subscribe(ids));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @BulkheadWorkload(Workload.WRITE)
+    @PostMapping(consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
     public ResponseEntity<Account> saveAccount(@RequestBody Account account) {
+        if (account.getId() != null) {
+            this.requireDatabaseBalances("La actualización de cuentas");
+        }
         Account accountDB = this.accountService.save(account);
         URI accountURI = URI.create("/api/v1/accounts/" + accountDB.getId());
         return ResponseEntity.created(accountURI).body(accountDB);
     }
 
-    @PostMapping(path = "/transfer")
-    public ResponseEntity<?> transfer(@RequestBody TransactionDTO dto) {
-        this.accountService.transfer(dto.bankId(), dto.accountIdOrigin(), dto.accountIdDestination(), dto.amount());
+    @BulkheadWorkload(Workload.WRITE)
+    @PostMapping(path = "/transfer", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<TransferResponseDTO> transfer(@RequestBody TransactionDTO dto, HttpServletRequest request) {
+        this.transferRateLimiter.acquire(dto.accountIdOrigin(), request);
+        try {
+            this.executeTransfer(dto);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } finally {
+            this.transferRateLimiter.release();
+        }
+        return ResponseEntity.ok(TransferResponseDTO.of(dto));
+    }
+
+    @BulkheadWorkload(Workload.WRITE)
+    @PostMapping(path = "/transfer/payroll", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<PayrollTransferResponseDTO> transferPayroll(@RequestBody PayrollTransferDTO dto, HttpServletRequest request) {
+        this.requireDatabaseBalances("La transferencia de planillas");
+        try {
+            dto.validate();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        this.transferRateLimiter.acquire(dto.accountIdOrigin(), request);
+        try {
+            this.accountService.transferToMany(dto.bankId(), dto.accountIdOrigin(), dto.credits());
+        } finally {
+            this.transferRateLimiter.release();
+        }
+        BigDecimal total = dto.credits().stream().map(PayrollCreditDTO::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        return ResponseEntity.ok(new PayrollTransferResponseDTO(LocalDateTime.now(), HttpStatus.OK.value(),
+                PayrollTransferResponseDTO.MESSAGE, dto.accountIdOrigin(), dto.credits().size(), total));
+    }
 
-        Map<String, Object> response = new HashMap<>();
-        response.put("datetime", LocalDateTime.now());
-        response.put("status", HttpStatus.OK);
-        response.put("code", HttpStatus.OK.value());
-        response.put("message", "transferencia exitosa");
-        response.put("transaction", dto);
+    @BulkheadWorkload(Workload.WRITE)
+    @PostMapping(path = "/transfer/scheduled", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<ScheduledTransfer> scheduleTransfer(@RequestBody ScheduledTransferDTO dto) {
+        ScheduledTransferScheduler scheduler = this.scheduledTransfers.getIfAvailable();
+        if (scheduler == null) {
+            return ResponseEntity.notFound().build();
+        }
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(scheduler.schedule(dto.bankId(), dto.accountIdOrigin(),
+                    dto.accountIdDestination(), dto.amount(), dto.executeAt()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
 
-        return ResponseEntity.ok(response);
+    @BulkheadWorkload(Workload.WRITE)
+    @DeleteMapping(path = "/transfer/scheduled/{id}")
+    public ResponseEntity<?> cancelScheduledTransfer(@PathVariable Long id) {
+        ScheduledTransferScheduler scheduler = this.scheduledTransfers.getIfAvailable();
+        if (scheduler == null || !scheduler.cancel(id)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
     }
 
+    @BulkheadWorkload(Workload.WRITE)
     @DeleteMapping(path = "/{id}")
     public ResponseEntity<?> deleteAccount(@PathVariable Long id) {
+        this.requireDatabaseBalances("La eliminación de cuentas");
         return this.accountService.deleteAccountById(id)
                 .map(isDeleted -> ResponseEntity.noContent().build())
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
+
+    private void requireDatabaseBalances(String operation) {
+        if (this.transferEngine.getIfAvailable() != null || this.nettingExecutor.getIfAvailable() != null) {
+            throw new OperationNotAvailableException(operation + " no está disponible mientras los saldos se administran en memoria");
+        }
+    }
+
+    private void executeTransfer(TransactionDTO dto) {
+        TransferEngine engine = this.transferEngine.getIfAvailable();
+        if (engine != null) {
+            this.velocityGuard.runAdmitted(dto.accountIdOrigin(), dto.amount(), () ->
+                    engine.transfer(dto.bankId(), dto.accountIdOrigin(), dto.accountIdDestination(), dto.amount()));
+            return;
+        }
+        NettingTransferExecutor netting = this.nettingExecutor.getIfAvailable();
+        if (netting != null) {
+            this.velocityGuard.runAdmitted(dto.accountIdOrigin(), dto.amount(), () ->
+                    netting.transfer(dto.bankId(), dto.accountIdOrigin(), dto.accountIdDestination(), dto.amount()));
+            return;
+        }
+        GroupCommitTransferExecutor groupCommit = this.groupCommitExecutor.getIfAvailable();
+        if (groupCommit != null) {
+            groupCommit.transfer(dto.bankId(), dto.accountIdOrigin(), dto.accountIdDestination(), dto.amount());
+            return;
+        }
+        this.accountService.transfer(dto.bankId(), dto.accountIdOrigin(), dto.accountIdDestination(), dto.amount());
+    }
 }
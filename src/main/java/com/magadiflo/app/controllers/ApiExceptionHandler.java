@@ -0,0 +1,55 @@
+package com.magadiflo.app.controllers;
+
+import com.magadiflo.app.exceptions.DeadlineExceededException;
+import com.magadiflo.app.exceptions.OperationNotAvailableException;
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<?> tooManyRequests(TooManyRequestsException exception) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("datetime", LocalDateTime.now());
+        response.put("status", HttpStatus.TOO_MANY_REQUESTS);
+        response.put("code", HttpStatus.TOO_MANY_REQUESTS.value());
+        response.put("message", exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(exception.getRetryAfterSeconds()))
+                .body(response);
+    }
+
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class, TransactionTimedOutException.class})
+    public ResponseEntity<?> deadlineExceeded(RuntimeException exception) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("datetime", LocalDateTime.now());
+        response.put("status", HttpStatus.GATEWAY_TIMEOUT);
+        response.put("code", HttpStatus.GATEWAY_TIMEOUT.value());
+        response.put("message", exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(response);
+    }
+
+    @ExceptionHandler(OperationNotAvailableException.class)
+    public ResponseEntity<?> operationNotAvailable(OperationNotAvailableException exception) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("datetime", LocalDateTime.now());
+        response.put("status", HttpStatus.CONFLICT);
+        response.put("code", HttpStatus.CONFLICT.value());
+        response.put("message", exception.getMessage());
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+}
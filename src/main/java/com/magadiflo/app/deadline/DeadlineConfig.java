@@ -0,0 +1,60 @@
+package com.magadiflo.app.deadline;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.deadline", name = "enabled", havingValue = "true")
+public class DeadlineConfig {
+
+    @Bean
+    public static BeanPostProcessor queryTimeoutExceptionOverride() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource pool && pool.getExceptionOverrideClassName() == null) {
+                    pool.setExceptionOverrideClassName(QueryTimeoutExceptionOverride.class.getName());
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public DeadlineMetrics deadlineMetrics() {
+        return new DeadlineMetrics();
+    }
+
+    /**
+     * Reemplaza al {@code JpaTransactionManager} autoconfigurado, con los mismos personalizadores.
+     */
+    @Bean
+    public PlatformTransactionManager transactionManager(DeadlineMetrics metrics,
+                                                         ObjectProvider<TransactionManagerCustomizers> customizers) {
+        DeadlineJpaTransactionManager transactionManager = new DeadlineJpaTransactionManager(metrics);
+        customizers.ifAvailable(transactionManagerCustomizers -> transactionManagerCustomizers.customize(transactionManager));
+        return transactionManager;
+    }
+
+    /**
+     * Antes que cualquier otro interceptor, para que la espera en los bulkheads también consuma el plazo.
+     */
+    @Bean
+    public WebMvcConfigurer deadlineInterceptorConfigurer(DeadlineProperties properties, DeadlineMetrics metrics) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new DeadlineInterceptor(properties, metrics)).order(Ordered.HIGHEST_PRECEDENCE);
+            }
+        };
+    }
+}
@@ -0,0 +1,77 @@
+package com.magadiflo.app.deadline;
+
+import com.magadiflo.app.exceptions.DeadlineExceededException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Fija el plazo de cada solicitud: el del encabezado del cliente (acotado por {@code max-timeout}) o, si no lo envía o
+ * no es válido, el del endpoint. Un plazo ya vencido se rechaza antes de llegar al controlador. Las respuestas
+ * asíncronas (SSE) solo tienen plazo mientras el controlador prepara la respuesta.
+ */
+public class DeadlineInterceptor implements AsyncHandlerInterceptor {
+    private final DeadlineProperties properties;
+    private final DeadlineMetrics metrics;
+
+    public DeadlineInterceptor(DeadlineProperties properties, DeadlineMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        Duration budget = this.requestedTimeout(request);
+        if (budget == null) {
+            budget = this.properties.timeoutFor(method.getMethod().getName());
+        }
+        this.metrics.requestStarted();
+        if (budget.isZero()) {
+            this.metrics.requestExceeded();
+            throw new DeadlineExceededException("Se agotó el plazo de la solicitud antes de atenderla");
+        }
+        RequestDeadline.set(RequestDeadline.after(budget));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            RequestDeadline.clear();
+            if (deadline.expired()) {
+                this.metrics.requestExceeded();
+            }
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDeadline.clear();
+    }
+
+    private Duration requestedTimeout(HttpServletRequest request) {
+        String value = request.getHeader(this.properties.header());
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            Duration timeout = DurationStyle.detectAndParse(value.trim(), ChronoUnit.MILLIS);
+            if (timeout.isNegative()) {
+                return null;
+            }
+            return timeout.compareTo(this.properties.maxTimeout()) > 0 ? this.properties.maxTimeout() : timeout;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
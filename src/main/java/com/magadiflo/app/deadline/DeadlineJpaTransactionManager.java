@@ -0,0 +1,41 @@
+package com.magadiflo.app.deadline;
+
+import com.magadiflo.app.exceptions.DeadlineExceededException;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Acota el timeout de cada transacción a lo que queda del plazo de la solicitud. Hibernate aplica ese timeout a cada
+ * sentencia con {@code Statement.setQueryTimeout} (y {@code JdbcTemplate} hace lo mismo dentro de la transacción), así
+ * que una consulta no sigue corriendo, con su conexión y sus bloqueos, cuando el cliente ya se fue. Si el plazo ya
+ * venció, la transacción no se inicia y no se pide conexión.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+    private final DeadlineMetrics metrics;
+
+    public DeadlineJpaTransactionManager(DeadlineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected Object doGetTransaction() {
+        try {
+            RequestDeadline.checkCurrent();
+        } catch (DeadlineExceededException e) {
+            this.metrics.transactionAborted();
+            throw e;
+        }
+        return super.doGetTransaction();
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+        int remaining = deadline.remainingSeconds();
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(timeout, remaining);
+    }
+}
@@ -0,0 +1,50 @@
+package com.magadiflo.app.deadline;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.LongAdder;
+
+public class DeadlineMetrics implements MeterBinder {
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder exceeded = new LongAdder();
+    private final LongAdder aborted = new LongAdder();
+
+    void requestStarted() {
+        this.requests.increment();
+    }
+
+    void requestExceeded() {
+        this.exceeded.increment();
+    }
+
+    void transactionAborted() {
+        this.aborted.increment();
+    }
+
+    public long requests() {
+        return this.requests.sum();
+    }
+
+    public long exceeded() {
+        return this.exceeded.sum();
+    }
+
+    public long aborted() {
+        return this.aborted.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.deadline.requests", this.requests, LongAdder::sum)
+                .description("Solicitudes atendidas con plazo")
+                .register(registry);
+        FunctionCounter.builder("accounts.deadline.exceeded", this.exceeded, LongAdder::sum)
+                .description("Solicitudes que terminaron con el plazo vencido")
+                .register(registry);
+        FunctionCounter.builder("accounts.deadline.aborted", this.aborted, LongAdder::sum)
+                .description("Transacciones no iniciadas porque el plazo ya había vencido")
+                .register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package com.magadiflo.app.deadline;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * @param header         encabezado con el plazo del cliente, en milisegundos o como duración ({@code 2s}).
+ * @param defaultTimeout plazo de los endpoints sin valor propio cuando el cliente no envía el encabezado.
+ * @param maxTimeout     tope para el plazo pedido por el cliente.
+ * @param endpoints      plazo por defecto por endpoint, con el nombre del método del controlador como clave.
+ */
+@ConfigurationProperties(prefix = "app.deadline")
+public record DeadlineProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("X-Request-Timeout") String header,
+                                 @DefaultValue("10s") Duration defaultTimeout,
+                                 @DefaultValue("60s") Duration maxTimeout,
+                                 Map<String, Duration> endpoints) {
+
+    public Duration timeoutFor(String endpoint) {
+        Duration timeout = this.endpoints == null ? null : this.endpoints.get(endpoint);
+        return timeout == null ? this.defaultTimeout : timeout;
+    }
+}
@@ -0,0 +1,22 @@
+package com.magadiflo.app.deadline;
+
+import com.zaxxer.hikari.SQLExceptionOverride;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+
+/**
+ * Hikari da por rota la conexión cuando una sentencia se cancela ({@code SQLSTATE 57014}), y entonces el rollback
+ * falla y oculta el timeout. Una sentencia cancelada por su timeout no invalida la conexión: se devuelve al pool.
+ */
+public class QueryTimeoutExceptionOverride implements SQLExceptionOverride {
+    private static final String QUERY_CANCELED = "57014";
+
+    @java.lang.Override
+    public Override adjudicate(SQLException exception) {
+        if (exception instanceof SQLTimeoutException || QUERY_CANCELED.equals(exception.getSQLState())) {
+            return Override.DO_NOT_EVICT;
+        }
+        return Override.CONTINUE_EVICT;
+    }
+}
@@ -0,0 +1,118 @@
+package com.magadiflo.app.deadline;
+
+import com.magadiflo.app.exceptions.DeadlineExceededException;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Plazo de la solicitud que atiende el hilo actual, medido con {@link System#nanoTime()}. Los hilos sin solicitud
+ * (tareas programadas, procesos en segundo plano) no tienen plazo.
+ */
+public final class RequestDeadline {
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final Duration budget;
+    private final long expiresAtNanos;
+
+    private RequestDeadline(Duration budget, long expiresAtNanos) {
+        this.budget = budget;
+        this.expiresAtNanos = expiresAtNanos;
+    }
+
+    public static RequestDeadline after(Duration budget) {
+        return new RequestDeadline(budget, System.nanoTime() + budget.toNanos());
+    }
+
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Ejecuta {@code work} con un plazo propio, por ejemplo fuera de una solicitud HTTP.
+     */
+    public static <T> T call(Duration budget, Supplier<T> work) {
+        return callWith(after(budget), work);
+    }
+
+    /**
+     * Ejecuta {@code work} con el plazo indicado, o sin plazo si es {@code null}, en lugar del plazo del hilo actual.
+     * Es lo que corresponde al trabajo compartido por varias solicitudes, que no debe quedar sujeto al plazo de la que
+     * lo despacha.
+     */
+    public static <T> T callWith(RequestDeadline deadline, Supplier<T> work) {
+        RequestDeadline previous = CURRENT.get();
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return el plazo que vence más tarde, o {@code null} si alguno de los plazos es {@code null} (sin plazo).
+     */
+    public static RequestDeadline latest(Collection<RequestDeadline> deadlines) {
+        RequestDeadline latest = null;
+        for (RequestDeadline deadline : deadlines) {
+            if (deadline == null) {
+                return null;
+            }
+            if (latest == null || deadline.expiresAtNanos - latest.expiresAtNanos > 0) {
+                latest = deadline;
+            }
+        }
+        return latest;
+    }
+
+    /**
+     * @throws DeadlineExceededException si el hilo actual tiene un plazo y ya venció.
+     */
+    public static void checkCurrent() {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline != null && deadline.expired()) {
+            throw new DeadlineExceededException("Se agotó el plazo de " + deadline.budget.toMillis() + " ms de la solicitud");
+        }
+    }
+
+    static void set(RequestDeadline deadline) {
+        CURRENT.set(deadline);
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public Duration budget() {
+        return this.budget;
+    }
+
+    public long remainingNanos() {
+        return this.expiresAtNanos - System.nanoTime();
+    }
+
+    public boolean expired() {
+        return this.remainingNanos() <= 0;
+    }
+
+    /**
+     * Lo que queda del plazo redondeado hacia arriba, con un mínimo de un segundo: es la unidad de los timeouts de
+     * transacción y de {@link java.sql.Statement#setQueryTimeout}.
+     */
+    public int remainingSeconds() {
+        long remaining = Math.max(0L, this.remainingNanos());
+        return (int) Math.max(1L, Math.min(Integer.MAX_VALUE,
+                TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1)));
+    }
+}
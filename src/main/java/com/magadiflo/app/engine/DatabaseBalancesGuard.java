@@ -0,0 +1,40 @@
+package com.magadiflo.app.engine;
+
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rechaza al iniciar las funciones que dependen de los eventos que publica {@code AccountServiceImpl} (outbox,
+ * stream de saldos) cuando las transferencias se aplican por otro camino que no los publica.
+ */
+public final class DatabaseBalancesGuard {
+    private static final Map<String, String> OTHER_TRANSFER_PATHS = new LinkedHashMap<>();
+
+    static {
+        OTHER_TRANSFER_PATHS.put("app.transfer-engine.enabled", "el motor de transferencias");
+        OTHER_TRANSFER_PATHS.put("app.netting.enabled", "la compensación diferida");
+        OTHER_TRANSFER_PATHS.put("app.sharding.enabled", "las cuentas particionadas");
+    }
+
+    private DatabaseBalancesGuard() {
+    }
+
+    /**
+     * @param feature       nombre de la función que se está iniciando, para el mensaje.
+     * @param ownerProperty propiedad que la habilita.
+     * @throws IllegalStateException si las transferencias se aplican por un camino que no publica los eventos.
+     */
+    public static void requireDatabaseBalances(Environment environment, String feature, String ownerProperty) {
+        List<String> conflicts = OTHER_TRANSFER_PATHS.entrySet().stream()
+                .filter(path -> environment.getProperty(path.getKey(), Boolean.class, false))
+                .map(path -> path.getValue() + " (" + path.getKey() + ")")
+                .toList();
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException(feature + " (" + ownerProperty + ") solo recibe las transferencias aplicadas "
+                    + "en la base de datos principal y no puede habilitarse junto con " + String.join(", ", conflicts));
+        }
+    }
+}
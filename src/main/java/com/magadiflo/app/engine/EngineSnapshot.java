@@ -0,0 +1,52 @@
+package com.magadiflo.app.engine;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Variaciones de saldo (en centavos) y de total de transferencias acumuladas hasta {@code sequence}. Se persisten como
+ * incrementos para no pisar lo que otros escritores hayan guardado en las mismas filas.
+ */
+public record EngineSnapshot(long sequence, long[] accountIds, long[] balanceDeltas, long[] bankIds,
+                             long[] transferDeltas) {
+
+    public boolean isEmpty() {
+        return this.accountIds.length == 0 && this.bankIds.length == 0;
+    }
+
+    /**
+     * Combina una instantánea anterior no persistida con esta sumando las variaciones de cada id.
+     */
+    public EngineSnapshot mergeOlder(EngineSnapshot older) {
+        if (older == null) {
+            return this;
+        }
+        Merged accounts = merge(older.accountIds, older.balanceDeltas, this.accountIds, this.balanceDeltas);
+        Merged banks = merge(older.bankIds, older.transferDeltas, this.bankIds, this.transferDeltas);
+        return new EngineSnapshot(Math.max(this.sequence, older.sequence), accounts.ids, accounts.values, banks.ids, banks.values);
+    }
+
+    private static Merged merge(long[] olderIds, long[] olderValues, long[] newerIds, long[] newerValues) {
+        long[] ids = Arrays.copyOf(newerIds, newerIds.length + olderIds.length);
+        long[] values = Arrays.copyOf(newerValues, newerValues.length + olderValues.length);
+        Map<Long, Integer> positions = new HashMap<>(newerIds.length * 2);
+        for (int i = 0; i < newerIds.length; i++) {
+            positions.put(newerIds[i], i);
+        }
+        int size = newerIds.length;
+        for (int i = 0; i < olderIds.length; i++) {
+            Integer position = positions.get(olderIds[i]);
+            if (position != null) {
+                values[position] += olderValues[i];
+            } else {
+                ids[size] = olderIds[i];
+                values[size++] = olderValues[i];
+            }
+        }
+        return new Merged(Arrays.copyOf(ids, size), Arrays.copyOf(values, size));
+    }
+
+    private record Merged(long[] ids, long[] values) {
+    }
+}
@@ -0,0 +1,42 @@
+package com.magadiflo.app.engine;
+
+import org.springframework.core.env.Environment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Los modos que mantienen saldos en memoria (el motor de transferencias y la compensación diferida) validan contra su
+ * propia copia de los saldos, así que no pueden convivir con otras funciones que escriben saldos por su cuenta.
+ */
+public final class InMemoryBalanceGuard {
+    private static final Map<String, String> BALANCE_WRITERS = new LinkedHashMap<>();
+
+    static {
+        BALANCE_WRITERS.put("app.transfer-engine.enabled", "el motor de transferencias");
+        BALANCE_WRITERS.put("app.netting.enabled", "la compensación diferida");
+        BALANCE_WRITERS.put("app.scheduled-transfers.enabled", "las transferencias programadas");
+        BALANCE_WRITERS.put("app.interest.enabled", "el abono de intereses");
+        BALANCE_WRITERS.put("app.sharding.enabled", "las cuentas particionadas");
+    }
+
+    private InMemoryBalanceGuard() {
+    }
+
+    /**
+     * @param ownerProperty propiedad que habilita el modo en memoria que se está iniciando.
+     * @throws IllegalStateException si otra función que escribe saldos está habilitada.
+     */
+    public static void requireExclusive(Environment environment, String ownerProperty) {
+        List<String> conflicts = BALANCE_WRITERS.entrySet().stream()
+                .filter(writer -> !writer.getKey().equals(ownerProperty))
+                .filter(writer -> environment.getProperty(writer.getKey(), Boolean.class, false))
+                .map(writer -> writer.getValue() + " (" + writer.getKey() + ")")
+                .toList();
+        if (!conflicts.isEmpty()) {
+            throw new IllegalStateException(BALANCE_WRITERS.get(ownerProperty) + " administra los saldos en memoria y no "
+                    + "puede habilitarse junto con " + String.join(", ", conflicts));
+        }
+    }
+}
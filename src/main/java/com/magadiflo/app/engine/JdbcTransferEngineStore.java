@@ -0,0 +1,105 @@
+package com.magadiflo.app.engine;
+
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.OptionalLong;
+
+public class JdbcTransferEngineStore implements TransferEngineStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcTransferEngineStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public long loadCheckpoint() {
+        List<Long> sequences = this.jdbcTemplate.queryForList(
+                "SELECT last_sequence FROM transfer_engine_checkpoints WHERE id = 1", Long.class);
+        return sequences.isEmpty() ? 0L : sequences.get(0);
+    }
+
+    @Override
+    public void loadAccounts(BalanceConsumer consumer) {
+        this.jdbcTemplate.query("SELECT id, balance FROM accounts",
+                resultSet -> {
+                    consumer.accept(resultSet.getLong(1), toCents(resultSet.getBigDecimal(2)));
+                });
+    }
+
+    @Override
+    public void loadBanks(BalanceConsumer consumer) {
+        this.jdbcTemplate.query("SELECT id, total_transfers FROM banks",
+                resultSet -> {
+                    consumer.accept(resultSet.getLong(1), resultSet.getLong(2));
+                });
+    }
+
+    @Override
+    public OptionalLong loadAccountBalance(long accountId) {
+        List<BigDecimal> balances = this.jdbcTemplate.queryForList(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+        return balances.isEmpty() ? OptionalLong.empty() : OptionalLong.of(toCents(balances.get(0)));
+    }
+
+    @Override
+    public OptionalLong loadBankTotalTransfers(long bankId) {
+        List<Long> totals = this.jdbcTemplate.queryForList(
+                "SELECT total_transfers FROM banks WHERE id = ?", Long.class, bankId);
+        return totals.isEmpty() ? OptionalLong.empty() : OptionalLong.of(totals.get(0));
+    }
+
+    @Override
+    public void persist(EngineSnapshot snapshot) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.batchUpdate("UPDATE accounts SET balance = balance + ? WHERE id = ?", snapshot.accountIds(), snapshot.balanceDeltas(), true);
+            this.batchUpdate("UPDATE banks SET total_transfers = total_transfers + ? WHERE id = ?", snapshot.bankIds(), snapshot.transferDeltas(), false);
+            int updated = this.jdbcTemplate.update(
+                    "UPDATE transfer_engine_checkpoints SET last_sequence = ? WHERE id = 1", snapshot.sequence());
+            if (updated == 0) {
+                this.jdbcTemplate.update(
+                        "INSERT INTO transfer_engine_checkpoints(id, last_sequence) VALUES(1, ?)", snapshot.sequence());
+            }
+        });
+    }
+
+    private void batchUpdate(String sql, long[] ids, long[] values, boolean money) {
+        if (ids.length == 0) {
+            return;
+        }
+        int[] counts = this.jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                if (money) {
+                    ps.setBigDecimal(1, TransferEngine.toAmount(values[i]));
+                } else {
+                    ps.setLong(1, values[i]);
+                }
+                ps.setLong(2, ids[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return ids.length;
+            }
+        });
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new IllegalStateException("No se pudo persistir el id " + ids[i] + " del motor de transferencias: la fila ya no existe");
+            }
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+}
@@ -0,0 +1,416 @@
+package com.magadiflo.app.engine;
+
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.exceptions.OperationNotAvailableException;
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongFunction;
+
+/**
+ * Motor de transferencias en memoria. Los saldos viven en arreglos {@code long} (centavos) indexados por id y los
+ * modifica un único hilo escritor alimentado por un buffer circular acotado. Cada transferencia aceptada se agrega al
+ * {@link WriteAheadLog} y se confirma al llamador solo después de forzar el log a disco. Un hilo aparte persiste
+ * periódicamente las variaciones de saldo como incrementos sobre la base de datos; al arrancar, el estado se reconstruye con el último checkpoint de la base de
+ * datos más los registros posteriores del log.
+ */
+public class TransferEngine implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TransferEngine.class);
+    private static final int SCALE = 2;
+
+    private final TransferEngineProperties properties;
+    private final TransferEngineStore store;
+    private final BlockingQueue<Command> ring;
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService persister;
+    private final Thread writer;
+
+    private final Ledger accounts;
+    private final Ledger banks;
+    private long sequence;
+
+    private final Object pendingLock = new Object();
+    private final ReentrantLock persistLock = new ReentrantLock();
+    private EngineSnapshot pending;
+    private long persistedSequence;
+    private volatile boolean running;
+
+    public TransferEngine(TransferEngineProperties properties, TransferEngineStore store) {
+        this.properties = properties;
+        this.store = store;
+        this.ring = new ArrayBlockingQueue<>(properties.ringSize());
+        this.wal = new WriteAheadLog(properties.walPath(), properties.walMaxRecords());
+        this.accounts = new Ledger(properties.maxAccounts());
+        this.banks = new Ledger(properties.maxBanks());
+        this.writer = new Thread(this::writeLoop, "transfer-engine-writer");
+        this.persister = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "transfer-engine-persister");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        this.recover();
+        this.running = true;
+        this.writer.start();
+        long interval = this.properties.persistInterval().toMillis();
+        this.persister.scheduleWithFixedDelay(this::checkpointQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ejecuta la transferencia y espera a que quede registrada en el log.
+     *
+     * @return la secuencia asignada a la transferencia.
+     * @throws IllegalArgumentException si falta algún id o el monto no es positivo o tiene más de dos decimales.
+     */
+    public long transfer(Long bankId, Long accountIdOrigen, Long accountIdDestination, BigDecimal amount) {
+        TransactionDTO.validate(bankId, accountIdOrigen, accountIdDestination, amount);
+        long cents = amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        TransferCommand command = new TransferCommand(bankId, accountIdOrigen, accountIdDestination, cents);
+        this.submit(command);
+        return join(command.result);
+    }
+
+    /**
+     * Fuerza la persistencia de los saldos modificados hasta el momento.
+     */
+    public void checkpoint() {
+        CheckpointCommand command = new CheckpointCommand();
+        this.submit(command);
+        join(command.result);
+        this.persistPending();
+    }
+
+    @Override
+    public void close() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+        this.persister.shutdown();
+        try {
+            this.writer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.stage(this.snapshot());
+        this.persistPending();
+        this.wal.close();
+    }
+
+    private void submit(Command command) {
+        if (!this.running) {
+            throw new IllegalStateException("El motor de transferencias no está en ejecución");
+        }
+        try {
+            if (!this.ring.offer(command, this.properties.submitTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new TooManyRequestsException("Motor de transferencias saturado, intente nuevamente", 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Transferencia interrumpida", e);
+        }
+    }
+
+    private void recover() {
+        long checkpoint = this.store.loadCheckpoint();
+        this.persistedSequence = checkpoint;
+        this.store.loadAccounts(this.accounts::load);
+        this.store.loadBanks(this.banks::load);
+        this.sequence = this.wal.replay(checkpoint, (sequence, bankId, origin, destination, amount) -> {
+            this.accounts.add(origin, -amount);
+            this.accounts.add(destination, amount);
+            this.banks.add(bankId, 1);
+        });
+        if (this.sequence > checkpoint) {
+            log.info("Motor de transferencias: {} transferencias recuperadas del log", this.sequence - checkpoint);
+        }
+        this.stage(this.snapshot());
+        this.persistPending();
+        this.wal.reset();
+    }
+
+    private void writeLoop() {
+        List<Command> batch = new ArrayList<>(this.properties.maxBatchSize());
+        List<TransferCommand> accepted = new ArrayList<>(this.properties.maxBatchSize());
+        while (this.running || !this.ring.isEmpty()) {
+            try {
+                Command first = this.ring.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                this.ring.drainTo(batch, this.properties.maxBatchSize() - 1);
+                for (Command command : batch) {
+                    if (command instanceof TransferCommand transfer) {
+                        this.apply(transfer, accepted);
+                    } else if (command instanceof CheckpointCommand checkpoint) {
+                        this.flush(accepted);
+                        this.stage(this.snapshot());
+                        checkpoint.result.complete(null);
+                    }
+                }
+                this.flush(accepted);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Error en el escritor del motor de transferencias", e);
+                batch.forEach(command -> command.fail(e));
+                accepted.clear();
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void apply(TransferCommand command, List<TransferCommand> accepted) {
+        try {
+            if (!this.accounts.ensureLoaded(command.accountIdOrigen, this.store::loadAccountBalance)) {
+                throw new NoSuchElementException("No existe el id de la cuenta origen");
+            }
+            if (!this.accounts.ensureLoaded(command.accountIdDestination, this.store::loadAccountBalance)) {
+                throw new NoSuchElementException("No existe el id de la cuenta destino");
+            }
+            if (this.accounts.get(command.accountIdOrigen) - command.amount < 0) {
+                throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
+            }
+            if (!this.banks.ensureLoaded(command.bankId, this.store::loadBankTotalTransfers)) {
+                throw new NoSuchElementException("No existe el id del banco");
+            }
+        } catch (RuntimeException e) {
+            command.result.completeExceptionally(e);
+            return;
+        }
+
+        if (!this.wal.hasRoom()) {
+            this.flush(accepted);
+            this.stage(this.snapshot());
+            this.persistPending();
+            this.wal.reset();
+        }
+        command.sequence = ++this.sequence;
+        this.wal.append(command.sequence, command.bankId, command.accountIdOrigen, command.accountIdDestination, command.amount);
+        this.accounts.add(command.accountIdOrigen, -command.amount);
+        this.accounts.add(command.accountIdDestination, command.amount);
+        this.banks.add(command.bankId, 1);
+        accepted.add(command);
+    }
+
+    private void flush(List<TransferCommand> accepted) {
+        if (accepted.isEmpty()) {
+            return;
+        }
+        this.wal.force();
+        for (TransferCommand command : accepted) {
+            command.result.complete(command.sequence);
+        }
+        accepted.clear();
+    }
+
+    private EngineSnapshot snapshot() {
+        long[][] accountState = this.accounts.drainDirty();
+        long[][] bankState = this.banks.drainDirty();
+        return new EngineSnapshot(this.sequence, accountState[0], accountState[1], bankState[0], bankState[1]);
+    }
+
+    private void checkpointQuietly() {
+        try {
+            this.checkpoint();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo persistir el checkpoint del motor de transferencias: {}", e.getMessage());
+        }
+    }
+
+    private void stage(EngineSnapshot snapshot) {
+        synchronized (this.pendingLock) {
+            this.pending = snapshot.mergeOlder(this.pending);
+        }
+    }
+
+    /**
+     * Suma en la base de datos las variaciones acumuladas. Las escrituras se serializan para que el checkpoint avance
+     * en orden; si falla, la instantánea vuelve a quedar pendiente y se combina con la siguiente.
+     */
+    private void persistPending() {
+        this.persistLock.lock();
+        try {
+            EngineSnapshot snapshot;
+            synchronized (this.pendingLock) {
+                snapshot = this.pending;
+                this.pending = null;
+            }
+            if (snapshot == null || (snapshot.isEmpty() && snapshot.sequence() <= this.persistedSequence)) {
+                return;
+            }
+            try {
+                this.store.persist(snapshot);
+                this.persistedSequence = snapshot.sequence();
+            } catch (RuntimeException e) {
+                synchronized (this.pendingLock) {
+                    this.pending = this.pending == null ? snapshot : this.pending.mergeOlder(snapshot);
+                }
+                throw e;
+            }
+        } finally {
+            this.persistLock.unlock();
+        }
+    }
+
+    private static <T> T join(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    private abstract static sealed class Command permits TransferCommand, CheckpointCommand {
+        abstract void fail(RuntimeException e);
+    }
+
+    private static final class TransferCommand extends Command {
+        private final long bankId;
+        private final long accountIdOrigen;
+        private final long accountIdDestination;
+        private final long amount;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private long sequence;
+
+        private TransferCommand(Long bankId, Long accountIdOrigen, Long accountIdDestination, long amount) {
+            this.bankId = bankId;
+            this.accountIdOrigen = accountIdOrigen;
+            this.accountIdDestination = accountIdDestination;
+            this.amount = amount;
+        }
+
+        @Override
+        void fail(RuntimeException e) {
+            this.result.completeExceptionally(e);
+        }
+    }
+
+    private static final class CheckpointCommand extends Command {
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        @Override
+        void fail(RuntimeException e) {
+            this.result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Valores indexados por id con marca de presencia y variación acumulada de los ids modificados desde la última
+     * instantánea.
+     */
+    private static final class Ledger {
+        private final int maxIds;
+        private long[] values = new long[1024];
+        private long[] deltas = new long[1024];
+        private boolean[] present = new boolean[1024];
+        private boolean[] dirty = new boolean[1024];
+        private long[] dirtyIds = new long[64];
+        private int dirtyCount;
+
+        private Ledger(int maxIds) {
+            this.maxIds = maxIds;
+        }
+
+        private void load(long id, long value) {
+            if (id <= 0 || id >= this.maxIds) {
+                return;
+            }
+            this.ensureCapacity(id);
+            this.values[(int) id] = value;
+            this.present[(int) id] = true;
+        }
+
+        private boolean ensureLoaded(long id, LongFunction<OptionalLong> loader) {
+            if (id >= this.maxIds) {
+                throw new OperationNotAvailableException("El id " + id + " supera la capacidad del motor de transferencias");
+            }
+            if (id <= 0) {
+                return false;
+            }
+            if (id < this.present.length && this.present[(int) id]) {
+                return true;
+            }
+            OptionalLong value = loader.apply(id);
+            if (value.isEmpty()) {
+                return false;
+            }
+            this.load(id, value.getAsLong());
+            return true;
+        }
+
+        private long get(long id) {
+            return this.values[(int) id];
+        }
+
+        private void add(long id, long delta) {
+            this.ensureCapacity(id);
+            int index = (int) id;
+            this.values[index] += delta;
+            this.deltas[index] += delta;
+            this.present[index] = true;
+            if (!this.dirty[index]) {
+                this.dirty[index] = true;
+                if (this.dirtyCount == this.dirtyIds.length) {
+                    this.dirtyIds = Arrays.copyOf(this.dirtyIds, this.dirtyCount * 2);
+                }
+                this.dirtyIds[this.dirtyCount++] = id;
+            }
+        }
+
+        private long[][] drainDirty() {
+            long[] ids = Arrays.copyOf(this.dirtyIds, this.dirtyCount);
+            long[] snapshot = new long[this.dirtyCount];
+            for (int i = 0; i < this.dirtyCount; i++) {
+                int index = (int) ids[i];
+                snapshot[i] = this.deltas[index];
+                this.deltas[index] = 0;
+                this.dirty[index] = false;
+            }
+            this.dirtyCount = 0;
+            return new long[][]{ids, snapshot};
+        }
+
+        private void ensureCapacity(long id) {
+            if (id < 0 || id >= this.maxIds) {
+                throw new IllegalStateException("Id fuera del rango del motor de transferencias: " + id);
+            }
+            if (id >= this.values.length) {
+                int length = (int) Math.min(this.maxIds, Math.max(id + 1, (long) this.values.length * 2));
+                this.values = Arrays.copyOf(this.values, length);
+                this.deltas = Arrays.copyOf(this.deltas, length);
+                this.present = Arrays.copyOf(this.present, length);
+                this.dirty = Arrays.copyOf(this.dirty, length);
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.magadiflo.app.engine;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.transfer-engine", name = "enabled", havingValue = "true")
+public class TransferEngineConfig {
+
+    public TransferEngineConfig(Environment environment) {
+        InMemoryBalanceGuard.requireExclusive(environment, "app.transfer-engine.enabled");
+    }
+
+    @Bean
+    public TransferEngineStore transferEngineStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new JdbcTransferEngineStore(jdbcTemplate, transactionManager);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public TransferEngine transferEngine(TransferEngineProperties properties, TransferEngineStore transferEngineStore) {
+        return new TransferEngine(properties, transferEngineStore);
+    }
+}
@@ -0,0 +1,19 @@
+package com.magadiflo.app.engine;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.transfer-engine")
+public record TransferEngineProperties(@DefaultValue("false") boolean enabled,
+                                       @DefaultValue("data/transfer-engine.wal") Path walPath,
+                                       @DefaultValue("1048576") int walMaxRecords,
+                                       @DefaultValue("65536") int ringSize,
+                                       @DefaultValue("256") int maxBatchSize,
+                                       @DefaultValue("1000000") int maxAccounts,
+                                       @DefaultValue("10000") int maxBanks,
+                                       @DefaultValue("200ms") Duration persistInterval,
+                                       @DefaultValue("5s") Duration submitTimeout) {
+}
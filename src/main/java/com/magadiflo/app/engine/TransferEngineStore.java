@@ -0,0 +1,25 @@
+package com.magadiflo.app.engine;
+
+import java.util.OptionalLong;
+
+/**
+ * Acceso del motor de transferencias a su estado persistido. Los montos se expresan en centavos.
+ */
+public interface TransferEngineStore {
+    long loadCheckpoint();
+
+    void loadAccounts(BalanceConsumer consumer);
+
+    void loadBanks(BalanceConsumer consumer);
+
+    OptionalLong loadAccountBalance(long accountId);
+
+    OptionalLong loadBankTotalTransfers(long bankId);
+
+    void persist(EngineSnapshot snapshot);
+
+    @FunctionalInterface
+    interface BalanceConsumer {
+        void accept(long id, long value);
+    }
+}
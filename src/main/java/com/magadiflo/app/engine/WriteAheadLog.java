@@ -0,0 +1,133 @@
+package com.magadiflo.app.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Log de escritura anticipada sobre un archivo mapeado en memoria. Cada transferencia ocupa un registro de tamaño
+ * fijo con una secuencia consecutiva y un CRC; la lectura se detiene en el primer registro inválido o no consecutivo.
+ * No es seguro para varios hilos: lo usa solo el hilo escritor del motor.
+ */
+public class WriteAheadLog implements Closeable {
+    public static final int RECORD_SIZE = 48;
+    private static final int PAYLOAD_SIZE = 40;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final byte[] payload = new byte[PAYLOAD_SIZE];
+    private final CRC32C crc = new CRC32C();
+    private int position;
+    private int unforcedFrom;
+
+    public WriteAheadLog(Path path, int maxRecords) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.capacity = maxRecords * RECORD_SIZE;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, this.capacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el log de transferencias " + path, e);
+        }
+    }
+
+    public boolean hasRoom() {
+        return this.position + RECORD_SIZE <= this.capacity;
+    }
+
+    public void append(long sequence, long bankId, long accountIdOrigin, long accountIdDestination, long amount) {
+        if (!this.hasRoom()) {
+            throw new IllegalStateException("El log de transferencias está lleno");
+        }
+        int offset = this.position;
+        this.buffer.putLong(offset, sequence);
+        this.buffer.putLong(offset + 8, bankId);
+        this.buffer.putLong(offset + 16, accountIdOrigin);
+        this.buffer.putLong(offset + 24, accountIdDestination);
+        this.buffer.putLong(offset + 32, amount);
+        this.buffer.putInt(offset + PAYLOAD_SIZE, this.checksum(offset));
+        this.position += RECORD_SIZE;
+    }
+
+    /**
+     * Asegura en disco los registros agregados desde la última llamada.
+     */
+    public void force() {
+        if (this.position > this.unforcedFrom) {
+            this.buffer.force(this.unforcedFrom, this.position - this.unforcedFrom);
+            this.unforcedFrom = this.position;
+        }
+    }
+
+    /**
+     * Recorre los registros válidos, entrega los de secuencia mayor a {@code afterSequence} y deja la posición de
+     * escritura al final del último registro válido.
+     *
+     * @return la última secuencia válida encontrada, o {@code afterSequence} si no hay registros posteriores.
+     */
+    public long replay(long afterSequence, RecordConsumer consumer) {
+        long last = afterSequence;
+        long previous = 0;
+        int offset = 0;
+        while (offset + RECORD_SIZE <= this.capacity) {
+            long sequence = this.buffer.getLong(offset);
+            if (sequence <= 0 || (previous != 0 && sequence != previous + 1)
+                    || this.buffer.getInt(offset + PAYLOAD_SIZE) != this.checksum(offset)) {
+                break;
+            }
+            if (sequence > afterSequence) {
+                consumer.accept(sequence, this.buffer.getLong(offset + 8), this.buffer.getLong(offset + 16),
+                        this.buffer.getLong(offset + 24), this.buffer.getLong(offset + 32));
+                last = sequence;
+            }
+            previous = sequence;
+            offset += RECORD_SIZE;
+        }
+        this.position = offset;
+        this.unforcedFrom = offset;
+        return last;
+    }
+
+    /**
+     * Descarta todos los registros; solo debe llamarse cuando ya están persistidos en la base de datos.
+     */
+    public void reset() {
+        for (int i = 0; i < RECORD_SIZE; i++) {
+            this.buffer.put(i, (byte) 0);
+        }
+        this.buffer.force(0, RECORD_SIZE);
+        this.position = 0;
+        this.unforcedFrom = 0;
+    }
+
+    @Override
+    public void close() {
+        try {
+            this.force();
+            this.channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int checksum(int offset) {
+        this.buffer.get(offset, this.payload);
+        this.crc.reset();
+        this.crc.update(this.payload);
+        return (int) this.crc.getValue();
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(long sequence, long bankId, long accountIdOrigin, long accountIdDestination, long amount);
+    }
+}
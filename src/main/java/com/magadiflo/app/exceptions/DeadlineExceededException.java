@@ -0,0 +1,8 @@
+package com.magadiflo.app.exceptions;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.magadiflo.app.exceptions;
+
+public class OperationNotAvailableException extends RuntimeException {
+    public OperationNotAvailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.magadiflo.app.exceptions;
+
+public class VelocityLimitExceededException extends TooManyRequestsException {
+    public VelocityLimitExceededException(String message, long retryAfterSeconds) {
+        super(message, retryAfterSeconds);
+    }
+}
@@ -0,0 +1,12 @@
+package com.magadiflo.app.groupcommit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.group-commit")
+public record GroupCommitProperties(@DefaultValue("false") boolean enabled,
+                                    @DefaultValue("2ms") Duration window,
+                                    @DefaultValue("64") int maxBatchSize) {
+}
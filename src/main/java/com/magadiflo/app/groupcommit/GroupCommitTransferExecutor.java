@@ -0,0 +1,90 @@
+package com.magadiflo.app.groupcommit;
+
+import com.magadiflo.app.concurrent.BatchLoader;
+import com.magadiflo.app.deadline.RequestDeadline;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.services.IAccountService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Agrupa las transferencias síncronas que llegan dentro de una ventana corta y las confirma en una sola transacción
+ * mediante {@link IAccountService#transferAll(List)}. Cada llamador espera el commit del grupo y recibe su propio
+ * resultado; si el commit falla, todas las transferencias del grupo fallan con ese error.
+ * <p>
+ * No decora {@link IAccountService#transfer}: el controlador lo elige explícitamente, porque otros llamadores de ese
+ * método (transferencias programadas, lotes propios) ya abren su transacción y no deben esperar la ventana del grupo.
+ * Cada transferencia se valida antes de entrar al grupo, para que un dato inválido no haga fallar a las demás.
+ * <p>
+ * El grupo lo despacha el hilo de la solicitud que lo abrió, pero la transacción no usa su plazo: corre con el plazo
+ * que vence más tarde entre los de sus integrantes, o sin plazo si alguno no lo tiene.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitTransferExecutor implements MeterBinder {
+    private final IAccountService accountService;
+    private final BatchLoader<PendingTransfer, Optional<RuntimeException>> groups;
+
+    public GroupCommitTransferExecutor(IAccountService accountService, GroupCommitProperties properties) {
+        this.accountService = accountService;
+        this.groups = new BatchLoader<>(properties.maxBatchSize(), properties.window().toNanos(), this::commit);
+    }
+
+    public void transfer(Long bankId, Long accountIdOrigen, Long accountIdDestination, BigDecimal amount) {
+        TransactionDTO.validate(bankId, accountIdOrigen, accountIdDestination, amount);
+        RequestDeadline.checkCurrent();
+        PendingTransfer pending = new PendingTransfer(new TransactionDTO(bankId, accountIdOrigen, accountIdDestination, amount));
+        Optional<RuntimeException> failure = this.groups.load(pending);
+        if (failure.isPresent()) {
+            throw failure.get();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.transfer.group_commits", this.groups, BatchLoader::batches)
+                .description("Transacciones confirmadas por el group commit")
+                .register(registry);
+        FunctionCounter.builder("accounts.transfer.group_committed", this.groups, BatchLoader::keys)
+                .description("Transferencias procesadas por el group commit")
+                .register(registry);
+    }
+
+    private Map<PendingTransfer, Optional<RuntimeException>> commit(Set<PendingTransfer> group) {
+        List<PendingTransfer> ordered = List.copyOf(group);
+        Map<Integer, RuntimeException> failures = this.accountService.transferAll(ordered.stream()
+                .map(PendingTransfer::transaction)
+                .toList());
+
+        Map<PendingTransfer, Optional<RuntimeException>> outcomes = new HashMap<>();
+        for (int i = 0; i < ordered.size(); i++) {
+            outcomes.put(ordered.get(i), Optional.ofNullable(failures.get(i)));
+        }
+        return outcomes;
+    }
+
+    /**
+     * Igualdad por identidad: dos transferencias idénticas en el mismo grupo se aplican por separado.
+     */
+    private static final class PendingTransfer {
+        private final TransactionDTO transaction;
+
+        private PendingTransfer(TransactionDTO transaction) {
+            this.transaction = transaction;
+        }
+
+        private TransactionDTO transaction() {
+            return this.transaction;
+        }
+    }
+}
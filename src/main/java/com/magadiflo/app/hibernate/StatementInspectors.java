@@ -0,0 +1,41 @@
+package com.magadiflo.app.hibernate;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.Map;
+
+/**
+ * Hibernate admite un único {@link StatementInspector}; esta clase permite que varios componentes registren el suyo
+ * encadenándolo con el que ya estuviera configurado (instancia, clase o nombre de clase).
+ */
+public final class StatementInspectors {
+
+    private StatementInspectors() {
+    }
+
+    public static void register(Map<String, Object> hibernateProperties, StatementInspector inspector) {
+        hibernateProperties.merge(AvailableSettings.STATEMENT_INSPECTOR, inspector,
+                (current, added) -> chain(resolve(current), (StatementInspector) added));
+    }
+
+    private static StatementInspector chain(StatementInspector first, StatementInspector second) {
+        return sql -> {
+            String inspected = first.inspect(sql);
+            return second.inspect(inspected != null ? inspected : sql);
+        };
+    }
+
+    private static StatementInspector resolve(Object value) {
+        if (value instanceof StatementInspector inspector) {
+            return inspector;
+        }
+        try {
+            Class<?> type = value instanceof Class<?> clazz ? clazz
+                    : Class.forName(value.toString().trim(), true, Thread.currentThread().getContextClassLoader());
+            return (StatementInspector) type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("No se pudo crear el StatementInspector " + value, e);
+        }
+    }
+}
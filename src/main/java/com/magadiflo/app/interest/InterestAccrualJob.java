@@ -0,0 +1,151 @@
+package com.magadiflo.app.interest;
+
+import com.magadiflo.app.concurrent.ConnectionPoolShare;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Abono mensual de intereses por rangos de ids. Cada rango es un {@code UPDATE} sobre el conjunto que se confirma por
+ * separado, en paralelo con un máximo de {@code max-pool-share} conexiones del pool y cediendo mientras haya peticiones
+ * esperando una. No se cargan entidades: las transferencias concurrentes solo esperan, si coinciden, a que termine el
+ * rango de sus cuentas: el rango bloquea sus filas antes de abonar y las transferencias cargan sus cuentas con
+ * {@code SELECT ... FOR UPDATE}, así que ninguna escribe un saldo leído antes del abono.
+ */
+public class InterestAccrualJob {
+    private static final Logger log = LoggerFactory.getLogger(InterestAccrualJob.class);
+
+    private final InterestProperties properties;
+    private final InterestAccrualStore store;
+    private final ConnectionPoolShare poolShare;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock running = new ReentrantLock();
+
+    public InterestAccrualJob(InterestProperties properties, InterestAccrualStore store, DataSource dataSource,
+                              JdbcTemplate jdbcTemplate) {
+        if (properties.chunkSize() < 1) {
+            throw new IllegalArgumentException("El tamaño del rango debe ser positivo");
+        }
+        if (properties.monthlyRate() == null || properties.monthlyRate().signum() <= 0) {
+            throw new IllegalArgumentException("La tasa mensual debe ser positiva");
+        }
+        this.properties = properties;
+        this.store = store;
+        this.poolShare = new ConnectionPoolShare(dataSource, properties.maxPoolShare(), properties.backoff());
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Abona los intereses del mes anterior.
+     */
+    @Scheduled(cron = "${app.interest.cron:0 0 1 1 * *}")
+    public void scheduledRun() {
+        if (!this.running.tryLock()) {
+            log.info("Abono de intereses omitido: ya hay una ejecución en curso");
+            return;
+        }
+        try {
+            this.accrue(YearMonth.now().minusMonths(1));
+        } finally {
+            this.running.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta (o continúa) el abono del periodo y espera a que terminen todos los rangos. Si el periodo ya se abonó,
+     * solo devuelve su resultado.
+     */
+    public InterestAccrualReport run(YearMonth period) {
+        this.running.lock();
+        try {
+            return this.accrue(period);
+        } finally {
+            this.running.unlock();
+        }
+    }
+
+    private InterestAccrualReport accrue(YearMonth period) {
+        long startedAt = System.nanoTime();
+        InterestAccrualStore.Run run = this.store.findRun(period).orElseGet(() -> this.startRun(period));
+        List<Long> chunks = ConnectionPoolShare.chunkStarts(run.minId(), run.maxId(), run.chunkSize());
+        Set<Long> completed = this.store.completedChunks(run.id());
+        List<Long> pending = run.completed() ? List.of() : chunks.stream().filter(start -> !completed.contains(start)).toList();
+        if (!run.completed() && !completed.isEmpty()) {
+            log.info("Intereses {}: continuando con {} de {} rangos", period, pending.size(), chunks.size());
+        }
+
+        if (!pending.isEmpty()) {
+            this.accrueChunks(run, pending);
+        }
+        if (!run.completed()) {
+            this.store.completeRun(run.id());
+        }
+
+        InterestAccrualStore.Totals totals = this.store.totals(run.id());
+        InterestAccrualReport report = new InterestAccrualReport(run.id(), period, run.rate(), totals.accounts(),
+                totals.credited(), chunks.size(), chunks.size() - pending.size(),
+                Duration.ofNanos(System.nanoTime() - startedAt));
+        log.info("Intereses {}: {} abonado en {} cuentas ({} rangos) en {} ms", period, report.credited(),
+                report.accounts(), report.chunks(), report.duration().toMillis());
+        return report;
+    }
+
+    private InterestAccrualStore.Run startRun(YearMonth period) {
+        return this.jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM accounts", (rs, rowNum) -> {
+            long minId = rs.getLong(1);
+            long maxId = rs.wasNull() ? minId - 1 : rs.getLong(2);
+            return this.store.startRun(period, this.properties.monthlyRate(), this.properties.chunkSize(), minId, maxId);
+        });
+    }
+
+    private void accrueChunks(InterestAccrualStore.Run run, List<Long> pending) {
+        int permits = this.poolShare.permits();
+        Semaphore connections = new Semaphore(permits);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(this.properties.parallelism(), permits)));
+        try {
+            List<Callable<InterestAccrualStore.Chunk>> tasks = new ArrayList<>(pending.size());
+            for (long start : pending) {
+                tasks.add(() -> this.accrueChunk(run, start, connections));
+            }
+            for (Future<InterestAccrualStore.Chunk> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Abono de intereses interrumpido", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("No se pudo abonar un rango de intereses", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private InterestAccrualStore.Chunk accrueChunk(InterestAccrualStore.Run run, long start, Semaphore connections)
+            throws InterruptedException {
+        connections.acquire();
+        try {
+            this.poolShare.awaitIdlePool();
+            return this.store.accrueChunk(run, start, start + run.chunkSize());
+        } finally {
+            connections.release();
+        }
+    }
+}
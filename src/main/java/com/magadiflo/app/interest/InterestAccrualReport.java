@@ -0,0 +1,12 @@
+package com.magadiflo.app.interest;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.YearMonth;
+
+/**
+ * @param resumedChunks rangos que ya se habían abonado en una ejecución anterior del mismo periodo.
+ */
+public record InterestAccrualReport(long runId, YearMonth period, BigDecimal rate, long accounts, BigDecimal credited,
+                                    int chunks, int resumedChunks, Duration duration) {
+}
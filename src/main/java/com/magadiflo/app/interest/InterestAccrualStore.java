@@ -0,0 +1,97 @@
+package com.magadiflo.app.interest;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registro de los abonos de intereses. Hay a lo sumo una ejecución por periodo y cada rango se abona y se registra en
+ * la misma transacción: un rango nunca se abona dos veces y una ejecución interrumpida continúa con los que faltan.
+ */
+public class InterestAccrualStore {
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public InterestAccrualStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Optional<Run> findRun(YearMonth period) {
+        return this.jdbcTemplate.query("SELECT id, period, rate, chunk_size, min_id, max_id, status FROM interest_runs " +
+                                "WHERE period = ?",
+                        (rs, rowNum) -> new Run(rs.getLong(1), YearMonth.parse(rs.getString(2)), rs.getBigDecimal(3),
+                                rs.getInt(4), rs.getLong(5), rs.getLong(6), COMPLETED.equals(rs.getString(7))),
+                        period.toString())
+                .stream().findFirst();
+    }
+
+    public Run startRun(YearMonth period, BigDecimal rate, int chunkSize, long minId, long maxId) {
+        Long lastId = this.jdbcTemplate.queryForObject("SELECT MAX(id) FROM interest_runs", Long.class);
+        Run run = new Run(lastId == null ? 1L : lastId + 1, period, rate, chunkSize, minId, maxId, false);
+        this.jdbcTemplate.update("INSERT INTO interest_runs(id, period, rate, chunk_size, min_id, max_id, status, started_at) " +
+                        "VALUES(?, ?, ?, ?, ?, ?, ?, ?)",
+                run.id(), period.toString(), rate, chunkSize, minId, maxId, RUNNING, Timestamp.from(Instant.now()));
+        return run;
+    }
+
+    public Set<Long> completedChunks(long runId) {
+        return new HashSet<>(this.jdbcTemplate.queryForList(
+                "SELECT chunk_start FROM interest_chunks WHERE run_id = ?", Long.class, runId));
+    }
+
+    /**
+     * Abona el rango {@code [start, end)} con sentencias sobre el conjunto. Solo bloquea las filas del rango y solo
+     * durante esta transacción; una transferencia sobre esas cuentas espera a que termine el rango.
+     */
+    public Chunk accrueChunk(Run run, long start, long end) {
+        return this.transactionTemplate.execute(status -> {
+            long[] locked = new long[1];
+            this.jdbcTemplate.query("SELECT id FROM accounts WHERE id >= ? AND id < ? FOR UPDATE",
+                    (RowCallbackHandler) rs -> locked[0]++, start, end);
+            Chunk chunk = this.jdbcTemplate.queryForObject("SELECT COUNT(*), COALESCE(SUM(ROUND(balance * ?, 2)), 0) " +
+                            "FROM accounts WHERE id >= ? AND id < ? AND balance > 0",
+                    (rs, rowNum) -> new Chunk(start, rs.getLong(1), rs.getBigDecimal(2)), run.rate(), start, end);
+            if (locked[0] > 0) {
+                this.jdbcTemplate.update("UPDATE accounts SET balance = balance + ROUND(balance * ?, 2) " +
+                        "WHERE id >= ? AND id < ? AND balance > 0", run.rate(), start, end);
+            }
+            this.jdbcTemplate.update("INSERT INTO interest_chunks(run_id, chunk_start, accounts, credited) VALUES(?, ?, ?, ?)",
+                    run.id(), start, chunk.accounts(), chunk.credited());
+            return chunk;
+        });
+    }
+
+    public Totals totals(long runId) {
+        return this.jdbcTemplate.queryForObject("SELECT COALESCE(SUM(accounts), 0), COALESCE(SUM(credited), 0) " +
+                        "FROM interest_chunks WHERE run_id = ?",
+                (rs, rowNum) -> new Totals(rs.getLong(1), rs.getBigDecimal(2)), runId);
+    }
+
+    public void completeRun(long runId) {
+        this.jdbcTemplate.update("UPDATE interest_runs SET status = ?, finished_at = ? WHERE id = ?",
+                COMPLETED, Timestamp.from(Instant.now()), runId);
+    }
+
+    public record Run(long id, YearMonth period, BigDecimal rate, int chunkSize, long minId, long maxId,
+                      boolean completed) {
+    }
+
+    public record Chunk(long start, long accounts, BigDecimal credited) {
+    }
+
+    public record Totals(long accounts, BigDecimal credited) {
+    }
+}
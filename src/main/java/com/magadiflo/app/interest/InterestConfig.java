@@ -0,0 +1,27 @@
+package com.magadiflo.app.interest;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.interest", name = "enabled", havingValue = "true")
+public class InterestConfig {
+
+    @Bean
+    public InterestAccrualStore interestAccrualStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new InterestAccrualStore(jdbcTemplate, transactionManager);
+    }
+
+    @Bean
+    public InterestAccrualJob interestAccrualJob(InterestProperties properties, InterestAccrualStore interestAccrualStore,
+                                                 DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        return new InterestAccrualJob(properties, interestAccrualStore, dataSource, jdbcTemplate);
+    }
+}
@@ -0,0 +1,22 @@
+package com.magadiflo.app.interest;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * @param monthlyRate  tasa que se abona sobre el saldo positivo de cada cuenta una vez por mes.
+ * @param maxPoolShare fracción máxima de las conexiones del pool que puede ocupar el job.
+ * @param backoff      pausa antes de tomar una conexión mientras haya peticiones esperando una.
+ */
+@ConfigurationProperties(prefix = "app.interest")
+public record InterestProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("0 0 1 1 * *") String cron,
+                                 @DefaultValue("0.001") BigDecimal monthlyRate,
+                                 @DefaultValue("10000") int chunkSize,
+                                 @DefaultValue("4") int parallelism,
+                                 @DefaultValue("0.25") double maxPoolShare,
+                                 @DefaultValue("50ms") Duration backoff) {
+}
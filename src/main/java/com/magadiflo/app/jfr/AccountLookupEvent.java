@@ -0,0 +1,66 @@
+package com.magadiflo.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.magadiflo.app.AccountLookup")
+@Label("Consulta de cuentas")
+@Category({"Magadiflo", "Cuentas"})
+@Description("Consulta de cuentas por id o de todas las cuentas")
+@Enabled(false)
+@Threshold("10 ms")
+@StackTrace(false)
+public class AccountLookupEvent extends Event {
+    @Label("Operación")
+    public String operation;
+
+    @Label("Cuenta")
+    public long accountId;
+
+    @Label("Resultado")
+    public String outcome;
+
+    @Label("Cuentas encontradas")
+    public int results;
+
+    @Label("Sentencias SQL")
+    public int statements;
+
+    private transient long statementMark;
+
+    public static AccountLookupEvent start(String operation, Long accountId) {
+        AccountLookupEvent event = new AccountLookupEvent();
+        if (event.isEnabled()) {
+            event.operation = operation;
+            event.accountId = accountId == null ? 0L : accountId;
+            event.statementMark = StatementCounter.current();
+            event.begin();
+        }
+        return event;
+    }
+
+    public void found(int results) {
+        this.results = results;
+        this.outcome = results > 0 ? "found" : "notFound";
+    }
+
+    public void finish() {
+        if (!this.isEnabled()) {
+            return;
+        }
+        this.end();
+        if (this.shouldCommit()) {
+            this.statements = (int) (StatementCounter.current() - this.statementMark);
+            if (this.outcome == null) {
+                this.outcome = "error";
+            }
+            this.commit();
+        }
+    }
+}
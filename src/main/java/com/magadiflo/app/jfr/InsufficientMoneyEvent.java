@@ -0,0 +1,38 @@
+package com.magadiflo.app.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.math.BigDecimal;
+
+@Name("com.magadiflo.app.InsufficientMoney")
+@Label("Dinero insuficiente")
+@Category({"Magadiflo", "Cuentas"})
+@Description("Débito rechazado por saldo insuficiente")
+@Enabled(false)
+@StackTrace(false)
+public class InsufficientMoneyEvent extends Event {
+    @Label("Cuenta")
+    public long accountId;
+
+    @Label("Saldo")
+    public double balance;
+
+    @Label("Monto")
+    public double amount;
+
+    public static void emit(Long accountId, BigDecimal balance, BigDecimal amount) {
+        InsufficientMoneyEvent event = new InsufficientMoneyEvent();
+        if (event.isEnabled()) {
+            event.accountId = accountId == null ? 0L : accountId;
+            event.balance = balance == null ? 0D : balance.doubleValue();
+            event.amount = amount == null ? 0D : amount.doubleValue();
+            event.commit();
+        }
+    }
+}
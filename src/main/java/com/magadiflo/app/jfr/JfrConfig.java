@@ -0,0 +1,15 @@
+package com.magadiflo.app.jfr;
+
+import com.magadiflo.app.hibernate.StatementInspectors;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JfrConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer statementCounterInspector() {
+        return hibernateProperties -> StatementInspectors.register(hibernateProperties, new StatementCounter());
+    }
+}
@@ -0,0 +1,21 @@
+package com.magadiflo.app.jfr;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL emitidas por cada hilo. Los eventos guardan el valor al empezar y calculan la diferencia
+ * al terminar, por lo que las mediciones anidadas no se interfieren.
+ */
+public class StatementCounter implements StatementInspector {
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    public static long current() {
+        return COUNT.get()[0];
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+}
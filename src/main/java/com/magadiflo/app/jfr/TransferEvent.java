@@ -0,0 +1,94 @@
+package com.magadiflo.app.jfr;
+
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.NoSuchElementException;
+
+/**
+ * Transferencia entre cuentas. Si hay una transacción en curso, el evento se confirma al terminar la transacción para
+ * que la duración y las sentencias incluyan el flush y el commit.
+ */
+@Name("com.magadiflo.app.Transfer")
+@Label("Transferencia")
+@Category({"Magadiflo", "Cuentas"})
+@Description("Transferencia de dinero entre dos cuentas")
+@Enabled(false)
+@Threshold("20 ms")
+@StackTrace(false)
+public class TransferEvent extends Event {
+    @Label("Banco")
+    public long bankId;
+
+    @Label("Cuenta origen")
+    public long accountIdOrigin;
+
+    @Label("Cuenta destino")
+    public long accountIdDestination;
+
+    @Label("Resultado")
+    public String outcome;
+
+    @Label("Sentencias SQL")
+    public int statements;
+
+    private transient long statementMark;
+
+    public static TransferEvent start(Long bankId, Long accountIdOrigin, Long accountIdDestination) {
+        TransferEvent event = new TransferEvent();
+        if (event.isEnabled()) {
+            event.bankId = bankId == null ? 0L : bankId;
+            event.accountIdOrigin = accountIdOrigin == null ? 0L : accountIdOrigin;
+            event.accountIdDestination = accountIdDestination == null ? 0L : accountIdDestination;
+            event.statementMark = StatementCounter.current();
+            event.begin();
+        }
+        return event;
+    }
+
+    public void failed(RuntimeException e) {
+        if (e instanceof InsufficientMoneyException) {
+            this.outcome = "insufficientMoney";
+        } else if (e instanceof NoSuchElementException) {
+            this.outcome = "notFound";
+        } else {
+            this.outcome = e.getClass().getSimpleName();
+        }
+    }
+
+    public void finishAfterCompletion() {
+        if (!this.isEnabled()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.finish("completed");
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                finish(status == STATUS_COMMITTED ? "committed" : "rolledBack");
+            }
+        });
+    }
+
+    private void finish(String completion) {
+        this.end();
+        if (this.shouldCommit()) {
+            this.statements = (int) (StatementCounter.current() - this.statementMark);
+            if (this.outcome == null) {
+                this.outcome = completion;
+            }
+            this.commit();
+        }
+    }
+}
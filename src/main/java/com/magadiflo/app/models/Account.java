@@ -4,7 +4,6 @@ import com.magadiflo.app.exceptions.InsufficientMoneyException;
 import jakarta.persistence.*;
 
 import java.math.BigDecimal;
-import java.util.Objects;
 
 @Entity
 @Table(name = "accounts")
@@ -60,19 +59,20 @@ public class Account {
         this.balance = this.balance.add(amount);
     }
 
+    /**
+     * Dos cuentas son iguales si tienen el mismo id. Una cuenta sin id (aún no persistida) solo es igual a sí misma.
+     * El hashCode no depende de ningún atributo para que no cambie al asignarse el id ni al moverse el saldo.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
-        if (o == null || getClass() != o.getClass()) return false;
-        Account account = (Account) o;
-        return Objects.equals(id, account.id) &&
-                Objects.equals(person, account.person) &&
-                Objects.equals(balance, account.balance);
+        if (!(o instanceof Account account)) return false;
+        return id != null && id.equals(account.getId());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, person, balance);
+        return Account.class.hashCode();
     }
 
     @Override
@@ -0,0 +1,6 @@
+package com.magadiflo.app.models.dto;
+
+import java.math.BigDecimal;
+
+public record AccountBalanceDTO(Long id, BigDecimal balance) {
+}
@@ -0,0 +1,44 @@
+package com.magadiflo.app.models.dto;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public record PayrollCreditDTO(Long accountIdDestination, BigDecimal amount) {
+
+    private static final int SCALE = 2;
+
+    /**
+     * Valida los abonos y suma los que van a una misma cuenta.
+     *
+     * @return el monto por cuenta destino, en el orden en que aparecen.
+     * @throws IllegalArgumentException si falta la cuenta origen, no hay abonos o alguno no tiene cuenta destino o
+     *                                  un monto positivo de hasta dos decimales.
+     */
+    public static Map<Long, BigDecimal> amountsByDestination(Long accountIdOrigin, List<PayrollCreditDTO> credits) {
+        if (accountIdOrigin == null) {
+            throw new IllegalArgumentException("Falta el id de la cuenta origen");
+        }
+        if (credits == null || credits.isEmpty()) {
+            throw new IllegalArgumentException("La planilla no tiene abonos");
+        }
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        for (PayrollCreditDTO credit : credits) {
+            if (credit == null || credit.accountIdDestination() == null) {
+                throw new IllegalArgumentException("Falta el id de la cuenta destino");
+            }
+            if (credit.amount() == null || credit.amount().signum() <= 0) {
+                throw new IllegalArgumentException("El monto de cada abono debe ser positivo");
+            }
+            if (credit.amount().stripTrailingZeros().scale() > SCALE) {
+                throw new IllegalArgumentException("El monto de cada abono no puede tener más de " + SCALE + " decimales");
+            }
+            if (credit.accountIdDestination().equals(accountIdOrigin)) {
+                throw new IllegalArgumentException("La cuenta origen no puede recibir abonos de su propia planilla");
+            }
+            amounts.merge(credit.accountIdDestination(), credit.amount(), BigDecimal::add);
+        }
+        return amounts;
+    }
+}
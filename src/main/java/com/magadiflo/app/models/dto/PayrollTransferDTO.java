@@ -0,0 +1,19 @@
+package com.magadiflo.app.models.dto;
+
+import java.util.List;
+
+/**
+ * Un débito de la cuenta origen repartido en varios abonos.
+ */
+public record PayrollTransferDTO(Long bankId, Long accountIdOrigin, List<PayrollCreditDTO> credits) {
+
+    /**
+     * @throws IllegalArgumentException si falta el banco o la planilla no pasa {@link PayrollCreditDTO#amountsByDestination}.
+     */
+    public void validate() {
+        if (this.bankId == null) {
+            throw new IllegalArgumentException("Falta el id del banco");
+        }
+        PayrollCreditDTO.amountsByDestination(this.accountIdOrigin, this.credits);
+    }
+}
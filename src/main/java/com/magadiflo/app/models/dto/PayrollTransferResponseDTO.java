@@ -0,0 +1,9 @@
+package com.magadiflo.app.models.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record PayrollTransferResponseDTO(LocalDateTime datetime, int code, String message, Long accountIdOrigin,
+                                         int credits, BigDecimal total) {
+    public static final String MESSAGE = "planilla transferida";
+}
@@ -0,0 +1,8 @@
+package com.magadiflo.app.models.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ScheduledTransferDTO(Long bankId, Long accountIdOrigin, Long accountIdDestination, BigDecimal amount,
+                                   Instant executeAt) {
+}
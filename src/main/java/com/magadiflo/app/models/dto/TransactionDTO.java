@@ -3,4 +3,24 @@ package com.magadiflo.app.models.dto;
 import java.math.BigDecimal;
 
 public record TransactionDTO(Long bankId, Long accountIdOrigin, Long accountIdDestination, BigDecimal amount) {
+    private static final int SCALE = 2;
+
+    /**
+     * @throws IllegalArgumentException si falta algún id o el monto no es positivo o tiene más de dos decimales.
+     */
+    public static void validate(Long bankId, Long accountIdOrigin, Long accountIdDestination, BigDecimal amount) {
+        if (bankId == null || accountIdOrigin == null || accountIdDestination == null) {
+            throw new IllegalArgumentException("Faltan los ids del banco o de las cuentas");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("El monto debe ser positivo");
+        }
+        if (amount.stripTrailingZeros().scale() > SCALE) {
+            throw new IllegalArgumentException("El monto no puede tener más de " + SCALE + " decimales");
+        }
+    }
+
+    public void validate() {
+        validate(this.bankId, this.accountIdOrigin, this.accountIdDestination, this.amount);
+    }
 }
@@ -0,0 +1,30 @@
+package com.magadiflo.app.models.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Respuesta de una transferencia exitosa. El estado, el código y el mensaje son constantes, así que solo se guardan el
+ * instante (milisegundos desde epoch, sin crear un {@code LocalDateTime}) y la transacción.
+ */
+@JsonSerialize(using = TransferResponseSerializer.class)
+public record TransferResponseDTO(long timestampMillis, TransactionDTO transaction) {
+    public static final HttpStatus STATUS = HttpStatus.OK;
+    public static final String MESSAGE = "transferencia exitosa";
+
+    public static TransferResponseDTO of(TransactionDTO transaction) {
+        return new TransferResponseDTO(System.currentTimeMillis(), transaction);
+    }
+
+    public HttpStatus status() {
+        return STATUS;
+    }
+
+    public int code() {
+        return STATUS.value();
+    }
+
+    public String message() {
+        return MESSAGE;
+    }
+}
@@ -0,0 +1,81 @@
+package com.magadiflo.app.models.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escribe {@link TransferResponseDTO} con el mismo formato que el antiguo mapa de respuesta. Los nombres de campo y los
+ * valores constantes se codifican una sola vez, y la fecha se arma a partir del prefijo {@code yyyy-MM-ddTHH:mm:ss}
+ * del segundo en curso, que se calcula una vez por segundo.
+ */
+public class TransferResponseSerializer extends StdSerializer<TransferResponseDTO> {
+    private static final SerializableString DATETIME = new SerializedString("datetime");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString CODE = new SerializedString("code");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+    private static final SerializableString TRANSACTION = new SerializedString("transaction");
+    private static final SerializableString STATUS_VALUE = new SerializedString(TransferResponseDTO.STATUS.name());
+    private static final SerializableString MESSAGE_VALUE = new SerializedString(TransferResponseDTO.MESSAGE);
+    private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss");
+
+    private final ZoneId zone;
+    private volatile SecondPrefix current = new SecondPrefix(Long.MIN_VALUE, new char[0]);
+
+    public TransferResponseSerializer() {
+        this(ZoneId.systemDefault());
+    }
+
+    public TransferResponseSerializer(ZoneId zone) {
+        super(TransferResponseDTO.class);
+        this.zone = zone;
+    }
+
+    @Override
+    public void serialize(TransferResponseDTO value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(value);
+        gen.writeFieldName(DATETIME);
+        char[] datetime = this.format(value.timestampMillis());
+        gen.writeString(datetime, 0, datetime.length);
+        gen.writeFieldName(STATUS);
+        gen.writeString(STATUS_VALUE);
+        gen.writeFieldName(CODE);
+        gen.writeNumber(TransferResponseDTO.STATUS.value());
+        gen.writeFieldName(MESSAGE);
+        gen.writeString(MESSAGE_VALUE);
+        gen.writeFieldName(TRANSACTION);
+        provider.defaultSerializeValue(value.transaction(), gen);
+        gen.writeEndObject();
+    }
+
+    private char[] format(long epochMillis) {
+        long second = Math.floorDiv(epochMillis, 1000L);
+        SecondPrefix prefix = this.current;
+        if (prefix.second != second) {
+            Instant instant = Instant.ofEpochSecond(second);
+            String text = SECOND_FORMAT.format(LocalDateTime.ofInstant(instant, this.zone));
+            prefix = new SecondPrefix(second, text.toCharArray());
+            this.current = prefix;
+        }
+        int millis = (int) Math.floorMod(epochMillis, 1000L);
+        int length = prefix.chars.length;
+        char[] datetime = new char[length + 4];
+        System.arraycopy(prefix.chars, 0, datetime, 0, length);
+        datetime[length] = '.';
+        datetime[length + 1] = (char) ('0' + millis / 100);
+        datetime[length + 2] = (char) ('0' + millis / 10 % 10);
+        datetime[length + 3] = (char) ('0' + millis % 10);
+        return datetime;
+    }
+
+    private record SecondPrefix(long second, char[] chars) {
+    }
+}
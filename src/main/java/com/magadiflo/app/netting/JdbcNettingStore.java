@@ -0,0 +1,82 @@
+package com.magadiflo.app.netting;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+public class JdbcNettingStore implements NettingStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public JdbcNettingStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public long loadCheckpoint() {
+        List<Long> sequences = this.jdbcTemplate.queryForList(
+                "SELECT last_sequence FROM netting_checkpoints WHERE id = 1", Long.class);
+        return sequences.isEmpty() ? 0L : sequences.get(0);
+    }
+
+    @Override
+    public OptionalLong loadAccountBalance(long accountId) {
+        List<BigDecimal> balances = this.jdbcTemplate.queryForList(
+                "SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+        return balances.isEmpty() ? OptionalLong.empty()
+                : OptionalLong.of(balances.get(0).setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    @Override
+    public boolean bankExists(long bankId) {
+        Integer banks = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM banks WHERE id = ?", Integer.class, bankId);
+        return banks != null && banks > 0;
+    }
+
+    @Override
+    public int settle(Map<Long, Long> accountDeltas, Map<Long, Long> bankTransfers, long throughSequence) {
+        List<Object[]> accountRows = accountDeltas.entrySet().stream()
+                .filter(delta -> delta.getValue() != 0L)
+                .map(delta -> new Object[]{BigDecimal.valueOf(delta.getValue(), 2), delta.getKey()})
+                .toList();
+        List<Object[]> bankRows = bankTransfers.entrySet().stream()
+                .map(count -> new Object[]{count.getValue(), count.getKey()})
+                .toList();
+        return this.transactionTemplate.execute(status -> {
+            if (!accountRows.isEmpty()) {
+                requireUpdated(this.jdbcTemplate.batchUpdate("UPDATE accounts SET balance = balance + ? WHERE id = ?", accountRows),
+                        accountRows, "cuenta");
+            }
+            if (!bankRows.isEmpty()) {
+                requireUpdated(this.jdbcTemplate.batchUpdate("UPDATE banks SET total_transfers = total_transfers + ? WHERE id = ?", bankRows),
+                        bankRows, "banco");
+            }
+            int updated = this.jdbcTemplate.update(
+                    "UPDATE netting_checkpoints SET last_sequence = ? WHERE id = 1", throughSequence);
+            if (updated == 0) {
+                this.jdbcTemplate.update(
+                        "INSERT INTO netting_checkpoints(id, last_sequence) VALUES(1, ?)", throughSequence);
+            }
+            return accountRows.size();
+        });
+    }
+
+    /**
+     * Una fila no actualizada significa que la cuenta o el banco desapareció; la liquidación se revierte completa y las
+     * posiciones siguen pendientes.
+     */
+    private static void requireUpdated(int[] counts, List<Object[]> rows, String entity) {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                throw new IllegalStateException("No se pudo liquidar: no existe el " + entity + " con id " + rows.get(i)[1]);
+            }
+        }
+    }
+}
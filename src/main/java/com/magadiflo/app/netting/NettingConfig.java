@@ -0,0 +1,28 @@
+package com.magadiflo.app.netting;
+
+import com.magadiflo.app.engine.InMemoryBalanceGuard;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.netting", name = "enabled", havingValue = "true")
+public class NettingConfig {
+
+    public NettingConfig(Environment environment) {
+        InMemoryBalanceGuard.requireExclusive(environment, "app.netting.enabled");
+    }
+
+    @Bean
+    public NettingStore nettingStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new JdbcNettingStore(jdbcTemplate, transactionManager);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public NettingTransferExecutor nettingTransferExecutor(NettingProperties properties, NettingStore nettingStore) {
+        return new NettingTransferExecutor(properties, nettingStore);
+    }
+}
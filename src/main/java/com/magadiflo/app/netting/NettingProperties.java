@@ -0,0 +1,19 @@
+package com.magadiflo.app.netting;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param journalDirectory directorio con los dos segmentos del diario de transferencias pendientes.
+ * @param journalMaxRecords capacidad de cada segmento; si el segmento activo se llena antes de la liquidación, las
+ *                          transferencias se rechazan con 429 hasta que termine.
+ */
+@ConfigurationProperties(prefix = "app.netting")
+public record NettingProperties(@DefaultValue("false") boolean enabled,
+                                @DefaultValue("data/netting") Path journalDirectory,
+                                @DefaultValue("1048576") int journalMaxRecords,
+                                @DefaultValue("1s") Duration settlementInterval) {
+}
@@ -0,0 +1,25 @@
+package com.magadiflo.app.netting;
+
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Acceso de la liquidación diferida a la base de datos. Los montos se expresan en centavos.
+ */
+public interface NettingStore {
+    /**
+     * @return la secuencia de la última transferencia incluida en una liquidación.
+     */
+    long loadCheckpoint();
+
+    OptionalLong loadAccountBalance(long accountId);
+
+    boolean bankExists(long bankId);
+
+    /**
+     * Aplica las posiciones netas y registra la secuencia liquidada en una misma transacción.
+     *
+     * @return la cantidad de cuentas actualizadas.
+     */
+    int settle(Map<Long, Long> accountDeltas, Map<Long, Long> bankTransfers, long throughSequence);
+}
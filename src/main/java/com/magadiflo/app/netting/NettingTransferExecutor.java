@@ -0,0 +1,292 @@
+package com.magadiflo.app.netting;
+
+import com.magadiflo.app.engine.WriteAheadLog;
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Liquidación diferida por compensación. Cada transferencia aceptada se valida contra un saldo disponible en memoria
+ * (saldo en la base de datos más las posiciones aún no liquidadas), se registra en el diario y se responde sin tocar
+ * las tablas. Un ciclo periódico suma las posiciones netas por cuenta y escribe solo esas diferencias, en una única
+ * transacción por lotes; las transferencias que se anulan entre sí no generan escrituras.
+ * <p>
+ * El diario usa dos segmentos: al empezar una liquidación las nuevas transferencias pasan al segmento libre, y el
+ * segmento liquidado se vacía solo después del commit. Al arrancar se liquida todo lo que quedó en el diario con una
+ * secuencia mayor al último checkpoint.
+ * <p>
+ * Solo se guardan en memoria los saldos de las cuentas con posiciones pendientes; al terminar cada liquidación se
+ * descartan los demás y se vuelven a leer de la base de datos cuando hagan falta. Mientras está activa, las lecturas
+ * de saldo en la base de datos no incluyen las transferencias pendientes de liquidar, y ningún otro componente debe
+ * modificar los saldos de las cuentas.
+ */
+public class NettingTransferExecutor implements MeterBinder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(NettingTransferExecutor.class);
+    private static final int SCALE = 2;
+
+    private final NettingProperties properties;
+    private final NettingStore store;
+    private final WriteAheadLog[] segments = new WriteAheadLog[2];
+    private final long[] segmentLastSequence = new long[2];
+    private final ScheduledExecutorService settler;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ReentrantLock settleLock = new ReentrantLock();
+    private final Map<Long, Long> available = new HashMap<>();
+    private final Set<Long> banks = new HashSet<>();
+    private Map<Long, Long> accountDeltas = new HashMap<>();
+    private Map<Long, Long> bankTransfers = new HashMap<>();
+    private int active;
+    private long sequence;
+    private volatile long pendingTransfers;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder settledTransfers = new LongAdder();
+    private final LongAdder settledRows = new LongAdder();
+
+    public NettingTransferExecutor(NettingProperties properties, NettingStore store) {
+        this.properties = properties;
+        this.store = store;
+        for (int i = 0; i < this.segments.length; i++) {
+            this.segments[i] = new WriteAheadLog(properties.journalDirectory().resolve("netting-" + i + ".journal"),
+                    properties.journalMaxRecords());
+        }
+        this.settler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "netting-settlement");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        this.recover();
+        long interval = this.properties.settlementInterval().toMillis();
+        this.settler.scheduleWithFixedDelay(this::settleQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @throws IllegalArgumentException si falta algún id o el monto no es positivo o tiene más de dos decimales.
+     */
+    public void transfer(Long bankId, Long accountIdOrigen, Long accountIdDestination, BigDecimal amount) {
+        TransactionDTO.validate(bankId, accountIdOrigen, accountIdDestination, amount);
+        long cents = amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        this.lock.lock();
+        try {
+            OptionalLong originBalance = this.availableBalance(accountIdOrigen);
+            if (originBalance.isEmpty()) {
+                throw new NoSuchElementException("No existe el id de la cuenta origen");
+            }
+            if (this.availableBalance(accountIdDestination).isEmpty()) {
+                throw new NoSuchElementException("No existe el id de la cuenta destino");
+            }
+            if (originBalance.getAsLong() - cents < 0) {
+                throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
+            }
+            if (!this.banks.contains(bankId)) {
+                if (!this.store.bankExists(bankId)) {
+                    throw new NoSuchElementException("No existe el id del banco");
+                }
+                this.banks.add(bankId);
+            }
+
+            WriteAheadLog journal = this.segments[this.active];
+            if (!journal.hasRoom()) {
+                this.settler.execute(this::settleQuietly);
+                throw new TooManyRequestsException("Liquidación pendiente, intente nuevamente", 1);
+            }
+            long transferSequence = ++this.sequence;
+            journal.append(transferSequence, bankId, accountIdOrigen, accountIdDestination, cents);
+            journal.force();
+            this.segmentLastSequence[this.active] = transferSequence;
+
+            this.available.merge(accountIdOrigen, -cents, Long::sum);
+            this.available.merge(accountIdDestination, cents, Long::sum);
+            this.accountDeltas.merge(accountIdOrigen, -cents, Long::sum);
+            this.accountDeltas.merge(accountIdDestination, cents, Long::sum);
+            this.bankTransfers.merge(bankId, 1L, Long::sum);
+            this.pendingTransfers++;
+            this.accepted.increment();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Escribe las posiciones netas acumuladas. Si la transacción falla, las posiciones vuelven a quedar pendientes para
+     * el siguiente ciclo.
+     */
+    public void settle() {
+        this.settleLock.lock();
+        try {
+            Map<Long, Long> deltas;
+            Map<Long, Long> transfers;
+            long through;
+            long count;
+            this.lock.lock();
+            try {
+                if (this.pendingTransfers == 0) {
+                    this.available.clear();
+                    return;
+                }
+                deltas = this.accountDeltas;
+                transfers = this.bankTransfers;
+                through = this.sequence;
+                count = this.pendingTransfers;
+                this.accountDeltas = new HashMap<>();
+                this.bankTransfers = new HashMap<>();
+                this.pendingTransfers = 0;
+                int standby = 1 - this.active;
+                if (this.segmentLastSequence[standby] == 0) {
+                    this.active = standby;
+                }
+            } finally {
+                this.lock.unlock();
+            }
+
+            int rows;
+            try {
+                rows = this.store.settle(deltas, transfers, through);
+            } catch (RuntimeException e) {
+                this.lock.lock();
+                try {
+                    deltas.forEach((id, delta) -> this.accountDeltas.merge(id, delta, Long::sum));
+                    transfers.forEach((id, total) -> this.bankTransfers.merge(id, total, Long::sum));
+                    this.pendingTransfers += count;
+                    this.evictSettledBalances();
+                } finally {
+                    this.lock.unlock();
+                }
+                throw e;
+            }
+            this.settledTransfers.add(count);
+            this.settledRows.add(rows);
+
+            this.lock.lock();
+            try {
+                for (int i = 0; i < this.segments.length; i++) {
+                    if (this.segmentLastSequence[i] != 0 && this.segmentLastSequence[i] <= through) {
+                        this.segments[i].reset();
+                        this.segmentLastSequence[i] = 0;
+                    }
+                }
+                this.evictSettledBalances();
+            } finally {
+                this.lock.unlock();
+            }
+        } finally {
+            this.settleLock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.netting.accepted", this.accepted, LongAdder::sum)
+                .description("Transferencias aceptadas por la liquidación diferida")
+                .register(registry);
+        FunctionCounter.builder("accounts.netting.settled", this.settledTransfers, LongAdder::sum)
+                .description("Transferencias incluidas en una liquidación")
+                .register(registry);
+        FunctionCounter.builder("accounts.netting.settled_rows", this.settledRows, LongAdder::sum)
+                .description("Cuentas actualizadas por las liquidaciones")
+                .register(registry);
+        Gauge.builder("accounts.netting.pending", this, executor -> executor.pendingTransfers)
+                .description("Transferencias aceptadas pendientes de liquidar")
+                .register(registry);
+        Gauge.builder("accounts.netting.cached_balances", this, NettingTransferExecutor::cachedBalances)
+                .description("Saldos disponibles guardados en memoria")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        this.settler.shutdown();
+        try {
+            this.settler.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        this.settleQuietly();
+        for (WriteAheadLog segment : this.segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * Descarta los saldos de las cuentas sin posiciones pendientes: la base de datos ya refleja todo lo liquidado.
+     */
+    private void evictSettledBalances() {
+        this.available.keySet().retainAll(this.accountDeltas.keySet());
+    }
+
+    private OptionalLong availableBalance(long accountId) {
+        Long balance = this.available.get(accountId);
+        if (balance != null) {
+            return OptionalLong.of(balance);
+        }
+        OptionalLong stored = this.store.loadAccountBalance(accountId);
+        stored.ifPresent(value -> this.available.put(accountId, value));
+        return stored;
+    }
+
+    private int cachedBalances() {
+        this.lock.lock();
+        try {
+            return this.available.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void recover() {
+        long checkpoint = this.store.loadCheckpoint();
+        Map<Long, Long> deltas = new HashMap<>();
+        Map<Long, Long> transfers = new HashMap<>();
+        long[] last = {checkpoint};
+        long[] recovered = {0};
+        for (WriteAheadLog segment : this.segments) {
+            segment.replay(checkpoint, (transferSequence, bankId, origin, destination, amount) -> {
+                deltas.merge(origin, -amount, Long::sum);
+                deltas.merge(destination, amount, Long::sum);
+                transfers.merge(bankId, 1L, Long::sum);
+                last[0] = Math.max(last[0], transferSequence);
+                recovered[0]++;
+            });
+        }
+        if (last[0] > checkpoint) {
+            this.store.settle(deltas, transfers, last[0]);
+            log.info("Liquidación diferida: {} transferencias recuperadas del diario", recovered[0]);
+        }
+        this.sequence = last[0];
+        for (WriteAheadLog segment : this.segments) {
+            segment.reset();
+        }
+    }
+
+    private void settleQuietly() {
+        try {
+            this.settle();
+        } catch (RuntimeException e) {
+            log.warn("No se pudo completar la liquidación diferida: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.magadiflo.app.outbox;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Sink para pruebas locales: agrega cada mensaje como una línea JSON y fuerza el archivo a disco por lote.
+ */
+public class FileOutboxSink implements OutboxSink, AutoCloseable {
+    private final FileChannel channel;
+
+    public FileOutboxSink(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo abrir el archivo del outbox " + path, e);
+        }
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> messages) {
+        StringBuilder lines = new StringBuilder(messages.size() * 160);
+        for (OutboxMessage message : messages) {
+            lines.append("{\"id\":").append(message.id())
+                    .append(",\"bankId\":").append(message.bankId())
+                    .append(",\"accountIdOrigin\":").append(message.accountIdOrigin())
+                    .append(",\"accountIdDestination\":").append(message.accountIdDestination())
+                    .append(",\"amount\":").append(message.amount().toPlainString())
+                    .append(",\"createdAt\":\"").append(message.createdAt()).append("\"}\n");
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+            this.channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en el archivo del outbox", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.magadiflo.app.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Sink para pruebas locales: conserva los últimos mensajes publicados, hasta la capacidad indicada.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (this.messages.size() == this.capacity) {
+                this.messages.removeFirst();
+            }
+            this.messages.addLast(message);
+        }
+    }
+
+    public synchronized List<OutboxMessage> messages() {
+        return new ArrayList<>(this.messages);
+    }
+
+    public synchronized void clear() {
+        this.messages.clear();
+    }
+}
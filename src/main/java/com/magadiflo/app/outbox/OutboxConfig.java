@@ -0,0 +1,44 @@
+package com.magadiflo.app.outbox;
+
+import com.magadiflo.app.engine.DatabaseBalancesGuard;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.outbox", name = "enabled", havingValue = "true")
+public class OutboxConfig {
+
+    /**
+     * Solo {@code AccountServiceImpl} publica {@link TransfersAppliedEvent}; con el motor, la compensación o los shards
+     * las transferencias nunca llegarían al outbox.
+     */
+    public OutboxConfig(Environment environment) {
+        DatabaseBalancesGuard.requireDatabaseBalances(environment, "El outbox de transferencias", "app.outbox.enabled");
+    }
+
+    @Bean
+    public OutboxStore outboxStore(JdbcTemplate jdbcTemplate) {
+        return new OutboxStore(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public OutboxSink outboxSink(OutboxProperties properties) {
+        return switch (properties.sink()) {
+            case "memory" -> new InMemoryOutboxSink(properties.memoryCapacity());
+            case "file" -> new FileOutboxSink(properties.filePath());
+            default -> throw new IllegalArgumentException("Sink de outbox desconocido: " + properties.sink());
+        };
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public OutboxRelay outboxRelay(OutboxProperties properties, OutboxStore outboxStore, OutboxSink outboxSink,
+                                   PlatformTransactionManager transactionManager) {
+        return new OutboxRelay(properties, outboxStore, outboxSink, transactionManager);
+    }
+}
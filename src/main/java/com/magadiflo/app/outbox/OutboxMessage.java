@@ -0,0 +1,12 @@
+package com.magadiflo.app.outbox;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Fila del outbox. El id es creciente y sirve a los consumidores para descartar duplicados: la entrega es al menos
+ * una vez.
+ */
+public record OutboxMessage(long id, long bankId, long accountIdOrigin, long accountIdDestination, BigDecimal amount,
+                            Instant createdAt) {
+}
@@ -0,0 +1,19 @@
+package com.magadiflo.app.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * @param sink {@code memory} o {@code file}; se ignora si la aplicación define su propio {@link OutboxSink}.
+ */
+@ConfigurationProperties(prefix = "app.outbox")
+public record OutboxProperties(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("500") int batchSize,
+                               @DefaultValue("200ms") Duration pollInterval,
+                               @DefaultValue("memory") String sink,
+                               @DefaultValue("data/outbox/transfers.jsonl") Path filePath,
+                               @DefaultValue("10000") int memoryCapacity) {
+}
@@ -0,0 +1,129 @@
+package com.magadiflo.app.outbox;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drena el outbox por lotes: reclama las filas, las publica en el {@link OutboxSink} y las borra con una sola sentencia,
+ * todo en la misma transacción. Si la publicación o el commit fallan, el lote vuelve a quedar disponible y se publica
+ * de nuevo (entrega al menos una vez). Mientras un lote sale completo, sigue con el siguiente sin esperar el intervalo.
+ */
+public class OutboxRelay implements MeterBinder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxProperties properties;
+    private final OutboxStore store;
+    private final OutboxSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService poller;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long lagMillis;
+
+    public OutboxRelay(OutboxProperties properties, OutboxStore store, OutboxSink sink,
+                       PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.store = store;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        long interval = this.properties.pollInterval().toMillis();
+        this.poller.scheduleWithFixedDelay(this::drainQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publica lotes hasta vaciar el outbox.
+     *
+     * @return la cantidad de mensajes publicados.
+     */
+    public synchronized int drain() {
+        int total = 0;
+        int relayed;
+        do {
+            relayed = this.relayBatch();
+            total += relayed;
+        } while (relayed == this.properties.batchSize());
+        return total;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.outbox.published", this.published, LongAdder::sum)
+                .description("Mensajes del outbox publicados")
+                .register(registry);
+        FunctionCounter.builder("accounts.outbox.batches", this.batches, LongAdder::sum)
+                .description("Lotes del outbox publicados")
+                .register(registry);
+        FunctionCounter.builder("accounts.outbox.failures", this.failures, LongAdder::sum)
+                .description("Lotes del outbox que fallaron y se reintentarán")
+                .register(registry);
+        Gauge.builder("accounts.outbox.lag", this, relay -> relay.lagMillis)
+                .description("Antigüedad del mensaje más antiguo en el último lote publicado")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder("accounts.outbox.pending", this.store, OutboxStore::pending)
+                .description("Mensajes del outbox pendientes de publicar")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        this.poller.shutdown();
+        try {
+            this.poller.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int relayBatch() {
+        Integer relayed = this.transactionTemplate.execute(status -> {
+            List<OutboxMessage> messages = this.store.claim(this.properties.batchSize());
+            if (messages.isEmpty()) {
+                this.lagMillis = 0L;
+                return 0;
+            }
+            this.sink.publish(messages);
+            this.store.delete(messages);
+            this.lagMillis = Duration.between(messages.get(0).createdAt(), Instant.now()).toMillis();
+            return messages.size();
+        });
+        if (relayed != null && relayed > 0) {
+            this.published.add(relayed);
+            this.batches.increment();
+        }
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void drainQuietly() {
+        try {
+            this.drain();
+        } catch (RuntimeException e) {
+            this.failures.increment();
+            log.warn("No se pudo publicar el outbox de transferencias: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.magadiflo.app.outbox;
+
+import java.util.List;
+
+/**
+ * Destino de los mensajes del outbox. Si lanza una excepción, el lote completo se reintenta en el siguiente ciclo.
+ */
+@FunctionalInterface
+public interface OutboxSink {
+    void publish(List<OutboxMessage> messages);
+}
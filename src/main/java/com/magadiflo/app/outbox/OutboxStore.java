@@ -0,0 +1,68 @@
+package com.magadiflo.app.outbox;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tabla {@code transfer_outbox}. Las filas se insertan en la transacción de la transferencia (escuchando
+ * {@link TransfersAppliedEvent}) y el relay las reclama con {@code FOR UPDATE SKIP LOCKED}, así que varias instancias
+ * pueden drenar la tabla sin pisarse. H2 (usado en las pruebas) no soporta {@code SKIP LOCKED}; ahí se reclama con
+ * {@code FOR UPDATE} simple, que serializa a los relays pero conserva la garantía.
+ */
+public class OutboxStore {
+    private final JdbcTemplate jdbcTemplate;
+    private final String claimSql;
+
+    public OutboxStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        this.claimSql = "SELECT id, bank_id, account_id_origin, account_id_destination, amount, created_at " +
+                "FROM transfer_outbox ORDER BY id LIMIT ? FOR UPDATE" + ("H2".equalsIgnoreCase(product) ? "" : " SKIP LOCKED");
+    }
+
+    @EventListener
+    public void onTransfersApplied(TransfersAppliedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Las transferencias deben registrarse en el outbox dentro de su transacción");
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        this.jdbcTemplate.batchUpdate("INSERT INTO transfer_outbox(bank_id, account_id_origin, account_id_destination, amount, created_at) " +
+                        "VALUES(?, ?, ?, ?, ?)",
+                event.transfers().stream()
+                        .map(transfer -> new Object[]{transfer.bankId(), transfer.accountIdOrigin(),
+                                transfer.accountIdDestination(), transfer.amount(), now})
+                        .toList());
+    }
+
+    /**
+     * Bloquea el siguiente lote sin esperar por las filas que otra instancia ya tiene reclamadas. Debe llamarse dentro
+     * de una transacción; el bloqueo dura hasta el commit.
+     */
+    public List<OutboxMessage> claim(int batchSize) {
+        return this.jdbcTemplate.query(this.claimSql,
+                (rs, rowNum) -> new OutboxMessage(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                        rs.getBigDecimal(5), rs.getTimestamp(6).toInstant()),
+                batchSize);
+    }
+
+    public int delete(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(messages.size(), "?"));
+        return this.jdbcTemplate.update("DELETE FROM transfer_outbox WHERE id IN (" + placeholders + ")",
+                messages.stream().map(OutboxMessage::id).toArray());
+    }
+
+    public long pending() {
+        Long pending = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfer_outbox", Long.class);
+        return pending == null ? 0L : pending;
+    }
+}
@@ -0,0 +1,12 @@
+package com.magadiflo.app.outbox;
+
+import com.magadiflo.app.models.dto.TransactionDTO;
+
+import java.util.List;
+
+/**
+ * Transferencias aplicadas dentro de la transacción en curso. Se publica antes del commit, de modo que un listener
+ * síncrono puede escribir en la misma transacción.
+ */
+public record TransfersAppliedEvent(List<TransactionDTO> transfers) {
+}
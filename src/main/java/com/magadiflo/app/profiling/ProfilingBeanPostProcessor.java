@@ -0,0 +1,35 @@
+package com.magadiflo.app.profiling;
+
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumenta el {@link DataSource} y agrega los interceptores de perfilado a los servicios y repositorios que ya son
+ * proxies de Spring (transaccionales o de Spring Data), en la primera posición de la cadena.
+ */
+public class ProfilingBeanPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)) {
+            return new ProfilingDataSource(dataSource);
+        }
+        if (!(bean instanceof Advised advised) || advised.isFrozen()) {
+            return bean;
+        }
+        if (bean instanceof Repository<?, ?>) {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(bean);
+            advised.addAdvice(0, ProfilingInterceptors.repository(interfaces[0].getSimpleName()));
+        } else if (AnnotationUtils.findAnnotation(AopUtils.getTargetClass(bean), Service.class) != null) {
+            advised.addAdvice(0, ProfilingInterceptors.service());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,46 @@
+package com.magadiflo.app.profiling;
+
+import com.magadiflo.app.hibernate.StatementInspectors;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.profiling", name = "enabled", havingValue = "true")
+public class ProfilingConfig implements WebMvcConfigurer {
+
+    @Bean
+    public static ProfilingBeanPostProcessor profilingBeanPostProcessor() {
+        return new ProfilingBeanPostProcessor();
+    }
+
+    @Bean
+    public ProfilingFilter profilingFilter(ProfilingProperties properties) {
+        return new ProfilingFilter(properties);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer profilingStatementInspector() {
+        return hibernateProperties -> StatementInspectors.register(hibernateProperties, new ProfilingStatementInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                RequestProfile profile = RequestProfile.current();
+                if (profile != null) {
+                    profile.controllerStarted();
+                }
+                return true;
+            }
+        });
+    }
+}
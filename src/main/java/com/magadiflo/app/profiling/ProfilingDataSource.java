@@ -0,0 +1,42 @@
+package com.magadiflo.app.profiling;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+public class ProfilingDataSource extends DelegatingDataSource {
+
+    public ProfilingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            return super.getConnection();
+        }
+        long start = System.nanoTime();
+        try {
+            return super.getConnection();
+        } finally {
+            profile.connectionAcquired(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        RequestProfile profile = RequestProfile.current();
+        if (profile == null) {
+            return super.getConnection(username, password);
+        }
+        long start = System.nanoTime();
+        try {
+            return super.getConnection(username, password);
+        } finally {
+            profile.connectionAcquired(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.magadiflo.app.profiling;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+public class ProfilingFilter extends OncePerRequestFilter {
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+    private static final Logger log = LoggerFactory.getLogger(ProfilingFilter.class);
+
+    private final long slowRequestNanos;
+
+    public ProfilingFilter(ProfilingProperties properties) {
+        this.slowRequestNanos = properties.slowRequestThreshold().toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestProfile profile = RequestProfile.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestProfile.end();
+            String serverTiming = profile.toServerTiming();
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING_HEADER)) {
+                response.setHeader(SERVER_TIMING_HEADER, serverTiming);
+            }
+            if (profile.elapsedNanos() >= this.slowRequestNanos) {
+                log.warn("Petición lenta {} {} ({}): {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), serverTiming);
+            }
+        }
+    }
+}
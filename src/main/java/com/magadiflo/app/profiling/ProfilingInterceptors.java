@@ -0,0 +1,48 @@
+package com.magadiflo.app.profiling;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Interceptores que acumulan en el {@link RequestProfile} el tiempo pasado en servicios y repositorios.
+ */
+final class ProfilingInterceptors {
+
+    private ProfilingInterceptors() {
+    }
+
+    static MethodInterceptor service() {
+        return invocation -> {
+            RequestProfile profile = RequestProfile.current();
+            if (profile == null) {
+                return invocation.proceed();
+            }
+            profile.enterService();
+            try {
+                return invocation.proceed();
+            } finally {
+                profile.exitService();
+            }
+        };
+    }
+
+    static MethodInterceptor repository(String repositoryName) {
+        return new MethodInterceptor() {
+            @Override
+            public Object invoke(MethodInvocation invocation) throws Throwable {
+                RequestProfile profile = RequestProfile.current();
+                if (profile == null) {
+                    return invocation.proceed();
+                }
+                boolean outermost = profile.enterRepository();
+                long start = System.nanoTime();
+                try {
+                    return invocation.proceed();
+                } finally {
+                    profile.exitRepository(repositoryName + "." + invocation.getMethod().getName(),
+                            System.nanoTime() - start, outermost);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,11 @@
+package com.magadiflo.app.profiling;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.profiling")
+public record ProfilingProperties(@DefaultValue("false") boolean enabled,
+                                  @DefaultValue("500ms") Duration slowRequestThreshold) {
+}
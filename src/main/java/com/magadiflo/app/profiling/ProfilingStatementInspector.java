@@ -0,0 +1,15 @@
+package com.magadiflo.app.profiling;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+public class ProfilingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            profile.statement(sql);
+        }
+        return sql;
+    }
+}
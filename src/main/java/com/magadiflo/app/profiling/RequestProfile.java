@@ -0,0 +1,148 @@
+package com.magadiflo.app.profiling;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tiempos acumulados de la petición en curso. Solo existe mientras el perfilado está activo; en cualquier otro caso
+ * {@link #current()} devuelve {@code null} y los puntos de medición no hacen nada.
+ */
+public final class RequestProfile {
+    private static final ThreadLocal<RequestProfile> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long controllerStart;
+    private long controllerNanos;
+    private int serviceDepth;
+    private long serviceStart;
+    private long serviceNanos;
+    private long connectionNanos;
+    private int connections;
+    private int repositoryDepth;
+    private long repositoryNanos;
+    private int repositoryCalls;
+    private final Map<String, long[]> repositoryMethods = new LinkedHashMap<>();
+    private int selects;
+    private int inserts;
+    private int updates;
+    private int deletes;
+    private int otherStatements;
+
+    private RequestProfile() {
+    }
+
+    public static RequestProfile current() {
+        return CURRENT.get();
+    }
+
+    static RequestProfile begin() {
+        RequestProfile profile = new RequestProfile();
+        CURRENT.set(profile);
+        return profile;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    void controllerStarted() {
+        this.controllerStart = System.nanoTime();
+    }
+
+    void controllerFinished() {
+        if (this.controllerStart != 0 && this.controllerNanos == 0) {
+            this.controllerNanos = System.nanoTime() - this.controllerStart;
+        }
+    }
+
+    void enterService() {
+        if (this.serviceDepth++ == 0) {
+            this.serviceStart = System.nanoTime();
+        }
+    }
+
+    void exitService() {
+        if (--this.serviceDepth == 0) {
+            this.serviceNanos += System.nanoTime() - this.serviceStart;
+        }
+    }
+
+    boolean enterRepository() {
+        return this.repositoryDepth++ == 0;
+    }
+
+    void exitRepository(String method, long nanos, boolean outermost) {
+        this.repositoryDepth--;
+        if (!outermost) {
+            return;
+        }
+        this.repositoryNanos += nanos;
+        this.repositoryCalls++;
+        long[] stats = this.repositoryMethods.computeIfAbsent(method, key -> new long[2]);
+        stats[0]++;
+        stats[1] += nanos;
+    }
+
+    void connectionAcquired(long nanos) {
+        this.connections++;
+        this.connectionNanos += nanos;
+    }
+
+    void statement(String sql) {
+        int start = 0;
+        while (start < sql.length() && (Character.isWhitespace(sql.charAt(start)) || sql.charAt(start) == '(')) {
+            start++;
+        }
+        if (sql.regionMatches(true, start, "select", 0, 6)) {
+            this.selects++;
+        } else if (sql.regionMatches(true, start, "insert", 0, 6)) {
+            this.inserts++;
+        } else if (sql.regionMatches(true, start, "update", 0, 6)) {
+            this.updates++;
+        } else if (sql.regionMatches(true, start, "delete", 0, 6)) {
+            this.deletes++;
+        } else {
+            this.otherStatements++;
+        }
+    }
+
+    public int statements() {
+        return this.selects + this.inserts + this.updates + this.deletes + this.otherStatements;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * Valor de la cabecera {@code Server-Timing} con lo medido hasta el momento.
+     */
+    public String toServerTiming() {
+        this.controllerFinished();
+        StringBuilder sb = new StringBuilder(256);
+        metric(sb, "total", this.elapsedNanos(), null);
+        metric(sb, "controller", this.controllerNanos, null);
+        metric(sb, "service", this.serviceNanos, null);
+        metric(sb, "db-conn", this.connectionNanos, this.connections + " acquisitions");
+        metric(sb, "repo", this.repositoryNanos, this.repositoryCalls + " calls");
+        int index = 0;
+        for (Map.Entry<String, long[]> entry : this.repositoryMethods.entrySet()) {
+            metric(sb, "repo-" + index++, entry.getValue()[1], entry.getKey() + " x" + entry.getValue()[0]);
+        }
+        sb.append(", sql;desc=\"").append(this.statements()).append(" statements: select=").append(this.selects)
+                .append(" insert=").append(this.inserts).append(" update=").append(this.updates)
+                .append(" delete=").append(this.deletes).append('"');
+        return sb.toString();
+    }
+
+    private static void metric(StringBuilder sb, String name, long nanos, String description) {
+        if (!sb.isEmpty()) {
+            sb.append(", ");
+        }
+        sb.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", nanos / 1_000_000D));
+        if (description != null) {
+            sb.append(";desc=\"").append(description).append('"');
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.magadiflo.app.profiling;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Agrega la cabecera {@code Server-Timing} justo antes de escribir el cuerpo, cuando la respuesta aún no se envía.
+ */
+@ControllerAdvice
+public class ServerTimingResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class selectedConverterType, ServerHttpRequest request, ServerHttpResponse response) {
+        RequestProfile profile = RequestProfile.current();
+        if (profile != null) {
+            response.getHeaders().set(ProfilingFilter.SERVER_TIMING_HEADER, profile.toServerTiming());
+        }
+        return body;
+    }
+}
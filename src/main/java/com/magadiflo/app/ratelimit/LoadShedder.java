@@ -0,0 +1,40 @@
+package com.magadiflo.app.ratelimit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Limita las operaciones concurrentes y rechaza trabajo nuevo mientras la cola de espera del pool de conexiones
+ * supere el umbral configurado.
+ */
+public class LoadShedder {
+    private final int maxConcurrent;
+    private final int maxPendingConnections;
+    private final IntSupplier pendingConnections;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LoadShedder(int maxConcurrent, int maxPendingConnections, IntSupplier pendingConnections) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxPendingConnections = maxPendingConnections;
+        this.pendingConnections = pendingConnections;
+    }
+
+    public boolean tryAcquire() {
+        if (this.pendingConnections.getAsInt() > this.maxPendingConnections) {
+            return false;
+        }
+        if (this.inFlight.incrementAndGet() > this.maxConcurrent) {
+            this.inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public void release() {
+        this.inFlight.decrementAndGet();
+    }
+
+    public int inFlight() {
+        return this.inFlight.get();
+    }
+}
@@ -0,0 +1,19 @@
+package com.magadiflo.app.ratelimit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("20") long accountCapacity,
+                                  @DefaultValue("10") double accountRefillPerSecond,
+                                  @DefaultValue("100") long clientCapacity,
+                                  @DefaultValue("50") double clientRefillPerSecond,
+                                  @DefaultValue("64") int stripes,
+                                  @DefaultValue("1024") int maxKeysPerStripe,
+                                  @DefaultValue("64") int maxConcurrentTransfers,
+                                  @DefaultValue("10") int maxPendingConnections,
+                                  @DefaultValue("1s") Duration overloadRetryAfter) {
+}
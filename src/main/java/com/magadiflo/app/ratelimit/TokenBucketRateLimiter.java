@@ -0,0 +1,201 @@
+package com.magadiflo.app.ratelimit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket por clave numérica. Las claves se reparten entre varias franjas (stripes), cada una con su propio
+ * monitor y una tabla de direccionamiento abierto sobre arreglos primitivos, de modo que una consulta no crea objetos.
+ * Las entradas inactivas (cuyo bucket ya estaría lleno) se descartan al llenarse la franja; si ninguna lo está, se
+ * descarta la usada hace más tiempo entre las {@value #PROBE_LIMIT} que siguen a la posición de la clave nueva.
+ */
+public class TokenBucketRateLimiter {
+    private static final int PROBE_LIMIT = 8;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long fullRefillNanos;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public TokenBucketRateLimiter(long capacity, double refillPerSecond, int stripes, int maxKeysPerStripe) {
+        if (capacity <= 0 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("La capacidad y la tasa de recarga deben ser positivas");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.fullRefillNanos = (long) Math.ceil(capacity / this.tokensPerNano);
+
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(maxKeysPerStripe);
+        }
+    }
+
+    /**
+     * @return 0 si se consumió un token, o los nanosegundos que faltan para que haya uno disponible.
+     */
+    public long tryAcquire(long key, long nowNanos) {
+        long hash = mix(key);
+        Stripe stripe = this.stripes[(int) (hash >>> 32) & this.stripeMask];
+        synchronized (stripe) {
+            int slot = stripe.slotFor(key, (int) hash, nowNanos, this);
+            double available = Math.min(this.capacity,
+                    stripe.tokens[slot] + (nowNanos - stripe.lastRefill[slot]) * this.tokensPerNano);
+            stripe.lastRefill[slot] = nowNanos;
+            if (available >= 1D) {
+                stripe.tokens[slot] = available - 1D;
+                return 0L;
+            }
+            stripe.tokens[slot] = available;
+            return (long) Math.ceil((1D - available) / this.tokensPerNano);
+        }
+    }
+
+    /**
+     * Devuelve el token consumido por {@link #tryAcquire} cuando la operación se rechazó por otro motivo.
+     */
+    public void refund(long key) {
+        long hash = mix(key);
+        Stripe stripe = this.stripes[(int) (hash >>> 32) & this.stripeMask];
+        synchronized (stripe) {
+            int slot = stripe.find(key, (int) hash);
+            if (slot >= 0) {
+                stripe.tokens[slot] = Math.min(this.capacity, stripe.tokens[slot] + 1D);
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    private boolean isIdle(long lastRefill, long nowNanos) {
+        return nowNanos - lastRefill >= this.fullRefillNanos;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Stripe {
+        private final int maxSize;
+        private final int mask;
+        private long[] keys;
+        private double[] tokens;
+        private long[] lastRefill;
+        private boolean[] used;
+        private int size;
+        private long lastSweep = Long.MIN_VALUE / 2;
+
+        private Stripe(int maxKeys) {
+            this.maxSize = Math.max(PROBE_LIMIT, maxKeys);
+            int capacity = Integer.highestOneBit(this.maxSize * 2 - 1) << 1;
+            this.mask = capacity - 1;
+            this.allocate(capacity);
+        }
+
+        private void allocate(int capacity) {
+            this.keys = new long[capacity];
+            this.tokens = new double[capacity];
+            this.lastRefill = new long[capacity];
+            this.used = new boolean[capacity];
+            this.size = 0;
+        }
+
+        private int slotFor(long key, int hash, long nowNanos, TokenBucketRateLimiter limiter) {
+            int slot = this.find(key, hash);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (this.size >= this.maxSize && nowNanos - this.lastSweep >= limiter.fullRefillNanos / 4) {
+                this.lastSweep = nowNanos;
+                this.evictIdle(nowNanos, limiter);
+            }
+            if (this.size < this.maxSize) {
+                return this.insert(key, hash, nowNanos, limiter.capacity);
+            }
+            return this.replaceOldest(key, hash, nowNanos, limiter.capacity);
+        }
+
+        private int find(long key, int hash) {
+            for (int slot = hash & this.mask; this.used[slot]; slot = (slot + 1) & this.mask) {
+                if (this.keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+
+        private int insert(long key, int hash, long nowNanos, double initialTokens) {
+            int slot = hash & this.mask;
+            while (this.used[slot]) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.used[slot] = true;
+            this.keys[slot] = key;
+            this.tokens[slot] = initialTokens;
+            this.lastRefill[slot] = nowNanos;
+            this.size++;
+            return slot;
+        }
+
+        private int replaceOldest(long key, int hash, long nowNanos, double initialTokens) {
+            this.remove(this.oldestFrom(hash & this.mask));
+            return this.insert(key, hash, nowNanos, initialTokens);
+        }
+
+        private int oldestFrom(int start) {
+            int oldest = -1;
+            for (int seen = 0, slot = start; seen < PROBE_LIMIT; slot = (slot + 1) & this.mask) {
+                if (this.used[slot]) {
+                    if (oldest < 0 || this.lastRefill[slot] < this.lastRefill[oldest]) {
+                        oldest = slot;
+                    }
+                    seen++;
+                }
+            }
+            return oldest;
+        }
+
+        /**
+         * Borra la entrada corriendo hacia atrás las que la siguen en la misma secuencia de sondeo, para que
+         * {@link #find} no necesite marcas de borrado.
+         */
+        private void remove(int slot) {
+            int hole = slot;
+            for (int next = (hole + 1) & this.mask; this.used[next]; next = (next + 1) & this.mask) {
+                int home = (int) mix(this.keys[next]) & this.mask;
+                if (((next - home) & this.mask) >= ((next - hole) & this.mask)) {
+                    this.keys[hole] = this.keys[next];
+                    this.tokens[hole] = this.tokens[next];
+                    this.lastRefill[hole] = this.lastRefill[next];
+                    hole = next;
+                }
+            }
+            this.used[hole] = false;
+            this.size--;
+        }
+
+        private void evictIdle(long nowNanos, TokenBucketRateLimiter limiter) {
+            long[] oldKeys = this.keys;
+            double[] oldTokens = this.tokens;
+            long[] oldLastRefill = this.lastRefill;
+            boolean[] oldUsed = this.used;
+            this.allocate(oldKeys.length);
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i] && !limiter.isIdle(oldLastRefill[i], nowNanos)) {
+                    this.insert(oldKeys[i], (int) mix(oldKeys[i]), oldLastRefill[i], oldTokens[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.magadiflo.app.ratelimit;
+
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.security.Principal;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * El cliente se identifica por el usuario autenticado o, si no hay, por la dirección remota; no por una cabecera que
+ * el propio cliente podría cambiar en cada petición para saltarse el límite.
+ */
+@Component
+public class TransferRateLimiter implements MeterBinder {
+
+    private final RateLimitProperties properties;
+    private final ObjectProvider<DataSource> dataSourceProvider;
+    private final TokenBucketRateLimiter accountLimiter;
+    private final TokenBucketRateLimiter clientLimiter;
+    private final LoadShedder loadShedder;
+
+    private final LongAdder rejectedByAccount = new LongAdder();
+    private final LongAdder rejectedByClient = new LongAdder();
+    private final LongAdder rejectedByOverload = new LongAdder();
+
+    private volatile HikariPoolMXBean pool;
+
+    public TransferRateLimiter(RateLimitProperties properties, ObjectProvider<DataSource> dataSourceProvider) {
+        this.properties = properties;
+        this.dataSourceProvider = dataSourceProvider;
+        this.accountLimiter = new TokenBucketRateLimiter(properties.accountCapacity(),
+                properties.accountRefillPerSecond(), properties.stripes(), properties.maxKeysPerStripe());
+        this.clientLimiter = new TokenBucketRateLimiter(properties.clientCapacity(),
+                properties.clientRefillPerSecond(), properties.stripes(), properties.maxKeysPerStripe());
+        this.loadShedder = new LoadShedder(properties.maxConcurrentTransfers(),
+                properties.maxPendingConnections(), this::pendingConnections);
+    }
+
+    public void acquire(Long accountIdOrigin, HttpServletRequest request) {
+        if (!this.properties.enabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        long clientKey = clientKey(request);
+        long clientWait = this.clientLimiter.tryAcquire(clientKey, now);
+        if (clientWait > 0) {
+            this.rejectedByClient.increment();
+            throw new TooManyRequestsException("Demasiadas transferencias desde el cliente", toRetryAfterSeconds(clientWait));
+        }
+
+        if (accountIdOrigin != null) {
+            long accountWait = this.accountLimiter.tryAcquire(accountIdOrigin, now);
+            if (accountWait > 0) {
+                this.clientLimiter.refund(clientKey);
+                this.rejectedByAccount.increment();
+                throw new TooManyRequestsException("Demasiadas transferencias desde la cuenta origen", toRetryAfterSeconds(accountWait));
+            }
+        }
+
+        if (!this.loadShedder.tryAcquire()) {
+            this.clientLimiter.refund(clientKey);
+            if (accountIdOrigin != null) {
+                this.accountLimiter.refund(accountIdOrigin);
+            }
+            this.rejectedByOverload.increment();
+            throw new TooManyRequestsException("Servicio saturado, intente nuevamente",
+                    Math.max(1L, this.properties.overloadRetryAfter().toSeconds()));
+        }
+    }
+
+    public void release() {
+        if (this.properties.enabled()) {
+            this.loadShedder.release();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.rejectionCounter(registry, "account", this.rejectedByAccount);
+        this.rejectionCounter(registry, "client", this.rejectedByClient);
+        this.rejectionCounter(registry, "overload", this.rejectedByOverload);
+        Gauge.builder("accounts.transfer.in_flight", this.loadShedder, LoadShedder::inFlight)
+                .description("Transferencias en curso")
+                .register(registry);
+    }
+
+    private void rejectionCounter(MeterRegistry registry, String reason, LongAdder counter) {
+        FunctionCounter.builder("accounts.transfer.rejected", counter, LongAdder::sum)
+                .description("Transferencias rechazadas con 429")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    private int pendingConnections() {
+        HikariPoolMXBean poolBean = this.pool;
+        if (poolBean == null) {
+            poolBean = this.resolvePool();
+            if (poolBean == null) {
+                return 0;
+            }
+            this.pool = poolBean;
+        }
+        return poolBean.getThreadsAwaitingConnection();
+    }
+
+    private HikariPoolMXBean resolvePool() {
+        DataSource dataSource = this.dataSourceProvider.getIfAvailable();
+        try {
+            if (dataSource != null && dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static long clientKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        String client = principal != null ? "user:" + principal.getName() : "addr:" + request.getRemoteAddr();
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < client.length(); i++) {
+            hash ^= client.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+}
@@ -0,0 +1,9 @@
+package com.magadiflo.app.reconciliation;
+
+import java.math.BigDecimal;
+
+/**
+ * Cuenta con saldo negativo o sin saldo ({@code balance == null}).
+ */
+public record Anomaly(long accountId, BigDecimal balance) {
+}
@@ -0,0 +1,10 @@
+package com.magadiflo.app.reconciliation;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Resultado de un rango de ids {@code [start, start + chunkSize)}.
+ */
+public record ChunkResult(long start, BigDecimal total, long accounts, List<Anomaly> anomalies) {
+}
@@ -0,0 +1,27 @@
+package com.magadiflo.app.reconciliation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(prefix = "app.reconciliation", name = "enabled", havingValue = "true")
+public class ReconciliationConfig {
+
+    @Bean
+    public ReconciliationStore reconciliationStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new ReconciliationStore(jdbcTemplate, transactionManager);
+    }
+
+    @Bean
+    public ReconciliationJob reconciliationJob(ReconciliationProperties properties, ReconciliationStore reconciliationStore,
+                                               DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        return new ReconciliationJob(properties, reconciliationStore, dataSource, jdbcTemplate);
+    }
+}
@@ -0,0 +1,229 @@
+package com.magadiflo.app.reconciliation;
+
+import com.magadiflo.app.concurrent.ConnectionPoolShare;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Conciliación de saldos por rangos de ids. Cada rango se lee en paralelo con su propia conexión de solo lectura y se
+ * registra en el {@link ReconciliationStore} apenas termina, así que una ejecución interrumpida continúa con los rangos
+ * pendientes. El job nunca ocupa más de {@code max-pool-share} del pool y cede mientras haya peticiones esperando una
+ * conexión.
+ * <p>
+ * Cada rango es consistente por sí mismo. Para que el total también lo sea, la ejecución registra al empezar la marca
+ * de transferencias ({@link ReconciliationStore#transferMark()}) y la compara al terminar el último rango: si cambió,
+ * una transferencia entre dos rangos pudo contarse dos veces o ninguna, así que se vuelven a leer todos los rangos con
+ * la nueva marca, hasta {@code max-rescans} veces. Si nunca se obtiene una lectura sin transferencias en medio, el
+ * reporte no se da por cuadrado aunque el total coincida.
+ */
+public class ReconciliationJob {
+    private static final Logger log = LoggerFactory.getLogger(ReconciliationJob.class);
+    private static final String SCAN_SQL = "SELECT id, balance FROM accounts WHERE id >= ? AND id < ?";
+
+    private final ReconciliationProperties properties;
+    private final ReconciliationStore store;
+    private final DataSource dataSource;
+    private final ConnectionPoolShare poolShare;
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock running = new ReentrantLock();
+
+    public ReconciliationJob(ReconciliationProperties properties, ReconciliationStore store, DataSource dataSource,
+                             JdbcTemplate jdbcTemplate) {
+        if (properties.chunkSize() < 1) {
+            throw new IllegalArgumentException("El tamaño del rango debe ser positivo");
+        }
+        this.properties = properties;
+        this.store = store;
+        this.dataSource = dataSource;
+        this.poolShare = new ConnectionPoolShare(dataSource, properties.maxPoolShare(), properties.backoff());
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(cron = "${app.reconciliation.cron:0 0 2 * * *}")
+    public void scheduledRun() {
+        if (!this.running.tryLock()) {
+            log.info("Conciliación omitida: ya hay una ejecución en curso");
+            return;
+        }
+        try {
+            this.reconcile();
+        } finally {
+            this.running.unlock();
+        }
+    }
+
+    /**
+     * Ejecuta (o continúa) una conciliación y espera a que terminen todos los rangos.
+     */
+    public ReconciliationReport run() {
+        this.running.lock();
+        try {
+            return this.reconcile();
+        } finally {
+            this.running.unlock();
+        }
+    }
+
+    private ReconciliationReport reconcile() {
+        long startedAt = System.nanoTime();
+        ReconciliationStore.Run run = this.store.findUnfinishedRun().orElseGet(this::startRun);
+        List<Long> chunks = ConnectionPoolShare.chunkStarts(run.minId(), run.maxId(), run.chunkSize());
+        Set<Long> completed = this.store.completedChunks(run.id());
+        List<Long> pending = chunks.stream().filter(start -> !completed.contains(start)).toList();
+        int resumed = chunks.size() - pending.size();
+        if (!completed.isEmpty()) {
+            log.info("Conciliación {}: continuando con {} de {} rangos", run.id(), pending.size(), chunks.size());
+        }
+
+        int rescans = 0;
+        boolean consistent;
+        while (true) {
+            this.scanAll(run, pending);
+            long transferMark = this.store.transferMark();
+            consistent = transferMark == run.transferMark();
+            if (consistent || rescans == this.properties.maxRescans()) {
+                break;
+            }
+            log.info("Conciliación {}: hubo transferencias durante la lectura, se vuelven a leer los {} rangos",
+                    run.id(), chunks.size());
+            run = this.store.restartRun(run, transferMark);
+            pending = chunks;
+            resumed = 0;
+            rescans++;
+        }
+
+        ReconciliationStore.Totals totals = this.store.totals(run.id());
+        this.store.completeRun(run.id(), totals);
+        ReconciliationReport report = new ReconciliationReport(run.id(), totals.total(), totals.accounts(),
+                chunks.size(), resumed, rescans, consistent, this.properties.expectedTotal(), totals.anomalies(),
+                this.store.anomalies(run.id(), this.properties.maxAnomalies()),
+                Duration.ofNanos(System.nanoTime() - startedAt));
+        if (report.balanced()) {
+            log.info("Conciliación {}: {} cuentas, saldo total {} en {} ms", report.runId(), report.accounts(),
+                    report.total(), report.duration().toMillis());
+        } else if (!report.consistent()) {
+            log.warn("Conciliación {}: {} cuentas, saldo total {} sin confirmar; hubo transferencias durante las {} " +
+                    "lecturas", report.runId(), report.accounts(), report.total(), report.rescans() + 1);
+        } else {
+            log.warn("Conciliación {}: {} cuentas, saldo total {} (esperado {}), {} anomalías", report.runId(),
+                    report.accounts(), report.total(), report.expectedTotal(), report.anomalyCount());
+        }
+        return report;
+    }
+
+    private void scanAll(ReconciliationStore.Run run, List<Long> starts) {
+        int permits = this.poolShare.permits();
+        Semaphore connections = new Semaphore(permits);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, Math.min(this.properties.parallelism(), permits)));
+        try {
+            pool.invoke(new ScanTask(run, starts, connections));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * La marca se lee antes que los límites de ids, para que cualquier transferencia confirmada después de leerla quede
+     * a la vista al comparar.
+     */
+    private ReconciliationStore.Run startRun() {
+        long transferMark = this.store.transferMark();
+        return this.jdbcTemplate.queryForObject("SELECT MIN(id), MAX(id) FROM accounts", (rs, rowNum) -> {
+            long minId = rs.getLong(1);
+            long maxId = rs.wasNull() ? minId - 1 : rs.getLong(2);
+            return this.store.startRun(this.properties.chunkSize(), minId, maxId, transferMark);
+        });
+    }
+
+    private ChunkResult scan(long start, long end) throws SQLException {
+        BigDecimal total = BigDecimal.ZERO;
+        long accounts = 0;
+        List<Anomaly> anomalies = new ArrayList<>();
+        try (Connection connection = this.dataSource.getConnection()) {
+            connection.setReadOnly(true);
+            try (PreparedStatement statement = connection.prepareStatement(SCAN_SQL)) {
+                statement.setFetchSize(Math.min(this.properties.chunkSize(), 1000));
+                statement.setLong(1, start);
+                statement.setLong(2, end);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        BigDecimal balance = rs.getBigDecimal(2);
+                        accounts++;
+                        if (balance == null || balance.signum() < 0) {
+                            anomalies.add(new Anomaly(rs.getLong(1), balance));
+                        }
+                        if (balance != null) {
+                            total = total.add(balance);
+                        }
+                    }
+                }
+            } finally {
+                connection.setReadOnly(false);
+            }
+        }
+        return new ChunkResult(start, total, accounts, anomalies);
+    }
+
+    private final class ScanTask extends RecursiveTask<Void> {
+        private final ReconciliationStore.Run run;
+        private final List<Long> starts;
+        private final Semaphore connections;
+
+        private ScanTask(ReconciliationStore.Run run, List<Long> starts, Semaphore connections) {
+            this.run = run;
+            this.starts = starts;
+            this.connections = connections;
+        }
+
+        @Override
+        protected Void compute() {
+            if (this.starts.size() > 1) {
+                int middle = this.starts.size() / 2;
+                ScanTask left = new ScanTask(this.run, this.starts.subList(0, middle), this.connections);
+                left.fork();
+                new ScanTask(this.run, this.starts.subList(middle, this.starts.size()), this.connections).compute();
+                left.join();
+                return null;
+            }
+            for (long start : this.starts) {
+                this.scanChunk(start);
+            }
+            return null;
+        }
+
+        private void scanChunk(long start) {
+            long end = start + this.run.chunkSize();
+            try {
+                this.connections.acquire();
+                try {
+                    poolShare.awaitIdlePool();
+                    store.saveChunk(this.run.id(), scan(start, end));
+                } finally {
+                    this.connections.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Conciliación interrumpida en el rango " + start, e);
+            } catch (SQLException e) {
+                throw new IllegalStateException("No se pudo leer el rango [" + start + ", " + end + ")", e);
+            }
+        }
+    }
+}
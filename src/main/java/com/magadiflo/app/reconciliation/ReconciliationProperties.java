@@ -0,0 +1,25 @@
+package com.magadiflo.app.reconciliation;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * @param expectedTotal saldo total esperado; si no se indica, el reporte solo informa el total encontrado.
+ * @param maxPoolShare  fracción máxima de las conexiones del pool que puede ocupar el job.
+ * @param backoff       pausa antes de tomar una conexión mientras haya peticiones esperando una.
+ * @param maxRescans    veces que se vuelven a leer todos los rangos si hubo transferencias durante la lectura.
+ */
+@ConfigurationProperties(prefix = "app.reconciliation")
+public record ReconciliationProperties(@DefaultValue("false") boolean enabled,
+                                       @DefaultValue("0 0 2 * * *") String cron,
+                                       @DefaultValue("10000") int chunkSize,
+                                       @DefaultValue("4") int parallelism,
+                                       @DefaultValue("0.25") double maxPoolShare,
+                                       @DefaultValue("50ms") Duration backoff,
+                                       @DefaultValue("1000") int maxAnomalies,
+                                       @DefaultValue("3") int maxRescans,
+                                       BigDecimal expectedTotal) {
+}
@@ -0,0 +1,25 @@
+package com.magadiflo.app.reconciliation;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param resumedChunks rangos que ya estaban registrados por una ejecución interrumpida y no se volvieron a leer.
+ * @param rescans       veces que se volvieron a leer todos los rangos porque hubo transferencias durante la lectura.
+ * @param consistent    si ninguna transferencia se confirmó entre la lectura del primer rango y la del último, de modo
+ *                      que el total corresponde a un único estado de la base de datos.
+ * @param anomalies     como máximo {@code max-anomalies} cuentas, ordenadas por id.
+ */
+public record ReconciliationReport(long runId, BigDecimal total, long accounts, int chunks, int resumedChunks,
+                                   int rescans, boolean consistent, BigDecimal expectedTotal, long anomalyCount,
+                                   List<Anomaly> anomalies, Duration duration) {
+
+    public boolean matchesExpectedTotal() {
+        return this.expectedTotal == null || this.expectedTotal.compareTo(this.total) == 0;
+    }
+
+    public boolean balanced() {
+        return this.consistent && this.matchesExpectedTotal() && this.anomalyCount == 0;
+    }
+}
@@ -0,0 +1,112 @@
+package com.magadiflo.app.reconciliation;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Registro de las ejecuciones de conciliación. Cada rango terminado se guarda junto con sus anomalías en una misma
+ * transacción, de modo que una ejecución interrumpida puede continuar desde los rangos que faltan.
+ */
+public class ReconciliationStore {
+    static final String RUNNING = "RUNNING";
+    static final String COMPLETED = "COMPLETED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReconciliationStore(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public Optional<Run> findUnfinishedRun() {
+        return this.jdbcTemplate.query("SELECT id, chunk_size, min_id, max_id, transfer_mark FROM reconciliation_runs " +
+                                "WHERE status = ? ORDER BY id DESC",
+                        (rs, rowNum) -> new Run(rs.getLong(1), rs.getInt(2), rs.getLong(3), rs.getLong(4), rs.getLong(5)),
+                        RUNNING)
+                .stream().findFirst();
+    }
+
+    /**
+     * Suma de los contadores de transferencias de los bancos. Todos los caminos que aplican transferencias sobre la base
+     * de datos lo incrementan en la misma transacción que mueve los saldos, así que si no cambió entre dos lecturas,
+     * ninguna transferencia se confirmó en medio.
+     */
+    public long transferMark() {
+        return this.jdbcTemplate.queryForObject("SELECT COALESCE(SUM(total_transfers), 0) FROM banks", Long.class);
+    }
+
+    public Run startRun(int chunkSize, long minId, long maxId, long transferMark) {
+        Long lastId = this.jdbcTemplate.queryForObject("SELECT MAX(id) FROM reconciliation_runs", Long.class);
+        Run run = new Run(lastId == null ? 1L : lastId + 1, chunkSize, minId, maxId, transferMark);
+        this.jdbcTemplate.update("INSERT INTO reconciliation_runs(id, chunk_size, min_id, max_id, transfer_mark, status, " +
+                        "started_at) VALUES(?, ?, ?, ?, ?, ?, ?)",
+                run.id(), run.chunkSize(), run.minId(), run.maxId(), run.transferMark(), RUNNING,
+                Timestamp.from(Instant.now()));
+        return run;
+    }
+
+    /**
+     * Descarta los rangos leídos de la ejecución para volver a leerlos todos a partir de la nueva marca.
+     */
+    public Run restartRun(Run run, long transferMark) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.jdbcTemplate.update("DELETE FROM reconciliation_anomalies WHERE run_id = ?", run.id());
+            this.jdbcTemplate.update("DELETE FROM reconciliation_chunks WHERE run_id = ?", run.id());
+            this.jdbcTemplate.update("UPDATE reconciliation_runs SET transfer_mark = ? WHERE id = ?", transferMark, run.id());
+        });
+        return new Run(run.id(), run.chunkSize(), run.minId(), run.maxId(), transferMark);
+    }
+
+    public Set<Long> completedChunks(long runId) {
+        return new HashSet<>(this.jdbcTemplate.queryForList(
+                "SELECT chunk_start FROM reconciliation_chunks WHERE run_id = ?", Long.class, runId));
+    }
+
+    public void saveChunk(long runId, ChunkResult chunk) {
+        this.transactionTemplate.executeWithoutResult(status -> {
+            this.jdbcTemplate.update("INSERT INTO reconciliation_chunks(run_id, chunk_start, total, accounts) VALUES(?, ?, ?, ?)",
+                    runId, chunk.start(), chunk.total(), chunk.accounts());
+            if (!chunk.anomalies().isEmpty()) {
+                this.jdbcTemplate.batchUpdate("INSERT INTO reconciliation_anomalies(run_id, account_id, balance) VALUES(?, ?, ?)",
+                        chunk.anomalies().stream()
+                                .map(anomaly -> new Object[]{runId, anomaly.accountId(), anomaly.balance()})
+                                .toList());
+            }
+        });
+    }
+
+    public Totals totals(long runId) {
+        return this.jdbcTemplate.queryForObject("SELECT COALESCE(SUM(total), 0), COALESCE(SUM(accounts), 0), " +
+                        "(SELECT COUNT(*) FROM reconciliation_anomalies WHERE run_id = ?) " +
+                        "FROM reconciliation_chunks WHERE run_id = ?",
+                (rs, rowNum) -> new Totals(rs.getBigDecimal(1), rs.getLong(2), rs.getLong(3)), runId, runId);
+    }
+
+    public List<Anomaly> anomalies(long runId, int limit) {
+        return this.jdbcTemplate.query("SELECT account_id, balance FROM reconciliation_anomalies WHERE run_id = ? " +
+                        "ORDER BY account_id LIMIT ?",
+                (rs, rowNum) -> new Anomaly(rs.getLong(1), rs.getBigDecimal(2)), runId, limit);
+    }
+
+    public void completeRun(long runId, Totals totals) {
+        this.jdbcTemplate.update("UPDATE reconciliation_runs SET status = ?, finished_at = ?, total = ?, accounts = ? " +
+                        "WHERE id = ?",
+                COMPLETED, Timestamp.from(Instant.now()), totals.total(), totals.accounts(), runId);
+    }
+
+    public record Run(long id, int chunkSize, long minId, long maxId, long transferMark) {
+    }
+
+    public record Totals(BigDecimal total, long accounts, long anomalies) {
+    }
+}
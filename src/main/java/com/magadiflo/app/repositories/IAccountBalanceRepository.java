@@ -0,0 +1,13 @@
+package com.magadiflo.app.repositories;
+
+import com.magadiflo.app.models.dto.AccountBalanceDTO;
+
+import java.util.Optional;
+
+public interface IAccountBalanceRepository {
+    /**
+     * Lee solo el id y el saldo con una consulta JDBC, sin pasar por el contexto de persistencia: no ve los cambios
+     * de la transacción actual que Hibernate aún no haya enviado a la base de datos.
+     */
+    Optional<AccountBalanceDTO> findBalanceById(Long id);
+}
@@ -0,0 +1,20 @@
+package com.magadiflo.app.repositories;
+
+import com.magadiflo.app.models.dto.AccountBalanceDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+
+public class IAccountBalanceRepositoryImpl implements IAccountBalanceRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public IAccountBalanceRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Optional<AccountBalanceDTO> findBalanceById(Long id) {
+        return this.jdbcTemplate.query("SELECT id, balance FROM accounts WHERE id = ?",
+                (rs, rowNum) -> new AccountBalanceDTO(rs.getLong(1), rs.getBigDecimal(2)), id).stream().findFirst();
+    }
+}
@@ -0,0 +1,14 @@
+package com.magadiflo.app.repositories;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public interface IAccountCreditRepository {
+    /**
+     * Abona los montos con una sola actualización por lotes (JDBC batch), sin cargar las cuentas en el contexto de
+     * persistencia.
+     *
+     * @return las filas actualizadas por cada cuenta, en el orden del mapa.
+     */
+    int[] creditAll(Map<Long, BigDecimal> amounts);
+}
@@ -0,0 +1,23 @@
+package com.magadiflo.app.repositories;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+public class IAccountCreditRepositoryImpl implements IAccountCreditRepository {
+    private final JdbcTemplate jdbcTemplate;
+
+    public IAccountCreditRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int[] creditAll(Map<Long, BigDecimal> amounts) {
+        List<Object[]> rows = amounts.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        return this.jdbcTemplate.batchUpdate("UPDATE accounts SET balance = balance + ? WHERE id = ?", rows);
+    }
+}
@@ -1,14 +1,56 @@
 package com.magadiflo.app.repositories;
 
 import com.magadiflo.app.models.Account;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
-public interface IAccountRepository extends JpaRepository<Account, Long> {
+public interface IAccountRepository extends JpaRepository<Account, Long>, IAccountCreditRepository,
+        IAccountBalanceRepository {
     Optional<Account> findByPerson(String person);
 
     @Query(value = "SELECT a FROM Account AS a WHERE a.person = ?1")
     Optional<Account> findAccountByPerson(String person);
+
+    /**
+     * Listado de solo lectura: las cuentas se construyen directamente desde la consulta y no quedan administradas por
+     * el contexto de persistencia (no hay instantáneas ni dirty checking), así que sus cambios no se guardan. Para
+     * modificar una cuenta, usar findById.
+     */
+    @Query(value = "SELECT new com.magadiflo.app.models.Account(a.id, a.person, a.balance) FROM Account AS a ORDER BY a.id")
+    List<Account> findAllUnmanaged();
+
+    /**
+     * Igual que {@link #findAllUnmanaged()}, restringido a los ids indicados.
+     */
+    @Query(value = "SELECT new com.magadiflo.app.models.Account(a.id, a.person, a.balance) FROM Account AS a WHERE a.id IN :ids")
+    List<Account> findUnmanagedByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByIdIn(Collection<Long> ids);
+
+    /**
+     * Carga las cuentas con {@code SELECT ... FOR UPDATE}, en orden de id para que dos transacciones no se bloqueen
+     * mutuamente. Quedan en el contexto de persistencia, así que los findById posteriores de la misma transacción no
+     * vuelven a consultar; las escrituras por SQL sobre esas filas (intereses) esperan a que la transacción confirme.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query(value = "SELECT a FROM Account AS a WHERE a.id IN :ids ORDER BY a.id")
+    List<Account> lockAllById(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Descuenta el monto solo si alcanza el saldo, en una única sentencia.
+     *
+     * @return 1 si se debitó; 0 si la cuenta no existe o no tiene saldo suficiente.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE Account AS a SET a.balance = a.balance - :amount WHERE a.id = :id AND a.balance >= :amount")
+    int debitIfSufficient(@Param("id") Long id, @Param("amount") BigDecimal amount);
 }
@@ -2,7 +2,13 @@ package com.magadiflo.app.repositories;
 
 import com.magadiflo.app.models.Bank;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface IBankRepository extends JpaRepository<Bank, Long> {
 
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE Bank AS b SET b.totalTransfers = b.totalTransfers + :count WHERE b.id = :id")
+    int incrementTotalTransfers(@Param("id") Long id, @Param("count") int count);
 }
@@ -0,0 +1,189 @@
+package com.magadiflo.app.scheduledtransfer;
+
+import java.util.function.Consumer;
+
+/**
+ * Rueda de tiempo jerárquica: el nivel {@code k} tiene {@code wheelSize} ranuras de {@code tick * wheelSize^k}. Una
+ * entrada se ubica en el nivel más bajo que alcanza su vencimiento y, cuando su ranura llega al frente, baja de nivel
+ * hasta vencer en el nivel 0. Insertar y cancelar son O(1) (listas doblemente enlazadas por ranura); avanzar cuesta
+ * un paso por tick más las entradas que bajan o vencen. Las entradas más allá del último nivel esperan en su última
+ * ranura y se reubican en cada vuelta.
+ * <p>
+ * No es segura entre hilos: quien la usa debe sincronizar.
+ */
+public class HierarchicalTimingWheel<T> {
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final Bucket<T>[][] levels;
+    private final Bucket<T> due = new Bucket<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("El tick, el tamaño de la rueda y los niveles deben ser positivos");
+        }
+        int size = Integer.highestOneBit(wheelSize - 1) << 1;
+        this.bits = Integer.numberOfTrailingZeros(size);
+        if ((long) this.bits * levels >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Demasiados niveles para el tamaño de la rueda");
+        }
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.levels = new Bucket[levels][size];
+        for (Bucket<T>[] level : this.levels) {
+            for (int slot = 0; slot < size; slot++) {
+                level[slot] = new Bucket<>();
+            }
+        }
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    /**
+     * Si el vencimiento ya pasó, la entrada vence en el próximo {@link #advance}.
+     */
+    public Timeout<T> schedule(T value, long deadlineMillis) {
+        Timeout<T> timeout = new Timeout<>(value, -Math.floorDiv(-deadlineMillis, this.tickMillis));
+        this.place(timeout);
+        this.size++;
+        return timeout;
+    }
+
+    public boolean cancel(Timeout<T> timeout) {
+        if (timeout.bucket == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Avanza hasta {@code nowMillis} entregando las entradas vencidas en orden de tick.
+     */
+    public void advance(long nowMillis, Consumer<T> expired) {
+        this.expire(this.due, expired);
+        long targetTick = Math.floorDiv(nowMillis, this.tickMillis);
+        while (this.currentTick < targetTick) {
+            if (this.size == 0) {
+                this.currentTick = targetTick;
+                return;
+            }
+            this.currentTick++;
+            for (int level = this.levels.length - 1; level > 0; level--) {
+                int shift = level * this.bits;
+                if ((this.currentTick & ((1L << shift) - 1)) == 0) {
+                    this.cascade(this.levels[level][(int) (this.currentTick >>> shift) & this.mask]);
+                }
+            }
+            this.expire(this.levels[0][(int) this.currentTick & this.mask], expired);
+            this.expire(this.due, expired);
+        }
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    private void place(Timeout<T> timeout) {
+        long deadlineTick = timeout.deadlineTick;
+        if (deadlineTick <= this.currentTick) {
+            this.due.add(timeout);
+            return;
+        }
+        int top = this.levels.length - 1;
+        for (int level = 0; level <= top; level++) {
+            int shift = level * this.bits;
+            long slotTick = deadlineTick >>> shift;
+            if (slotTick - (this.currentTick >>> shift) <= this.mask) {
+                this.levels[level][(int) slotTick & this.mask].add(timeout);
+                return;
+            }
+        }
+        long lastSlot = (this.currentTick >>> (top * this.bits)) + this.mask;
+        this.levels[top][(int) lastSlot & this.mask].add(timeout);
+    }
+
+    private void cascade(Bucket<T> bucket) {
+        Timeout<T> timeout = bucket.head;
+        bucket.clear();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            this.place(timeout);
+            timeout = next;
+        }
+    }
+
+    private void expire(Bucket<T> bucket, Consumer<T> expired) {
+        Timeout<T> timeout = bucket.head;
+        bucket.clear();
+        while (timeout != null) {
+            Timeout<T> next = timeout.next;
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            this.size--;
+            expired.accept(timeout.value);
+            timeout = next;
+        }
+    }
+
+    public static final class Timeout<T> {
+        private final T value;
+        private final long deadlineTick;
+        private Bucket<T> bucket;
+        private Timeout<T> prev;
+        private Timeout<T> next;
+
+        private Timeout(T value, long deadlineTick) {
+            this.value = value;
+            this.deadlineTick = deadlineTick;
+        }
+
+        public T value() {
+            return this.value;
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        private void add(Timeout<T> timeout) {
+            timeout.bucket = this;
+            timeout.prev = this.tail;
+            if (this.tail == null) {
+                this.head = timeout;
+            } else {
+                this.tail.next = timeout;
+            }
+            this.tail = timeout;
+        }
+
+        private void remove(Timeout<T> timeout) {
+            if (timeout.prev == null) {
+                this.head = timeout.next;
+            } else {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next == null) {
+                this.tail = timeout.prev;
+            } else {
+                timeout.next.prev = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        private void clear() {
+            this.head = null;
+            this.tail = null;
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.magadiflo.app.scheduledtransfer;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record ScheduledTransfer(Long id, Long bankId, Long accountIdOrigin, Long accountIdDestination, BigDecimal amount,
+                                Instant executeAt) {
+}
@@ -0,0 +1,38 @@
+package com.magadiflo.app.scheduledtransfer;
+
+import com.magadiflo.app.services.IAccountService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.scheduled-transfers", name = "enabled", havingValue = "true")
+public class ScheduledTransferConfig {
+
+    /**
+     * Las cuentas particionadas confirman cada transferencia en sus propios shards, fuera de la transacción que marca
+     * la programada como ejecutada, así que no se podría garantizar que se aplique una sola vez.
+     */
+    public ScheduledTransferConfig(Environment environment) {
+        if (environment.getProperty("app.sharding.enabled", Boolean.class, false)) {
+            throw new IllegalStateException("Las transferencias programadas (app.scheduled-transfers.enabled) no pueden "
+                    + "habilitarse junto con las cuentas particionadas (app.sharding.enabled)");
+        }
+    }
+
+    @Bean
+    public ScheduledTransferStore scheduledTransferStore(JdbcTemplate jdbcTemplate) {
+        return new ScheduledTransferStore(jdbcTemplate);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ScheduledTransferScheduler scheduledTransferScheduler(ScheduledTransferProperties properties,
+                                                                 ScheduledTransferStore scheduledTransferStore,
+                                                                 IAccountService accountService,
+                                                                 PlatformTransactionManager transactionManager) {
+        return new ScheduledTransferScheduler(properties, scheduledTransferStore, accountService, transactionManager);
+    }
+}
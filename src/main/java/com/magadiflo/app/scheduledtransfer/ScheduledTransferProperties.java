@@ -0,0 +1,26 @@
+package com.magadiflo.app.scheduledtransfer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param horizon        solo las transferencias que vencen dentro de este plazo se cargan en memoria.
+ * @param reloadInterval cada cuánto se carga el siguiente tramo del horizonte; debe ser menor que {@code horizon}.
+ * @param retryDelay     espera antes de reintentar una transferencia que falló por un error transitorio.
+ * @param maxRetries     reintentos tras los cuales una transferencia con errores transitorios se marca como fallida.
+ */
+@ConfigurationProperties(prefix = "app.scheduled-transfers")
+public record ScheduledTransferProperties(@DefaultValue("false") boolean enabled,
+                                          @DefaultValue("100ms") Duration tick,
+                                          @DefaultValue("512") int wheelSize,
+                                          @DefaultValue("4") int levels,
+                                          @DefaultValue("1h") Duration horizon,
+                                          @DefaultValue("5m") Duration reloadInterval,
+                                          @DefaultValue("200") int batchSize,
+                                          @DefaultValue("10000") int loadPageSize,
+                                          @DefaultValue("2") int executorThreads,
+                                          @DefaultValue("5s") Duration retryDelay,
+                                          @DefaultValue("10") int maxRetries) {
+}
@@ -0,0 +1,284 @@
+package com.magadiflo.app.scheduledtransfer;
+
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import com.magadiflo.app.services.IAccountService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ejecuta las transferencias programadas. Las que vencen dentro del horizonte se cargan desde la tabla en una
+ * {@link HierarchicalTimingWheel}, así que no se consulta la tabla en cada tick: cada {@code reloadInterval} se carga
+ * el siguiente tramo (y las vencidas que no estén en memoria, por ejemplo tras un reinicio). Las que vencen en cada
+ * tick se reparten por lotes entre los hilos de ejecución; cada una se aplica con {@link IAccountService#transfer} en
+ * la misma transacción que la marca como ejecutada, y los fallos de un lote se registran con una sola sentencia.
+ * <p>
+ * Los errores transitorios (límite de velocidad, bloqueos, timeouts, base de datos no disponible) revierten esa
+ * transacción, así que la transferencia sigue pendiente y se vuelve a cargar en la rueda tras {@code retryDelay}
+ * (o el {@code Retry-After} del límite, si es mayor) hasta {@code maxRetries} veces.
+ */
+public class ScheduledTransferScheduler implements MeterBinder, AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ScheduledTransferScheduler.class);
+
+    private final ScheduledTransferProperties properties;
+    private final ScheduledTransferStore store;
+    private final IAccountService accountService;
+    private final TransactionTemplate transactionTemplate;
+    private final HierarchicalTimingWheel<ScheduledTransfer> wheel;
+    private final Map<Long, HierarchicalTimingWheel.Timeout<ScheduledTransfer>> loaded = new HashMap<>();
+    private final Map<Long, Integer> retries = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService executor;
+    private Instant loadedUntil = Instant.EPOCH;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+
+    public ScheduledTransferScheduler(ScheduledTransferProperties properties, ScheduledTransferStore store,
+                                      IAccountService accountService, PlatformTransactionManager transactionManager) {
+        if (properties.reloadInterval().compareTo(properties.horizon()) >= 0) {
+            throw new IllegalArgumentException("El intervalo de recarga debe ser menor que el horizonte");
+        }
+        this.properties = properties;
+        this.store = store;
+        this.accountService = accountService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.wheel = new HierarchicalTimingWheel<>(properties.tick().toMillis(), properties.wheelSize(),
+                properties.levels(), System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfers-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger executorCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.executorThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "scheduled-transfers-" + executorCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        this.reload();
+        long tick = this.properties.tick().toMillis();
+        this.ticker.scheduleAtFixedRate(this::tickQuietly, tick, tick, TimeUnit.MILLISECONDS);
+        long reload = this.properties.reloadInterval().toMillis();
+        this.ticker.scheduleWithFixedDelay(this::reloadQuietly, reload, reload, TimeUnit.MILLISECONDS);
+    }
+
+    public ScheduledTransfer schedule(Long bankId, Long accountIdOrigin, Long accountIdDestination, BigDecimal amount,
+                                      Instant executeAt) {
+        if (bankId == null || accountIdOrigin == null || accountIdDestination == null || executeAt == null) {
+            throw new IllegalArgumentException("El banco, las cuentas y la fecha de ejecución son obligatorios");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new IllegalArgumentException("El monto debe ser positivo");
+        }
+        if (accountIdOrigin.equals(accountIdDestination)) {
+            throw new IllegalArgumentException("La cuenta destino debe ser distinta de la cuenta origen");
+        }
+        ScheduledTransfer transfer = this.store.insert(bankId, accountIdOrigin, accountIdDestination, amount, executeAt);
+        synchronized (this) {
+            if (executeAt.isBefore(this.loadedUntil)) {
+                this.add(transfer);
+            }
+        }
+        return transfer;
+    }
+
+    public boolean cancel(long id) {
+        if (!this.store.cancel(id)) {
+            return false;
+        }
+        synchronized (this) {
+            HierarchicalTimingWheel.Timeout<ScheduledTransfer> timeout = this.loaded.remove(id);
+            if (timeout != null) {
+                this.wheel.cancel(timeout);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Carga las pendientes hasta el nuevo horizonte. Las que ya están en memoria se ignoran.
+     */
+    public synchronized void reload() {
+        Instant now = Instant.now();
+        Instant horizonEnd = now.plus(this.properties.horizon());
+        Instant overdueBefore = now.minus(this.properties.reloadInterval());
+        if (overdueBefore.isAfter(Instant.EPOCH) && this.loadedUntil.isAfter(Instant.EPOCH)) {
+            this.store.forEachPending(Instant.EPOCH, overdueBefore, this.properties.loadPageSize(), this::add);
+        }
+        this.store.forEachPending(this.loadedUntil, horizonEnd, this.properties.loadPageSize(), this::add);
+        this.loadedUntil = horizonEnd;
+    }
+
+    /**
+     * Avanza la rueda hasta ahora y envía a ejecutar las transferencias vencidas.
+     *
+     * @return la cantidad de transferencias enviadas a ejecutar.
+     */
+    public int tick() {
+        List<ScheduledTransfer> due = new ArrayList<>();
+        synchronized (this) {
+            this.wheel.advance(System.currentTimeMillis(), transfer -> {
+                this.loaded.remove(transfer.id());
+                due.add(transfer);
+            });
+        }
+        int batchSize = Math.max(1, this.properties.batchSize());
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<ScheduledTransfer> batch = due.subList(from, Math.min(due.size(), from + batchSize));
+            this.executor.execute(() -> this.execute(batch));
+        }
+        return due.size();
+    }
+
+    public synchronized int pending() {
+        return this.wheel.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.scheduled_transfers.executed", this.executed, LongAdder::sum)
+                .description("Transferencias programadas ejecutadas")
+                .register(registry);
+        FunctionCounter.builder("accounts.scheduled_transfers.failed", this.failed, LongAdder::sum)
+                .description("Transferencias programadas que fallaron")
+                .register(registry);
+        FunctionCounter.builder("accounts.scheduled_transfers.retried", this.retried, LongAdder::sum)
+                .description("Transferencias programadas reintentadas tras un error transitorio")
+                .register(registry);
+        Gauge.builder("accounts.scheduled_transfers.loaded", this, ScheduledTransferScheduler::pending)
+                .description("Transferencias programadas cargadas en memoria")
+                .register(registry);
+    }
+
+    @Override
+    public void close() {
+        this.ticker.shutdown();
+        this.executor.shutdown();
+        try {
+            this.executor.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void add(ScheduledTransfer transfer) {
+        this.add(transfer, transfer.executeAt().toEpochMilli());
+    }
+
+    private void add(ScheduledTransfer transfer, long deadlineMillis) {
+        if (!this.loaded.containsKey(transfer.id())) {
+            this.loaded.put(transfer.id(), this.wheel.schedule(transfer, deadlineMillis));
+        }
+    }
+
+    private void execute(List<ScheduledTransfer> batch) {
+        Map<Long, String> failures = new LinkedHashMap<>();
+        for (ScheduledTransfer transfer : batch) {
+            try {
+                Boolean applied = this.transactionTemplate.execute(status -> {
+                    if (!this.store.markExecuted(transfer.id())) {
+                        return false;
+                    }
+                    this.accountService.transfer(transfer.bankId(), transfer.accountIdOrigin(),
+                            transfer.accountIdDestination(), transfer.amount());
+                    return true;
+                });
+                if (Boolean.TRUE.equals(applied)) {
+                    this.executed.increment();
+                }
+                this.retries.remove(transfer.id());
+            } catch (RuntimeException e) {
+                if (isTransient(e) && this.retry(transfer, e)) {
+                    continue;
+                }
+                this.retries.remove(transfer.id());
+                this.failed.increment();
+                failures.put(transfer.id(), e.getMessage());
+            }
+        }
+        try {
+            this.store.markFailed(failures);
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron registrar {} transferencias programadas fallidas: {}", failures.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return {@code false} si la transferencia ya agotó sus reintentos.
+     */
+    private boolean retry(ScheduledTransfer transfer, RuntimeException cause) {
+        int attempt = this.retries.merge(transfer.id(), 1, Integer::sum);
+        if (attempt > this.properties.maxRetries()) {
+            return false;
+        }
+        long delayMillis = this.properties.retryDelay().toMillis();
+        if (cause instanceof TooManyRequestsException tooManyRequests) {
+            delayMillis = Math.max(delayMillis, TimeUnit.SECONDS.toMillis(tooManyRequests.getRetryAfterSeconds()));
+        }
+        this.retried.increment();
+        synchronized (this) {
+            this.add(transfer, System.currentTimeMillis() + delayMillis);
+        }
+        return true;
+    }
+
+    private static boolean isTransient(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TooManyRequestsException
+                    || cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void tickQuietly() {
+        try {
+            this.tick();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron ejecutar las transferencias programadas: {}", e.getMessage());
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            this.reload();
+        } catch (RuntimeException e) {
+            log.warn("No se pudieron cargar las transferencias programadas: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.magadiflo.app.scheduledtransfer;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Tabla {@code scheduled_transfers}, con un índice por {@code (status, execute_at)} para cargar por tramos solo las
+ * pendientes. Una transferencia pasa de PENDING a EXECUTED en la misma transacción que la aplica, de modo que no se
+ * ejecuta dos veces aunque se cargue de nuevo.
+ */
+public class ScheduledTransferStore {
+    static final String PENDING = "PENDING";
+    static final String EXECUTED = "EXECUTED";
+    static final String FAILED = "FAILED";
+    static final String CANCELLED = "CANCELLED";
+
+    private static final RowMapper<ScheduledTransfer> ROW_MAPPER = (rs, rowNum) -> new ScheduledTransfer(rs.getLong(1),
+            rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getBigDecimal(5), rs.getTimestamp(6).toInstant());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScheduledTransferStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public ScheduledTransfer insert(Long bankId, Long accountIdOrigin, Long accountIdDestination,
+                                    BigDecimal amount, Instant executeAt) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        this.jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement("INSERT INTO scheduled_transfers" +
+                    "(bank_id, account_id_origin, account_id_destination, amount, execute_at, status) " +
+                    "VALUES(?, ?, ?, ?, ?, ?)", Statement.RETURN_GENERATED_KEYS);
+            statement.setLong(1, bankId);
+            statement.setLong(2, accountIdOrigin);
+            statement.setLong(3, accountIdDestination);
+            statement.setBigDecimal(4, amount);
+            statement.setTimestamp(5, Timestamp.from(executeAt));
+            statement.setString(6, PENDING);
+            return statement;
+        }, keyHolder);
+        Number id = keyHolder.getKey();
+        return new ScheduledTransfer(id == null ? null : id.longValue(), bankId, accountIdOrigin, accountIdDestination,
+                amount, executeAt);
+    }
+
+    /**
+     * Recorre por páginas (keyset sobre {@code execute_at, id}) las pendientes que vencen en {@code [from, to)}.
+     */
+    public void forEachPending(Instant from, Instant to, int pageSize, Consumer<ScheduledTransfer> consumer) {
+        String select = "SELECT id, bank_id, account_id_origin, account_id_destination, amount, execute_at " +
+                "FROM scheduled_transfers WHERE status = ? AND execute_at < ? ";
+        List<ScheduledTransfer> page = this.jdbcTemplate.query(select + "AND execute_at >= ? ORDER BY execute_at, id LIMIT ?",
+                ROW_MAPPER, PENDING, Timestamp.from(to), Timestamp.from(from), pageSize);
+        while (!page.isEmpty()) {
+            page.forEach(consumer);
+            if (page.size() < pageSize) {
+                return;
+            }
+            ScheduledTransfer last = page.get(page.size() - 1);
+            Timestamp lastExecuteAt = Timestamp.from(last.executeAt());
+            page = this.jdbcTemplate.query(select + "AND (execute_at > ? OR (execute_at = ? AND id > ?)) " +
+                            "ORDER BY execute_at, id LIMIT ?",
+                    ROW_MAPPER, PENDING, Timestamp.from(to), lastExecuteAt, lastExecuteAt, last.id(), pageSize);
+        }
+    }
+
+    /**
+     * Debe llamarse en la transacción que aplica la transferencia.
+     *
+     * @return {@code false} si ya no estaba pendiente (cancelada o ejecutada por otra instancia).
+     */
+    public boolean markExecuted(long id) {
+        return this.jdbcTemplate.update("UPDATE scheduled_transfers SET status = ?, executed_at = ? WHERE id = ? AND status = ?",
+                EXECUTED, Timestamp.from(Instant.now()), id, PENDING) == 1;
+    }
+
+    public void markFailed(Map<Long, String> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        this.jdbcTemplate.batchUpdate("UPDATE scheduled_transfers SET status = ?, executed_at = ?, failure = ? " +
+                        "WHERE id = ? AND status = ?",
+                failures.entrySet().stream()
+                        .map(failure -> new Object[]{FAILED, now, truncate(failure.getValue()), failure.getKey(), PENDING})
+                        .toList());
+    }
+
+    public boolean cancel(long id) {
+        return this.jdbcTemplate.update("UPDATE scheduled_transfers SET status = ? WHERE id = ? AND status = ?",
+                CANCELLED, id, PENDING) == 1;
+    }
+
+    public Optional<String> status(long id) {
+        return this.jdbcTemplate.queryForList("SELECT status FROM scheduled_transfers WHERE id = ?", String.class, id)
+                .stream().findFirst();
+    }
+
+
+    private static String truncate(String failure) {
+        if (failure == null) {
+            return null;
+        }
+        return failure.length() <= 255 ? failure : failure.substring(0, 255);
+    }
+}
@@ -0,0 +1,19 @@
+package com.magadiflo.app.services;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param window  cuánto espera la primera consulta por id a que lleguen otras para despacharlas en un solo lote.
+ * @param maxSize ids por lote; al completarse, el lote se despacha sin esperar la ventana.
+ */
+@ConfigurationProperties(prefix = "app.accounts.lookup-batch")
+public record AccountLookupProperties(@DefaultValue("500us") Duration window,
+                                      @DefaultValue("100") int maxSize) {
+
+    public static AccountLookupProperties defaults() {
+        return new AccountLookupProperties(Duration.ofNanos(500_000), 100);
+    }
+}
@@ -1,9 +1,12 @@
 package com.magadiflo.app.services;
 
 import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.models.dto.TransactionDTO;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface IAccountService {
@@ -11,6 +14,8 @@ public interface IAccountService {
 
     Optional<Account> findById(Long id);
 
+    List<Account> findAllById(List<Long> ids);
+
     Account save(Account account);
 
     int reviewTotalTransfers(Long bancoId);
@@ -19,5 +24,19 @@ public interface IAccountService {
 
     void transfer(Long bankId, Long accountIdOrigen, Long accountIdDestination, BigDecimal amount);
 
+    /**
+     * Aplica las transferencias en una sola transacción. Las que no superan la validación (datos incompletos, cuentas o
+     * banco inexistentes, saldo o límites insuficientes) no se aplican y las demás siguen su curso.
+     *
+     * @return el error de cada transferencia rechazada, indexado por su posición en la lista.
+     */
+    Map<Integer, RuntimeException> transferAll(List<TransactionDTO> transactions);
+
+    /**
+     * Debita una sola vez el total de los abonos y los acredita a cada cuenta destino. Si falta una cuenta o el saldo
+     * no alcanza, no se aplica ningún abono.
+     */
+    void transferToMany(Long bankId, Long accountIdOrigen, List<PayrollCreditDTO> credits);
+
     Optional<Boolean> deleteAccountById(Long id);
 }
@@ -1,44 +1,134 @@
 package com.magadiflo.app.services.impl;
 
+import com.magadiflo.app.balancestream.AccountsChangedEvent;
+import com.magadiflo.app.concurrent.BatchLoader;
+import com.magadiflo.app.concurrent.SingleFlight;
+import com.magadiflo.app.deadline.RequestDeadline;
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.exceptions.VelocityLimitExceededException;
+import com.magadiflo.app.jfr.AccountLookupEvent;
+import com.magadiflo.app.jfr.InsufficientMoneyEvent;
+import com.magadiflo.app.jfr.TransferEvent;
 import com.magadiflo.app.models.Account;
 import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.models.dto.AccountBalanceDTO;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.outbox.TransfersAppliedEvent;
 import com.magadiflo.app.repositories.IAccountRepository;
 import com.magadiflo.app.repositories.IBankRepository;
+import com.magadiflo.app.services.AccountLookupProperties;
 import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.velocity.VelocityGuard;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 @Service
-public class AccountServiceImpl implements IAccountService {
+public class AccountServiceImpl implements IAccountService, MeterBinder {
     private final IAccountRepository accountRepository;
     private final IBankRepository bankRepository;
+    private final SingleFlight<Long, Optional<Account>> accountLookups = new SingleFlight<>(account -> account
+            .map(AccountServiceImpl::copy));
+    private final SingleFlight<Long, Optional<AccountBalanceDTO>> balanceLookups = new SingleFlight<>(UnaryOperator.identity());
+    private final BatchLoader<Long, Account> accountBatchLoader;
+    private final TransactionTemplate readOnlyTransaction;
+    private final VelocityGuard velocityGuard;
+    private final ApplicationEventPublisher eventPublisher;
 
+    /**
+     * Sin control de velocidad ni publicación de eventos, con la agrupación de consultas por defecto y sin transacción
+     * propia para los lotes de consultas.
+     */
     public AccountServiceImpl(IAccountRepository accountRepository, IBankRepository bankRepository) {
+        this(accountRepository, bankRepository, AccountLookupProperties.defaults(), null, null, null);
+    }
+
+    @Autowired
+    public AccountServiceImpl(IAccountRepository accountRepository, IBankRepository bankRepository,
+                              AccountLookupProperties lookupProperties, VelocityGuard velocityGuard,
+                              ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+        AccountLookupProperties lookup = Objects.requireNonNullElse(lookupProperties, AccountLookupProperties.defaults());
         this.accountRepository = accountRepository;
         this.bankRepository = bankRepository;
+        this.accountBatchLoader = new BatchLoader<>(lookup.maxSize(), lookup.window().toNanos(), this::loadAccounts,
+                AccountServiceImpl::copy);
+        this.readOnlyTransaction = transactionManager == null ? null : readOnly(transactionManager);
+        this.velocityGuard = velocityGuard;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<Account> findAll() {
-        return this.accountRepository.findAll();
+        AccountLookupEvent event = AccountLookupEvent.start("findAll", null);
+        try {
+            List<Account> accounts = this.accountRepository.findAllUnmanaged();
+            event.found(accounts.size());
+            return accounts;
+        } finally {
+            event.finish();
+        }
     }
 
     @Override
-    @Transactional(readOnly = true)
     public Optional<Account> findById(Long id) {
-        return this.accountRepository.findById(id);
+        AccountLookupEvent event = AccountLookupEvent.start("findById", id);
+        try {
+            RequestDeadline.checkCurrent();
+            Optional<Account> account = TransactionSynchronizationManager.isActualTransactionActive()
+                    ? this.accountRepository.findById(id)
+                    : this.accountLookups.execute(id, () -> Optional.ofNullable(this.accountBatchLoader.load(id)));
+            event.found(account.isPresent() ? 1 : 0);
+            return account;
+        } finally {
+            event.finish();
+        }
+    }
+
+    @Override
+    public List<Account> findAllById(List<Long> ids) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            Map<Long, Account> accounts = this.accountRepository.findUnmanagedByIdIn(ids).stream()
+                    .collect(Collectors.toMap(Account::getId, Function.identity()));
+            return ids.stream().distinct().map(accounts::get).filter(Objects::nonNull).toList();
+        }
+        RequestDeadline.checkCurrent();
+        return new ArrayList<>(this.accountBatchLoader.loadAll(ids).values());
     }
 
     @Override
     @Transactional
     public Account save(Account account) {
-        return this.accountRepository.save(account);
+        Account accountDB = this.accountRepository.save(account);
+        this.accountsChanged(accountDB.getId());
+        return accountDB;
     }
 
     @Override
@@ -49,33 +139,129 @@ public class AccountServiceImpl implements IAccountService {
         return bank.getTotalTransfers();
     }
 
+    /**
+     * Fuera de una transacción solo lee el id y el saldo, y las consultas concurrentes de la misma cuenta se agrupan.
+     * Dentro de una, lee la entidad para ver los cambios aún no enviados a la base de datos.
+     */
     @Override
-    @Transactional(readOnly = true)
     public BigDecimal reviewBalance(Long accountId) {
-        Account account = this.accountRepository.findById(accountId)
-                .orElseThrow(() -> new NoSuchElementException("No existe la cuenta buscada"));
-        return account.getBalance();
+        AccountLookupEvent event = AccountLookupEvent.start("reviewBalance", accountId);
+        try {
+            RequestDeadline.checkCurrent();
+            Optional<AccountBalanceDTO> balance = TransactionSynchronizationManager.isActualTransactionActive()
+                    ? this.accountRepository.findById(accountId)
+                    .map(account -> new AccountBalanceDTO(account.getId(), account.getBalance()))
+                    : this.balanceLookups.execute(accountId,
+                    () -> this.readOnly(() -> this.accountRepository.findBalanceById(accountId)));
+            event.found(balance.isPresent() ? 1 : 0);
+            return balance.orElseThrow(() -> new NoSuchElementException("No existe la cuenta buscada")).balance();
+        } finally {
+            event.finish();
+        }
     }
 
     @Override
     @Transactional
     public void transfer(Long bankId, Long accountIdOrigen, Long accountIdDestination, BigDecimal amount) {
-        Account accountOrigen = this.accountRepository.findById(accountIdOrigen)
-                .orElseThrow(() -> new NoSuchElementException("No existe el id de la cuenta origen"));
-        Account accountDestination = this.accountRepository.findById(accountIdDestination)
-                .orElseThrow(() -> new NoSuchElementException("No existe el id de la cuenta destino"));
+        TransferEvent event = TransferEvent.start(bankId, accountIdOrigen, accountIdDestination);
+        try {
+            this.lockAccounts(List.of(new TransactionDTO(bankId, accountIdOrigen, accountIdDestination, amount)));
+            Account accountOrigen = this.accountRepository.findById(accountIdOrigen)
+                    .orElseThrow(() -> new NoSuchElementException("No existe el id de la cuenta origen"));
+            Account accountDestination = this.accountRepository.findById(accountIdDestination)
+                    .orElseThrow(() -> new NoSuchElementException("No existe el id de la cuenta destino"));
 
-        accountOrigen.debit(amount);
-        accountDestination.credit(amount);
+            this.admitVelocity(accountIdOrigen, amount);
+            this.debit(accountOrigen, amount);
+            accountDestination.credit(amount);
 
-        Bank bank = this.bankRepository.findById(bankId)
-                .orElseThrow(() -> new NoSuchElementException("No existe el id del banco"));
+            Bank bank = this.bankRepository.findById(bankId)
+                    .orElseThrow(() -> new NoSuchElementException("No existe el id del banco"));
 
-        bank.setTotalTransfers(bank.getTotalTransfers() + 1);
+            bank.setTotalTransfers(bank.getTotalTransfers() + 1);
 
-        this.accountRepository.save(accountOrigen);
-        this.accountRepository.save(accountDestination);
-        this.bankRepository.save(bank);
+            this.accountRepository.save(accountOrigen);
+            this.accountRepository.save(accountDestination);
+            this.bankRepository.save(bank);
+            this.publishApplied(List.of(new TransactionDTO(bankId, accountIdOrigen, accountIdDestination, amount)));
+            this.accountsChanged(accountIdOrigen, accountIdDestination);
+        } catch (RuntimeException e) {
+            event.failed(e);
+            throw e;
+        } finally {
+            event.finishAfterCompletion();
+        }
+    }
+
+    @Override
+    @Transactional
+    public Map<Integer, RuntimeException> transferAll(List<TransactionDTO> transactions) {
+        Map<Integer, RuntimeException> failures = new HashMap<>();
+        List<Long> touchedAccountIds = new ArrayList<>();
+        List<TransactionDTO> applied = new ArrayList<>(transactions.size());
+        this.lockAccounts(transactions);
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionDTO transaction = transactions.get(i);
+            VelocityGuard.Admission admission = null;
+            try {
+                transaction.validate();
+                Account accountOrigen = this.accountRepository.findById(transaction.accountIdOrigin())
+                        .orElseThrow(() -> new NoSuchElementException("No existe el id de la cuenta origen"));
+                Account accountDestination = this.accountRepository.findById(transaction.accountIdDestination())
+                        .orElseThrow(() -> new NoSuchElementException("No existe el id de la cuenta destino"));
+                Bank bank = this.bankRepository.findById(transaction.bankId())
+                        .orElseThrow(() -> new NoSuchElementException("No existe el id del banco"));
+
+                admission = this.admitVelocity(transaction.accountIdOrigin(), transaction.amount());
+                this.debit(accountOrigen, transaction.amount());
+                accountDestination.credit(transaction.amount());
+                bank.setTotalTransfers(bank.getTotalTransfers() + 1);
+
+                this.accountRepository.save(accountOrigen);
+                this.accountRepository.save(accountDestination);
+                this.bankRepository.save(bank);
+                touchedAccountIds.add(accountOrigen.getId());
+                touchedAccountIds.add(accountDestination.getId());
+                applied.add(transaction);
+            } catch (IllegalArgumentException | NoSuchElementException | InsufficientMoneyException
+                     | VelocityLimitExceededException e) {
+                if (this.velocityGuard != null) {
+                    this.velocityGuard.release(admission);
+                }
+                failures.put(i, e);
+            }
+        }
+        this.publishApplied(applied);
+        this.accountsChanged(touchedAccountIds.toArray(Long[]::new));
+        return failures;
+    }
+
+    @Override
+    @Transactional
+    public void transferToMany(Long bankId, Long accountIdOrigen, List<PayrollCreditDTO> credits) {
+        Map<Long, BigDecimal> amounts = PayrollCreditDTO.amountsByDestination(accountIdOrigen, credits);
+        BigDecimal total = amounts.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        if (this.accountRepository.countByIdIn(amounts.keySet()) != amounts.size()) {
+            throw new NoSuchElementException("No existe el id de la cuenta destino");
+        }
+        this.admitVelocity(accountIdOrigen, total);
+        if (this.accountRepository.debitIfSufficient(accountIdOrigen, total) == 0) {
+            Account accountOrigen = this.accountRepository.findById(accountIdOrigen)
+                    .orElseThrow(() -> new NoSuchElementException("No existe el id de la cuenta origen"));
+            this.debit(accountOrigen, total);
+        }
+        requireCredited(amounts.keySet(), this.accountRepository.creditAll(amounts));
+        if (this.bankRepository.incrementTotalTransfers(bankId, credits.size()) == 0) {
+            throw new NoSuchElementException("No existe el id del banco");
+        }
+        this.publishApplied(credits.stream()
+                .map(credit -> new TransactionDTO(bankId, accountIdOrigen, credit.accountIdDestination(), credit.amount()))
+                .toList());
+
+        List<Long> touchedAccountIds = new ArrayList<>(amounts.keySet());
+        touchedAccountIds.add(accountIdOrigen);
+        this.accountsChanged(touchedAccountIds.toArray(Long[]::new));
     }
 
     @Override
@@ -84,7 +270,163 @@ public class AccountServiceImpl implements IAccountService {
         return this.accountRepository.findById(id)
                 .map(accountDB -> {
                     this.accountRepository.deleteById(accountDB.getId());
+                    this.accountsChanged(accountDB.getId());
                     return true;
                 });
     }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.lookup.executions", this, AccountServiceImpl::lookupExecutions)
+                .description("Consultas de cuentas por id enviadas a la base de datos")
+                .register(registry);
+        FunctionCounter.builder("accounts.lookup.shared", this, AccountServiceImpl::lookupsShared)
+                .description("Consultas de cuentas por id resueltas con una consulta ya en curso")
+                .register(registry);
+        FunctionCounter.builder("accounts.lookup.batches", this, service -> service.accountBatchLoader.batches())
+                .description("Lotes de consultas de cuentas enviados a la base de datos")
+                .register(registry);
+        FunctionCounter.builder("accounts.lookup.batched_keys", this, service -> service.accountBatchLoader.keys())
+                .description("Ids de cuentas consultados mediante lotes")
+                .register(registry);
+        Gauge.builder("accounts.lookup.coalescing.ratio", this, AccountServiceImpl::lookupCoalescingRatio)
+                .description("Proporción de consultas de cuentas agrupadas")
+                .register(registry);
+    }
+
+    /**
+     * Bloquea de una vez, en orden de id, las cuentas de las transferencias que traen sus ids.
+     */
+    private void lockAccounts(List<TransactionDTO> transactions) {
+        Set<Long> ids = new TreeSet<>();
+        for (TransactionDTO transaction : transactions) {
+            if (transaction.accountIdOrigin() != null && transaction.accountIdDestination() != null) {
+                ids.add(transaction.accountIdOrigin());
+                ids.add(transaction.accountIdDestination());
+            }
+        }
+        if (!ids.isEmpty()) {
+            this.accountRepository.lockAllById(ids);
+        }
+    }
+
+    /**
+     * Se evalúa antes de debitar; si la transacción no confirma, la transferencia se descuenta de la ventana.
+     */
+    private VelocityGuard.Admission admitVelocity(Long accountIdOrigin, BigDecimal amount) {
+        return this.velocityGuard == null ? null : this.velocityGuard.admit(accountIdOrigin, amount);
+    }
+
+    /**
+     * El conteo de destinos no los bloquea: si uno se eliminó antes del abono, su fila no se actualiza y la excepción
+     * revierte también el débito. {@link java.sql.Statement#SUCCESS_NO_INFO} cuenta como abonado.
+     */
+    private static void requireCredited(Collection<Long> accountIds, int[] counts) {
+        if (counts.length != accountIds.size()) {
+            throw new IllegalStateException("Se esperaban " + accountIds.size() + " abonos y se aplicaron " + counts.length);
+        }
+        Iterator<Long> ids = accountIds.iterator();
+        for (int count : counts) {
+            Long accountId = ids.next();
+            if (count == 0) {
+                throw new NoSuchElementException("No existe el id de la cuenta destino " + accountId);
+            }
+        }
+    }
+
+    private void debit(Account account, BigDecimal amount) {
+        try {
+            account.debit(amount);
+        } catch (InsufficientMoneyException e) {
+            InsufficientMoneyEvent.emit(account.getId(), account.getBalance(), amount);
+            throw e;
+        }
+    }
+
+    /**
+     * Se publica dentro de la transacción: los listeners síncronos (el outbox) escriben junto con los saldos.
+     */
+    private void publishApplied(List<TransactionDTO> transfers) {
+        if (this.eventPublisher != null && !transfers.isEmpty()) {
+            this.eventPublisher.publishEvent(new TransfersAppliedEvent(transfers));
+        }
+    }
+
+    /**
+     * Invalida las consultas en curso tras el commit y avisa del cambio (el stream de saldos lo recibe después del commit).
+     */
+    private void accountsChanged(Long... accountIds) {
+        this.forgetLookupsAfterCommit(accountIds);
+        if (this.eventPublisher != null && accountIds.length > 0) {
+            this.eventPublisher.publishEvent(new AccountsChangedEvent(List.of(accountIds)));
+        }
+    }
+
+    /**
+     * Cada lote corre con el plazo que le asigna el {@link BatchLoader}.
+     */
+    private Map<Long, Account> loadAccounts(Set<Long> ids) {
+        return this.readOnly(() -> this.queryAccounts(ids));
+    }
+
+    /**
+     * Consulta en su propia transacción de solo lectura, sin instantáneas ni flush.
+     */
+    private <T> T readOnly(Supplier<T> query) {
+        return this.readOnlyTransaction == null ? query.get() : this.readOnlyTransaction.execute(status -> query.get());
+    }
+
+    private double lookupExecutions() {
+        return this.accountLookups.executions() + this.balanceLookups.executions();
+    }
+
+    private double lookupsShared() {
+        return this.accountLookups.shared() + this.balanceLookups.shared();
+    }
+
+    private double lookupCoalescingRatio() {
+        double total = this.lookupExecutions() + this.lookupsShared();
+        return total == 0 ? 0D : this.lookupsShared() / total;
+    }
+
+    private Map<Long, Account> queryAccounts(Set<Long> ids) {
+        if (ids.size() == 1) {
+            Long id = ids.iterator().next();
+            return this.accountRepository.findById(id)
+                    .map(account -> Map.of(id, account))
+                    .orElseGet(Map::of);
+        }
+        return this.accountRepository.findUnmanagedByIdIn(ids).stream()
+                .collect(Collectors.toMap(Account::getId, Function.identity()));
+    }
+
+    private static Account copy(Account account) {
+        return new Account(account.getId(), account.getPerson(), account.getBalance());
+    }
+
+    private static TransactionTemplate readOnly(PlatformTransactionManager transactionManager) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        return transactionTemplate;
+    }
+
+    private void forgetLookupsAfterCommit(Long... accountIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            this.forgetLookups(accountIds);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                forgetLookups(accountIds);
+            }
+        });
+    }
+
+    private void forgetLookups(Long... accountIds) {
+        for (Long accountId : accountIds) {
+            this.accountLookups.forget(accountId);
+            this.balanceLookups.forget(accountId);
+        }
+    }
 }
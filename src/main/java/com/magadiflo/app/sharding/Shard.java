@@ -0,0 +1,50 @@
+package com.magadiflo.app.sharding;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Una base de datos del conjunto de shards, con su propio pool y su propio administrador de transacciones.
+ */
+public final class Shard {
+    private final int index;
+    private final HikariDataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    Shard(int index, ShardingProperties.ShardProperties properties) {
+        this.index = index;
+        this.dataSource = new HikariDataSource();
+        this.dataSource.setPoolName("shard-" + index);
+        this.dataSource.setJdbcUrl(properties.url());
+        this.dataSource.setUsername(properties.username());
+        this.dataSource.setPassword(properties.password());
+        this.dataSource.setMaximumPoolSize(properties.maximumPoolSize());
+        this.jdbcTemplate = new JdbcTemplate(this.dataSource);
+        this.transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(this.dataSource));
+    }
+
+    public int index() {
+        return this.index;
+    }
+
+    public JdbcTemplate jdbcTemplate() {
+        return this.jdbcTemplate;
+    }
+
+    public TransactionTemplate transactionTemplate() {
+        return this.transactionTemplate;
+    }
+
+    void createSchema(Resource script) {
+        new ResourceDatabasePopulator(script).execute(this.dataSource);
+    }
+
+    void close() {
+        this.dataSource.close();
+    }
+}
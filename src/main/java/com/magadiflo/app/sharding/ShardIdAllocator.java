@@ -0,0 +1,58 @@
+package com.magadiflo.app.sharding;
+
+import java.util.List;
+
+/**
+ * Reparte ids globales por bloques (hi/lo). El contador vive en el primer shard; cada instancia reserva un bloque
+ * completo por viaje a la base de datos, por lo que los ids no son consecutivos entre instancias.
+ */
+public class ShardIdAllocator {
+    private final Shard sequenceShard;
+    private final String name;
+    private final int blockSize;
+    private long next;
+    private long limit;
+
+    public ShardIdAllocator(Shards shards, String table, int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("El tamaño del bloque de ids debe ser positivo");
+        }
+        this.sequenceShard = shards.get(0);
+        this.name = table;
+        this.blockSize = blockSize;
+        long maxId = shards.fanOut(shard -> {
+            Long max = shard.jdbcTemplate().queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+            return max == null ? 0L : max;
+        }).stream().mapToLong(Long::longValue).max().orElse(0L);
+        this.sequenceShard.transactionTemplate().executeWithoutResult(status -> {
+            List<Long> current = this.sequenceShard.jdbcTemplate().queryForList(
+                    "SELECT next_value FROM shard_sequences WHERE name = ? FOR UPDATE", Long.class, this.name);
+            if (current.isEmpty()) {
+                this.sequenceShard.jdbcTemplate().update(
+                        "INSERT INTO shard_sequences(name, next_value) VALUES(?, ?)", this.name, maxId + 1);
+            } else if (current.get(0) <= maxId) {
+                this.sequenceShard.jdbcTemplate().update(
+                        "UPDATE shard_sequences SET next_value = ? WHERE name = ?", maxId + 1, this.name);
+            }
+        });
+    }
+
+    public synchronized long next() {
+        if (this.next >= this.limit) {
+            this.next = this.reserveBlock();
+            this.limit = this.next + this.blockSize;
+        }
+        return this.next++;
+    }
+
+    private long reserveBlock() {
+        Long start = this.sequenceShard.transactionTemplate().execute(status -> {
+            Long value = this.sequenceShard.jdbcTemplate().queryForObject(
+                    "SELECT next_value FROM shard_sequences WHERE name = ? FOR UPDATE", Long.class, this.name);
+            this.sequenceShard.jdbcTemplate().update(
+                    "UPDATE shard_sequences SET next_value = ? WHERE name = ?", value + this.blockSize, this.name);
+            return value;
+        });
+        return start;
+    }
+}
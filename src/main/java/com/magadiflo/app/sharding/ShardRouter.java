@@ -0,0 +1,24 @@
+package com.magadiflo.app.sharding;
+
+/**
+ * Asigna cada id a un shard según su hash. Los ids consecutivos quedan repartidos entre todos los shards.
+ */
+public class ShardRouter {
+    private final int shardCount;
+
+    public ShardRouter(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Debe haber al menos un shard");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int shardFor(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return Math.floorMod(h ^ (h >>> 29), this.shardCount);
+    }
+
+    public int shardCount() {
+        return this.shardCount;
+    }
+}
@@ -0,0 +1,181 @@
+package com.magadiflo.app.sharding;
+
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.exceptions.VelocityLimitExceededException;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.velocity.VelocityGuard;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Implementación de {@link IAccountService} sobre cuentas repartidas por hash de id entre varias bases de datos. Los
+ * bancos son datos de referencia y se replican en todos los shards; su total de transferencias es la suma de los
+ * contadores de cada shard.
+ */
+public class ShardedAccountService implements IAccountService {
+    private static final RowMapper<Account> ACCOUNT_MAPPER = (rs, rowNum) ->
+            new Account(rs.getLong("id"), rs.getString("person"), rs.getBigDecimal("balance"));
+
+    private final Shards shards;
+    private final ShardedTransferCoordinator coordinator;
+    private final ShardIdAllocator accountIds;
+    private final ShardIdAllocator bankIds;
+    private final VelocityGuard velocityGuard;
+
+    public ShardedAccountService(Shards shards, ShardedTransferCoordinator coordinator, ShardingProperties properties,
+                                 VelocityGuard velocityGuard) {
+        this.shards = shards;
+        this.coordinator = coordinator;
+        this.velocityGuard = velocityGuard;
+        this.accountIds = new ShardIdAllocator(shards, "accounts", properties.idBlockSize());
+        this.bankIds = new ShardIdAllocator(shards, "banks", properties.idBlockSize());
+    }
+
+    @Override
+    public List<Account> findAll() {
+        return this.shards.fanOut(shard -> shard.jdbcTemplate()
+                        .query("SELECT id, person, balance FROM accounts ORDER BY id", ACCOUNT_MAPPER))
+                .stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparing(Account::getId))
+                .toList();
+    }
+
+    @Override
+    public Optional<Account> findById(Long id) {
+        return this.shards.forId(id).jdbcTemplate()
+                .query("SELECT id, person, balance FROM accounts WHERE id = ?", ACCOUNT_MAPPER, id)
+                .stream()
+                .findFirst();
+    }
+
+    @Override
+    public List<Account> findAllById(List<Long> ids) {
+        Map<Shard, List<Long>> idsByShard = new LinkedHashMap<>();
+        ids.stream().distinct().forEach(id -> idsByShard.computeIfAbsent(this.shards.forId(id), shard -> new ArrayList<>()).add(id));
+        if (idsByShard.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Account> accounts = new HashMap<>();
+        this.shards.fanOut(new ArrayList<>(idsByShard.keySet()), shard -> {
+            List<Long> shardIds = idsByShard.get(shard);
+            String placeholders = String.join(", ", Collections.nCopies(shardIds.size(), "?"));
+            return shard.jdbcTemplate().query("SELECT id, person, balance FROM accounts WHERE id IN (" + placeholders + ")",
+                    ACCOUNT_MAPPER, shardIds.toArray());
+        }).forEach(found -> found.forEach(account -> accounts.put(account.getId(), account)));
+        return ids.stream().distinct().map(accounts::get).filter(Objects::nonNull).toList();
+    }
+
+    @Override
+    public Account save(Account account) {
+        long id = account.getId() != null ? account.getId() : this.accountIds.next();
+        Shard shard = this.shards.forId(id);
+        shard.transactionTemplate().executeWithoutResult(status -> {
+            int updated = shard.jdbcTemplate().update("UPDATE accounts SET person = ?, balance = ? WHERE id = ?",
+                    account.getPerson(), account.getBalance(), id);
+            if (updated == 0) {
+                shard.jdbcTemplate().update("INSERT INTO accounts(id, person, balance) VALUES(?, ?, ?)",
+                        id, account.getPerson(), account.getBalance());
+            }
+        });
+        return new Account(id, account.getPerson(), account.getBalance());
+    }
+
+    /**
+     * Registra el banco en todos los shards con el contador en cero.
+     */
+    public Bank saveBank(Bank bank) {
+        long id = bank.getId() != null ? bank.getId() : this.bankIds.next();
+        this.shards.fanOut(shard -> shard.jdbcTemplate().update("INSERT INTO banks(id, name, total_transfers) " +
+                "SELECT ?, ?, 0 WHERE NOT EXISTS (SELECT 1 FROM banks WHERE id = ?)", id, bank.getName(), id));
+        return new Bank(id, bank.getName(), this.reviewTotalTransfers(id));
+    }
+
+    @Override
+    public int reviewTotalTransfers(Long bancoId) {
+        List<List<Integer>> totals = this.shards.fanOut(shard -> shard.jdbcTemplate()
+                .queryForList("SELECT total_transfers FROM banks WHERE id = ?", Integer.class, bancoId));
+        if (totals.stream().allMatch(List::isEmpty)) {
+            throw new NoSuchElementException("No existe el banco buscado");
+        }
+        return totals.stream().flatMap(List::stream).mapToInt(Integer::intValue).sum();
+    }
+
+    @Override
+    public BigDecimal reviewBalance(Long accountId) {
+        Account account = this.findById(accountId)
+                .orElseThrow(() -> new NoSuchElementException("No existe la cuenta buscada"));
+        return account.getBalance();
+    }
+
+    @Override
+    public void transfer(Long bankId, Long accountIdOrigen, Long accountIdDestination, BigDecimal amount) {
+        this.velocityGuard.runAdmitted(accountIdOrigen, amount, () ->
+                this.coordinator.transfer(bankId, accountIdOrigen, accountIdDestination, amount));
+    }
+
+    /**
+     * A diferencia de la implementación con una sola base de datos, cada transferencia se confirma por separado: las
+     * cuentas de un lote pueden estar en shards distintos.
+     */
+    @Override
+    public Map<Integer, RuntimeException> transferAll(List<TransactionDTO> transactions) {
+        Map<Integer, RuntimeException> failures = new HashMap<>();
+        for (int i = 0; i < transactions.size(); i++) {
+            TransactionDTO transaction = transactions.get(i);
+            try {
+                this.transfer(transaction.bankId(), transaction.accountIdOrigin(), transaction.accountIdDestination(),
+                        transaction.amount());
+            } catch (NoSuchElementException | InsufficientMoneyException | VelocityLimitExceededException e) {
+                failures.put(i, e);
+            }
+        }
+        return failures;
+    }
+
+    @Override
+    public void transferToMany(Long bankId, Long accountIdOrigen, List<PayrollCreditDTO> credits) {
+        Map<Long, BigDecimal> amounts = PayrollCreditDTO.amountsByDestination(accountIdOrigen, credits);
+        BigDecimal total = amounts.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.velocityGuard.runAdmitted(accountIdOrigen, total, () ->
+                this.coordinator.transfer(bankId, accountIdOrigen, amounts, credits.size()));
+    }
+
+    /**
+     * No se puede eliminar una cuenta con una transferencia entre shards en curso: el crédito pendiente se perdería.
+     */
+    @Override
+    public Optional<Boolean> deleteAccountById(Long id) {
+        Shard shard = this.shards.forId(id);
+        return shard.transactionTemplate().execute(status -> {
+            List<Long> found = shard.jdbcTemplate().queryForList(
+                    "SELECT id FROM accounts WHERE id = ? FOR UPDATE", Long.class, id);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            Integer pending = shard.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM shard_pending_ops " +
+                    "WHERE target_id = ? AND kind IN (?, ?)", Integer.class, id,
+                    ShardedTransferCoordinator.DEBIT, ShardedTransferCoordinator.CREDIT);
+            if (pending > 0) {
+                throw new IllegalStateException("La cuenta tiene transferencias pendientes");
+            }
+            shard.jdbcTemplate().update("DELETE FROM accounts WHERE id = ?", id);
+            return Optional.of(true);
+        });
+    }
+}
@@ -0,0 +1,355 @@
+package com.magadiflo.app.sharding;
+
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Transferencias sobre cuentas repartidas en shards. Si todas las cuentas viven en el mismo shard, la transferencia es
+ * una transacción local. Si no, se usa un commit en dos fases:
+ * <ol>
+ *     <li>El shard de la cuenta origen actúa como coordinador y registra la transferencia como {@code PREPARING} en
+ *     {@code shard_transfer_log}.</li>
+ *     <li>Cada participante valida y deja sus operaciones en {@code shard_pending_ops}. El débito se reserva (se
+ *     descuenta) en esta fase; el crédito y el contador del banco quedan pendientes.</li>
+ *     <li>El coordinador cambia el registro a {@code COMMITTED}: ese es el punto de no retorno.</li>
+ *     <li>Cada participante aplica lo pendiente y borra sus operaciones; al final se borra el registro.</li>
+ * </ol>
+ * Si el proceso cae a mitad de camino, {@link #recover()} completa las transferencias decididas y aborta (devolviendo
+ * el débito reservado) las que no llegaron a decidirse. El contador de transferencias de cada banco está replicado en
+ * todos los shards y se incrementa en el shard de la cuenta origen.
+ */
+public class ShardedTransferCoordinator implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(ShardedTransferCoordinator.class);
+    static final String PREPARING = "PREPARING";
+    static final String COMMITTED = "COMMITTED";
+    static final String DEBIT = "DEBIT";
+    static final String CREDIT = "CREDIT";
+    static final String BANK = "BANK";
+
+    private final Shards shards;
+    private final Duration inDoubtTimeout;
+    private final Duration recoveryInterval;
+    private final ScheduledExecutorService recovery;
+
+    public ShardedTransferCoordinator(Shards shards, ShardingProperties properties) {
+        this.shards = shards;
+        this.inDoubtTimeout = properties.inDoubtTimeout();
+        this.recoveryInterval = properties.recoveryInterval();
+        this.recovery = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shard-transfer-recovery");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        this.recoverQuietly();
+        long interval = this.recoveryInterval.toMillis();
+        this.recovery.scheduleWithFixedDelay(this::recoverQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public void transfer(long bankId, long accountIdOrigin, long accountIdDestination, BigDecimal amount) {
+        this.transfer(bankId, accountIdOrigin, Map.of(accountIdDestination, amount), 1);
+    }
+
+    /**
+     * Debita la suma de los montos de la cuenta origen y los acredita a cada cuenta destino, como una sola
+     * transferencia: local si todas las cuentas viven en el shard de origen, en dos fases si no.
+     *
+     * @param legs abonos que suma el contador del banco.
+     */
+    public void transfer(long bankId, long accountIdOrigin, Map<Long, BigDecimal> credits, int legs) {
+        Shard origin = this.shards.forId(accountIdOrigin);
+        Map<Shard, Map<Long, BigDecimal>> creditsByShard = new LinkedHashMap<>();
+        credits.forEach((accountId, amount) -> creditsByShard
+                .computeIfAbsent(this.shards.forId(accountId), shard -> new LinkedHashMap<>())
+                .put(accountId, amount));
+        BigDecimal total = credits.values().stream().reduce(BigDecimal.ZERO, BigDecimal::add);
+        if (creditsByShard.keySet().equals(Set.of(origin))) {
+            this.transferLocally(origin, bankId, accountIdOrigin, credits, total, legs);
+        } else {
+            this.transferAcrossShards(origin, creditsByShard, bankId, accountIdOrigin, total, legs);
+        }
+    }
+
+    /**
+     * Resuelve las transferencias entre shards que quedaron a medias: completa las que tienen decisión
+     * {@code COMMITTED} y aborta las que llevan más de {@code in-doubt-timeout} sin decidirse.
+     *
+     * @return la cantidad de transferencias resueltas.
+     */
+    public synchronized int recover() {
+        Timestamp cutoff = Timestamp.from(Instant.now().minus(this.inDoubtTimeout));
+        int resolved = 0;
+        for (Shard coordinator : this.shards.all()) {
+            List<Map<String, Object>> entries = coordinator.jdbcTemplate().queryForList(
+                    "SELECT tx_id, state, participants, created_at FROM shard_transfer_log");
+            for (Map<String, Object> entry : entries) {
+                String txId = (String) entry.get("tx_id");
+                List<Shard> participants = this.participants((String) entry.get("participants"));
+                if (COMMITTED.equals(entry.get("state"))) {
+                    participants.forEach(participant -> this.commit(participant, txId));
+                    this.forget(coordinator, txId);
+                    resolved++;
+                } else if (((Timestamp) entry.get("created_at")).before(cutoff) && this.claimAbort(coordinator, txId)) {
+                    participants.forEach(participant -> this.abort(participant, txId));
+                    resolved++;
+                }
+            }
+        }
+        for (Shard participant : this.shards.all()) {
+            List<Map<String, Object>> orphans = participant.jdbcTemplate().queryForList(
+                    "SELECT DISTINCT tx_id, coordinator_shard FROM shard_pending_ops WHERE created_at < ?", cutoff);
+            for (Map<String, Object> orphan : orphans) {
+                String txId = (String) orphan.get("tx_id");
+                Shard coordinator = this.shards.get(((Number) orphan.get("coordinator_shard")).intValue());
+                Integer logged = coordinator.jdbcTemplate().queryForObject(
+                        "SELECT COUNT(*) FROM shard_transfer_log WHERE tx_id = ?", Integer.class, txId);
+                if (logged == 0) {
+                    this.abort(participant, txId);
+                    resolved++;
+                }
+            }
+        }
+        if (resolved > 0) {
+            log.info("Recuperación de transferencias entre shards: {} resueltas", resolved);
+        }
+        return resolved;
+    }
+
+    @Override
+    public void close() {
+        this.recovery.shutdownNow();
+    }
+
+    private void transferLocally(Shard shard, long bankId, long accountIdOrigin, Map<Long, BigDecimal> credits,
+                                 BigDecimal total, int legs) {
+        shard.transactionTemplate().executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = shard.jdbcTemplate();
+            Set<Long> ids = new HashSet<>(credits.keySet());
+            ids.add(accountIdOrigin);
+            Map<Long, BigDecimal> balances = lockBalances(jdbcTemplate, ids);
+            BigDecimal originBalance = balances.get(accountIdOrigin);
+            if (originBalance == null) {
+                throw new NoSuchElementException("No existe el id de la cuenta origen");
+            }
+            if (!balances.keySet().containsAll(credits.keySet())) {
+                throw new NoSuchElementException("No existe el id de la cuenta destino");
+            }
+            if (originBalance.compareTo(total) < 0) {
+                throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
+            }
+            jdbcTemplate.update("UPDATE accounts SET balance = balance - ? WHERE id = ?", total, accountIdOrigin);
+            creditAll(jdbcTemplate, credits);
+            incrementBank(jdbcTemplate, bankId, legs);
+        });
+    }
+
+    private void transferAcrossShards(Shard origin, Map<Shard, Map<Long, BigDecimal>> creditsByShard, long bankId,
+                                      long accountIdOrigin, BigDecimal total, int legs) {
+        String txId = UUID.randomUUID().toString();
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Shard> participants = new ArrayList<>();
+        participants.add(origin);
+        creditsByShard.keySet().stream().filter(shard -> shard != origin).forEach(participants::add);
+        origin.jdbcTemplate().update("INSERT INTO shard_transfer_log(tx_id, state, participants, created_at) VALUES(?, ?, ?, ?)",
+                txId, PREPARING, participants.stream().map(shard -> String.valueOf(shard.index())).collect(Collectors.joining(",")), now);
+        try {
+            int[] seq = {0};
+            for (Shard participant : participants) {
+                Map<Long, BigDecimal> credits = creditsByShard.getOrDefault(participant, Map.of());
+                participant.transactionTemplate().executeWithoutResult(status -> {
+                    JdbcTemplate jdbcTemplate = participant.jdbcTemplate();
+                    Set<Long> ids = new HashSet<>(credits.keySet());
+                    if (participant == origin) {
+                        ids.add(accountIdOrigin);
+                    }
+                    Map<Long, BigDecimal> balances = lockBalances(jdbcTemplate, ids);
+                    if (participant == origin) {
+                        BigDecimal balance = balances.get(accountIdOrigin);
+                        if (balance == null) {
+                            throw new NoSuchElementException("No existe el id de la cuenta origen");
+                        }
+                        if (balance.compareTo(total) < 0) {
+                            throw new InsufficientMoneyException("Dinero insuficiente en la cuenta");
+                        }
+                        Integer banks = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM banks WHERE id = ?", Integer.class, bankId);
+                        if (banks == 0) {
+                            throw new NoSuchElementException("No existe el id del banco");
+                        }
+                    }
+                    if (!balances.keySet().containsAll(credits.keySet())) {
+                        throw new NoSuchElementException("No existe el id de la cuenta destino");
+                    }
+                    if (participant == origin) {
+                        jdbcTemplate.update("UPDATE accounts SET balance = balance - ? WHERE id = ?", total, accountIdOrigin);
+                        this.addPendingOp(jdbcTemplate, txId, seq[0]++, DEBIT, accountIdOrigin, total, true, origin, now);
+                        this.addPendingOp(jdbcTemplate, txId, seq[0]++, BANK, bankId, BigDecimal.valueOf(legs), false, origin, now);
+                    }
+                    for (Map.Entry<Long, BigDecimal> credit : credits.entrySet()) {
+                        this.addPendingOp(jdbcTemplate, txId, seq[0]++, CREDIT, credit.getKey(), credit.getValue(), false, origin, now);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            if (this.claimAbort(origin, txId)) {
+                participants.forEach(participant -> this.abortQuietly(participant, txId));
+            }
+            throw e;
+        }
+
+        int decided = origin.jdbcTemplate().update(
+                "UPDATE shard_transfer_log SET state = ? WHERE tx_id = ? AND state = ?", COMMITTED, txId, PREPARING);
+        if (decided == 0) {
+            throw new IllegalStateException("La transferencia " + txId + " fue abortada por la recuperación");
+        }
+        try {
+            participants.forEach(participant -> this.commit(participant, txId));
+            this.forget(origin, txId);
+        } catch (RuntimeException e) {
+            log.warn("La transferencia {} quedó confirmada pero sin aplicar en todos los shards; se completará en la recuperación",
+                    txId, e);
+        }
+    }
+
+    private void addPendingOp(JdbcTemplate jdbcTemplate, String txId, int seq, String kind, long targetId,
+                              BigDecimal amount, boolean applied, Shard coordinator, Timestamp createdAt) {
+        jdbcTemplate.update("INSERT INTO shard_pending_ops(tx_id, seq, kind, target_id, amount, applied, coordinator_shard, created_at) " +
+                "VALUES(?, ?, ?, ?, ?, ?, ?, ?)", txId, seq, kind, targetId, amount, applied, coordinator.index(), createdAt);
+    }
+
+    /**
+     * Aplica las operaciones pendientes del participante. Es idempotente: si ya no hay operaciones, no hace nada.
+     */
+    private void commit(Shard participant, String txId) {
+        participant.transactionTemplate().executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = participant.jdbcTemplate();
+            for (PendingOp op : this.lockPendingOps(jdbcTemplate, txId)) {
+                if (op.applied()) {
+                    continue;
+                }
+                switch (op.kind()) {
+                    case CREDIT -> jdbcTemplate.update("UPDATE accounts SET balance = balance + ? WHERE id = ?",
+                            op.amount(), op.targetId());
+                    case BANK -> incrementBank(jdbcTemplate, op.targetId(), op.amount().intValueExact());
+                    default -> throw new IllegalStateException("Operación pendiente desconocida: " + op.kind());
+                }
+            }
+            jdbcTemplate.update("DELETE FROM shard_pending_ops WHERE tx_id = ?", txId);
+        });
+    }
+
+    /**
+     * Devuelve lo reservado por el participante y descarta sus operaciones. También es idempotente.
+     */
+    private void abort(Shard participant, String txId) {
+        participant.transactionTemplate().executeWithoutResult(status -> {
+            JdbcTemplate jdbcTemplate = participant.jdbcTemplate();
+            for (PendingOp op : this.lockPendingOps(jdbcTemplate, txId)) {
+                if (op.applied() && DEBIT.equals(op.kind())) {
+                    jdbcTemplate.update("UPDATE accounts SET balance = balance + ? WHERE id = ?", op.amount(), op.targetId());
+                }
+            }
+            jdbcTemplate.update("DELETE FROM shard_pending_ops WHERE tx_id = ?", txId);
+        });
+    }
+
+    private void abortQuietly(Shard participant, String txId) {
+        try {
+            this.abort(participant, txId);
+        } catch (RuntimeException e) {
+            log.warn("No se pudo abortar la transferencia {} en el shard {}; se reintentará en la recuperación",
+                    txId, participant.index(), e);
+        }
+    }
+
+    /**
+     * Borra el registro solo si la transferencia sigue sin decidirse, para no competir con un commit en curso.
+     */
+    private boolean claimAbort(Shard coordinator, String txId) {
+        return coordinator.jdbcTemplate().update(
+                "DELETE FROM shard_transfer_log WHERE tx_id = ? AND state = ?", txId, PREPARING) > 0;
+    }
+
+    private void forget(Shard coordinator, String txId) {
+        coordinator.jdbcTemplate().update("DELETE FROM shard_transfer_log WHERE tx_id = ?", txId);
+    }
+
+    private void recoverQuietly() {
+        try {
+            this.recover();
+        } catch (RuntimeException e) {
+            log.warn("Falló la recuperación de transferencias entre shards", e);
+        }
+    }
+
+    private List<PendingOp> lockPendingOps(JdbcTemplate jdbcTemplate, String txId) {
+        return jdbcTemplate.query("SELECT kind, target_id, amount, applied FROM shard_pending_ops WHERE tx_id = ? " +
+                        "ORDER BY seq FOR UPDATE",
+                (rs, rowNum) -> new PendingOp(rs.getString(1), rs.getLong(2), rs.getBigDecimal(3), rs.getBoolean(4)),
+                txId);
+    }
+
+    private List<Shard> participants(String participants) {
+        return Arrays.stream(participants.split(","))
+                .map(index -> this.shards.get(Integer.parseInt(index.trim())))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Bloquea las cuentas en orden de id, para que dos transferencias cruzadas no se bloqueen entre sí.
+     *
+     * @return el saldo de las cuentas que existen.
+     */
+    private static Map<Long, BigDecimal> lockBalances(JdbcTemplate jdbcTemplate, Set<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.query("SELECT id, balance FROM accounts WHERE id IN (" + placeholders + ") ORDER BY id FOR UPDATE",
+                rs -> {
+                    Map<Long, BigDecimal> balances = new HashMap<>();
+                    while (rs.next()) {
+                        balances.put(rs.getLong(1), rs.getBigDecimal(2));
+                    }
+                    return balances;
+                }, ids.toArray());
+    }
+
+    private static void creditAll(JdbcTemplate jdbcTemplate, Map<Long, BigDecimal> credits) {
+        jdbcTemplate.batchUpdate("UPDATE accounts SET balance = balance + ? WHERE id = ?", credits.entrySet().stream()
+                .map(credit -> new Object[]{credit.getValue(), credit.getKey()})
+                .toList());
+    }
+
+    private static void incrementBank(JdbcTemplate jdbcTemplate, long bankId, int count) {
+        if (jdbcTemplate.update("UPDATE banks SET total_transfers = total_transfers + ? WHERE id = ?", count, bankId) == 0) {
+            throw new NoSuchElementException("No existe el id del banco");
+        }
+    }
+
+    private record PendingOp(String kind, long targetId, BigDecimal amount, boolean applied) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.magadiflo.app.sharding;
+
+import com.magadiflo.app.velocity.VelocityGuard;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(initMethod = "createSchema", destroyMethod = "close")
+    public Shards shards(ShardingProperties properties) {
+        return new Shards(properties);
+    }
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public ShardedTransferCoordinator shardedTransferCoordinator(Shards shards, ShardingProperties properties) {
+        return new ShardedTransferCoordinator(shards, properties);
+    }
+
+    @Bean
+    @Primary
+    public ShardedAccountService shardedAccountService(Shards shards, ShardedTransferCoordinator shardedTransferCoordinator,
+                                                       ShardingProperties properties, VelocityGuard velocityGuard) {
+        return new ShardedAccountService(shards, shardedTransferCoordinator, properties, velocityGuard);
+    }
+}
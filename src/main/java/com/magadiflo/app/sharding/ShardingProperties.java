@@ -0,0 +1,27 @@
+package com.magadiflo.app.sharding;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param shards         el orden importa: el índice de cada shard forma parte del ruteo, así que agregar o quitar
+ *                       shards requiere redistribuir las cuentas.
+ * @param inDoubtTimeout antigüedad a partir de la cual la recuperación resuelve una transferencia entre shards que
+ *                       quedó a medias.
+ */
+@ConfigurationProperties(prefix = "app.sharding")
+public record ShardingProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue List<ShardProperties> shards,
+                                 @DefaultValue("100") int idBlockSize,
+                                 @DefaultValue("30s") Duration inDoubtTimeout,
+                                 @DefaultValue("30s") Duration recoveryInterval) {
+
+    public record ShardProperties(String url,
+                                  String username,
+                                  String password,
+                                  @DefaultValue("10") int maximumPoolSize) {
+    }
+}
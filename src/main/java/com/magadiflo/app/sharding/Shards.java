@@ -0,0 +1,104 @@
+package com.magadiflo.app.sharding;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Conjunto de shards configurados y el ejecutor con el que se consultan en paralelo.
+ */
+public class Shards implements AutoCloseable {
+    private static final String SCHEMA = "shard-schema.sql";
+
+    private final List<Shard> shards;
+    private final ShardRouter router;
+    private final ExecutorService fanOut;
+
+    public Shards(ShardingProperties properties) {
+        if (properties.shards().isEmpty()) {
+            throw new IllegalArgumentException("Debe configurarse al menos un shard en app.sharding.shards");
+        }
+        List<Shard> shards = new ArrayList<>(properties.shards().size());
+        for (int i = 0; i < properties.shards().size(); i++) {
+            shards.add(new Shard(i, properties.shards().get(i)));
+        }
+        this.shards = List.copyOf(shards);
+        this.router = new ShardRouter(this.shards.size());
+        AtomicInteger threads = new AtomicInteger();
+        this.fanOut = Executors.newFixedThreadPool(this.shards.size(), runnable -> {
+            Thread thread = new Thread(runnable, "shard-fan-out-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Crea las tablas de cada shard que aún no existan ({@code shard-schema.sql}).
+     */
+    public void createSchema() {
+        Resource script = new ClassPathResource(SCHEMA);
+        for (Shard shard : this.shards) {
+            shard.createSchema(script);
+        }
+    }
+
+    public Shard get(int index) {
+        return this.shards.get(index);
+    }
+
+    public Shard forId(long id) {
+        return this.shards.get(this.router.shardFor(id));
+    }
+
+    public List<Shard> all() {
+        return this.shards;
+    }
+
+    public ShardRouter router() {
+        return this.router;
+    }
+
+    /**
+     * Ejecuta la consulta en todos los shards a la vez.
+     *
+     * @return los resultados en el orden de los shards.
+     */
+    public <T> List<T> fanOut(Function<Shard, T> query) {
+        return this.fanOut(this.shards, query);
+    }
+
+    public <T> List<T> fanOut(List<Shard> targets, Function<Shard, T> query) {
+        if (targets.size() == 1) {
+            return List.of(query.apply(targets.get(0)));
+        }
+        List<CompletableFuture<T>> futures = targets.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), this.fanOut))
+                .toList();
+        List<T> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<T> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    @Override
+    public void close() {
+        this.fanOut.shutdownNow();
+        this.shards.forEach(Shard::close);
+    }
+}
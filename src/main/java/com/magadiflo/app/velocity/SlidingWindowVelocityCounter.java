@@ -0,0 +1,301 @@
+package com.magadiflo.app.velocity;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cantidad de transferencias y monto (en centavos) por cuenta dentro de una ventana deslizante de {@code windowSeconds}
+ * cubetas de un segundo. Las cuentas se reparten entre franjas (stripes), cada una con su monitor, una tabla de
+ * direccionamiento abierto y un bloque fijo de filas en arreglos primitivos: la memoria se reserva completa al crear el
+ * contador y una consulta no crea objetos. Los totales de cada fila se mantienen al día restando las cubetas vencidas
+ * al acceder, así que el costo no depende de la ventana salvo al rechazar. Las filas de cada franja forman además una
+ * lista por orden de acceso: cuando la franja se llena, se reutiliza la primera sin recorrer ni reconstruir la tabla.
+ */
+public class SlidingWindowVelocityCounter {
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int windowSeconds;
+    private final int maxTransfers;
+    private final long maxCents;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+
+    public SlidingWindowVelocityCounter(int windowSeconds, int maxTransfers, long maxCents, int stripes, int maxKeysPerStripe) {
+        if (windowSeconds <= 0 || maxTransfers <= 0 || maxCents <= 0) {
+            throw new IllegalArgumentException("La ventana y los límites de velocidad deben ser positivos");
+        }
+        this.windowSeconds = windowSeconds;
+        this.maxTransfers = maxTransfers;
+        this.maxCents = maxCents;
+
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[stripeCount];
+        this.stripeMask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(Math.max(1, maxKeysPerStripe), windowSeconds);
+        }
+    }
+
+    /**
+     * Registra la transferencia si no supera ninguno de los dos límites.
+     *
+     * @return 0 si se registró, o los segundos que faltan para que la transferencia quepa en la ventana.
+     */
+    public long tryRecord(long key, long cents, long nowNanos) {
+        long second = Math.floorDiv(nowNanos, NANOS_PER_SECOND);
+        if (cents > this.maxCents) {
+            return this.windowSeconds;
+        }
+        long hash = mix(key);
+        Stripe stripe = this.stripes[(int) (hash >>> 32) & this.stripeMask];
+        synchronized (stripe) {
+            int row = stripe.rowFor(key, (int) hash, second);
+            stripe.advance(row, second);
+            if (stripe.totalCount[row] + 1 > this.maxTransfers || stripe.totalCents[row] + cents > this.maxCents) {
+                return stripe.secondsUntilFits(row, second, cents, this.maxTransfers, this.maxCents);
+            }
+            int bucket = stripe.bucket(row, second);
+            stripe.bucketCount[bucket]++;
+            stripe.bucketCents[bucket] += cents;
+            stripe.totalCount[row]++;
+            stripe.totalCents[row] += cents;
+            return 0L;
+        }
+    }
+
+    /**
+     * Descuenta una transferencia registrada en {@code recordedNanos} que finalmente no se aplicó. No hace nada si su
+     * cubeta ya salió de la ventana o si la cuenta fue descartada.
+     */
+    public void release(long key, long cents, long recordedNanos) {
+        long second = Math.floorDiv(recordedNanos, NANOS_PER_SECOND);
+        long hash = mix(key);
+        Stripe stripe = this.stripes[(int) (hash >>> 32) & this.stripeMask];
+        synchronized (stripe) {
+            int row = stripe.find(key, (int) hash);
+            if (row < 0 || second <= stripe.lastSecond[row] - this.windowSeconds) {
+                return;
+            }
+            int bucket = stripe.bucket(row, second);
+            if (stripe.bucketCount[bucket] > 0) {
+                stripe.bucketCount[bucket]--;
+                stripe.totalCount[row]--;
+                long released = Math.min(cents, stripe.bucketCents[bucket]);
+                stripe.bucketCents[bucket] -= released;
+                stripe.totalCents[row] -= released;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.size;
+            }
+        }
+        return size;
+    }
+
+    public long evictions() {
+        long evictions = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                evictions += stripe.evictions;
+            }
+        }
+        return evictions;
+    }
+
+    /**
+     * Memoria reservada por las tablas y las cubetas; no crece con la cantidad de cuentas.
+     */
+    public long reservedBytes() {
+        long bytes = 0;
+        for (Stripe stripe : this.stripes) {
+            bytes += stripe.reservedBytes();
+        }
+        return bytes;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Stripe {
+        private static final int EMPTY = -1;
+
+        private final int maxRows;
+        private final int windowSeconds;
+        private final int mask;
+        private final int[] table;
+        private final long[] rowKey;
+        private final long[] lastSecond;
+        private final int[] totalCount;
+        private final long[] totalCents;
+        private final int[] bucketCount;
+        private final long[] bucketCents;
+        private final int[] older;
+        private final int[] newer;
+        private int oldest = EMPTY;
+        private int newest = EMPTY;
+        private int size;
+        private long evictions;
+
+        private Stripe(int maxRows, int windowSeconds) {
+            this.maxRows = maxRows;
+            this.windowSeconds = windowSeconds;
+            int capacity = Integer.highestOneBit(maxRows * 2 - 1) << 1;
+            this.mask = capacity - 1;
+            this.table = new int[capacity];
+            this.rowKey = new long[maxRows];
+            this.lastSecond = new long[maxRows];
+            this.totalCount = new int[maxRows];
+            this.totalCents = new long[maxRows];
+            this.bucketCount = new int[maxRows * windowSeconds];
+            this.bucketCents = new long[maxRows * windowSeconds];
+            this.older = new int[maxRows];
+            this.newer = new int[maxRows];
+            Arrays.fill(this.table, EMPTY);
+        }
+
+        private int bucket(int row, long second) {
+            return row * this.windowSeconds + (int) Math.floorMod(second, (long) this.windowSeconds);
+        }
+
+        private int find(long key, int hash) {
+            for (int slot = hash & this.mask; this.table[slot] != EMPTY; slot = (slot + 1) & this.mask) {
+                if (this.rowKey[this.table[slot]] == key) {
+                    return this.table[slot];
+                }
+            }
+            return EMPTY;
+        }
+
+        /**
+         * Con la franja llena, la fila nueva reemplaza a la de acceso más antiguo (la primera de la lista de accesos): si
+         * su ventana ya venció no pierde nada, y si no, pierde su historial, pero la memoria no crece.
+         */
+        private int rowFor(long key, int hash, long second) {
+            int row = this.find(key, hash);
+            if (row != EMPTY) {
+                return row;
+            }
+            if (this.size < this.maxRows) {
+                row = this.size++;
+            } else {
+                row = this.oldest;
+                this.unlink(row);
+                this.unindex(row);
+                this.evictions++;
+            }
+            this.rowKey[row] = key;
+            this.lastSecond[row] = second;
+            this.clear(row);
+            this.index(row);
+            this.append(row);
+            return row;
+        }
+
+        /**
+         * Vence las cubetas entre el último acceso y {@code second}.
+         */
+        private void advance(int row, long second) {
+            long last = this.lastSecond[row];
+            if (second <= last) {
+                return;
+            }
+            if (second - last >= this.windowSeconds) {
+                this.clear(row);
+            } else {
+                for (long expired = last + 1; expired <= second; expired++) {
+                    int bucket = this.bucket(row, expired);
+                    this.totalCount[row] -= this.bucketCount[bucket];
+                    this.totalCents[row] -= this.bucketCents[bucket];
+                    this.bucketCount[bucket] = 0;
+                    this.bucketCents[bucket] = 0L;
+                }
+            }
+            this.lastSecond[row] = second;
+            this.unlink(row);
+            this.append(row);
+        }
+
+        private long secondsUntilFits(int row, long second, long cents, int maxTransfers, long maxCents) {
+            int count = this.totalCount[row];
+            long amount = this.totalCents[row];
+            for (int elapsed = 1; elapsed < this.windowSeconds; elapsed++) {
+                int bucket = this.bucket(row, second - this.windowSeconds + elapsed);
+                count -= this.bucketCount[bucket];
+                amount -= this.bucketCents[bucket];
+                if (count + 1 <= maxTransfers && amount + cents <= maxCents) {
+                    return elapsed;
+                }
+            }
+            return this.windowSeconds;
+        }
+
+        private void clear(int row) {
+            int from = row * this.windowSeconds;
+            Arrays.fill(this.bucketCount, from, from + this.windowSeconds, 0);
+            Arrays.fill(this.bucketCents, from, from + this.windowSeconds, 0L);
+            this.totalCount[row] = 0;
+            this.totalCents[row] = 0L;
+        }
+
+        private void append(int row) {
+            this.older[row] = this.newest;
+            this.newer[row] = EMPTY;
+            if (this.newest == EMPTY) {
+                this.oldest = row;
+            } else {
+                this.newer[this.newest] = row;
+            }
+            this.newest = row;
+        }
+
+        private void unlink(int row) {
+            if (this.older[row] == EMPTY) {
+                this.oldest = this.newer[row];
+            } else {
+                this.newer[this.older[row]] = this.newer[row];
+            }
+            if (this.newer[row] == EMPTY) {
+                this.newest = this.older[row];
+            } else {
+                this.older[this.newer[row]] = this.older[row];
+            }
+        }
+
+        /**
+         * Quita la fila de la tabla corriendo hacia atrás las que la siguen en la misma secuencia de sondeo.
+         */
+        private void unindex(int row) {
+            int hole = (int) mix(this.rowKey[row]) & this.mask;
+            while (this.table[hole] != row) {
+                hole = (hole + 1) & this.mask;
+            }
+            for (int next = (hole + 1) & this.mask; this.table[next] != EMPTY; next = (next + 1) & this.mask) {
+                int home = (int) mix(this.rowKey[this.table[next]]) & this.mask;
+                if (((next - home) & this.mask) >= ((next - hole) & this.mask)) {
+                    this.table[hole] = this.table[next];
+                    hole = next;
+                }
+            }
+            this.table[hole] = EMPTY;
+        }
+
+        private void index(int row) {
+            int slot = (int) mix(this.rowKey[row]) & this.mask;
+            while (this.table[slot] != EMPTY) {
+                slot = (slot + 1) & this.mask;
+            }
+            this.table[slot] = row;
+        }
+
+        private long reservedBytes() {
+            return this.table.length * 4L + this.maxRows * (8L + 8L + 4L + 8L + 4L + 4L) + this.bucketCount.length * (4L + 8L);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.magadiflo.app.velocity;
+
+import com.magadiflo.app.exceptions.VelocityLimitExceededException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Límite de transferencias y de monto por cuenta origen en una ventana deslizante, evaluado en memoria antes de debitar.
+ * Una transferencia cuenta desde que se admite; si su transacción no confirma, se descuenta.
+ */
+@Component
+public class VelocityGuard implements MeterBinder {
+    private final SlidingWindowVelocityCounter counter;
+
+    private final LongAdder rejected = new LongAdder();
+
+    public VelocityGuard(VelocityProperties properties) {
+        this.counter = properties.enabled()
+                ? new SlidingWindowVelocityCounter((int) Math.max(1L, properties.window().toSeconds()),
+                properties.maxTransfers(), toCents(properties.maxAmount()), properties.stripes(), properties.maxKeysPerStripe())
+                : null;
+    }
+
+    /**
+     * @return el registro de la transferencia admitida, o {@code null} si el control está desactivado o la transferencia
+     * no es válida (la rechaza luego quien la aplica).
+     * @throws VelocityLimitExceededException si la cuenta superó la cantidad o el monto permitidos en la ventana.
+     */
+    public Admission admit(Long accountIdOrigin, BigDecimal amount) {
+        if (this.counter == null || accountIdOrigin == null || amount == null || amount.signum() <= 0) {
+            return null;
+        }
+        long cents = toCents(amount);
+        long now = System.nanoTime();
+        long retryAfter = this.counter.tryRecord(accountIdOrigin, cents, now);
+        if (retryAfter > 0) {
+            this.rejected.increment();
+            throw new VelocityLimitExceededException("La cuenta origen superó el límite de transferencias permitido", retryAfter);
+        }
+        Admission admission = new Admission(accountIdOrigin, cents, now);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        release(admission);
+                    }
+                }
+            });
+        }
+        return admission;
+    }
+
+    /**
+     * Para las transferencias que no se aplican en una transacción de Spring (motor en memoria, compensación diferida,
+     * cuentas particionadas): la admite, la ejecuta y la descuenta si falla.
+     */
+    public void runAdmitted(Long accountIdOrigin, BigDecimal amount, Runnable transfer) {
+        Admission admission = this.admit(accountIdOrigin, amount);
+        try {
+            transfer.run();
+        } catch (RuntimeException e) {
+            this.release(admission);
+            throw e;
+        }
+    }
+
+    /**
+     * Descuenta una transferencia admitida que no se aplicó. Es idempotente y acepta {@code null}.
+     */
+    public void release(Admission admission) {
+        if (admission != null && this.counter != null && admission.release()) {
+            this.counter.release(admission.accountId, admission.cents, admission.recordedNanos);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (this.counter == null) {
+            return;
+        }
+        FunctionCounter.builder("accounts.velocity.rejected", this.rejected, LongAdder::sum)
+                .description("Transferencias rechazadas por superar el límite de velocidad")
+                .register(registry);
+        FunctionCounter.builder("accounts.velocity.evictions", this.counter, SlidingWindowVelocityCounter::evictions)
+                .description("Cuentas descartadas del control de velocidad para liberar espacio")
+                .register(registry);
+        Gauge.builder("accounts.velocity.accounts", this.counter, SlidingWindowVelocityCounter::size)
+                .description("Cuentas con historial en la ventana de velocidad")
+                .register(registry);
+        Gauge.builder("accounts.velocity.reserved", this.counter, SlidingWindowVelocityCounter::reservedBytes)
+                .description("Memoria reservada por el control de velocidad")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.movePointRight(2).setScale(0, RoundingMode.UP).longValueExact();
+    }
+
+    public static final class Admission {
+        private final long accountId;
+        private final long cents;
+        private final long recordedNanos;
+        private boolean released;
+
+        private Admission(long accountId, long cents, long recordedNanos) {
+            this.accountId = accountId;
+            this.cents = cents;
+            this.recordedNanos = recordedNanos;
+        }
+
+        private synchronized boolean release() {
+            if (this.released) {
+                return false;
+            }
+            this.released = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.magadiflo.app.velocity;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+/**
+ * @param window            se redondea a segundos; cada segundo ocupa una cubeta por cuenta.
+ * @param maxKeysPerStripe  cuentas que caben en cada franja; la memoria total es fija y proporcional a
+ *                          {@code stripes * maxKeysPerStripe * window}.
+ */
+@ConfigurationProperties(prefix = "app.velocity")
+public record VelocityProperties(@DefaultValue("false") boolean enabled,
+                                 @DefaultValue("60s") Duration window,
+                                 @DefaultValue("20") int maxTransfers,
+                                 @DefaultValue("10000") BigDecimal maxAmount,
+                                 @DefaultValue("16") int stripes,
+                                 @DefaultValue("1024") int maxKeysPerStripe) {
+}
@@ -0,0 +1,277 @@
+package com.magadiflo.app.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.magadiflo.app.controllers.AccountController;
+import com.magadiflo.app.engine.TransferEngine;
+import com.magadiflo.app.groupcommit.GroupCommitTransferExecutor;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.models.dto.TransferResponseDTO;
+import com.magadiflo.app.netting.NettingTransferExecutor;
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.repositories.IBankRepository;
+import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.sharding.ShardedAccountService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Calienta el JIT antes de aceptar tráfico. Se ejecuta durante {@link ApplicationReadyEvent}, que Spring Boot publica
+ * antes de pasar el readiness a {@code ACCEPTING_TRAFFIC}, así que el probe responde fuera de servicio hasta terminar.
+ * Cada iteración recorre controller, servicio, repositorio y Jackson (JSON y CBOR). Las lecturas usan el mismo camino
+ * que el tráfico real (fuera de transacción, con agrupación de consultas) pero solo sobre las dos cuentas elegidas, para
+ * que el costo no dependa del tamaño de la tabla. La transferencia entra por {@link AccountController#transfer}, con el
+ * limitador y el enrutamiento al motor, la compensación o el group commit que estén habilitados:
+ * <ul>
+ *     <li>Si va directo al servicio, corre sobre las cuentas elegidas en una transacción que siempre se revierte, con
+ *     un flush previo para que también se ejecuten los updates.</li>
+ *     <li>El motor, la compensación y el group commit confirman por su cuenta, así que corre entre dos cuentas y un
+ *     banco creados para el calentamiento, alternando el sentido. Al terminar se fuerza la persistencia pendiente y se
+ *     eliminan. Con el outbox habilitado, esas transferencias también quedan registradas en él.</li>
+ *     <li>Con cuentas particionadas no se calientan transferencias: cada shard confirma la suya.</li>
+ * </ul>
+ * El plazo máximo se revisa antes de cada iteración.
+ */
+@Component
+public class JitWarmup {
+    private static final Logger LOG = LoggerFactory.getLogger(JitWarmup.class);
+    private static final BigDecimal AMOUNT = new BigDecimal("0.01");
+    private static final BigDecimal SCRATCH_BALANCE = new BigDecimal("1.00");
+    private static final String SCRATCH_NAME = "warmup";
+    /**
+     * El limitador solo usa el usuario y la dirección remota; el resto de los métodos no se invoca.
+     */
+    private static final HttpServletRequest REQUEST = (HttpServletRequest) Proxy.newProxyInstance(
+            JitWarmup.class.getClassLoader(), new Class<?>[]{HttpServletRequest.class},
+            (proxy, method, args) -> "getRemoteAddr".equals(method.getName()) ? SCRATCH_NAME : null);
+
+    private final WarmupProperties properties;
+    private final AccountController accountController;
+    private final IAccountService accountService;
+    private final IAccountRepository accountRepository;
+    private final IBankRepository bankRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final TransactionTemplate rollbackOnly;
+    private final ObjectProvider<TransferEngine> transferEngine;
+    private final ObjectProvider<NettingTransferExecutor> nettingExecutor;
+    private final ObjectProvider<GroupCommitTransferExecutor> groupCommitExecutor;
+    private final ObjectProvider<ShardedAccountService> shardedAccountService;
+
+    private volatile WarmupResult result;
+
+    public JitWarmup(WarmupProperties properties, AccountController accountController, IAccountService accountService,
+                     IAccountRepository accountRepository, IBankRepository bankRepository, ObjectMapper objectMapper,
+                     PlatformTransactionManager transactionManager, ObjectProvider<TransferEngine> transferEngine,
+                     ObjectProvider<NettingTransferExecutor> nettingExecutor,
+                     ObjectProvider<GroupCommitTransferExecutor> groupCommitExecutor,
+                     ObjectProvider<ShardedAccountService> shardedAccountService) {
+        this.properties = properties;
+        this.accountController = accountController;
+        this.accountService = accountService;
+        this.accountRepository = accountRepository;
+        this.bankRepository = bankRepository;
+        this.objectMapper = objectMapper;
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.rollbackOnly = new TransactionTemplate(transactionManager);
+        this.transferEngine = transferEngine;
+        this.nettingExecutor = nettingExecutor;
+        this.groupCommitExecutor = groupCommitExecutor;
+        this.shardedAccountService = shardedAccountService;
+    }
+
+    /**
+     * @return el resultado, o {@code null} mientras el calentamiento no haya terminado.
+     */
+    public WarmupResult result() {
+        return this.result;
+    }
+
+    public boolean enabled() {
+        return this.properties.enabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!this.properties.enabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            this.result = this.run(start);
+        } catch (RuntimeException e) {
+            LOG.warn("Calentamiento interrumpido", e);
+            this.result = new WarmupResult("failed", 0, 1, elapsedMillis(start), 0L, 0L);
+        }
+        LOG.info("Calentamiento terminado: {}", this.result);
+    }
+
+    private WarmupResult run(long start) {
+        List<Account> accounts = this.accountRepository.findAll(PageRequest.of(0, 2, Sort.by("id"))).getContent();
+        List<Bank> banks = this.bankRepository.findAll(PageRequest.of(0, 1)).getContent();
+        if (accounts.size() < 2 || banks.isEmpty()) {
+            return new WarmupResult("skipped", 0, 0, elapsedMillis(start), 0L, 0L);
+        }
+        List<Long> ids = List.of(accounts.get(0).getId(), accounts.get(1).getId());
+        TransferMode mode = this.transferMode();
+        TransactionDTO transaction = switch (mode) {
+            case ROLLBACK -> new TransactionDTO(banks.get(0).getId(), ids.get(0), ids.get(1), AMOUNT);
+            case SCRATCH -> this.createScratchPair();
+            case NONE -> null;
+        };
+        try {
+            return this.iterate(start, mode, transaction, ids);
+        } finally {
+            if (mode == TransferMode.SCRATCH) {
+                this.discardScratchPair(transaction);
+            }
+        }
+    }
+
+    private WarmupResult iterate(long start, TransferMode mode, TransactionDTO transaction, List<Long> ids) {
+        PlateauDetector plateau = new PlateauDetector(this.properties.plateauWindow(),
+                this.properties.plateauTolerance(), this.properties.stableWindows());
+        long deadline = start + this.properties.maxDuration().toNanos();
+        int errors = 0;
+        int iteration = 0;
+        String reason = "iterations";
+        while (iteration < this.properties.iterations()) {
+            long iterationStart = System.nanoTime();
+            if (iterationStart - deadline >= 0) {
+                reason = "timeout";
+                break;
+            }
+            try {
+                this.iteration(mode, iteration % 2 == 0 ? transaction : reversed(transaction), ids);
+            } catch (RuntimeException e) {
+                errors++;
+            }
+            iteration++;
+            if (plateau.record(System.nanoTime() - iterationStart)) {
+                reason = "plateau";
+                break;
+            }
+        }
+        return new WarmupResult(reason, iteration, errors, elapsedMillis(start),
+                plateau.firstMedian(), plateau.lastMedian());
+    }
+
+    private void iteration(TransferMode mode, TransactionDTO transaction, List<Long> ids) {
+        this.serialize(this.accountController.details(ids.get(0)).getBody());
+        this.serialize(this.accountController.listAccountsById(ids).getBody());
+
+        switch (mode) {
+            case ROLLBACK -> this.rollbackOnly.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                TransferResponseDTO response = this.transfer(transaction);
+                status.flush();
+                this.serialize(response);
+            });
+            case SCRATCH -> this.serialize(this.transfer(transaction));
+            case NONE -> {
+            }
+        }
+    }
+
+    private TransferResponseDTO transfer(TransactionDTO transaction) {
+        this.deserialize(this.cborMapper, this.serialize(this.cborMapper, transaction));
+        TransactionDTO dto = this.deserialize(this.objectMapper, this.serialize(transaction));
+        ResponseEntity<TransferResponseDTO> response = this.accountController.transfer(dto, REQUEST);
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            throw new IllegalStateException("Transferencia de calentamiento rechazada: " + response.getStatusCode());
+        }
+        return response.getBody();
+    }
+
+    private TransferMode transferMode() {
+        if (this.shardedAccountService.getIfAvailable() != null) {
+            return TransferMode.NONE;
+        }
+        if (this.transferEngine.getIfAvailable() != null || this.nettingExecutor.getIfAvailable() != null
+                || this.groupCommitExecutor.getIfAvailable() != null) {
+            return TransferMode.SCRATCH;
+        }
+        return TransferMode.ROLLBACK;
+    }
+
+    private TransactionDTO createScratchPair() {
+        Bank bank = this.bankRepository.save(new Bank(null, SCRATCH_NAME, 0));
+        Account origin = this.accountService.save(new Account(null, SCRATCH_NAME, SCRATCH_BALANCE));
+        Account destination = this.accountService.save(new Account(null, SCRATCH_NAME, SCRATCH_BALANCE));
+        return new TransactionDTO(bank.getId(), origin.getId(), destination.getId(), AMOUNT);
+    }
+
+    /**
+     * Antes de eliminar el par se persiste lo que el motor o la compensación tengan pendiente, para que nada se escriba
+     * después sobre filas que ya no existen.
+     */
+    private void discardScratchPair(TransactionDTO transaction) {
+        try {
+            TransferEngine engine = this.transferEngine.getIfAvailable();
+            if (engine != null) {
+                engine.checkpoint();
+            }
+            NettingTransferExecutor netting = this.nettingExecutor.getIfAvailable();
+            if (netting != null) {
+                netting.settle();
+            }
+            this.accountService.deleteAccountById(transaction.accountIdOrigin());
+            this.accountService.deleteAccountById(transaction.accountIdDestination());
+            this.bankRepository.deleteById(transaction.bankId());
+        } catch (RuntimeException e) {
+            LOG.warn("No se pudieron eliminar las cuentas de calentamiento {} y {} ni el banco {}",
+                    transaction.accountIdOrigin(), transaction.accountIdDestination(), transaction.bankId(), e);
+        }
+    }
+
+    private static TransactionDTO reversed(TransactionDTO transaction) {
+        return transaction == null ? null : new TransactionDTO(transaction.bankId(), transaction.accountIdDestination(),
+                transaction.accountIdOrigin(), transaction.amount());
+    }
+
+    private byte[] serialize(Object body) {
+        return this.serialize(this.objectMapper, body);
+    }
+
+    private byte[] serialize(ObjectMapper mapper, Object body) {
+        try {
+            return mapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private TransactionDTO deserialize(ObjectMapper mapper, byte[] payload) {
+        try {
+            return mapper.readValue(payload, TransactionDTO.class);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / 1_000_000L;
+    }
+
+    private enum TransferMode {
+        ROLLBACK, SCRATCH, NONE
+    }
+}
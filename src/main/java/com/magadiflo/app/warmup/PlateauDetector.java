@@ -0,0 +1,60 @@
+package com.magadiflo.app.warmup;
+
+import java.util.Arrays;
+
+/**
+ * Agrupa las latencias en ventanas de tamaño fijo y detecta cuándo la mediana deja de bajar: la meseta se alcanza
+ * tras {@code stableWindows} ventanas consecutivas cuya mediana varía a lo sumo {@code tolerance} respecto a la
+ * anterior.
+ */
+public class PlateauDetector {
+    private final long[] window;
+    private final double tolerance;
+    private final int stableWindows;
+
+    private int filled;
+    private int stable;
+    private long firstMedian = -1;
+    private long lastMedian = -1;
+
+    public PlateauDetector(int windowSize, double tolerance, int stableWindows) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("El tamaño de la ventana debe ser positivo");
+        }
+        this.window = new long[windowSize];
+        this.tolerance = tolerance;
+        this.stableWindows = Math.max(1, stableWindows);
+    }
+
+    /**
+     * @return {@code true} si con esta muestra se alcanzó la meseta.
+     */
+    public boolean record(long nanos) {
+        this.window[this.filled++] = nanos;
+        if (this.filled < this.window.length) {
+            return false;
+        }
+        this.filled = 0;
+        long[] sorted = this.window.clone();
+        Arrays.sort(sorted);
+        long median = sorted[sorted.length / 2];
+
+        if (this.firstMedian < 0) {
+            this.firstMedian = median;
+        } else if (Math.abs(median - this.lastMedian) <= this.lastMedian * this.tolerance) {
+            this.stable++;
+        } else {
+            this.stable = 0;
+        }
+        this.lastMedian = median;
+        return this.stable >= this.stableWindows;
+    }
+
+    public long firstMedian() {
+        return Math.max(0L, this.firstMedian);
+    }
+
+    public long lastMedian() {
+        return Math.max(0L, this.lastMedian);
+    }
+}
@@ -0,0 +1,36 @@
+package com.magadiflo.app.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Expone el resultado del calentamiento; forma parte del grupo de readiness.
+ */
+@Component("warmupHealthIndicator")
+public class WarmupHealthIndicator implements HealthIndicator {
+    private final JitWarmup warmup;
+
+    public WarmupHealthIndicator(JitWarmup warmup) {
+        this.warmup = warmup;
+    }
+
+    @Override
+    public Health health() {
+        if (!this.warmup.enabled()) {
+            return Health.up().withDetail("reason", "disabled").build();
+        }
+        WarmupResult result = this.warmup.result();
+        if (result == null) {
+            return Health.outOfService().withDetail("reason", "running").build();
+        }
+        return Health.up()
+                .withDetail("reason", result.reason())
+                .withDetail("iterations", result.iterations())
+                .withDetail("errors", result.errors())
+                .withDetail("durationMs", result.durationMillis())
+                .withDetail("firstWindowMedianMicros", result.firstWindowMedianNanos() / 1_000L)
+                .withDetail("lastWindowMedianMicros", result.lastWindowMedianNanos() / 1_000L)
+                .build();
+    }
+}
@@ -0,0 +1,22 @@
+package com.magadiflo.app.warmup;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param iterations       máximo de iteraciones sintéticas.
+ * @param maxDuration      tiempo máximo que se retiene el readiness.
+ * @param plateauWindow    iteraciones por ventana; se compara la mediana de cada ventana con la anterior.
+ * @param plateauTolerance variación relativa máxima entre medianas para considerar la ventana estable.
+ * @param stableWindows    ventanas estables consecutivas necesarias para dar el calentamiento por terminado.
+ */
+@ConfigurationProperties(prefix = "app.warmup")
+public record WarmupProperties(@DefaultValue("false") boolean enabled,
+                               @DefaultValue("5000") int iterations,
+                               @DefaultValue("60s") Duration maxDuration,
+                               @DefaultValue("200") int plateauWindow,
+                               @DefaultValue("0.05") double plateauTolerance,
+                               @DefaultValue("3") int stableWindows) {
+}
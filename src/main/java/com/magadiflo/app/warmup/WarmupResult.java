@@ -0,0 +1,10 @@
+package com.magadiflo.app.warmup;
+
+/**
+ * @param reason                motivo de término: iterations, plateau, timeout, skipped o failed.
+ * @param firstWindowMedianNanos mediana por iteración de la primera ventana.
+ * @param lastWindowMedianNanos  mediana por iteración de la última ventana completa.
+ */
+public record WarmupResult(String reason, int iterations, int errors, long durationMillis,
+                           long firstWindowMedianNanos, long lastWindowMedianNanos) {
+}
@@ -0,0 +1,6 @@
+CREATE TABLE IF NOT EXISTS scheduled_transfers (id BIGINT AUTO_INCREMENT PRIMARY KEY, bank_id BIGINT NOT NULL,
+    account_id_origin BIGINT NOT NULL, account_id_destination BIGINT NOT NULL, amount DECIMAL(38,2) NOT NULL,
+    execute_at TIMESTAMP(3) NOT NULL, status VARCHAR(16) NOT NULL, executed_at TIMESTAMP(3) NULL,
+    failure VARCHAR(255) NULL);
+
+CREATE INDEX IF NOT EXISTS idx_scheduled_transfers_due ON scheduled_transfers (status, execute_at);
@@ -0,0 +1,5 @@
+-- MySQL no admite CREATE INDEX IF NOT EXISTS: el índice se declara con la tabla.
+CREATE TABLE IF NOT EXISTS scheduled_transfers (id BIGINT AUTO_INCREMENT PRIMARY KEY, bank_id BIGINT NOT NULL,
+    account_id_origin BIGINT NOT NULL, account_id_destination BIGINT NOT NULL, amount DECIMAL(38,2) NOT NULL,
+    execute_at TIMESTAMP(3) NOT NULL, status VARCHAR(16) NOT NULL, executed_at TIMESTAMP(3) NULL,
+    failure VARCHAR(255) NULL, INDEX idx_scheduled_transfers_due (status, execute_at));
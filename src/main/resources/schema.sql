@@ -0,0 +1,25 @@
+-- Tablas que se escriben con JdbcTemplate; las de las entidades JPA las genera Hibernate.
+CREATE TABLE IF NOT EXISTS transfer_engine_checkpoints (id INT PRIMARY KEY, last_sequence BIGINT NOT NULL);
+
+CREATE TABLE IF NOT EXISTS netting_checkpoints (id INT PRIMARY KEY, last_sequence BIGINT NOT NULL);
+
+CREATE TABLE IF NOT EXISTS transfer_outbox (id BIGINT AUTO_INCREMENT PRIMARY KEY, bank_id BIGINT NOT NULL,
+    account_id_origin BIGINT NOT NULL, account_id_destination BIGINT NOT NULL, amount DECIMAL(38,2) NOT NULL,
+    created_at TIMESTAMP(3) NOT NULL);
+
+CREATE TABLE IF NOT EXISTS reconciliation_runs (id BIGINT PRIMARY KEY, chunk_size INT NOT NULL, min_id BIGINT NOT NULL,
+    max_id BIGINT NOT NULL, transfer_mark BIGINT NOT NULL, status VARCHAR(16) NOT NULL, started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP NULL, total DECIMAL(38,2) NULL, accounts BIGINT NULL);
+
+CREATE TABLE IF NOT EXISTS reconciliation_chunks (run_id BIGINT NOT NULL, chunk_start BIGINT NOT NULL,
+    total DECIMAL(38,2) NOT NULL, accounts BIGINT NOT NULL, PRIMARY KEY (run_id, chunk_start));
+
+CREATE TABLE IF NOT EXISTS reconciliation_anomalies (run_id BIGINT NOT NULL, account_id BIGINT NOT NULL,
+    balance DECIMAL(38,2) NULL, PRIMARY KEY (run_id, account_id));
+
+CREATE TABLE IF NOT EXISTS interest_runs (id BIGINT PRIMARY KEY, period VARCHAR(7) NOT NULL UNIQUE,
+    rate DECIMAL(19,10) NOT NULL, chunk_size INT NOT NULL, min_id BIGINT NOT NULL, max_id BIGINT NOT NULL,
+    status VARCHAR(16) NOT NULL, started_at TIMESTAMP NOT NULL, finished_at TIMESTAMP NULL);
+
+CREATE TABLE IF NOT EXISTS interest_chunks (run_id BIGINT NOT NULL, chunk_start BIGINT NOT NULL,
+    accounts BIGINT NOT NULL, credited DECIMAL(38,2) NOT NULL, PRIMARY KEY (run_id, chunk_start));
@@ -0,0 +1,13 @@
+-- Esquema de cada shard de app.sharding.shards; lo ejecuta Shards al iniciar.
+CREATE TABLE IF NOT EXISTS accounts (id BIGINT PRIMARY KEY, person VARCHAR(255), balance DECIMAL(38,2) NOT NULL);
+
+CREATE TABLE IF NOT EXISTS banks (id BIGINT PRIMARY KEY, name VARCHAR(255), total_transfers INT NOT NULL);
+
+CREATE TABLE IF NOT EXISTS shard_sequences (name VARCHAR(32) PRIMARY KEY, next_value BIGINT NOT NULL);
+
+CREATE TABLE IF NOT EXISTS shard_transfer_log (tx_id VARCHAR(36) PRIMARY KEY, state VARCHAR(16) NOT NULL,
+    participants VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL);
+
+CREATE TABLE IF NOT EXISTS shard_pending_ops (tx_id VARCHAR(36) NOT NULL, seq INT NOT NULL, kind VARCHAR(8) NOT NULL,
+    target_id BIGINT NOT NULL, amount DECIMAL(38,2) NOT NULL, applied BOOLEAN NOT NULL, coordinator_shard INT NOT NULL,
+    created_at TIMESTAMP NOT NULL, PRIMARY KEY (tx_id, seq));
@@ -2,6 +2,7 @@ package com.magadiflo.app.data;
 
 import com.magadiflo.app.models.Account;
 import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.models.dto.AccountBalanceDTO;
 
 import java.math.BigDecimal;
 import java.util.Optional;
@@ -15,6 +16,13 @@ public class DataTest {
         return Optional.of(new Account(2L, "Alicia", new BigDecimal("1000")));
     }
 
+    /**
+     * Proyección de saldo de la cuenta, leída en el momento de la llamada.
+     */
+    public static Optional<AccountBalanceDTO> balance(Optional<Account> account) {
+        return account.map(accountDB -> new AccountBalanceDTO(accountDB.getId(), accountDB.getBalance()));
+    }
+
     public static Optional<Bank> bank() {
         return Optional.of(new Bank(1L, "Banco de la Nación", 0));
     }
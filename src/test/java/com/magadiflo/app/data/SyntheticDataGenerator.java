@@ -0,0 +1,296 @@
+package com.magadiflo.app.data;
+
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.Bank;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Datos sintéticos reproducibles para pruebas de carga. Cada fila depende solo de la semilla y de su posición (no de
+ * las anteriores), así que {@code account(n)} devuelve siempre la misma cuenta y el total esperado se puede calcular
+ * sin leer la tabla.
+ * <p>
+ * Los saldos siguen una distribución log-normal (mediana cercana a 1 200, cola larga y un 3 % de cuentas en cero) y
+ * los nombres combinan nombres y apellidos frecuentes con una distribución sesgada hacia los más comunes.
+ * <p>
+ * Las cargas por lotes insertan los ids {@code 1..count}, así que la tabla debe estar vacía (como la deja
+ * {@code test-account-cleanup.sql}); la carga con {@code CSVREAD} deja que la identidad asigne los ids.
+ * <p>
+ * No cumple el objetivo de cargar 10 millones de cuentas muy por debajo de un minuto. Con H2 en memoria y un solo
+ * núcleo, {@link #insertAccounts(DataSource, long)} tarda unos 48 s y {@link #loadAccountsWithCsvRead} unos 177 s; un
+ * {@code INSERT ... SELECT FROM SYSTEM_RANGE} con valores fijos ya necesita unos 2,3 s por millón de filas.
+ */
+public class SyntheticDataGenerator {
+    public static final long DEFAULT_SEED = 20230701L;
+    private static final int BATCH_SIZE = 10_000;
+    private static final double MEDIAN_BALANCE = 1_200D;
+    private static final double BALANCE_SIGMA = 1.1D;
+    private static final double ZERO_BALANCE_SHARE = 0.03D;
+    private static final BigDecimal MAX_BALANCE = new BigDecimal("5000000");
+
+    private static final String[] FIRST_NAMES = {"María", "José", "Juan", "Rosa", "Luis", "Carmen", "Carlos", "Ana",
+            "Jorge", "Lucía", "Miguel", "Sofía", "Pedro", "Elena", "Andrés", "Isabel", "Diego", "Valeria", "Martín",
+            "Camila", "Jesús", "Patricia", "Fernando", "Gabriela", "Ricardo", "Daniela", "Alberto", "Andrea", "Víctor",
+            "Paola", "Raúl", "Liz", "Franz", "Karen", "Santiago", "Miluska", "Alicia", "Hugo", "Noemí", "Óscar"};
+    private static final String[] LAST_NAMES = {"Quispe", "Flores", "Sánchez", "Rodríguez", "García", "Rojas",
+            "Díaz", "Torres", "López", "González", "Pérez", "Chávez", "Vásquez", "Ramírez", "Mendoza", "Ramos",
+            "Huamán", "Castillo", "Espinoza", "Gutiérrez", "Mamani", "Romero", "Vargas", "Hernández", "Salazar",
+            "Cruz", "Morales", "Reyes", "Castro", "Ruiz", "Ortiz", "Silva", "Córdova", "Fernández", "Medina",
+            "Aguilar", "Paredes", "Cárdenas", "Ríos", "Herrera"};
+    private static final String[] BANK_PREFIXES = {"Banco", "Caja Municipal", "Financiera", "Cooperativa", "Banco de Crédito"};
+    private static final String[] BANK_PLACES = {"Lima", "Arequipa", "Cusco", "Trujillo", "Piura", "Chiclayo", "Iquitos",
+            "Huancayo", "Tacna", "Puno", "Ica", "Cajamarca", "Ayacucho", "Huánuco", "Tumbes", "Moquegua"};
+
+    private final long seed;
+
+    public SyntheticDataGenerator() {
+        this(DEFAULT_SEED);
+    }
+
+    public SyntheticDataGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param id posición de la cuenta, desde 1.
+     */
+    public Account account(long id) {
+        long state = this.state(id, 0x5EED_ACC0L);
+        long first = splitMix(state);
+        long last = splitMix(first);
+        String person = FIRST_NAMES[skewedIndex(first, FIRST_NAMES.length)] + " "
+                + LAST_NAMES[skewedIndex(last, LAST_NAMES.length)];
+        return new Account(id, person, this.balance(splitMix(last)));
+    }
+
+    public Bank bank(long id) {
+        long state = this.state(id, 0xBA_4BL);
+        long prefix = splitMix(state);
+        long place = splitMix(prefix);
+        String name = BANK_PREFIXES[skewedIndex(prefix, BANK_PREFIXES.length)] + " "
+                + BANK_PLACES[(int) Long.remainderUnsigned(place, BANK_PLACES.length)] + " " + id;
+        return new Bank(id, name, 0);
+    }
+
+    public Stream<Account> accounts(long count) {
+        return LongStream.rangeClosed(1, count).mapToObj(this::account);
+    }
+
+    public Stream<Bank> banks(long count) {
+        return LongStream.rangeClosed(1, count).mapToObj(this::bank);
+    }
+
+    /**
+     * Saldo total de las primeras {@code count} cuentas, sin tocar la base de datos.
+     */
+    public BigDecimal totalBalance(long count) {
+        return LongStream.rangeClosed(1, count).parallel()
+                .mapToObj(id -> this.account(id).getBalance())
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    public long insertBanks(DataSource dataSource, long count) {
+        long inserted = this.batchInsert(dataSource, "INSERT INTO banks(id, name, total_transfers) VALUES(?, ?, ?)", 1, count,
+                (statement, id) -> {
+                    statement.setLong(1, id);
+                    statement.setString(2, this.bank(id).getName());
+                    statement.setInt(3, 0);
+                });
+        restartIdentity(dataSource, "banks", count + 1);
+        return inserted;
+    }
+
+    public long insertAccounts(DataSource dataSource, long count) {
+        return this.insertAccounts(dataSource, count, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Inserta las cuentas con sus ids en lotes JDBC de {@value #BATCH_SIZE} filas (un commit por lote), repartiendo
+     * rangos contiguos de ids entre {@code connections} conexiones en paralelo. Funciona con cualquier base; en MySQL
+     * conviene {@code rewriteBatchedStatements=true} en la URL.
+     */
+    public long insertAccounts(DataSource dataSource, long count, int connections) {
+        int workers = (int) Math.max(1, Math.min(connections, count / BATCH_SIZE));
+        long slice = -Math.floorDiv(-count, workers);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Long>> futures = new ArrayList<>(workers);
+            for (long from = 1; from <= count; from += slice) {
+                long first = from;
+                long last = Math.min(count, from + slice - 1);
+                futures.add(executor.submit(() -> this.batchInsert(dataSource,
+                        "INSERT INTO accounts(id, person, balance) VALUES(?, ?, ?)", first, last, (statement, id) -> {
+                            Account account = this.account(id);
+                            statement.setLong(1, id);
+                            statement.setString(2, account.getPerson());
+                            statement.setBigDecimal(3, account.getBalance());
+                        })));
+            }
+            long inserted = 0;
+            for (Future<Long> future : futures) {
+                inserted += future.get();
+            }
+            restartIdentity(dataSource, "accounts", count + 1);
+            return inserted;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Carga de cuentas interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("No se pudieron insertar las cuentas", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Escribe las cuentas en un CSV y las carga con un solo {@code INSERT ... SELECT FROM CSVREAD}. Solo para H2; con
+     * millones de filas es más lenta que {@link #insertAccounts(DataSource, long)} porque todo va en una transacción.
+     */
+    public long loadAccountsWithCsvRead(DataSource dataSource, long count, Path directory) {
+        Path csv = directory.resolve("accounts-" + this.seed + "-" + count + ".csv");
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+                writer.write("PERSON,BALANCE");
+                writer.newLine();
+                for (long id = 1; id <= count; id++) {
+                    Account account = this.account(id);
+                    writer.write(account.getPerson());
+                    writer.write(',');
+                    writer.write(account.getBalance().toPlainString());
+                    writer.newLine();
+                }
+            }
+            // CSVREAD necesita el nombre del archivo al preparar la sentencia para conocer sus columnas.
+            String file = csv.toAbsolutePath().toString().replace("'", "''");
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                return statement.executeUpdate("INSERT INTO accounts(person, balance) " +
+                        "SELECT PERSON, CAST(BALANCE AS DECIMAL(38,2)) FROM CSVREAD('" + file + "', NULL, 'charset=UTF-8')");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir el CSV de cuentas " + csv, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron cargar las cuentas desde " + csv, e);
+        } finally {
+            try {
+                Files.deleteIfExists(csv);
+            } catch (IOException ignored) {
+                // El archivo temporal se puede borrar a mano.
+            }
+        }
+    }
+
+    private long batchInsert(DataSource dataSource, String sql, long from, long to, RowBinder binder) {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            long inserted = 0;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (long id = from; id <= to; id++) {
+                    binder.bind(statement, id);
+                    statement.addBatch();
+                    if ((id - from + 1) % BATCH_SIZE == 0 || id == to) {
+                        inserted += sum(statement.executeBatch());
+                        connection.commit();
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return inserted;
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudieron insertar los datos sintéticos", e);
+        }
+    }
+
+    /**
+     * Con ids explícitos H2 no avanza la identidad; MySQL ajusta {@code AUTO_INCREMENT} por su cuenta.
+     */
+    private static void restartIdentity(DataSource dataSource, String table, long next) {
+        try (Connection connection = dataSource.getConnection()) {
+            if ("H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+                }
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("No se pudo reiniciar la identidad de " + table, e);
+        }
+    }
+
+    private BigDecimal balance(long random) {
+        double u1 = toUnit(random);
+        if (u1 < ZERO_BALANCE_SHARE) {
+            return BigDecimal.ZERO.setScale(2, RoundingMode.UNNECESSARY);
+        }
+        long next = splitMix(random);
+        double u2 = toUnit(next);
+        double u3 = Math.max(toUnit(splitMix(next)), Double.MIN_VALUE);
+        double gaussian = Math.sqrt(-2D * Math.log(u3)) * Math.cos(2D * Math.PI * u2);
+        BigDecimal balance = BigDecimal.valueOf(MEDIAN_BALANCE * Math.exp(BALANCE_SIGMA * gaussian))
+                .setScale(2, RoundingMode.HALF_UP);
+        return balance.min(MAX_BALANCE);
+    }
+
+    private long state(long id, long stream) {
+        return splitMix(this.seed ^ stream) + id * 0x9E3779B97F4A7C15L;
+    }
+
+    /**
+     * Sesgo cuadrático: los primeros elementos de la lista salen con más frecuencia.
+     */
+    private static int skewedIndex(long random, int size) {
+        double u = toUnit(random);
+        return Math.min(size - 1, (int) (u * u * size));
+    }
+
+    private static double toUnit(long random) {
+        return (random >>> 11) * 0x1.0p-53;
+    }
+
+    private static long splitMix(long state) {
+        long z = state + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static long sum(int[] counts) {
+        long total = 0;
+        for (int count : counts) {
+            total += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+        }
+        return total;
+    }
+
+    @FunctionalInterface
+    private interface RowBinder {
+        void bind(PreparedStatement statement, long id) throws SQLException;
+    }
+}
@@ -0,0 +1,106 @@
+package com.magadiflo.app.integrationTest.balancestream;
+
+import com.magadiflo.app.balancestream.BalanceStreamHub;
+import com.magadiflo.app.balancestream.BalanceUpdate;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.balance-stream.enabled=true",
+        "app.balance-stream.flush-interval=20ms",
+        "app.balance-stream.max-accounts-per-subscriber=10"
+})
+@AutoConfigureMockMvc
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class BalanceStreamIntegrationTest {
+    @Autowired
+    private BalanceStreamHub balanceStreamHub;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void should_push_the_balances_after_a_transfer_commits() throws InterruptedException {
+        CapturingEmitter emitter = new CapturingEmitter();
+        this.balanceStreamHub.subscribe(List.of(1L, 2L), emitter);
+        assertEquals(0, new BigDecimal("1000").compareTo(emitter.next().balance()));
+        assertEquals(0, new BigDecimal("2000").compareTo(emitter.next().balance()));
+
+        this.accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+
+        BalanceUpdate first = emitter.next();
+        BalanceUpdate second = emitter.next();
+        BalanceUpdate origin = first.accountId() == 1L ? first : second;
+        BalanceUpdate destination = first.accountId() == 1L ? second : first;
+        assertEquals(0, new BigDecimal("900").compareTo(origin.balance()));
+        assertEquals(0, new BigDecimal("2100").compareTo(destination.balance()));
+        emitter.complete();
+    }
+
+    @Test
+    void should_push_saved_and_deleted_accounts() throws InterruptedException {
+        CapturingEmitter emitter = new CapturingEmitter();
+        this.balanceStreamHub.subscribe(List.of(3L), emitter);
+        emitter.next();
+
+        this.accountService.save(new Account(3L, "Liz", new BigDecimal("3500")));
+        assertEquals(0, new BigDecimal("3500").compareTo(emitter.next().balance()));
+
+        this.accountService.deleteAccountById(3L);
+        assertEquals(BalanceUpdate.deleted(3L), emitter.next());
+        emitter.complete();
+    }
+
+    @Test
+    void should_open_the_stream_and_reject_too_many_accounts() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts/stream")
+                        .param("ids", "1", "2")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        String[] tooMany = LongStream.rangeClosed(1, 11).mapToObj(String::valueOf).toArray(String[]::new);
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts/stream")
+                        .param("ids", tooMany)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private static class CapturingEmitter extends SseEmitter {
+        private final BlockingQueue<BalanceUpdate> updates = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(BalanceUpdate.class::isInstance)
+                    .map(BalanceUpdate.class::cast)
+                    .forEach(this.updates::add);
+        }
+
+        private BalanceUpdate next() throws InterruptedException {
+            BalanceUpdate update = this.updates.poll(5, TimeUnit.SECONDS);
+            assertNotNull(update);
+            return update;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.magadiflo.app.integrationTest.bulkhead;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.bulkhead.Bulkhead;
+import com.magadiflo.app.bulkhead.BulkheadRoutingDataSource;
+import com.magadiflo.app.bulkhead.Bulkheads;
+import com.magadiflo.app.bulkhead.Workload;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@SpringBootTest(properties = {
+        "app.bulkhead.enabled=true",
+        "app.bulkhead.list.pool-size=1",
+        "app.bulkhead.list.max-concurrent=1",
+        "app.bulkhead.list.max-queued=0",
+        "app.bulkhead.read.pool-size=2",
+        "app.bulkhead.write.pool-size=2"
+})
+@AutoConfigureMockMvc
+class BulkheadIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private Bulkheads bulkheads;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void should_reject_listings_without_stalling_reads_and_transfers() throws Exception {
+        Bulkhead list = this.bulkheads.bulkhead(Workload.LIST);
+        assertTrue(list.tryAcquire());
+        try {
+            this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts"))
+                    .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                    .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+            this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts/{id}", 1))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+            this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(new TransactionDTO(1L, 1L, 2L, new BigDecimal("100")))))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        } finally {
+            list.release();
+        }
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        assertEquals(1D, this.meterRegistry.get("accounts.bulkhead.rejected").tag("workload", "list")
+                .functionCounter().count());
+        assertEquals(0, list.inFlight());
+    }
+
+    @Test
+    void should_take_connections_from_the_pool_of_each_workload() throws Exception {
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        this.mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/accounts/{id}", 4))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+
+        BulkheadRoutingDataSource routing = this.dataSource.unwrap(BulkheadRoutingDataSource.class);
+        assertTrue(routing.pool(Workload.LIST).getTotalConnections() > 0);
+        assertTrue(routing.pool(Workload.LIST).getTotalConnections() <= 1);
+        assertTrue(routing.pool(Workload.WRITE).getTotalConnections() > 0);
+        assertEquals(0, routing.pool(Workload.LIST).getActiveConnections());
+        assertEquals(0, routing.pool(Workload.WRITE).getActiveConnections());
+    }
+}
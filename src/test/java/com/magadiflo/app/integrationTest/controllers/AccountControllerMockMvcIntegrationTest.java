@@ -3,6 +3,8 @@ package com.magadiflo.app.integrationTest.controllers;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.models.dto.PayrollTransferDTO;
 import com.magadiflo.app.models.dto.TransactionDTO;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
@@ -21,6 +23,7 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -48,6 +51,26 @@ class AccountControllerMockMvcIntegrationTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("$[3].person").value("Karen"));
     }
 
+    @Test
+    void should_find_accounts_by_ids() throws Exception {
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.get(this.createAbsolutePath("/api/v1/accounts"))
+                .param("ids", "3", "1", "10"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].person").value("Liz"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].person").value("Andrés"));
+    }
+
+    @Test
+    void should_not_stream_balances_when_the_stream_is_disabled() throws Exception {
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.get(this.createAbsolutePath("/api/v1/accounts/stream"))
+                .param("ids", "1")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        response.andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
     @Test
     void should_find_an_account() throws Exception {
         ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.get(this.createAbsolutePath("/api/v1/accounts/{id}"), 1));
@@ -97,6 +120,55 @@ class AccountControllerMockMvcIntegrationTest {
         assertEquals(LocalDate.now(), localDateTime.toLocalDate());
     }
 
+    @Test
+    void should_transfer_a_payroll_to_many_accounts() throws Exception {
+        // Given
+        PayrollTransferDTO dto = new PayrollTransferDTO(1L, 4L, List.of(new PayrollCreditDTO(1L, new BigDecimal("500")),
+                new PayrollCreditDTO(2L, new BigDecimal("700")),
+                new PayrollCreditDTO(3L, new BigDecimal("300")),
+                new PayrollCreditDTO(1L, new BigDecimal("100"))));
+
+        // When
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer/payroll")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(dto)));
+
+        // Then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.message").value("planilla transferida"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.credits").value(4))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.total").value(1600));
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].balance").value(1600))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].balance").value(2700))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].balance").value(3300))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[3].balance").value(2400));
+    }
+
+    @Test
+    void should_reject_an_invalid_payroll_with_bad_request() throws Exception {
+        List<PayrollTransferDTO> invalid = List.of(
+                new PayrollTransferDTO(1L, 4L, List.of()),
+                new PayrollTransferDTO(1L, 4L, List.of(new PayrollCreditDTO(null, new BigDecimal("100")))),
+                new PayrollTransferDTO(1L, 4L, List.of(new PayrollCreditDTO(1L, new BigDecimal("0.001")))),
+                new PayrollTransferDTO(null, 4L, List.of(new PayrollCreditDTO(1L, new BigDecimal("100")))));
+
+        for (PayrollTransferDTO dto : invalid) {
+            this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer/payroll")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(dto)))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer/payroll")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"bankId\":1,\"accountIdOrigin\":4,\"credits\":[null]}"))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+
+        this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts/4"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.balance").value(4000));
+    }
+
     @Test
     void should_save_an_account() throws Exception {
         // Given
@@ -0,0 +1,61 @@
+package com.magadiflo.app.integrationTest.data;
+
+import com.magadiflo.app.data.SyntheticDataGenerator;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.repositories.IAccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Sql(scripts = "/test-account-cleanup.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class SyntheticDataLoadIntegrationTest {
+    private static final long ACCOUNTS = 100_000L;
+
+    private final SyntheticDataGenerator generator = new SyntheticDataGenerator();
+
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private IAccountRepository accountRepository;
+
+    @Test
+    void should_load_accounts_and_banks_with_jdbc_batches() {
+        assertEquals(ACCOUNTS, this.generator.insertAccounts(this.dataSource, ACCOUNTS));
+        assertEquals(1_000L, this.generator.insertBanks(this.dataSource, 1_000L));
+
+        this.assertLoaded();
+        assertEquals(this.generator.bank(500L).getName(),
+                this.jdbcTemplate.queryForObject("SELECT name FROM banks WHERE id = 500", String.class));
+    }
+
+    @Test
+    void should_load_accounts_with_csvread(@TempDir Path directory) {
+        assertEquals(ACCOUNTS, this.generator.loadAccountsWithCsvRead(this.dataSource, ACCOUNTS, directory));
+
+        this.assertLoaded();
+    }
+
+    private void assertLoaded() {
+        assertEquals(ACCOUNTS, this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class));
+        assertEquals(0, this.generator.totalBalance(ACCOUNTS)
+                .compareTo(this.jdbcTemplate.queryForObject("SELECT SUM(balance) FROM accounts", BigDecimal.class)));
+
+        Account expected = this.generator.account(12_345L);
+        Account account = this.accountRepository.findById(12_345L).orElseThrow();
+        assertEquals(expected.getPerson(), account.getPerson());
+        assertEquals(0, expected.getBalance().compareTo(account.getBalance()));
+    }
+}
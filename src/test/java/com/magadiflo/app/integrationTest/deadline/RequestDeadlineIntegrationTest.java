@@ -0,0 +1,126 @@
+package com.magadiflo.app.integrationTest.deadline;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.deadline.DeadlineMetrics;
+import com.magadiflo.app.deadline.RequestDeadline;
+import com.magadiflo.app.exceptions.DeadlineExceededException;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@SpringBootTest(properties = {
+        "app.deadline.enabled=true",
+        "app.deadline.endpoints.transfer=3s"
+})
+@AutoConfigureMockMvc
+class RequestDeadlineIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private DeadlineMetrics deadlineMetrics;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void should_reject_a_transfer_whose_budget_is_already_spent() throws Exception {
+        long exceeded = this.deadlineMetrics.exceeded();
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"));
+
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                        .header("X-Request-Timeout", "0")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isGatewayTimeout());
+
+        assertEquals(exceeded + 1, this.deadlineMetrics.exceeded());
+        assertEquals(0, new BigDecimal("1000").compareTo(this.accountService.findById(1L).orElseThrow().getBalance()));
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                        .header("X-Request-Timeout", "2s")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    void should_not_open_a_transaction_once_the_deadline_expired() {
+        long aborted = this.deadlineMetrics.aborted();
+
+        assertThrows(DeadlineExceededException.class, () -> RequestDeadline.call(Duration.ofMillis(1), () -> {
+            sleep(20);
+            return this.accountService.findAll();
+        }));
+
+        assertEquals(aborted + 1, this.deadlineMetrics.aborted());
+    }
+
+    @Test
+    void should_bound_the_transaction_timeout_by_the_remaining_budget() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+
+        Integer bounded = RequestDeadline.call(Duration.ofMillis(2_500), () -> transactionTemplate.execute(status -> {
+            this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class);
+            return this.connectionHolder().getTimeToLiveInSeconds();
+        }));
+        Boolean unbounded = transactionTemplate.execute(status -> {
+            this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class);
+            return this.connectionHolder().hasTimeout();
+        });
+
+        assertNotNull(bounded);
+        assertTrue(bounded >= 1 && bounded <= 3, () -> "timeout " + bounded);
+        assertEquals(Boolean.FALSE, unbounded);
+    }
+
+    @Test
+    void should_cancel_a_statement_that_outlives_the_deadline() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(this.transactionManager);
+        long start = System.nanoTime();
+
+        assertThrows(QueryTimeoutException.class, () -> RequestDeadline.call(Duration.ofSeconds(1),
+                () -> transactionTemplate.execute(status -> this.jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 1000000) a, SYSTEM_RANGE(1, 1000000) b", Long.class))));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(10)) < 0);
+    }
+
+    private ConnectionHolder connectionHolder() {
+        return (ConnectionHolder) TransactionSynchronizationManager.getResource(this.dataSource);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
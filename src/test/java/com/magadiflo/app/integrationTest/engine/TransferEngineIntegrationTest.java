@@ -0,0 +1,91 @@
+package com.magadiflo.app.integrationTest.engine;
+
+import com.magadiflo.app.engine.TransferEngine;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.models.dto.PayrollTransferDTO;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.repositories.IBankRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DirtiesContext
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.transfer-engine.enabled=true",
+        "app.transfer-engine.persist-interval=1h",
+        "app.velocity.enabled=true",
+        "app.velocity.window=1h",
+        "app.velocity.max-amount=3000"
+})
+class TransferEngineIntegrationTest {
+    @Autowired
+    private TestRestTemplate client;
+    @Autowired
+    private TransferEngine transferEngine;
+    @Autowired
+    private IAccountRepository accountRepository;
+    @Autowired
+    private IBankRepository bankRepository;
+
+    @DynamicPropertySource
+    static void walPath(DynamicPropertyRegistry registry) throws IOException {
+        String walPath = Files.createTempDirectory("transfer-engine").resolve("engine.wal").toString();
+        registry.add("app.transfer-engine.wal-path", () -> walPath);
+    }
+
+    @Test
+    void should_transfer_through_the_engine_and_persist_on_checkpoint() {
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("500"));
+
+        ResponseEntity<String> response = this.client.postForEntity("/api/v1/accounts/transfer", dto, String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, new BigDecimal("2000").compareTo(this.accountRepository.findById(1L).orElseThrow().getBalance()));
+
+        this.transferEngine.checkpoint();
+
+        assertEquals(0, new BigDecimal("1500").compareTo(this.accountRepository.findById(1L).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("1500").compareTo(this.accountRepository.findById(2L).orElseThrow().getBalance()));
+        assertEquals(1, this.bankRepository.findById(1L).orElseThrow().getTotalTransfers());
+    }
+
+    @Test
+    void should_reject_invalid_amounts_and_writes_that_bypass_the_engine() {
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("0.001"));
+
+        ResponseEntity<String> transfer = this.client.postForEntity("/api/v1/accounts/transfer", dto, String.class);
+        ResponseEntity<String> delete = this.client.exchange("/api/v1/accounts/2", HttpMethod.DELETE, null, String.class);
+        ResponseEntity<String> payroll = this.client.postForEntity("/api/v1/accounts/transfer/payroll",
+                new PayrollTransferDTO(1L, 1L, List.of(new PayrollCreditDTO(2L, new BigDecimal("10")))), String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, transfer.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, delete.getStatusCode());
+        assertEquals(HttpStatus.CONFLICT, payroll.getStatusCode());
+        assertTrue(this.accountRepository.findById(2L).isPresent());
+    }
+
+    @Test
+    void should_apply_the_velocity_limit_before_the_engine() {
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("3500"));
+
+        ResponseEntity<String> response = this.client.postForEntity("/api/v1/accounts/transfer", dto, String.class);
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertNotNull(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+    }
+}
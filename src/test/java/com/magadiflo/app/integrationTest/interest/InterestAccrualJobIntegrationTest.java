@@ -0,0 +1,139 @@
+package com.magadiflo.app.integrationTest.interest;
+
+import com.magadiflo.app.interest.InterestAccrualJob;
+import com.magadiflo.app.interest.InterestAccrualReport;
+import com.magadiflo.app.interest.InterestAccrualStore;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.interest.enabled=true",
+        "app.interest.monthly-rate=0.01",
+        "app.interest.chunk-size=2",
+        "app.interest.parallelism=2"
+})
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class InterestAccrualJobIntegrationTest {
+    private static final YearMonth PERIOD = YearMonth.of(2026, 9);
+
+    @Autowired
+    private InterestAccrualJob interestAccrualJob;
+    @Autowired
+    private InterestAccrualStore interestAccrualStore;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.update("DELETE FROM interest_chunks");
+        this.jdbcTemplate.update("DELETE FROM interest_runs");
+    }
+
+    @Test
+    void should_credit_every_account_with_set_based_chunks() {
+        InterestAccrualReport report = this.interestAccrualJob.run(PERIOD);
+
+        assertEquals(4, report.accounts());
+        assertEquals(0, new BigDecimal("100").compareTo(report.credited()));
+        assertEquals(2, report.chunks());
+        assertEquals(0, report.resumedChunks());
+        assertBalances("1010", "2020", "3030", "4040");
+        assertEquals("COMPLETED", this.jdbcTemplate.queryForObject(
+                "SELECT status FROM interest_runs WHERE id = ?", String.class, report.runId()));
+    }
+
+    @Test
+    void should_credit_each_period_only_once() {
+        this.interestAccrualJob.run(PERIOD);
+
+        InterestAccrualReport again = this.interestAccrualJob.run(PERIOD);
+
+        assertEquals(2, again.resumedChunks());
+        assertEquals(0, new BigDecimal("100").compareTo(again.credited()));
+        assertBalances("1010", "2020", "3030", "4040");
+    }
+
+    @Test
+    void should_resume_from_the_last_committed_chunk() {
+        InterestAccrualStore.Run interrupted = this.interestAccrualStore.startRun(PERIOD, new BigDecimal("0.01"), 2, 1L, 4L);
+        this.interestAccrualStore.accrueChunk(interrupted, 1L, 3L);
+
+        InterestAccrualReport report = this.interestAccrualJob.run(PERIOD);
+
+        assertEquals(interrupted.id(), report.runId());
+        assertEquals(1, report.resumedChunks());
+        assertEquals(0, new BigDecimal("100").compareTo(report.credited()));
+        assertBalances("1010", "2020", "3030", "4040");
+    }
+
+    @Test
+    void should_skip_accounts_without_a_positive_balance() {
+        this.jdbcTemplate.update("UPDATE accounts SET balance = 0 WHERE id = 2");
+        this.accountService.transfer(1L, 3L, 1L, new BigDecimal("500"));
+
+        InterestAccrualReport report = this.interestAccrualJob.run(PERIOD);
+
+        assertEquals(3, report.accounts());
+        assertBalances("1515", "0", "2525", "4040");
+    }
+
+    @Test
+    void should_not_lose_interest_credited_while_a_transfer_is_in_flight() throws Exception {
+        CompletableFuture.runAsync(() -> this.accountService.transfer(1L, 3L, 4L, BigDecimal.ONE)).get(10, TimeUnit.SECONDS);
+        TransactionTemplate chunk = new TransactionTemplate(this.transactionManager);
+        CompletableFuture<Void> transfer = new CompletableFuture<>();
+
+        chunk.executeWithoutResult(status -> {
+            this.jdbcTemplate.queryForList("SELECT id FROM accounts WHERE id >= 1 AND id < 3 FOR UPDATE", Long.class);
+            this.jdbcTemplate.update("UPDATE accounts SET balance = balance + ROUND(balance * 0.01, 2) WHERE id >= 1 AND id < 3");
+            CompletableFuture.runAsync(() -> this.accountService.transfer(1L, 1L, 2L, new BigDecimal("100")))
+                    .whenComplete((ignored, failure) -> {
+                        if (failure == null) {
+                            transfer.complete(null);
+                        } else {
+                            transfer.completeExceptionally(failure);
+                        }
+                    });
+            sleep(500);
+            assertFalse(transfer.isDone());
+        });
+        transfer.get(10, TimeUnit.SECONDS);
+
+        assertBalances("910", "2120", "2999", "4001");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void assertBalances(String... expected) {
+        List<BigDecimal> balances = this.jdbcTemplate.queryForList("SELECT balance FROM accounts ORDER BY id", BigDecimal.class);
+        assertEquals(expected.length, balances.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(0, new BigDecimal(expected[i]).compareTo(balances.get(i)), "cuenta " + (i + 1));
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.magadiflo.app.integrationTest.netting;
+
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.netting.NettingTransferExecutor;
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.repositories.IBankRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DirtiesContext
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.netting.enabled=true",
+        "app.netting.settlement-interval=1h"
+})
+class NettingTransferIntegrationTest {
+    @Autowired
+    private TestRestTemplate client;
+    @Autowired
+    private NettingTransferExecutor nettingExecutor;
+    @Autowired
+    private IAccountRepository accountRepository;
+    @Autowired
+    private IBankRepository bankRepository;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("netting").toString();
+        registry.add("app.netting.journal-directory", () -> directory);
+    }
+
+    @Test
+    void should_accept_transfers_and_write_the_net_balances_on_settlement() {
+        ResponseEntity<String> first = this.client.postForEntity("/api/v1/accounts/transfer",
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("500")), String.class);
+        ResponseEntity<String> second = this.client.postForEntity("/api/v1/accounts/transfer",
+                new TransactionDTO(1L, 2L, 1L, new BigDecimal("200")), String.class);
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertEquals(HttpStatus.OK, second.getStatusCode());
+        assertEquals(0, new BigDecimal("2000").compareTo(this.accountRepository.findById(1L).orElseThrow().getBalance()));
+
+        this.nettingExecutor.settle();
+
+        assertEquals(0, new BigDecimal("1700").compareTo(this.accountRepository.findById(1L).orElseThrow().getBalance()));
+        assertEquals(0, new BigDecimal("1300").compareTo(this.accountRepository.findById(2L).orElseThrow().getBalance()));
+        assertEquals(2, this.bankRepository.findById(1L).orElseThrow().getTotalTransfers());
+    }
+}
@@ -0,0 +1,102 @@
+package com.magadiflo.app.integrationTest.outbox;
+
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.outbox.InMemoryOutboxSink;
+import com.magadiflo.app.outbox.OutboxMessage;
+import com.magadiflo.app.outbox.OutboxProperties;
+import com.magadiflo.app.outbox.OutboxRelay;
+import com.magadiflo.app.outbox.OutboxStore;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.outbox.enabled=true",
+        "app.outbox.sink=memory",
+        "app.outbox.batch-size=2",
+        "app.outbox.poll-interval=1h"
+})
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class OutboxRelayIntegrationTest {
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private OutboxRelay outboxRelay;
+    @Autowired
+    private OutboxStore outboxStore;
+    @Autowired
+    private InMemoryOutboxSink sink;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.update("DELETE FROM transfer_outbox");
+        this.sink.clear();
+    }
+
+    @Test
+    void should_write_the_outbox_row_with_the_transfer_and_relay_it() {
+        this.accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+
+        assertEquals(1, this.outboxStore.pending());
+        assertTrue(this.sink.messages().isEmpty());
+
+        assertEquals(1, this.outboxRelay.drain());
+
+        OutboxMessage message = this.sink.messages().get(0);
+        assertEquals(1L, message.bankId());
+        assertEquals(1L, message.accountIdOrigin());
+        assertEquals(2L, message.accountIdDestination());
+        assertEquals(0, new BigDecimal("100").compareTo(message.amount()));
+        assertEquals(0, this.outboxStore.pending());
+    }
+
+    @Test
+    void should_not_write_the_outbox_when_the_transfer_rolls_back() {
+        assertThrows(InsufficientMoneyException.class,
+                () -> this.accountService.transfer(1L, 1L, 2L, new BigDecimal("5000")));
+
+        assertEquals(0, this.outboxStore.pending());
+    }
+
+    @Test
+    void should_relay_every_payroll_leg_in_batches() {
+        this.accountService.transferToMany(1L, 4L, List.of(new PayrollCreditDTO(1L, new BigDecimal("10")),
+                new PayrollCreditDTO(2L, new BigDecimal("20")),
+                new PayrollCreditDTO(3L, new BigDecimal("30"))));
+
+        assertEquals(3, this.outboxRelay.drain());
+
+        assertEquals(List.of(1L, 2L, 3L), this.sink.messages().stream().map(OutboxMessage::accountIdDestination).toList());
+    }
+
+    @Test
+    void should_keep_the_batch_when_the_sink_fails() {
+        this.accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        OutboxProperties properties = new OutboxProperties(true, 10, Duration.ofHours(1), "memory", Path.of("unused"), 10);
+        OutboxRelay failingRelay = new OutboxRelay(properties, this.outboxStore, messages -> {
+            throw new IllegalStateException("Sink no disponible");
+        }, this.transactionManager);
+
+        assertThrows(IllegalStateException.class, failingRelay::drain);
+
+        assertEquals(1, this.outboxStore.pending());
+        assertEquals(1, this.outboxRelay.drain());
+    }
+}
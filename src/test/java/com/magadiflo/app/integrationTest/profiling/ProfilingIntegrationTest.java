@@ -0,0 +1,55 @@
+package com.magadiflo.app.integrationTest.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@SpringBootTest(properties = "app.profiling.enabled=true")
+@AutoConfigureMockMvc
+class ProfilingIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void should_report_server_timing_for_an_account_lookup() throws Exception {
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts/{id}", 1));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Server-Timing", Matchers.allOf(
+                        Matchers.containsString("total;dur="),
+                        Matchers.containsString("service;dur="),
+                        Matchers.containsString("db-conn;dur="),
+                        Matchers.containsString("IAccountRepository.findById x1"),
+                        Matchers.containsString("sql;desc=\"1 statements: select=1"))));
+    }
+
+    @Test
+    void should_count_the_statements_of_a_transfer() throws Exception {
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"));
+
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(dto)));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Server-Timing", Matchers.allOf(
+                        Matchers.containsString("controller;dur="),
+                        Matchers.containsString("repo;dur="),
+                        Matchers.containsString("select=2 insert=0 update=3"))));
+    }
+}
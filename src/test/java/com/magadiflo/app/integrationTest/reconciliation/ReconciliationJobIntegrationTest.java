@@ -0,0 +1,133 @@
+package com.magadiflo.app.integrationTest.reconciliation;
+
+import com.magadiflo.app.reconciliation.Anomaly;
+import com.magadiflo.app.reconciliation.ReconciliationJob;
+import com.magadiflo.app.reconciliation.ReconciliationReport;
+import com.magadiflo.app.reconciliation.ReconciliationStore;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = {
+        "app.reconciliation.enabled=true",
+        "app.reconciliation.chunk-size=2",
+        "app.reconciliation.expected-total=10000",
+        "app.reconciliation.max-rescans=2"
+})
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ReconciliationJobIntegrationTest {
+    @Autowired
+    private ReconciliationJob reconciliationJob;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private IAccountService accountService;
+    @SpyBean
+    private ReconciliationStore reconciliationStore;
+
+    @BeforeEach
+    void setUp() {
+        this.jdbcTemplate.update("DELETE FROM reconciliation_anomalies");
+        this.jdbcTemplate.update("DELETE FROM reconciliation_chunks");
+        this.jdbcTemplate.update("DELETE FROM reconciliation_runs");
+    }
+
+    @Test
+    void should_sum_every_chunk_and_match_the_expected_total() {
+        ReconciliationReport report = this.reconciliationJob.run();
+
+        assertEquals(0, new BigDecimal("10000").compareTo(report.total()));
+        assertEquals(4, report.accounts());
+        assertEquals(2, report.chunks());
+        assertEquals(0, report.resumedChunks());
+        assertEquals(0, report.rescans());
+        assertTrue(report.consistent());
+        assertTrue(report.balanced());
+        assertEquals("COMPLETED", this.jdbcTemplate.queryForObject(
+                "SELECT status FROM reconciliation_runs WHERE id = ?", String.class, report.runId()));
+    }
+
+    @Test
+    void should_report_negative_balances_as_anomalies() {
+        this.jdbcTemplate.update("UPDATE accounts SET balance = -500 WHERE id = 3");
+
+        ReconciliationReport report = this.reconciliationJob.run();
+
+        assertEquals(0, new BigDecimal("6500").compareTo(report.total()));
+        assertFalse(report.matchesExpectedTotal());
+        assertFalse(report.balanced());
+        assertEquals(1, report.anomalyCount());
+        List<Anomaly> anomalies = report.anomalies();
+        assertEquals(3L, anomalies.get(0).accountId());
+        assertEquals(0, new BigDecimal("-500").compareTo(anomalies.get(0).balance()));
+    }
+
+    @Test
+    void should_resume_an_interrupted_run_from_the_pending_chunks() {
+        this.jdbcTemplate.update("INSERT INTO reconciliation_runs(id, chunk_size, min_id, max_id, transfer_mark, status, " +
+                "started_at) VALUES(7, 2, 1, 4, (SELECT SUM(total_transfers) FROM banks), 'RUNNING', CURRENT_TIMESTAMP)");
+        this.jdbcTemplate.update("INSERT INTO reconciliation_chunks(run_id, chunk_start, total, accounts) VALUES(7, 1, 3000, 2)");
+        this.jdbcTemplate.update("UPDATE accounts SET balance = 0 WHERE id IN (1, 2)");
+
+        ReconciliationReport report = this.reconciliationJob.run();
+
+        assertEquals(7L, report.runId());
+        assertEquals(1, report.resumedChunks());
+        assertEquals(0, new BigDecimal("10000").compareTo(report.total()));
+        assertEquals(4, report.accounts());
+
+        ReconciliationReport next = this.reconciliationJob.run();
+
+        assertEquals(8L, next.runId());
+        assertEquals(0, next.resumedChunks());
+        assertEquals(0, new BigDecimal("7000").compareTo(next.total()));
+    }
+
+    @Test
+    void should_read_every_chunk_again_when_a_transfer_commits_during_the_scan() {
+        AtomicInteger transfers = new AtomicInteger();
+        doAnswer(invocation -> {
+            if (transfers.getAndIncrement() == 0) {
+                this.accountService.transfer(1L, 4L, 1L, new BigDecimal("500"));
+            }
+            return invocation.callRealMethod();
+        }).when(this.reconciliationStore).saveChunk(anyLong(), any());
+
+        ReconciliationReport report = this.reconciliationJob.run();
+
+        assertEquals(1, report.rescans());
+        assertTrue(report.consistent());
+        assertTrue(report.balanced());
+        assertEquals(0, new BigDecimal("10000").compareTo(report.total()));
+        assertEquals(4, report.accounts());
+    }
+
+    @Test
+    void should_not_declare_a_match_while_transfers_keep_committing_during_the_scan() {
+        doAnswer(invocation -> {
+            this.accountService.transfer(1L, 4L, 1L, new BigDecimal("1"));
+            return invocation.callRealMethod();
+        }).when(this.reconciliationStore).saveChunk(anyLong(), any());
+
+        ReconciliationReport report = this.reconciliationJob.run();
+
+        assertEquals(2, report.rescans());
+        assertFalse(report.consistent());
+        assertFalse(report.balanced());
+        assertEquals(0, new BigDecimal("10000").compareTo(report.total()));
+    }
+}
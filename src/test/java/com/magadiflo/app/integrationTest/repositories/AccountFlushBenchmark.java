@@ -0,0 +1,98 @@
+package com.magadiflo.app.integrationTest.repositories;
+
+import com.magadiflo.app.models.Account;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Mide el costo de un flush con muchas cuentas administradas en el contexto de persistencia, primero sin cambios y
+ * luego con una sola cuenta modificada. Compara {@link Account}, mejorada con dirty tracking en línea, con
+ * {@link SnapshotAccount}, la misma tabla mapeada sobre una clase sin mejorar, como quedaba Account antes del plugin:
+ * Hibernate compara las instantáneas de todas las entidades en cada flush. Solo corre con el perfil de mediciones:
+ * <pre>./mvnw test -Pbenchmark -Dtest=AccountFlushBenchmark</pre>
+ */
+@Tag("benchmark")
+@DataJpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.show-sql=false",
+        "spring.jpa.mapping-resources=benchmark/snapshot-account-orm.xml"
+})
+class AccountFlushBenchmark {
+    private static final int ACCOUNTS = 50_000;
+    private static final int FLUSHES = 200;
+
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void should_flush_faster_with_inline_dirty_tracking() {
+        assertTrue(SelfDirtinessTracker.class.isAssignableFrom(Account.class));
+        assertFalse(SelfDirtinessTracker.class.isAssignableFrom(SnapshotAccount.class));
+        this.jdbcTemplate.batchUpdate("INSERT INTO accounts(person, balance) VALUES(?, ?)",
+                IntStream.range(0, ACCOUNTS).mapToObj(i -> new Object[]{"Cliente " + i, BigDecimal.valueOf(i, 2)}).toList());
+
+        Result snapshots = this.measure("comparación de instantáneas", SnapshotAccount.class,
+                account -> account.balance = account.balance.add(BigDecimal.ONE));
+        Result tracked = this.measure("dirty tracking en línea", Account.class,
+                account -> account.credit(BigDecimal.ONE));
+
+        assertTrue(tracked.cleanFlushNanos() < snapshots.cleanFlushNanos());
+        assertTrue(tracked.oneDirtyFlushNanos() < snapshots.oneDirtyFlushNanos());
+    }
+
+    private <T> Result measure(String label, Class<T> type, Consumer<T> change) {
+        this.entityManager.clear();
+        List<T> accounts = this.entityManager.createQuery("select a from " + this.entityManager.getMetamodel()
+                .entity(type).getName() + " a", type).getResultList();
+        assertEquals(ACCOUNTS + 2, accounts.size());
+
+        long cleanFlush = this.flushNanos(() -> {
+        });
+        long oneDirtyFlush = this.flushNanos(() -> change.accept(accounts.get(0)));
+
+        System.out.printf("%-28s %,d cuentas administradas, flush sin cambios %,8d µs, flush con una cuenta modificada %,8d µs%n",
+                label, accounts.size(), cleanFlush / 1_000, oneDirtyFlush / 1_000);
+        return new Result(cleanFlush, oneDirtyFlush);
+    }
+
+    private long flushNanos(Runnable change) {
+        for (int i = 0; i < FLUSHES / 4; i++) {
+            change.run();
+            this.entityManager.flush();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < FLUSHES; i++) {
+            change.run();
+            this.entityManager.flush();
+        }
+        return (System.nanoTime() - start) / FLUSHES;
+    }
+
+    private record Result(long cleanFlushNanos, long oneDirtyFlushNanos) {
+    }
+
+    /**
+     * Mapeada solo en {@code benchmark/snapshot-account-orm.xml}, sin {@code @Entity}, para que el escaneo de entidades
+     * de las demás pruebas no la encuentre. Al ser una clase de pruebas, el plugin de mejora no la toca.
+     */
+    static class SnapshotAccount {
+        private Long id;
+        private String person;
+        private BigDecimal balance;
+    }
+}
@@ -0,0 +1,115 @@
+package com.magadiflo.app.integrationTest.repositories;
+
+import com.magadiflo.app.repositories.IAccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara el listado y la consulta de saldo proyectados (sin entidades administradas) con la carga de entidades: bytes
+ * asignados por operación y operaciones por segundo. Usa su propia base en memoria, así que no toca los datos de las
+ * demás pruebas. Solo corre con el perfil de mediciones:
+ * <pre>./mvnw test -Pbenchmark -Dtest=AccountReadPathBenchmark</pre>
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:read_path_benchmark;DB_CLOSE_ON_EXIT=FALSE",
+        "spring.jpa.show-sql=false"
+})
+class AccountReadPathBenchmark {
+    private static final int ACCOUNTS = 10_000;
+    private static final int WARMUP_ITERATIONS = 30;
+    private static final int ITERATIONS = 100;
+
+    @Autowired
+    private IAccountRepository accountRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private long accounts;
+
+    @BeforeEach
+    void setUp() {
+        if (this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class) < ACCOUNTS) {
+            this.jdbcTemplate.batchUpdate("INSERT INTO accounts(person, balance) VALUES(?, ?)", IntStream.range(0, ACCOUNTS)
+                    .mapToObj(i -> new Object[]{"Cliente " + i, BigDecimal.valueOf(i, 2)})
+                    .toList());
+        }
+        this.accounts = this.jdbcTemplate.queryForObject("SELECT COUNT(*) FROM accounts", Long.class);
+        this.readOnly = new TransactionTemplate(this.transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.readWrite = new TransactionTemplate(this.transactionManager);
+    }
+
+    @Test
+    void should_list_with_less_allocation_through_the_projection() {
+        Result projectedReadOnly = this.measure("listado proyectado, solo lectura",
+                () -> this.readOnly.execute(status -> this.accountRepository.findAllUnmanaged()));
+        Result entitiesReadOnly = this.measure("listado de entidades, solo lectura",
+                () -> this.readOnly.execute(status -> this.accountRepository.findAll(Sort.by("id"))));
+        Result projectedReadWrite = this.measure("listado proyectado, lectura-escritura",
+                () -> this.readWrite.execute(status -> this.accountRepository.findAllUnmanaged()));
+        Result entitiesReadWrite = this.measure("listado de entidades, lectura-escritura",
+                () -> this.readWrite.execute(status -> this.accountRepository.findAll(Sort.by("id"))));
+
+        assertTrue(projectedReadOnly.bytesPerOperation() < entitiesReadOnly.bytesPerOperation());
+        assertTrue(projectedReadWrite.bytesPerOperation() < entitiesReadWrite.bytesPerOperation());
+    }
+
+    @Test
+    void should_review_balances_with_less_allocation_through_the_projection() {
+        List<Long> ids = LongStream.rangeClosed(1, 1_000).boxed().toList();
+        Result projected = this.measure("saldo proyectado, solo lectura", () -> this.readOnly.execute(status -> ids.stream()
+                .map(id -> this.accountRepository.findBalanceById(id).orElseThrow().balance())
+                .toList()));
+        Result entities = this.measure("saldo de entidades, solo lectura", () -> this.readOnly.execute(status -> ids.stream()
+                .map(id -> this.accountRepository.findById(id).orElseThrow().getBalance())
+                .toList()));
+
+        assertTrue(projected.bytesPerOperation() < entities.bytesPerOperation());
+    }
+
+    private Result measure(String path, Supplier<List<?>> operation) {
+        int expected = operation.get().size();
+        assertTrue(expected > 0);
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            assertEquals(expected, operation.get().size());
+        }
+        long bytesBefore = allocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        Result result = new Result(path, (allocatedBytes() - bytesBefore) / ITERATIONS, ITERATIONS * 1e9 / elapsed);
+        System.out.printf("%-40s %,6d cuentas: %,10d KB/operación, %,8.1f operaciones/s%n",
+                path, this.accounts, result.bytesPerOperation() / 1024, result.operationsPerSecond());
+        return result;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private record Result(String path, long bytesPerOperation, double operationsPerSecond) {
+    }
+}
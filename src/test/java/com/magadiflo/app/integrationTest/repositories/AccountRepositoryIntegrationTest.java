@@ -1,10 +1,15 @@
 package com.magadiflo.app.integrationTest.repositories;
 
 import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.dto.AccountBalanceDTO;
 import com.magadiflo.app.repositories.IAccountRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -16,6 +21,8 @@ import static org.junit.jupiter.api.Assertions.*;
 class AccountRepositoryIntegrationTest {
     @Autowired
     private IAccountRepository accountRepository;
+    @Autowired
+    private EntityManager entityManager;
 
     @Test
     void should_find_an_account_by_id() {
@@ -89,4 +96,43 @@ class AccountRepositoryIntegrationTest {
         Optional<Account> accountDelete = this.accountRepository.findById(1L);
         assertTrue(accountDelete.isEmpty());
     }
+
+    @Test
+    void should_find_all_accounts_without_managing_them() {
+        List<Account> accounts = this.accountRepository.findAllUnmanaged();
+
+        assertEquals(List.of(1L, 2L), accounts.stream().map(Account::getId).toList());
+        assertTrue(accounts.stream().noneMatch(this.entityManager::contains));
+        assertTrue(this.accountRepository.findAll().stream().allMatch(this.entityManager::contains));
+    }
+
+    @Test
+    void should_find_only_the_balance_of_an_account() {
+        AccountBalanceDTO balance = this.accountRepository.findBalanceById(2L).orElseThrow();
+
+        assertEquals(2L, balance.id());
+        assertEquals(0, new BigDecimal("1000").compareTo(balance.balance()));
+        assertTrue(this.accountRepository.findBalanceById(10L).isEmpty());
+    }
+
+    @Test
+    void should_find_unmanaged_accounts_by_ids() {
+        List<Account> accounts = this.accountRepository.findUnmanagedByIdIn(List.of(2L, 10L));
+
+        assertEquals(1, accounts.size());
+        assertEquals("Alicia", accounts.get(0).getPerson());
+        assertFalse(this.entityManager.contains(accounts.get(0)));
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    void should_load_read_only_entities_without_flushing_in_read_only_transactions() {
+        Session session = this.entityManager.unwrap(Session.class);
+
+        Account account = this.accountRepository.findById(1L).orElseThrow();
+
+        assertTrue(session.isDefaultReadOnly());
+        assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+        assertTrue(session.isReadOnly(account));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+package com.magadiflo.app.integrationTest.scheduledtransfer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.exceptions.VelocityLimitExceededException;
+import com.magadiflo.app.models.dto.ScheduledTransferDTO;
+import com.magadiflo.app.scheduledtransfer.ScheduledTransfer;
+import com.magadiflo.app.scheduledtransfer.ScheduledTransferProperties;
+import com.magadiflo.app.scheduledtransfer.ScheduledTransferScheduler;
+import com.magadiflo.app.scheduledtransfer.ScheduledTransferStore;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.scheduled-transfers.enabled=true",
+        "app.scheduled-transfers.tick=10ms",
+        "app.scheduled-transfers.wheel-size=64",
+        "app.scheduled-transfers.retry-delay=50ms"
+})
+@AutoConfigureMockMvc
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ScheduledTransferIntegrationTest {
+    @Autowired
+    private ScheduledTransferScheduler scheduler;
+    @Autowired
+    private ScheduledTransferStore store;
+    @Autowired
+    private ScheduledTransferProperties properties;
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void should_execute_the_transfer_when_it_is_due() throws Exception {
+        ScheduledTransfer transfer = this.scheduler.schedule(1L, 1L, 2L, new BigDecimal("100"),
+                Instant.now().plusMillis(200));
+        assertEquals("PENDING", this.store.status(transfer.id()).orElseThrow());
+
+        this.awaitStatus(transfer.id(), "EXECUTED");
+
+        assertEquals(0, new BigDecimal("900").compareTo(this.accountService.reviewBalance(1L)));
+        assertEquals(0, new BigDecimal("2100").compareTo(this.accountService.reviewBalance(2L)));
+    }
+
+    @Test
+    void should_mark_the_transfer_as_failed_without_moving_money() throws Exception {
+        ScheduledTransfer transfer = this.scheduler.schedule(1L, 1L, 2L, new BigDecimal("5000"), Instant.now());
+
+        this.awaitStatus(transfer.id(), "FAILED");
+
+        assertEquals(0, new BigDecimal("1000").compareTo(this.accountService.reviewBalance(1L)));
+    }
+
+    @Test
+    void should_schedule_and_cancel_through_the_api() throws Exception {
+        ScheduledTransferDTO dto = new ScheduledTransferDTO(1L, 3L, 4L, new BigDecimal("50"), Instant.now().plus(Duration.ofMinutes(10)));
+        String body = this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer/scheduled")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        long id = this.objectMapper.readTree(body).get("id").asLong();
+        int pending = this.scheduler.pending();
+
+        this.mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/accounts/transfer/scheduled/{id}", id))
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+        this.mockMvc.perform(MockMvcRequestBuilders.delete("/api/v1/accounts/transfer/scheduled/{id}", id))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        assertEquals("CANCELLED", this.store.status(id).orElseThrow());
+        assertEquals(pending - 1, this.scheduler.pending());
+    }
+
+    @Test
+    void should_rebuild_the_wheel_from_the_table() throws Exception {
+        ScheduledTransfer transfer = this.store.insert(1L, 4L, 1L, new BigDecimal("400"), Instant.now().minusSeconds(1));
+
+        try (ScheduledTransferScheduler restarted = new ScheduledTransferScheduler(this.properties, this.store,
+                this.accountService, this.transactionManager)) {
+            restarted.reload();
+            assertTrue(restarted.tick() >= 1);
+
+            this.awaitStatus(transfer.id(), "EXECUTED");
+        }
+        assertEquals(0, new BigDecimal("3600").compareTo(this.accountService.reviewBalance(4L)));
+    }
+
+    @Test
+    void should_keep_the_transfer_pending_and_retry_it_after_a_transient_failure() throws Exception {
+        ScheduledTransfer transfer = this.store.insert(1L, 3L, 4L, new BigDecimal("300"), Instant.now().minusSeconds(1));
+        IAccountService limitedOnce = Mockito.mock(IAccountService.class);
+        Mockito.doThrow(new VelocityLimitExceededException("Límite de velocidad", 0))
+                .doAnswer(invocation -> {
+                    this.accountService.transfer(1L, 3L, 4L, new BigDecimal("300"));
+                    return null;
+                })
+                .when(limitedOnce).transfer(Mockito.eq(1L), Mockito.eq(3L), Mockito.eq(4L), Mockito.any());
+
+        try (ScheduledTransferScheduler restarted = new ScheduledTransferScheduler(this.properties, this.store,
+                limitedOnce, this.transactionManager)) {
+            restarted.reload();
+            assertEquals(1, restarted.tick());
+            long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+            while (restarted.pending() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(1, restarted.pending());
+            assertEquals("PENDING", this.store.status(transfer.id()).orElseThrow());
+
+            Thread.sleep(100);
+            assertEquals(1, restarted.tick());
+            this.awaitStatus(transfer.id(), "EXECUTED");
+        }
+        assertEquals(0, new BigDecimal("2700").compareTo(this.accountService.reviewBalance(3L)));
+        assertEquals(0, new BigDecimal("4300").compareTo(this.accountService.reviewBalance(4L)));
+    }
+
+    private void awaitStatus(long id, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!expected.equals(this.store.status(id).orElseThrow()) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, this.store.status(id).orElseThrow());
+    }
+}
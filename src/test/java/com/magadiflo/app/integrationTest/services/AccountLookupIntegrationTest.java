@@ -0,0 +1,76 @@
+package com.magadiflo.app.integrationTest.services;
+
+import com.magadiflo.app.deadline.RequestDeadline;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.dto.AccountBalanceDTO;
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.datasource.ConnectionHolder;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest(properties = "app.deadline.enabled=true")
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class AccountLookupIntegrationTest {
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private DataSource dataSource;
+    @SpyBean
+    private IAccountRepository accountRepository;
+
+    private final AtomicBoolean readOnly = new AtomicBoolean();
+    private final AtomicInteger timeout = new AtomicInteger(-1);
+
+    @Test
+    void should_find_an_account_in_a_read_only_transaction_bounded_by_the_deadline() {
+        doAnswer(invocation -> {
+            this.captureTransaction();
+            return Optional.of(new Account(1L, "Andrés", new BigDecimal("1000")));
+        }).when(this.accountRepository).findById(1L);
+
+        Account account = RequestDeadline.call(Duration.ofMillis(2_500), () -> this.accountService.findById(1L))
+                .orElseThrow();
+
+        assertEquals("Andrés", account.getPerson());
+        this.assertReadOnlyAndBounded();
+    }
+
+    @Test
+    void should_review_a_balance_in_a_read_only_transaction_bounded_by_the_deadline() {
+        doAnswer(invocation -> {
+            this.captureTransaction();
+            return Optional.of(new AccountBalanceDTO(1L, new BigDecimal("1000")));
+        }).when(this.accountRepository).findBalanceById(1L);
+
+        BigDecimal balance = RequestDeadline.call(Duration.ofMillis(2_500), () -> this.accountService.reviewBalance(1L));
+
+        assertEquals(0, new BigDecimal("1000").compareTo(balance));
+        this.assertReadOnlyAndBounded();
+    }
+
+    private void captureTransaction() {
+        this.readOnly.set(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+        ConnectionHolder holder = (ConnectionHolder) TransactionSynchronizationManager.getResource(this.dataSource);
+        this.timeout.set(holder != null && holder.hasTimeout() ? holder.getTimeToLiveInSeconds() : 0);
+    }
+
+    private void assertReadOnlyAndBounded() {
+        assertTrue(this.readOnly.get());
+        assertTrue(this.timeout.get() >= 1 && this.timeout.get() <= 3, () -> "timeout " + this.timeout.get());
+    }
+}
@@ -0,0 +1,54 @@
+package com.magadiflo.app.integrationTest.services;
+
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.repositories.IAccountCreditRepositoryImpl;
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringBootTest
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.AFTER_TEST_METHOD)
+class PayrollTransferIntegrationTest {
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @SpyBean
+    private IAccountRepository accountRepository;
+
+    @Test
+    void should_roll_back_the_debit_when_a_destination_disappears_mid_payroll() {
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> this.jdbcTemplate.update("DELETE FROM accounts WHERE id = 3")).join();
+            return new IAccountCreditRepositoryImpl(this.jdbcTemplate).creditAll(invocation.getArgument(0));
+        }).when(this.accountRepository).creditAll(any());
+
+        NoSuchElementException exception = assertThrows(NoSuchElementException.class,
+                () -> this.accountService.transferToMany(1L, 4L, List.of(new PayrollCreditDTO(2L, new BigDecimal("100")),
+                        new PayrollCreditDTO(3L, new BigDecimal("200")))));
+
+        assertEquals("No existe el id de la cuenta destino 3", exception.getMessage());
+        assertEquals(0, new BigDecimal("4000").compareTo(this.balance(4L)));
+        assertEquals(0, new BigDecimal("2000").compareTo(this.balance(2L)));
+        assertEquals(0, this.jdbcTemplate.queryForObject("SELECT total_transfers FROM banks WHERE id = 1", Integer.class));
+    }
+
+    private BigDecimal balance(Long accountId) {
+        return this.jdbcTemplate.queryForObject("SELECT balance FROM accounts WHERE id = ?", BigDecimal.class, accountId);
+    }
+}
@@ -0,0 +1,240 @@
+package com.magadiflo.app.integrationTest.sharding;
+
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.sharding.Shard;
+import com.magadiflo.app.sharding.ShardedAccountService;
+import com.magadiflo.app.sharding.ShardedTransferCoordinator;
+import com.magadiflo.app.sharding.Shards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.sharding.enabled=true",
+        "app.sharding.shards[0].url=jdbc:h2:mem:shard0;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[1].url=jdbc:h2:mem:shard1;DB_CLOSE_DELAY=-1",
+        "app.sharding.shards[2].url=jdbc:h2:mem:shard2;DB_CLOSE_DELAY=-1",
+        "app.sharding.in-doubt-timeout=1m",
+        "app.sharding.recovery-interval=1h"
+})
+class ShardedAccountServiceIntegrationTest {
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private Shards shards;
+    @Autowired
+    private ShardedTransferCoordinator coordinator;
+
+    private long bankId;
+
+    @BeforeEach
+    void setUp() {
+        for (Shard shard : this.shards.all()) {
+            shard.jdbcTemplate().update("DELETE FROM shard_pending_ops");
+            shard.jdbcTemplate().update("DELETE FROM shard_transfer_log");
+            shard.jdbcTemplate().update("DELETE FROM accounts");
+            shard.jdbcTemplate().update("DELETE FROM banks");
+        }
+        this.bankId = ((ShardedAccountService) this.accountService).saveBank(new Bank(null, "Banco BCP", 0)).getId();
+    }
+
+    @Test
+    void should_spread_accounts_across_shards_and_merge_listings() {
+        for (int i = 1; i <= 12; i++) {
+            this.accountService.save(new Account(null, "Persona " + i, new BigDecimal("100")));
+        }
+
+        List<Account> accounts = this.accountService.findAll();
+
+        assertEquals(12, accounts.size());
+        for (int i = 1; i < accounts.size(); i++) {
+            assertTrue(accounts.get(i - 1).getId() < accounts.get(i).getId());
+        }
+        long usedShards = this.shards.all().stream()
+                .filter(shard -> shard.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM accounts", Integer.class) > 0)
+                .count();
+        assertTrue(usedShards > 1);
+
+        List<Long> ids = List.of(accounts.get(5).getId(), accounts.get(0).getId(), accounts.get(9).getId(), 999_999L);
+        assertEquals(ids.subList(0, 3), this.accountService.findAllById(ids).stream().map(Account::getId).toList());
+    }
+
+    @Test
+    void should_transfer_within_a_single_shard_locally() {
+        long[] ids = this.accountsOnSameShard();
+
+        this.accountService.transfer(this.bankId, ids[0], ids[1], new BigDecimal("300"));
+
+        assertEquals(0, new BigDecimal("700").compareTo(this.accountService.reviewBalance(ids[0])));
+        assertEquals(0, new BigDecimal("1300").compareTo(this.accountService.reviewBalance(ids[1])));
+        assertEquals(1, this.accountService.reviewTotalTransfers(this.bankId));
+        assertEquals(0, this.countAll("shard_transfer_log"));
+    }
+
+    @Test
+    void should_transfer_across_shards_with_two_phase_commit() {
+        long[] ids = this.accountsOnDifferentShards();
+
+        this.accountService.transfer(this.bankId, ids[0], ids[1], new BigDecimal("300"));
+
+        assertEquals(0, new BigDecimal("700").compareTo(this.accountService.reviewBalance(ids[0])));
+        assertEquals(0, new BigDecimal("1300").compareTo(this.accountService.reviewBalance(ids[1])));
+        assertEquals(1, this.accountService.reviewTotalTransfers(this.bankId));
+        assertEquals(0, this.countAll("shard_transfer_log"));
+        assertEquals(0, this.countAll("shard_pending_ops"));
+    }
+
+    @Test
+    void should_release_the_reserved_debit_when_a_participant_fails() {
+        long[] ids = this.accountsOnDifferentShards();
+        this.accountService.deleteAccountById(ids[1]);
+
+        NoSuchElementException exception = assertThrows(NoSuchElementException.class,
+                () -> this.accountService.transfer(this.bankId, ids[0], ids[1], new BigDecimal("300")));
+
+        assertEquals("No existe el id de la cuenta destino", exception.getMessage());
+        assertEquals(0, new BigDecimal("1000").compareTo(this.accountService.reviewBalance(ids[0])));
+        assertEquals(0, this.accountService.reviewTotalTransfers(this.bankId));
+        assertEquals(0, this.countAll("shard_transfer_log"));
+        assertEquals(0, this.countAll("shard_pending_ops"));
+    }
+
+    @Test
+    void should_reject_a_cross_shard_transfer_without_funds() {
+        long[] ids = this.accountsOnDifferentShards();
+
+        assertThrows(InsufficientMoneyException.class,
+                () -> this.accountService.transfer(this.bankId, ids[0], ids[1], new BigDecimal("5000")));
+
+        assertEquals(0, new BigDecimal("1000").compareTo(this.accountService.reviewBalance(ids[0])));
+        assertEquals(0, new BigDecimal("1000").compareTo(this.accountService.reviewBalance(ids[1])));
+        assertEquals(0, this.countAll("shard_pending_ops"));
+    }
+
+    @Test
+    void should_transfer_a_payroll_across_shards() {
+        long origin = this.accountService.save(new Account(null, "Empresa", new BigDecimal("10000"))).getId();
+        List<PayrollCreditDTO> credits = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            long employee = this.accountService.save(new Account(null, "Empleado " + i, BigDecimal.ZERO)).getId();
+            credits.add(new PayrollCreditDTO(employee, new BigDecimal("500")));
+        }
+
+        this.accountService.transferToMany(this.bankId, origin, credits);
+
+        assertEquals(0, new BigDecimal("7000").compareTo(this.accountService.reviewBalance(origin)));
+        credits.forEach(credit -> assertEquals(0,
+                new BigDecimal("500").compareTo(this.accountService.reviewBalance(credit.accountIdDestination()))));
+        assertEquals(6, this.accountService.reviewTotalTransfers(this.bankId));
+        assertEquals(0, this.countAll("shard_pending_ops"));
+    }
+
+    @Test
+    void should_not_credit_any_leg_when_a_payroll_destination_is_missing() {
+        long origin = this.accountService.save(new Account(null, "Empresa", new BigDecimal("10000"))).getId();
+        long employee = this.accountService.save(new Account(null, "Empleado", BigDecimal.ZERO)).getId();
+        List<PayrollCreditDTO> credits = List.of(new PayrollCreditDTO(employee, new BigDecimal("500")),
+                new PayrollCreditDTO(999_999L, new BigDecimal("500")));
+
+        assertThrows(NoSuchElementException.class, () -> this.accountService.transferToMany(this.bankId, origin, credits));
+
+        assertEquals(0, new BigDecimal("10000").compareTo(this.accountService.reviewBalance(origin)));
+        assertEquals(0, BigDecimal.ZERO.compareTo(this.accountService.reviewBalance(employee)));
+        assertEquals(0, this.accountService.reviewTotalTransfers(this.bankId));
+        assertEquals(0, this.countAll("shard_pending_ops"));
+    }
+
+    @Test
+    void should_complete_a_committed_transfer_during_recovery() {
+        long[] ids = this.accountsOnDifferentShards();
+        this.prepareInterruptedTransfer("tx-committed", ids, "COMMITTED", Instant.now());
+
+        assertEquals(1, this.coordinator.recover());
+
+        assertEquals(0, new BigDecimal("900").compareTo(this.accountService.reviewBalance(ids[0])));
+        assertEquals(0, new BigDecimal("1100").compareTo(this.accountService.reviewBalance(ids[1])));
+        assertEquals(1, this.accountService.reviewTotalTransfers(this.bankId));
+        assertEquals(0, this.countAll("shard_transfer_log"));
+        assertEquals(0, this.countAll("shard_pending_ops"));
+    }
+
+    @Test
+    void should_abort_an_undecided_transfer_during_recovery() {
+        long[] ids = this.accountsOnDifferentShards();
+        this.prepareInterruptedTransfer("tx-recent", ids, "PREPARING", Instant.now());
+
+        assertEquals(0, this.coordinator.recover());
+        assertEquals(0, new BigDecimal("900").compareTo(this.accountService.reviewBalance(ids[0])));
+
+        this.shards.forId(ids[0]).jdbcTemplate().update("UPDATE shard_transfer_log SET created_at = ?",
+                Timestamp.from(Instant.now().minusSeconds(120)));
+        this.shards.forId(ids[1]).jdbcTemplate().update("UPDATE shard_pending_ops SET created_at = ?",
+                Timestamp.from(Instant.now().minusSeconds(120)));
+
+        assertEquals(1, this.coordinator.recover());
+
+        assertEquals(0, new BigDecimal("1000").compareTo(this.accountService.reviewBalance(ids[0])));
+        assertEquals(0, new BigDecimal("1000").compareTo(this.accountService.reviewBalance(ids[1])));
+        assertEquals(0, this.accountService.reviewTotalTransfers(this.bankId));
+        assertEquals(0, this.countAll("shard_transfer_log"));
+        assertEquals(0, this.countAll("shard_pending_ops"));
+    }
+
+    /**
+     * Deja el estado que dejaría una caída después de preparar ambos participantes: débito de 100 reservado en el
+     * origen, crédito y contador del banco pendientes.
+     */
+    private void prepareInterruptedTransfer(String txId, long[] ids, String state, Instant createdAt) {
+        Shard origin = this.shards.forId(ids[0]);
+        Shard destination = this.shards.forId(ids[1]);
+        Timestamp timestamp = Timestamp.from(createdAt);
+        origin.jdbcTemplate().update("INSERT INTO shard_transfer_log(tx_id, state, participants, created_at) VALUES(?, ?, ?, ?)",
+                txId, state, origin.index() + "," + destination.index(), timestamp);
+        origin.jdbcTemplate().update("UPDATE accounts SET balance = balance - 100 WHERE id = ?", ids[0]);
+        String insert = "INSERT INTO shard_pending_ops(tx_id, seq, kind, target_id, amount, applied, coordinator_shard, created_at) " +
+                "VALUES(?, ?, ?, ?, ?, ?, ?, ?)";
+        origin.jdbcTemplate().update(insert, txId, 0, "DEBIT", ids[0], 100, true, origin.index(), timestamp);
+        origin.jdbcTemplate().update(insert, txId, 1, "BANK", this.bankId, 1, false, origin.index(), timestamp);
+        destination.jdbcTemplate().update(insert, txId, 2, "CREDIT", ids[1], 100, false, origin.index(), timestamp);
+    }
+
+    private long[] accountsOnSameShard() {
+        long first = this.accountService.save(new Account(null, "Martín", new BigDecimal("1000"))).getId();
+        long second = first + 1;
+        while (this.shards.router().shardFor(second) != this.shards.router().shardFor(first)) {
+            second++;
+        }
+        this.accountService.save(new Account(second, "Alicia", new BigDecimal("1000")));
+        return new long[]{first, second};
+    }
+
+    private long[] accountsOnDifferentShards() {
+        long first = this.accountService.save(new Account(null, "Martín", new BigDecimal("1000"))).getId();
+        long second = first + 1;
+        while (this.shards.router().shardFor(second) == this.shards.router().shardFor(first)) {
+            second++;
+        }
+        this.accountService.save(new Account(second, "Alicia", new BigDecimal("1000")));
+        return new long[]{first, second};
+    }
+
+    private int countAll(String table) {
+        return this.shards.all().stream()
+                .mapToInt(shard -> shard.jdbcTemplate().queryForObject("SELECT COUNT(*) FROM " + table, Integer.class))
+                .sum();
+    }
+}
@@ -0,0 +1,100 @@
+package com.magadiflo.app.integrationTest.sql;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Plan de sentencias esperado para un endpoint, expresado como "operación tabla" (por ejemplo "select accounts").
+ * La verificación falla si alguna operación supera su cantidad esperada y muestra la diferencia entre el plan
+ * esperado y las sentencias emitidas.
+ */
+public class SqlPlan {
+    private static final Pattern TABLE = Pattern.compile(
+            "^\\s*(?:(update)|(select|delete)\\b.*?\\bfrom|(insert)\\s+into)\\s+([\\w.]+)",
+            Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
+    private final List<String> expected;
+
+    private SqlPlan(List<String> expected) {
+        this.expected = expected;
+    }
+
+    public static SqlPlan of(String... expected) {
+        return new SqlPlan(List.of(expected));
+    }
+
+    public void assertAtMost(List<String> statements) {
+        List<String> actual = statements.stream().map(SqlPlan::normalize).toList();
+        Map<String, Integer> expectedCounts = count(this.expected);
+        Map<String, Integer> actualCounts = count(actual);
+
+        List<String> exceeded = new ArrayList<>();
+        actualCounts.forEach((operation, total) -> {
+            int allowed = expectedCounts.getOrDefault(operation, 0);
+            if (total > allowed) {
+                exceeded.add(String.format("%s: %d (máximo %d)", operation, total, allowed));
+            }
+        });
+        if (exceeded.isEmpty()) {
+            return;
+        }
+
+        StringBuilder message = new StringBuilder("El plan SQL creció: ").append(String.join(", ", exceeded))
+                .append("\n--- esperado\n+++ actual\n");
+        diff(this.expected, actual).forEach(line -> message.append(line).append('\n'));
+        message.append("Sentencias emitidas:\n");
+        for (int i = 0; i < statements.size(); i++) {
+            message.append(String.format("%3d. %s%n", i + 1, statements.get(i).replaceAll("\\s+", " ").trim()));
+        }
+        fail(message.toString());
+    }
+
+    static String normalize(String sql) {
+        Matcher matcher = TABLE.matcher(sql);
+        if (matcher.find()) {
+            String operation = matcher.group(1) != null ? matcher.group(1)
+                    : matcher.group(2) != null ? matcher.group(2) : matcher.group(3);
+            return (operation + " " + matcher.group(4)).toLowerCase(Locale.ROOT);
+        }
+        return sql.replaceAll("\\s+", " ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static Map<String, Integer> count(List<String> operations) {
+        Map<String, Integer> counts = new TreeMap<>();
+        operations.forEach(operation -> counts.merge(operation.split(" ", 2)[0], 1, Integer::sum));
+        operations.forEach(operation -> counts.merge(operation, 1, Integer::sum));
+        return counts;
+    }
+
+    private static List<String> diff(List<String> expected, List<String> actual) {
+        int[][] lcs = new int[expected.size() + 1][actual.size() + 1];
+        for (int i = expected.size() - 1; i >= 0; i--) {
+            for (int j = actual.size() - 1; j >= 0; j--) {
+                lcs[i][j] = expected.get(i).equals(actual.get(j))
+                        ? lcs[i + 1][j + 1] + 1
+                        : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+            }
+        }
+        List<String> lines = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        while (i < expected.size() || j < actual.size()) {
+            if (i < expected.size() && j < actual.size() && expected.get(i).equals(actual.get(j))) {
+                lines.add("  " + expected.get(i++));
+                j++;
+            } else if (j < actual.size() && (i == expected.size() || lcs[i][j + 1] >= lcs[i + 1][j])) {
+                lines.add("+ " + actual.get(j++));
+            } else {
+                lines.add("- " + expected.get(i++));
+            }
+        }
+        return lines;
+    }
+}
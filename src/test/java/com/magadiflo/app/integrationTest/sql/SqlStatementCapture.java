@@ -0,0 +1,35 @@
+package com.magadiflo.app.integrationTest.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * StatementInspector de Hibernate que registra las sentencias SQL emitidas mientras hay una captura activa.
+ * Se activa con la propiedad {@code spring.jpa.properties.hibernate.session_factory.statement_inspector}.
+ */
+public class SqlStatementCapture implements StatementInspector {
+    private static final List<String> statements = new ArrayList<>();
+    private static boolean capturing;
+
+    public static synchronized void start() {
+        statements.clear();
+        capturing = true;
+    }
+
+    public static synchronized List<String> stop() {
+        capturing = false;
+        return List.copyOf(statements);
+    }
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (SqlStatementCapture.class) {
+            if (capturing) {
+                statements.add(sql);
+            }
+        }
+        return sql;
+    }
+}
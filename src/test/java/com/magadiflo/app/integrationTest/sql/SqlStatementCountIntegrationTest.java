@@ -0,0 +1,123 @@
+package com.magadiflo.app.integrationTest.sql;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
+import com.magadiflo.app.models.dto.PayrollTransferDTO;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Cota superior de sentencias SQL por endpoint. Si un cambio agrega consultas (por ejemplo un N+1), la prueba falla
+ * mostrando la diferencia entre el plan esperado y las sentencias emitidas.
+ */
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.magadiflo.app.integrationTest.sql.SqlStatementCapture")
+@AutoConfigureMockMvc
+class SqlStatementCountIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        SqlStatementCapture.stop();
+    }
+
+    @Test
+    void should_list_all_accounts_with_one_select() throws Exception {
+        this.assertPlan(MockMvcRequestBuilders.get("/api/v1/accounts"),
+                MockMvcResultMatchers.status().isOk(),
+                SqlPlan.of("select accounts"));
+    }
+
+    @Test
+    void should_find_accounts_by_ids_with_one_select() throws Exception {
+        this.assertPlan(MockMvcRequestBuilders.get("/api/v1/accounts").param("ids", "3", "1", "10"),
+                MockMvcResultMatchers.status().isOk(),
+                SqlPlan.of("select accounts"));
+    }
+
+    @Test
+    void should_find_an_account_with_one_select() throws Exception {
+        this.assertPlan(MockMvcRequestBuilders.get("/api/v1/accounts/{id}", 1),
+                MockMvcResultMatchers.status().isOk(),
+                SqlPlan.of("select accounts"));
+    }
+
+    @Test
+    void should_not_find_an_account_with_one_select() throws Exception {
+        this.assertPlan(MockMvcRequestBuilders.get("/api/v1/accounts/{id}", 10),
+                MockMvcResultMatchers.status().isNotFound(),
+                SqlPlan.of("select accounts"));
+    }
+
+    @Test
+    void should_save_an_account_with_one_insert() throws Exception {
+        Account account = new Account(null, "Martín", new BigDecimal("2000"));
+
+        this.assertPlan(MockMvcRequestBuilders.post("/api/v1/accounts")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(account)),
+                MockMvcResultMatchers.status().isCreated(),
+                SqlPlan.of("insert accounts"));
+    }
+
+    @Test
+    void should_transfer_with_three_selects_and_three_updates() throws Exception {
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"));
+
+        this.assertPlan(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(dto)),
+                MockMvcResultMatchers.status().isOk(),
+                SqlPlan.of("select accounts", "select accounts", "select banks",
+                        "update accounts", "update accounts", "update banks"));
+    }
+
+    /**
+     * Los abonos se aplican con un batch de JDBC que no pasa por Hibernate; lo que se verifica aquí es que la cantidad
+     * de sentencias no crece con la cantidad de abonos.
+     */
+    @Test
+    void should_transfer_a_payroll_without_a_statement_per_leg() throws Exception {
+        PayrollTransferDTO dto = new PayrollTransferDTO(1L, 4L, List.of(new PayrollCreditDTO(1L, new BigDecimal("100")),
+                new PayrollCreditDTO(2L, new BigDecimal("100")), new PayrollCreditDTO(3L, new BigDecimal("100"))));
+
+        this.assertPlan(MockMvcRequestBuilders.post("/api/v1/accounts/transfer/payroll")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(dto)),
+                MockMvcResultMatchers.status().isOk(),
+                SqlPlan.of("select accounts", "update accounts", "update banks"));
+    }
+
+    @Test
+    void should_delete_an_account_with_one_select_and_one_delete() throws Exception {
+        this.assertPlan(MockMvcRequestBuilders.delete("/api/v1/accounts/{id}", 1),
+                MockMvcResultMatchers.status().isNoContent(),
+                SqlPlan.of("select accounts", "delete accounts"));
+    }
+
+    private void assertPlan(RequestBuilder request, ResultMatcher status, SqlPlan plan) throws Exception {
+        SqlStatementCapture.start();
+        this.mockMvc.perform(request).andExpect(status);
+        List<String> statements = SqlStatementCapture.stop();
+
+        plan.assertAtMost(statements);
+    }
+}
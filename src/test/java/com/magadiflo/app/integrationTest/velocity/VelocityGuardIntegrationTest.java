@@ -0,0 +1,92 @@
+package com.magadiflo.app.integrationTest.velocity;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.exceptions.VelocityLimitExceededException;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "app.velocity.enabled=true",
+        "app.velocity.window=1h",
+        "app.velocity.max-transfers=2",
+        "app.velocity.max-amount=2000"
+})
+@AutoConfigureMockMvc
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
+@Sql(scripts = {"/test-account-cleanup.sql", "/test-account-data.sql"}, executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class VelocityGuardIntegrationTest {
+    @Autowired
+    private IAccountService accountService;
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void should_block_the_origin_account_once_the_limit_is_reached() {
+        this.accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        this.accountService.transfer(1L, 1L, 2L, new BigDecimal("100"));
+
+        assertThrows(VelocityLimitExceededException.class,
+                () -> this.accountService.transfer(1L, 1L, 2L, new BigDecimal("100")));
+        assertEquals(0, new BigDecimal("800").compareTo(this.accountService.reviewBalance(1L)));
+        assertEquals(2, this.accountService.reviewTotalTransfers(1L));
+
+        this.accountService.transfer(1L, 2L, 1L, new BigDecimal("100"));
+    }
+
+    @Test
+    void should_not_count_transfers_that_roll_back() {
+        assertThrows(InsufficientMoneyException.class,
+                () -> this.accountService.transfer(1L, 1L, 2L, new BigDecimal("1500")));
+        assertThrows(VelocityLimitExceededException.class,
+                () -> this.accountService.transfer(1L, 1L, 2L, new BigDecimal("2001")));
+
+        Map<Integer, RuntimeException> failures = this.accountService.transferAll(List.of(
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("300")),
+                new TransactionDTO(1L, 1L, 9L, new BigDecimal("100")),
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("300")),
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("200"))));
+
+        assertEquals(2, failures.size());
+        assertInstanceOf(NoSuchElementException.class, failures.get(1));
+        assertInstanceOf(VelocityLimitExceededException.class, failures.get(3));
+        assertEquals(0, new BigDecimal("400").compareTo(this.accountService.reviewBalance(1L)));
+    }
+
+    @Test
+    void should_answer_too_many_requests_with_retry_after() throws Exception {
+        TransactionDTO dto = new TransactionDTO(1L, 3L, 4L, new BigDecimal("250"));
+        for (int i = 0; i < 2; i++) {
+            this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(this.objectMapper.writeValueAsString(dto)))
+                    .andExpect(MockMvcResultMatchers.status().isOk());
+        }
+
+        this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(this.objectMapper.writeValueAsString(dto)))
+                .andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.RETRY_AFTER));
+    }
+}
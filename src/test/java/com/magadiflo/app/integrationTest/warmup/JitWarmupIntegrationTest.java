@@ -0,0 +1,54 @@
+package com.magadiflo.app.integrationTest.warmup;
+
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.repositories.IBankRepository;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=40",
+        "app.warmup.plateau-window=10",
+        "app.warmup.plateau-tolerance=0",
+        "management.endpoint.health.probes.enabled=true",
+        "management.endpoint.health.group.readiness.include=readinessState,warmup",
+        "management.endpoint.health.group.readiness.show-details=always"
+})
+@AutoConfigureMockMvc
+class JitWarmupIntegrationTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private IAccountRepository accountRepository;
+    @Autowired
+    private IBankRepository bankRepository;
+
+    @Test
+    void should_report_the_warmup_through_the_readiness_probe() throws Exception {
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health/readiness"));
+
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.status").value("UP"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.components.warmup.details.reason",
+                        Matchers.oneOf("iterations", "plateau")))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.components.warmup.details.iterations",
+                        Matchers.greaterThan(0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.components.warmup.details.errors").value(0));
+    }
+
+    @Test
+    void should_roll_back_the_synthetic_transfers() {
+        assertEquals(0, this.bankRepository.findById(1L).orElseThrow().getTotalTransfers());
+        assertEquals(2000D, this.accountRepository.findById(1L).orElseThrow().getBalance().doubleValue());
+        assertEquals(1000D, this.accountRepository.findById(2L).orElseThrow().getBalance().doubleValue());
+    }
+}
@@ -0,0 +1,46 @@
+package com.magadiflo.app.integrationTest.warmup;
+
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.repositories.IBankRepository;
+import com.magadiflo.app.warmup.JitWarmup;
+import com.magadiflo.app.warmup.WarmupResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Con el group commit la transferencia confirma en su propia transacción, así que el calentamiento la ejercita sobre un
+ * par de cuentas creado para eso y lo elimina al terminar.
+ */
+@SpringBootTest(properties = {
+        "app.warmup.enabled=true",
+        "app.warmup.iterations=40",
+        "app.warmup.plateau-window=10",
+        "app.warmup.plateau-tolerance=0",
+        "app.group-commit.enabled=true",
+        "app.group-commit.window=1ms"
+})
+class JitWarmupScratchPairIntegrationTest {
+    @Autowired
+    private JitWarmup jitWarmup;
+    @Autowired
+    private IAccountRepository accountRepository;
+    @Autowired
+    private IBankRepository bankRepository;
+
+    @Test
+    void should_warm_up_the_group_commit_path_on_a_scratch_pair_and_remove_it() {
+        WarmupResult result = this.jitWarmup.result();
+
+        assertTrue(result.iterations() > 0);
+        assertEquals(0, result.errors());
+        assertEquals(2, this.accountRepository.count());
+        assertEquals(0, this.bankRepository.findById(1L).orElseThrow().getTotalTransfers());
+        assertTrue(this.bankRepository.findAll().stream().noneMatch(bank -> "warmup".equals(bank.getName())));
+        assertEquals(2000D, this.accountRepository.findById(1L).orElseThrow().getBalance().doubleValue());
+        assertEquals(1000D, this.accountRepository.findById(2L).orElseThrow().getBalance().doubleValue());
+    }
+}
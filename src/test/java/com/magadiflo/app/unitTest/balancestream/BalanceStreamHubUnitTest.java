@@ -0,0 +1,158 @@
+package com.magadiflo.app.unitTest.balancestream;
+
+import com.magadiflo.app.balancestream.AccountsChangedEvent;
+import com.magadiflo.app.balancestream.BalanceStreamConfig;
+import com.magadiflo.app.balancestream.BalanceStreamHub;
+import com.magadiflo.app.balancestream.BalanceStreamProperties;
+import com.magadiflo.app.balancestream.BalanceUpdate;
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceStreamHubUnitTest {
+    private final Map<Long, BigDecimal> balances = new ConcurrentHashMap<>(Map.of(1L, new BigDecimal("1000"), 2L, new BigDecimal("2000")));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void should_refuse_to_start_when_transfers_bypass_the_account_service() {
+        for (String property : List.of("app.transfer-engine.enabled", "app.netting.enabled", "app.sharding.enabled")) {
+            MockEnvironment environment = new MockEnvironment().withProperty(property, "true");
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> new BalanceStreamConfig(environment));
+
+            assertTrue(exception.getMessage().contains(property));
+        }
+        assertDoesNotThrow(() -> new BalanceStreamConfig(new MockEnvironment()));
+    }
+
+    @Test
+    void should_send_the_current_balance_on_subscribe() throws InterruptedException {
+        try (BalanceStreamHub hub = this.hub(8, 10, 10)) {
+            CapturingEmitter emitter = new CapturingEmitter(null);
+            hub.subscribe(List.of(1L, 2L, 9L), emitter);
+
+            assertEquals(BalanceUpdate.of(1L, new BigDecimal("1000")), emitter.next());
+            assertEquals(BalanceUpdate.of(2L, new BigDecimal("2000")), emitter.next());
+            assertEquals(BalanceUpdate.deleted(9L), emitter.next());
+            assertEquals(1, hub.subscribers());
+        }
+    }
+
+    @Test
+    void should_conflate_changes_of_the_same_account() throws InterruptedException {
+        try (BalanceStreamHub hub = this.hub(8, 10, 10)) {
+            CapturingEmitter emitter = new CapturingEmitter(null);
+            hub.subscribe(List.of(1L), emitter);
+            emitter.next();
+
+            this.balances.put(1L, new BigDecimal("900"));
+            hub.onAccountsChanged(new AccountsChangedEvent(List.of(1L, 2L)));
+            this.balances.put(1L, new BigDecimal("800"));
+            hub.onAccountsChanged(new AccountsChangedEvent(List.of(1L)));
+            int loadsBeforeFlush = this.loads.get();
+            hub.flush();
+            hub.flush();
+
+            assertEquals(BalanceUpdate.of(1L, new BigDecimal("800")), emitter.next());
+            assertNull(emitter.updates.poll(100, TimeUnit.MILLISECONDS));
+            assertEquals(loadsBeforeFlush + 1, this.loads.get());
+        }
+    }
+
+    @Test
+    void should_drop_a_subscriber_that_does_not_keep_up() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        try (BalanceStreamHub hub = this.hub(2, 10, 10)) {
+            CapturingEmitter slow = new CapturingEmitter(release);
+            hub.subscribe(List.of(1L), slow);
+
+            for (int i = 0; i < 4; i++) {
+                hub.onAccountsChanged(new AccountsChangedEvent(List.of(1L)));
+                hub.flush();
+            }
+
+            assertEquals(0, hub.subscribers());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void should_reject_subscriptions_over_the_limits() {
+        try (BalanceStreamHub hub = this.hub(8, 1, 2)) {
+            assertThrows(IllegalArgumentException.class, () -> hub.subscribe(List.of(), new CapturingEmitter(null)));
+            assertThrows(IllegalArgumentException.class, () -> hub.subscribe(List.of(1L, 2L, 3L), new CapturingEmitter(null)));
+
+            hub.subscribe(List.of(1L, 2L), new CapturingEmitter(null));
+
+            assertThrows(TooManyRequestsException.class, () -> hub.subscribe(List.of(1L), new CapturingEmitter(null)));
+        }
+    }
+
+    @Test
+    void should_ignore_changes_of_accounts_without_subscribers() {
+        try (BalanceStreamHub hub = this.hub(8, 10, 10)) {
+            hub.onAccountsChanged(new AccountsChangedEvent(List.of(1L, 2L)));
+            hub.flush();
+
+            assertEquals(0, this.loads.get());
+        }
+    }
+
+    private BalanceStreamHub hub(int bufferSize, int maxSubscribers, int maxAccountsPerSubscriber) {
+        BalanceStreamProperties properties = new BalanceStreamProperties(true, Duration.ofHours(1), bufferSize,
+                maxSubscribers, maxAccountsPerSubscriber, Duration.ofHours(1), Duration.ofHours(1), 1);
+        return new BalanceStreamHub(properties, this::load);
+    }
+
+    private Map<Long, BigDecimal> load(Set<Long> ids) {
+        this.loads.incrementAndGet();
+        return ids.stream().filter(this.balances::containsKey).collect(Collectors.toMap(id -> id, this.balances::get));
+    }
+
+    private static class CapturingEmitter extends SseEmitter {
+        private final BlockingQueue<BalanceUpdate> updates = new LinkedBlockingQueue<>();
+        private final CountDownLatch release;
+
+        private CapturingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            if (this.release != null) {
+                try {
+                    this.release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            builder.build().stream()
+                    .map(DataWithMediaType::getData)
+                    .filter(BalanceUpdate.class::isInstance)
+                    .map(BalanceUpdate.class::cast)
+                    .forEach(this.updates::add);
+        }
+
+        private BalanceUpdate next() throws InterruptedException {
+            return this.updates.poll(5, TimeUnit.SECONDS);
+        }
+    }
+}
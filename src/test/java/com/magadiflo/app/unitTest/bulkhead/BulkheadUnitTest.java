@@ -0,0 +1,73 @@
+package com.magadiflo.app.unitTest.bulkhead;
+
+import com.magadiflo.app.bulkhead.Bulkhead;
+import com.magadiflo.app.bulkhead.BulkheadBeanPostProcessor;
+import com.magadiflo.app.bulkhead.Workload;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkheadUnitTest {
+
+    @Test
+    void should_reject_immediately_when_the_queue_is_full() {
+        Bulkhead bulkhead = new Bulkhead(Workload.LIST, 1, 0, Duration.ofSeconds(5));
+
+        assertTrue(bulkhead.tryAcquire());
+        long start = System.nanoTime();
+        assertFalse(bulkhead.tryAcquire());
+
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(1));
+        assertEquals(1, bulkhead.inFlight());
+        assertEquals(1, bulkhead.rejected());
+    }
+
+    @Test
+    void should_admit_a_queued_request_when_a_slot_is_released() throws Exception {
+        Bulkhead bulkhead = new Bulkhead(Workload.READ, 1, 1, Duration.ofSeconds(5));
+        assertTrue(bulkhead.tryAcquire());
+
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(bulkhead::tryAcquire);
+        while (bulkhead.queued() == 0) {
+            Thread.onSpinWait();
+        }
+        assertFalse(bulkhead.tryAcquire());
+        bulkhead.release();
+
+        assertTrue(queued.get(5, TimeUnit.SECONDS));
+        assertEquals(0, bulkhead.queued());
+        assertEquals(1, bulkhead.inFlight());
+        assertEquals(1, bulkhead.rejected());
+    }
+
+    @Test
+    void should_reject_a_queued_request_after_the_maximum_wait() {
+        Bulkhead bulkhead = new Bulkhead(Workload.WRITE, 1, 4, Duration.ofMillis(50));
+        assertTrue(bulkhead.tryAcquire());
+
+        assertFalse(bulkhead.tryAcquire());
+
+        assertEquals(0, bulkhead.queued());
+        assertEquals(1, bulkhead.rejected());
+        bulkhead.release();
+        assertTrue(bulkhead.tryAcquire());
+    }
+
+    @Test
+    void should_refuse_to_start_when_the_data_source_is_not_from_hikari() {
+        BulkheadBeanPostProcessor postProcessor = new BulkheadBeanPostProcessor(new MockEnvironment());
+        DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:bulkhead");
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> postProcessor.postProcessAfterInitialization(dataSource, "dataSource"));
+
+        assertTrue(exception.getMessage().contains("Hikari"));
+        assertSame("texto", postProcessor.postProcessAfterInitialization("texto", "texto"));
+    }
+}
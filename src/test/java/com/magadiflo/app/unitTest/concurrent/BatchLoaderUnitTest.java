@@ -0,0 +1,103 @@
+package com.magadiflo.app.unitTest.concurrent;
+
+import com.magadiflo.app.concurrent.BatchLoader;
+import com.magadiflo.app.deadline.RequestDeadline;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchLoaderUnitTest {
+
+    @Test
+    void should_merge_concurrent_loads_into_one_batch() throws Exception {
+        List<Set<Long>> calls = new CopyOnWriteArrayList<>();
+        BatchLoader<Long, String> loader = new BatchLoader<>(10, TimeUnit.MILLISECONDS.toNanos(200), ids -> {
+            calls.add(Set.copyOf(ids));
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "account-" + id));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (long id = 1; id <= 5; id++) {
+                long accountId = id;
+                results.add(executor.submit(() -> loader.load(accountId)));
+            }
+
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals("account-" + (i + 1), results.get(i).get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.size());
+            assertEquals(Set.of(1L, 2L, 3L, 4L, 5L), calls.get(0));
+            assertEquals(1, loader.batches());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_split_batches_at_max_size_and_keep_requested_order() {
+        List<Set<Long>> calls = new ArrayList<>();
+        BatchLoader<Long, String> loader = new BatchLoader<>(2, TimeUnit.SECONDS.toNanos(5), ids -> {
+            calls.add(Set.copyOf(ids));
+            return ids.stream()
+                    .filter(id -> id != 3L)
+                    .collect(Collectors.toMap(Function.identity(), id -> "account-" + id));
+        });
+
+        Map<Long, String> values = loader.loadAll(List.of(4L, 1L, 3L, 1L, 2L));
+
+        assertEquals(List.of(4L, 1L, 2L), List.copyOf(values.keySet()));
+        assertEquals(2, calls.size());
+        assertEquals(4, loader.keys());
+    }
+
+    @Test
+    void should_run_the_batch_with_the_latest_deadline_and_hand_each_caller_a_copy() throws Exception {
+        List<Long> remainingMillis = new CopyOnWriteArrayList<>();
+        BatchLoader<Long, StringBuilder> loader = new BatchLoader<>(10, TimeUnit.MILLISECONDS.toNanos(200), ids -> {
+            remainingMillis.add(TimeUnit.NANOSECONDS.toMillis(RequestDeadline.current().remainingNanos()));
+            return ids.stream().collect(Collectors.toMap(Function.identity(), id -> new StringBuilder("account-" + id)));
+        }, StringBuilder::new);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        try {
+            Future<StringBuilder> shortDeadline = executor.submit(() -> RequestDeadline.call(Duration.ofSeconds(1),
+                    () -> loader.load(1L)));
+            Future<StringBuilder> longDeadline = executor.submit(() -> RequestDeadline.call(Duration.ofSeconds(30),
+                    () -> loader.load(1L)));
+
+            StringBuilder first = shortDeadline.get(5, TimeUnit.SECONDS);
+            StringBuilder second = longDeadline.get(5, TimeUnit.SECONDS);
+            assertNotSame(first, second);
+            assertEquals("account-1", first.toString());
+            assertEquals("account-1", second.toString());
+            assertEquals(1, loader.batches());
+            assertTrue(remainingMillis.get(0) > 20_000L, () -> "restante " + remainingMillis);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_fail_every_caller_of_a_failed_batch() {
+        BatchLoader<Long, String> loader = new BatchLoader<>(10, 0L, ids -> {
+            throw new IllegalStateException("fallo");
+        });
+
+        assertThrows(IllegalStateException.class, () -> loader.loadAll(List.of(1L, 2L)));
+    }
+}
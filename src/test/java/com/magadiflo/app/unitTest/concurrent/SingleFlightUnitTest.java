@@ -0,0 +1,91 @@
+package com.magadiflo.app.unitTest.concurrent;
+
+import com.magadiflo.app.concurrent.SingleFlight;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightUnitTest {
+
+    @Test
+    void should_share_a_single_execution_between_concurrent_callers() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(value -> value + "-copy");
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<String> leader = executor.submit(() -> flight.execute(1L, () -> {
+                loads.incrementAndGet();
+                loading.countDown();
+                await(release);
+                return "account";
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> flight.execute(1L, () -> {
+                    loads.incrementAndGet();
+                    return "other";
+                })));
+            }
+            while (flight.shared() < 3) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("account", leader.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("account-copy", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+            assertEquals(0.75D, flight.coalescingRatio());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_execute_again_after_the_flight_is_forgotten() {
+        SingleFlight<Long, String> flight = new SingleFlight<>(value -> value);
+        AtomicInteger loads = new AtomicInteger();
+
+        String value = flight.execute(1L, () -> {
+            flight.forget(1L);
+            return flight.execute(1L, () -> "fresh-" + loads.incrementAndGet());
+        });
+
+        assertEquals("fresh-1", value);
+        assertEquals(2, flight.executions());
+        assertEquals(0, flight.shared());
+    }
+
+    @Test
+    void should_propagate_the_failure_to_the_caller() {
+        SingleFlight<Long, String> flight = new SingleFlight<>(value -> value);
+
+        assertThrows(IllegalStateException.class, () -> flight.execute(1L, () -> {
+            throw new IllegalStateException("fallo");
+        }));
+        assertEquals("ok", flight.execute(1L, () -> "ok"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,16 +2,21 @@ package com.magadiflo.app.unitTest.controllers;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import com.magadiflo.app.controllers.AccountController;
 import com.magadiflo.app.data.DataTest;
+import com.magadiflo.app.exceptions.TooManyRequestsException;
 import com.magadiflo.app.models.Account;
 import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.ratelimit.TransferRateLimiter;
 import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.velocity.VelocityGuard;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
@@ -38,6 +43,10 @@ class AccountControllerUnitTest {
     private ObjectMapper objectMapper;
     @MockBean
     private IAccountService accountService;
+    @MockBean
+    private TransferRateLimiter transferRateLimiter;
+    @MockBean
+    private VelocityGuard velocityGuard;
 
     @Test
     void should_find_an_account() throws Exception {
@@ -98,6 +107,26 @@ class AccountControllerUnitTest {
         assertEquals(LocalDate.now(), localDateTime.toLocalDate());
     }
 
+    @Test
+    void should_return_too_many_requests_when_transfer_is_rate_limited() throws Exception {
+        // Given
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"));
+        doThrow(new TooManyRequestsException("Demasiadas transferencias desde la cuenta origen", 2))
+                .when(this.transferRateLimiter).acquire(eq(dto.accountIdOrigin()), any());
+
+        // When
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(this.objectMapper.writeValueAsString(dto)));
+
+        // Then
+        response.andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.code").value(HttpStatus.TOO_MANY_REQUESTS.value()));
+        verify(this.accountService, never()).transfer(any(), any(), any(), any());
+        verify(this.transferRateLimiter, never()).release();
+    }
+
     @Test
     void should_find_all_accounts() throws Exception {
         // Given
@@ -121,6 +150,28 @@ class AccountControllerUnitTest {
         verify(this.accountService).findAll();
     }
 
+    @Test
+    void should_find_accounts_by_ids() throws Exception {
+        // Given
+        List<Long> ids = List.of(2L, 1L);
+        List<Account> accountList = List.of(DataTest.account002().get(), DataTest.account001().get());
+        when(this.accountService.findAllById(ids)).thenReturn(accountList);
+
+        // When
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts")
+                .param("ids", "2,1"));
+
+        // Then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[0].person").value("Alicia"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].person").value("Martín"));
+
+        verify(this.accountService).findAllById(ids);
+        verify(this.accountService, never()).findAll();
+    }
+
     @Test
     void should_save_an_account() throws Exception {
         Long idDB = 10L;
@@ -147,4 +198,48 @@ class AccountControllerUnitTest {
 
         verify(this.accountService).save(any(Account.class));
     }
+
+    @Test
+    void should_find_all_accounts_as_cbor() throws Exception {
+        // Given
+        List<Account> accountList = List.of(DataTest.account001().get(), DataTest.account002().get());
+        when(this.accountService.findAll()).thenReturn(accountList);
+
+        // When
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.get("/api/v1/accounts")
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // Then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR));
+
+        JsonNode accounts = new CBORMapper().readTree(response.andReturn().getResponse().getContentAsByteArray());
+        assertEquals(2, accounts.size());
+        assertEquals("Martín", accounts.get(0).get("person").asText());
+        assertEquals(2000, accounts.get(0).get("balance").asInt());
+        assertEquals("Alicia", accounts.get(1).get("person").asText());
+    }
+
+    @Test
+    void should_transfer_with_a_cbor_payload() throws Exception {
+        // Given
+        CBORMapper cborMapper = new CBORMapper();
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"));
+
+        // When
+        ResultActions response = this.mockMvc.perform(MockMvcRequestBuilders.post("/api/v1/accounts/transfer")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .accept(MediaType.APPLICATION_CBOR)
+                .content(cborMapper.writeValueAsBytes(dto)));
+
+        // Then
+        response.andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(MediaType.APPLICATION_CBOR));
+        verify(this.accountService).transfer(dto.bankId(), dto.accountIdOrigin(), dto.accountIdDestination(), dto.amount());
+
+        JsonNode body = cborMapper.readTree(response.andReturn().getResponse().getContentAsByteArray());
+        assertEquals(HttpStatus.OK.value(), body.get("code").asInt());
+        assertEquals("transferencia exitosa", body.get("message").asText());
+        assertEquals(dto.accountIdDestination(), body.get("transaction").get("accountIdDestination").asLong());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,188 @@
+package com.magadiflo.app.unitTest.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.controllers.AccountController;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.models.dto.TransferResponseDTO;
+import com.magadiflo.app.ratelimit.TransferRateLimiter;
+import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.velocity.VelocityGuard;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mide los bytes asignados por transferencia en la ruta completa del controller (MockMvc, servicio simulado) con
+ * varios hilos en paralelo, frente a la misma ruta respondiendo con el antiguo {@code HashMap}.
+ * Solo se ejecuta con el perfil de mediciones:
+ * <pre>./mvnw test -Pbenchmark -Dtest=TransferAllocationBenchmark</pre>
+ */
+@Tag("benchmark")
+@WebMvcTest(AccountController.class)
+@Import(TransferAllocationBenchmark.MapResponseController.class)
+class TransferAllocationBenchmark {
+    private static final int THREADS = 4;
+    private static final int WARMUP_ITERATIONS = 2_000;
+    private static final int ITERATIONS = 5_000;
+    private static final String TRANSFER_PATH = "/api/v1/accounts/transfer";
+    private static final String MAP_RESPONSE_PATH = "/benchmark/transfer-map";
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private IAccountService accountService;
+    @MockBean
+    private TransferRateLimiter transferRateLimiter;
+    @MockBean
+    private VelocityGuard velocityGuard;
+
+    @Test
+    void should_allocate_less_per_request_than_the_map_response_endpoint() throws Exception {
+        byte[] body = this.objectMapper.writeValueAsBytes(new TransactionDTO(1L, 1L, 2L, new BigDecimal("100")));
+
+        long mapBytes = this.bytesPerRequest("respuesta HashMap", () -> this.transfer(MAP_RESPONSE_PATH, body));
+        long typedBytes = this.bytesPerRequest("TransferResponseDTO", () -> this.transfer(TRANSFER_PATH, body));
+
+        assertTrue(typedBytes < mapBytes);
+    }
+
+    @Test
+    void should_allocate_less_than_the_map_response_when_serializing() throws Exception {
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"));
+
+        long mapBytes = this.bytesPerOperation(() -> this.objectMapper.writeValueAsBytes(mapResponse(dto)));
+        long typedBytes = this.bytesPerOperation(() -> this.objectMapper.writeValueAsBytes(TransferResponseDTO.of(dto)));
+
+        System.out.printf("serialización de la respuesta: HashMap %,d bytes/op, TransferResponseDTO %,d bytes/op%n",
+                mapBytes, typedBytes);
+        assertTrue(typedBytes < mapBytes);
+    }
+
+    private long bytesPerRequest(String label, Callable<?> request) throws Exception {
+        this.runConcurrently(WARMUP_ITERATIONS, request);
+        long start = System.nanoTime();
+        long bytes = this.runConcurrently(ITERATIONS, request);
+        long elapsed = System.nanoTime() - start;
+
+        long requests = (long) THREADS * ITERATIONS;
+        System.out.printf("%-20s %d hilos, %,d peticiones, %,.0f peticiones/s, %,d bytes/petición, %,.1f MB/s%n",
+                label, THREADS, requests, requests * 1e9 / elapsed, bytes / requests,
+                bytes * 1e9 / elapsed / (1024 * 1024));
+        return bytes / requests;
+    }
+
+    private ResultActions transfer(String path, byte[] body) throws Exception {
+        return this.mockMvc.perform(MockMvcRequestBuilders.post(path)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    private long runConcurrently(int iterations, Callable<?> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    long before = allocatedBytes();
+                    for (int j = 0; j < iterations; j++) {
+                        operation.call();
+                    }
+                    return allocatedBytes() - before;
+                }));
+            }
+            long bytes = 0;
+            for (Future<Long> future : futures) {
+                bytes += future.get();
+            }
+            return bytes;
+        } finally {
+            executor.shutdownNow();
+            // Los mocks guardan cada invocación; sin esto, la memoria retenida crece con cada ronda.
+            Mockito.clearInvocations(this.accountService, this.transferRateLimiter, this.velocityGuard);
+        }
+    }
+
+    private long bytesPerOperation(Callable<?> operation) throws Exception {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.call();
+        }
+        long before = allocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            operation.call();
+        }
+        return (allocatedBytes() - before) / ITERATIONS;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    private static Map<String, Object> mapResponse(TransactionDTO dto) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("datetime", LocalDateTime.now());
+        response.put("status", HttpStatus.OK);
+        response.put("code", HttpStatus.OK.value());
+        response.put("message", "transferencia exitosa");
+        response.put("transaction", dto);
+        return response;
+    }
+
+    /**
+     * La transferencia tal como respondía antes de {@link TransferResponseDTO}: mismo limitador y mismo servicio,
+     * pero con un {@code HashMap} nuevo en cada petición.
+     */
+    @RestController
+    static class MapResponseController {
+        private final IAccountService accountService;
+        private final TransferRateLimiter transferRateLimiter;
+
+        MapResponseController(IAccountService accountService, TransferRateLimiter transferRateLimiter) {
+            this.accountService = accountService;
+            this.transferRateLimiter = transferRateLimiter;
+        }
+
+        @PostMapping(path = MAP_RESPONSE_PATH, consumes = MediaType.APPLICATION_JSON_VALUE,
+                produces = MediaType.APPLICATION_JSON_VALUE)
+        public ResponseEntity<Map<String, Object>> transfer(@RequestBody TransactionDTO dto, HttpServletRequest request) {
+            this.transferRateLimiter.acquire(dto.accountIdOrigin(), request);
+            try {
+                this.accountService.transfer(dto.bankId(), dto.accountIdOrigin(), dto.accountIdDestination(), dto.amount());
+            } finally {
+                this.transferRateLimiter.release();
+            }
+            return ResponseEntity.ok(mapResponse(dto));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.magadiflo.app.unitTest.data;
+
+import com.magadiflo.app.data.SyntheticDataGenerator;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.Bank;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorUnitTest {
+
+    @Test
+    void should_generate_the_same_rows_for_the_same_seed_regardless_of_order() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(42L);
+        List<Account> accounts = generator.accounts(1_000).toList();
+
+        Account account = new SyntheticDataGenerator(42L).account(777L);
+
+        assertEquals(777L, account.getId());
+        assertEquals(accounts.get(776).getPerson(), account.getPerson());
+        assertEquals(accounts.get(776).getBalance(), account.getBalance());
+        assertEquals(generator.bank(3L).getName(), new SyntheticDataGenerator(42L).bank(3L).getName());
+    }
+
+    @Test
+    void should_generate_different_rows_for_different_seeds() {
+        List<BigDecimal> first = new SyntheticDataGenerator(1L).accounts(100).map(Account::getBalance).toList();
+        List<BigDecimal> second = new SyntheticDataGenerator(2L).accounts(100).map(Account::getBalance).toList();
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void should_generate_skewed_balances_and_names() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator();
+        List<Account> accounts = generator.accounts(100_000).toList();
+        List<BigDecimal> balances = accounts.stream().map(Account::getBalance).sorted().toList();
+
+        assertTrue(balances.stream().allMatch(balance -> balance.signum() >= 0 && balance.scale() == 2));
+        BigDecimal median = balances.get(balances.size() / 2);
+        assertTrue(median.compareTo(new BigDecimal("900")) > 0 && median.compareTo(new BigDecimal("1500")) < 0,
+                () -> "mediana " + median);
+        BigDecimal p99 = balances.get(balances.size() * 99 / 100);
+        assertTrue(p99.compareTo(median.multiply(BigDecimal.TEN)) > 0, () -> "p99 " + p99);
+        long zeros = balances.stream().filter(balance -> balance.signum() == 0).count();
+        assertTrue(zeros > 2_000 && zeros < 4_000, () -> "cuentas en cero " + zeros);
+
+        Map<String, Long> names = accounts.stream()
+                .collect(Collectors.groupingBy(Account::getPerson, Collectors.counting()));
+        assertTrue(names.size() > 500, () -> "nombres distintos " + names.size());
+        long mostCommon = names.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        long leastCommon = names.values().stream().mapToLong(Long::longValue).min().orElseThrow();
+        assertTrue(mostCommon > 20 * leastCommon);
+    }
+
+    @Test
+    void should_compute_the_total_balance_without_materializing_rows() {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(7L);
+
+        BigDecimal expected = generator.accounts(10_000).map(Account::getBalance).reduce(BigDecimal.ZERO, BigDecimal::add);
+
+        assertEquals(expected, generator.totalBalance(10_000));
+        Map<String, Bank> banks = generator.banks(2_000).collect(Collectors.toMap(Bank::getName, Function.identity()));
+        assertEquals(2_000, banks.size());
+    }
+}
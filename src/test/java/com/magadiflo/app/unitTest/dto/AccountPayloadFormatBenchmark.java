@@ -0,0 +1,111 @@
+package com.magadiflo.app.unitTest.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.magadiflo.app.models.Account;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara tamaño y rendimiento de serialización/deserialización de listas de cuentas en JSON y CBOR.
+ * Solo se ejecuta con el perfil de mediciones:
+ * <pre>./mvnw test -Pbenchmark -Dtest=AccountPayloadFormatBenchmark</pre>
+ */
+@Tag("benchmark")
+class AccountPayloadFormatBenchmark {
+    private static final TypeReference<List<Account>> ACCOUNTS = new TypeReference<>() {
+    };
+    private static final long MIN_MEASURE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final ObjectMapper json = new ObjectMapper();
+    private final ObjectMapper cbor = new CBORMapper();
+
+    @Test
+    void should_compare_json_and_cbor_payloads() throws Exception {
+        List<Account> warmup = accounts(1_000);
+        for (int i = 0; i < 3; i++) {
+            this.measure(this.json, warmup);
+            this.measure(this.cbor, warmup);
+        }
+
+        for (int size : new int[]{1_000, 100_000, 1_000_000}) {
+            List<Account> accounts = accounts(size);
+            Result jsonResult = this.measure(this.json, accounts);
+            Result cborResult = this.measure(this.cbor, accounts);
+
+            System.out.printf("%,9d cuentas | JSON %,12d bytes, ser %,8.0f MB/s, deser %,8.0f MB/s | "
+                            + "CBOR %,12d bytes (%.0f%%), ser %,8.0f MB/s, deser %,8.0f MB/s%n",
+                    size, jsonResult.bytes, jsonResult.serializeMBps(), jsonResult.deserializeMBps(),
+                    cborResult.bytes, 100D * cborResult.bytes / jsonResult.bytes,
+                    cborResult.serializeMBps(), cborResult.deserializeMBps());
+            System.out.printf("%,9d cuentas | JSON ser %,12.0f cuentas/s, deser %,12.0f cuentas/s | "
+                            + "CBOR ser %,12.0f cuentas/s, deser %,12.0f cuentas/s%n",
+                    size, jsonResult.serializePerSecond(size), jsonResult.deserializePerSecond(size),
+                    cborResult.serializePerSecond(size), cborResult.deserializePerSecond(size));
+            assertTrue(cborResult.bytes < jsonResult.bytes);
+        }
+    }
+
+    private Result measure(ObjectMapper mapper, List<Account> accounts) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(accounts);
+        assertEquals(accounts.size(), mapper.readValue(payload, ACCOUNTS).size());
+
+        long serializeNanos = timePerOperation(() -> mapper.writeValueAsBytes(accounts));
+        long deserializeNanos = timePerOperation(() -> mapper.readValue(payload, ACCOUNTS));
+        return new Result(payload.length, serializeNanos, deserializeNanos);
+    }
+
+    private static long timePerOperation(Operation operation) throws Exception {
+        operation.run();
+        operation.run();
+        int runs = 0;
+        long start = System.nanoTime();
+        long elapsed;
+        do {
+            operation.run();
+            runs++;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < MIN_MEASURE_NANOS);
+        return elapsed / runs;
+    }
+
+    private static List<Account> accounts(int size) {
+        List<Account> accounts = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            accounts.add(new Account((long) i + 1, "Cliente " + i, BigDecimal.valueOf(i * 37L % 1_000_000, 2)));
+        }
+        return accounts;
+    }
+
+    @FunctionalInterface
+    private interface Operation {
+        void run() throws Exception;
+    }
+
+    private record Result(int bytes, long serializeNanos, long deserializeNanos) {
+        double serializeMBps() {
+            return this.bytes / (this.serializeNanos / 1e9) / (1024 * 1024);
+        }
+
+        double deserializeMBps() {
+            return this.bytes / (this.deserializeNanos / 1e9) / (1024 * 1024);
+        }
+
+        double serializePerSecond(int size) {
+            return size / (this.serializeNanos / 1e9);
+        }
+
+        double deserializePerSecond(int size) {
+            return size / (this.deserializeNanos / 1e9);
+        }
+    }
+}
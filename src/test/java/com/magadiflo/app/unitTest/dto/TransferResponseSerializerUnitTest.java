@@ -0,0 +1,52 @@
+package com.magadiflo.app.unitTest.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.models.dto.TransferResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferResponseSerializerUnitTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void should_write_the_same_fields_as_the_previous_map_response() throws Exception {
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"));
+
+        JsonNode json = this.objectMapper.readTree(this.objectMapper.writeValueAsString(TransferResponseDTO.of(dto)));
+
+        assertEquals("OK", json.get("status").asText());
+        assertEquals(200, json.get("code").asInt());
+        assertEquals("transferencia exitosa", json.get("message").asText());
+        assertEquals(1L, json.get("transaction").get("accountIdOrigin").asLong());
+        assertEquals(100, json.get("transaction").get("amount").asInt());
+        assertDoesNotThrow(() -> LocalDateTime.parse(json.get("datetime").asText()));
+    }
+
+    @Test
+    void should_format_the_timestamp_with_milliseconds_in_the_system_zone() throws Exception {
+        long first = Instant.parse("2023-07-10T15:04:05.005Z").toEpochMilli();
+        long second = first + 1_120;
+        TransactionDTO dto = new TransactionDTO(1L, 1L, 2L, BigDecimal.ONE);
+
+        String firstDatetime = this.objectMapper.readTree(this.objectMapper.writeValueAsString(
+                new TransferResponseDTO(first, dto))).get("datetime").asText();
+        String secondDatetime = this.objectMapper.readTree(this.objectMapper.writeValueAsString(
+                new TransferResponseDTO(second, dto))).get("datetime").asText();
+
+        assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(first), ZoneId.systemDefault()),
+                LocalDateTime.parse(firstDatetime));
+        assertEquals(LocalDateTime.ofInstant(Instant.ofEpochMilli(second), ZoneId.systemDefault()),
+                LocalDateTime.parse(secondDatetime));
+        assertTrue(firstDatetime.endsWith(":05.005"));
+        assertTrue(secondDatetime.endsWith(":06.125"));
+    }
+}
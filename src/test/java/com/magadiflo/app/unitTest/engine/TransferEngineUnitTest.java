@@ -0,0 +1,154 @@
+package com.magadiflo.app.unitTest.engine;
+
+import com.magadiflo.app.engine.EngineSnapshot;
+import com.magadiflo.app.engine.TransferEngine;
+import com.magadiflo.app.engine.TransferEngineProperties;
+import com.magadiflo.app.engine.TransferEngineStore;
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.exceptions.OperationNotAvailableException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransferEngineUnitTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void should_transfer_and_persist_balances_on_checkpoint() {
+        InMemoryStore store = new InMemoryStore();
+        try (TransferEngine engine = this.start(store)) {
+            long sequence = engine.transfer(1L, 1L, 2L, new BigDecimal("500"));
+            engine.checkpoint();
+
+            assertEquals(1L, sequence);
+            assertEquals(150000L, store.accounts.get(1L));
+            assertEquals(150000L, store.accounts.get(2L));
+            assertEquals(1L, store.banks.get(1L));
+            assertEquals(1L, store.checkpoint);
+        }
+    }
+
+    @Test
+    void should_reject_transfers_without_enough_money() {
+        InMemoryStore store = new InMemoryStore();
+        try (TransferEngine engine = this.start(store)) {
+            assertThrows(InsufficientMoneyException.class, () -> engine.transfer(1L, 1L, 2L, new BigDecimal("2500")));
+            assertThrows(NoSuchElementException.class, () -> engine.transfer(1L, 1L, 9L, new BigDecimal("10")));
+            engine.checkpoint();
+
+            assertEquals(200000L, store.accounts.get(1L));
+            assertEquals(0L, store.banks.get(1L));
+            assertEquals(0L, store.checkpoint);
+        }
+    }
+
+    @Test
+    void should_rebuild_state_from_checkpoint_and_log_tail() {
+        InMemoryStore store = new InMemoryStore();
+        TransferEngine crashed = this.start(store);
+        crashed.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        crashed.checkpoint();
+        crashed.transfer(1L, 1L, 2L, new BigDecimal("200.50"));
+        crashed.transfer(1L, 2L, 1L, new BigDecimal("50"));
+        assertEquals(1L, store.checkpoint);
+
+        try (TransferEngine recovered = this.start(store)) {
+            assertEquals(3L, store.checkpoint);
+            assertEquals(174950L, store.accounts.get(1L));
+            assertEquals(125050L, store.accounts.get(2L));
+            assertEquals(3L, store.banks.get(1L));
+
+            assertEquals(4L, recovered.transfer(1L, 2L, 1L, new BigDecimal("0.50")));
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void should_reject_invalid_amounts_and_ids_beyond_capacity() {
+        InMemoryStore store = new InMemoryStore();
+        try (TransferEngine engine = this.start(store)) {
+            assertThrows(IllegalArgumentException.class, () -> engine.transfer(1L, 1L, 2L, null));
+            assertThrows(IllegalArgumentException.class, () -> engine.transfer(1L, 1L, 2L, new BigDecimal("-1")));
+            assertThrows(IllegalArgumentException.class, () -> engine.transfer(1L, 1L, 2L, new BigDecimal("1.005")));
+            assertThrows(IllegalArgumentException.class, () -> engine.transfer(1L, null, 2L, BigDecimal.ONE));
+            assertThrows(OperationNotAvailableException.class, () -> engine.transfer(1L, 1L, 5000L, BigDecimal.ONE));
+            assertEquals(1L, engine.transfer(1L, 1L, 2L, new BigDecimal("1.500")));
+        }
+    }
+
+    @Test
+    void should_persist_increments_without_overwriting_other_writers() {
+        InMemoryStore store = new InMemoryStore();
+        try (TransferEngine engine = this.start(store)) {
+            engine.transfer(1L, 1L, 2L, new BigDecimal("100"));
+            store.accounts.merge(2L, 5000L, Long::sum);
+            engine.checkpoint();
+
+            assertEquals(190000L, store.accounts.get(1L));
+            assertEquals(115000L, store.accounts.get(2L));
+        }
+    }
+
+    private TransferEngine start(InMemoryStore store) {
+        TransferEngineProperties properties = new TransferEngineProperties(true, this.tempDir.resolve("engine.wal"),
+                1024, 64, 16, 100, 10, Duration.ofHours(1), Duration.ofSeconds(1));
+        TransferEngine engine = new TransferEngine(properties, store);
+        engine.start();
+        return engine;
+    }
+
+    static class InMemoryStore implements TransferEngineStore {
+        final Map<Long, Long> accounts = new ConcurrentHashMap<>(Map.of(1L, 200000L, 2L, 100000L));
+        final Map<Long, Long> banks = new ConcurrentHashMap<>(Map.of(1L, 0L));
+        volatile long checkpoint;
+
+        @Override
+        public long loadCheckpoint() {
+            return this.checkpoint;
+        }
+
+        @Override
+        public void loadAccounts(BalanceConsumer consumer) {
+            this.accounts.forEach(consumer::accept);
+        }
+
+        @Override
+        public void loadBanks(BalanceConsumer consumer) {
+            this.banks.forEach(consumer::accept);
+        }
+
+        @Override
+        public OptionalLong loadAccountBalance(long accountId) {
+            Long balance = this.accounts.get(accountId);
+            return balance == null ? OptionalLong.empty() : OptionalLong.of(balance);
+        }
+
+        @Override
+        public OptionalLong loadBankTotalTransfers(long bankId) {
+            Long total = this.banks.get(bankId);
+            return total == null ? OptionalLong.empty() : OptionalLong.of(total);
+        }
+
+        @Override
+        public void persist(EngineSnapshot snapshot) {
+            for (int i = 0; i < snapshot.accountIds().length; i++) {
+                this.accounts.merge(snapshot.accountIds()[i], snapshot.balanceDeltas()[i], Long::sum);
+            }
+            for (int i = 0; i < snapshot.bankIds().length; i++) {
+                this.banks.merge(snapshot.bankIds()[i], snapshot.transferDeltas()[i], Long::sum);
+            }
+            this.checkpoint = snapshot.sequence();
+        }
+    }
+}
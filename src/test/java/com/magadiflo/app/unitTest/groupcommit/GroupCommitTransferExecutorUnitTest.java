@@ -0,0 +1,121 @@
+package com.magadiflo.app.unitTest.groupcommit;
+
+import com.magadiflo.app.deadline.RequestDeadline;
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.groupcommit.GroupCommitProperties;
+import com.magadiflo.app.groupcommit.GroupCommitTransferExecutor;
+import com.magadiflo.app.models.dto.TransactionDTO;
+import com.magadiflo.app.services.IAccountService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class GroupCommitTransferExecutorUnitTest {
+
+    @Test
+    void should_commit_concurrent_transfers_together_and_report_each_outcome() throws Exception {
+        IAccountService accountService = mock(IAccountService.class);
+        when(accountService.transferAll(anyList())).thenAnswer(invocation -> {
+            List<TransactionDTO> transactions = invocation.getArgument(0);
+            for (int i = 0; i < transactions.size(); i++) {
+                if (transactions.get(i).amount().compareTo(new BigDecimal("1000")) > 0) {
+                    return Map.of(i, new InsufficientMoneyException("Dinero insuficiente en la cuenta"));
+                }
+            }
+            return Map.of();
+        });
+        GroupCommitTransferExecutor executor = new GroupCommitTransferExecutor(accountService,
+                new GroupCommitProperties(true, Duration.ofMillis(300), 4));
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (String amount : List.of("100", "200", "5000", "300")) {
+                results.add(threads.submit(() -> executor.transfer(1L, 1L, 2L, new BigDecimal(amount))));
+            }
+
+            int rejected = 0;
+            for (Future<?> result : results) {
+                try {
+                    result.get(5, TimeUnit.SECONDS);
+                } catch (ExecutionException e) {
+                    assertInstanceOf(InsufficientMoneyException.class, e.getCause());
+                    rejected++;
+                }
+            }
+
+            assertEquals(1, rejected);
+            verify(accountService, times(1)).transferAll(anyList());
+            verify(accountService, never()).transfer(any(), any(), any(), any());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_commit_the_group_under_the_latest_deadline_of_its_members() throws Exception {
+        IAccountService accountService = mock(IAccountService.class);
+        AtomicReference<RequestDeadline> commitDeadline = new AtomicReference<>();
+        when(accountService.transferAll(anyList())).thenAnswer(invocation -> {
+            commitDeadline.set(RequestDeadline.current());
+            return Map.of();
+        });
+        GroupCommitTransferExecutor executor = new GroupCommitTransferExecutor(accountService,
+                new GroupCommitProperties(true, Duration.ofMillis(300), 2));
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (Duration budget : List.of(Duration.ofSeconds(2), Duration.ofMinutes(5))) {
+                results.add(threads.submit(() -> RequestDeadline.call(budget, () -> {
+                    executor.transfer(1L, 1L, 2L, new BigDecimal("100"));
+                    return null;
+                })));
+            }
+            for (Future<?> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+
+            verify(accountService, times(1)).transferAll(anyList());
+            assertEquals(Duration.ofMinutes(5), commitDeadline.get().budget());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void should_reject_invalid_transfers_before_they_join_a_group() {
+        IAccountService accountService = mock(IAccountService.class);
+        GroupCommitTransferExecutor executor = new GroupCommitTransferExecutor(accountService,
+                new GroupCommitProperties(true, Duration.ZERO, 4));
+
+        assertThrows(IllegalArgumentException.class, () -> executor.transfer(1L, 1L, 2L, null));
+        assertThrows(IllegalArgumentException.class, () -> executor.transfer(1L, null, 2L, BigDecimal.TEN));
+        assertThrows(IllegalArgumentException.class, () -> executor.transfer(1L, 1L, 2L, BigDecimal.ZERO));
+        verify(accountService, never()).transferAll(anyList());
+    }
+
+    @Test
+    void should_fail_the_caller_when_the_group_transaction_fails() {
+        IAccountService accountService = mock(IAccountService.class);
+        when(accountService.transferAll(anyList())).thenThrow(new IllegalStateException("commit fallido"));
+        GroupCommitTransferExecutor executor = new GroupCommitTransferExecutor(accountService,
+                new GroupCommitProperties(true, Duration.ZERO, 4));
+
+        assertThrows(IllegalStateException.class, () -> executor.transfer(1L, 1L, 2L, new BigDecimal("100")));
+    }
+}
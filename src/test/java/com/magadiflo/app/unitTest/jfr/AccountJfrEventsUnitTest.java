@@ -0,0 +1,117 @@
+package com.magadiflo.app.unitTest.jfr;
+
+import com.magadiflo.app.data.DataTest;
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.jfr.AccountLookupEvent;
+import com.magadiflo.app.jfr.TransferEvent;
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.repositories.IBankRepository;
+import com.magadiflo.app.services.impl.AccountServiceImpl;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AccountJfrEventsUnitTest {
+
+    IAccountRepository accountRepository;
+    IBankRepository bankRepository;
+
+    AccountServiceImpl accountService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        this.accountRepository = mock(IAccountRepository.class);
+        this.bankRepository = mock(IBankRepository.class);
+
+        this.accountService = new AccountServiceImpl(this.accountRepository, this.bankRepository);
+    }
+
+    @Test
+    void should_record_transfer_lookup_and_insufficient_money_events() throws Exception {
+        when(this.accountRepository.findById(1L)).thenReturn(DataTest.account001());
+        when(this.accountRepository.findById(2L)).thenReturn(DataTest.account002());
+        when(this.bankRepository.findById(1L)).thenReturn(DataTest.bank());
+        when(this.accountRepository.findAllUnmanaged()).thenReturn(List.of(DataTest.account001().orElseThrow(), DataTest.account002().orElseThrow()));
+
+        Path file = this.tempDir.resolve("accounts.jfr");
+        try (Recording recording = new Recording(accountsConfiguration())) {
+            recording.enable(TransferEvent.class).withoutThreshold();
+            recording.enable(AccountLookupEvent.class).withoutThreshold();
+            recording.start();
+
+            this.accountService.transfer(1L, 1L, 2L, new BigDecimal("500"));
+            assertThrows(InsufficientMoneyException.class,
+                    () -> this.accountService.transfer(1L, 1L, 2L, new BigDecimal("5000")));
+            this.accountService.findAll();
+
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+        List<RecordedEvent> transfers = eventsNamed(events, "com.magadiflo.app.Transfer");
+        assertEquals(2, transfers.size());
+        assertEquals("completed", transfers.get(0).getString("outcome"));
+        assertEquals(1L, transfers.get(0).getLong("bankId"));
+        assertEquals("insufficientMoney", transfers.get(1).getString("outcome"));
+
+        List<RecordedEvent> rejections = eventsNamed(events, "com.magadiflo.app.InsufficientMoney");
+        assertEquals(1, rejections.size());
+        assertEquals(1L, rejections.get(0).getLong("accountId"));
+        assertEquals(1500D, rejections.get(0).getDouble("balance"));
+        assertEquals(5000D, rejections.get(0).getDouble("amount"));
+        assertNull(rejections.get(0).getStackTrace());
+
+        List<RecordedEvent> lookups = eventsNamed(events, "com.magadiflo.app.AccountLookup");
+        assertEquals(1, lookups.size());
+        assertEquals("findAll", lookups.get(0).getString("operation"));
+        assertEquals(2, lookups.get(0).getInt("results"));
+    }
+
+    @Test
+    void should_not_record_events_when_they_are_not_enabled() throws Exception {
+        when(this.accountRepository.findAllUnmanaged()).thenReturn(List.of());
+
+        Path file = this.tempDir.resolve("default.jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+            this.accountService.findAll();
+            recording.stop();
+            recording.dump(file);
+        }
+
+        assertTrue(eventsNamed(RecordingFile.readAllEvents(file), "com.magadiflo.app.AccountLookup").isEmpty());
+    }
+
+    private static Configuration accountsConfiguration() throws Exception {
+        try (Reader reader = new InputStreamReader(
+                AccountJfrEventsUnitTest.class.getResourceAsStream("/jfr/accounts.jfc"), StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    private static List<RecordedEvent> eventsNamed(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.magadiflo.app.unitTest.models;
+
+import com.magadiflo.app.models.Account;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountUnitTest {
+
+    @Test
+    void should_be_equal_when_ids_match_even_if_balance_differs() {
+        Account account = new Account(1L, "Martín", new BigDecimal("2000"));
+        Account sameAccountLater = new Account(1L, "Martín", new BigDecimal("1500"));
+
+        assertEquals(account, sameAccountLater);
+        assertEquals(account.hashCode(), sameAccountLater.hashCode());
+        assertNotEquals(account, new Account(2L, "Martín", new BigDecimal("2000")));
+    }
+
+    @Test
+    void should_only_equal_itself_while_it_has_no_id() {
+        Account account = new Account(null, "Martín", new BigDecimal("2000"));
+
+        assertEquals(account, account);
+        assertNotEquals(account, new Account(null, "Martín", new BigDecimal("2000")));
+    }
+
+    @Test
+    void should_stay_in_a_set_after_balance_and_id_change() {
+        Account account = new Account(null, "Martín", new BigDecimal("2000"));
+        Set<Account> accounts = new HashSet<>();
+        accounts.add(account);
+
+        account.setId(1L);
+        account.debit(new BigDecimal("500"));
+
+        assertTrue(accounts.contains(account));
+        assertTrue(accounts.contains(new Account(1L, "Martín", new BigDecimal("1500"))));
+    }
+}
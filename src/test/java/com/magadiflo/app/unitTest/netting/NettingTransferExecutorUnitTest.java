@@ -0,0 +1,154 @@
+package com.magadiflo.app.unitTest.netting;
+
+import com.magadiflo.app.exceptions.InsufficientMoneyException;
+import com.magadiflo.app.netting.NettingProperties;
+import com.magadiflo.app.netting.NettingStore;
+import com.magadiflo.app.netting.NettingTransferExecutor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NettingTransferExecutorUnitTest {
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void should_write_only_net_positions_on_settlement() {
+        InMemoryStore store = new InMemoryStore();
+        try (NettingTransferExecutor executor = this.start(store)) {
+            executor.transfer(1L, 1L, 2L, new BigDecimal("500"));
+            executor.transfer(1L, 2L, 1L, new BigDecimal("500"));
+            executor.transfer(1L, 1L, 2L, new BigDecimal("100.25"));
+            assertEquals(200000L, store.accounts.get(1L));
+
+            executor.settle();
+
+            assertEquals(1, store.settlements.get());
+            assertEquals(189975L, store.accounts.get(1L));
+            assertEquals(110025L, store.accounts.get(2L));
+            assertEquals(3L, store.banks.get(1L));
+            assertEquals(3L, store.checkpoint);
+        }
+    }
+
+    @Test
+    void should_check_the_available_balance_including_pending_transfers() {
+        InMemoryStore store = new InMemoryStore();
+        try (NettingTransferExecutor executor = this.start(store)) {
+            executor.transfer(1L, 1L, 2L, new BigDecimal("1500"));
+
+            assertThrows(InsufficientMoneyException.class, () -> executor.transfer(1L, 1L, 2L, new BigDecimal("600")));
+            assertThrows(NoSuchElementException.class, () -> executor.transfer(1L, 1L, 9L, new BigDecimal("10")));
+            assertThrows(NoSuchElementException.class, () -> executor.transfer(9L, 1L, 2L, new BigDecimal("10")));
+
+            executor.transfer(1L, 2L, 1L, new BigDecimal("100"));
+            executor.transfer(1L, 1L, 2L, new BigDecimal("600"));
+        }
+    }
+
+    @Test
+    void should_keep_positions_pending_when_settlement_fails() {
+        InMemoryStore store = new InMemoryStore();
+        try (NettingTransferExecutor executor = this.start(store)) {
+            executor.transfer(1L, 1L, 2L, new BigDecimal("100"));
+            store.failNext = true;
+
+            assertThrows(IllegalStateException.class, executor::settle);
+            executor.transfer(1L, 1L, 2L, new BigDecimal("100"));
+            executor.settle();
+
+            assertEquals(180000L, store.accounts.get(1L));
+            assertEquals(2L, store.checkpoint);
+        }
+    }
+
+    @Test
+    void should_reload_balances_from_the_database_after_settlement() {
+        InMemoryStore store = new InMemoryStore();
+        try (NettingTransferExecutor executor = this.start(store)) {
+            executor.transfer(1L, 1L, 2L, new BigDecimal("100"));
+            executor.settle();
+            store.accounts.put(1L, 5000L);
+
+            assertThrows(InsufficientMoneyException.class, () -> executor.transfer(1L, 1L, 2L, new BigDecimal("60")));
+            executor.transfer(1L, 1L, 2L, new BigDecimal("50"));
+            assertThrows(IllegalArgumentException.class, () -> executor.transfer(1L, 1L, 2L, new BigDecimal("0.001")));
+        }
+    }
+
+    @Test
+    void should_settle_journaled_transfers_after_a_crash() {
+        InMemoryStore store = new InMemoryStore();
+        NettingTransferExecutor crashed = this.start(store);
+        crashed.transfer(1L, 1L, 2L, new BigDecimal("100"));
+        crashed.settle();
+        crashed.transfer(1L, 1L, 2L, new BigDecimal("200.50"));
+        crashed.transfer(1L, 2L, 1L, new BigDecimal("50"));
+        assertEquals(1L, store.checkpoint);
+
+        try (NettingTransferExecutor recovered = this.start(store)) {
+            assertEquals(3L, store.checkpoint);
+            assertEquals(174950L, store.accounts.get(1L));
+            assertEquals(125050L, store.accounts.get(2L));
+            assertEquals(3L, store.banks.get(1L));
+
+            recovered.transfer(1L, 2L, 1L, new BigDecimal("0.50"));
+            recovered.settle();
+            assertEquals(4L, store.checkpoint);
+        }
+    }
+
+    private NettingTransferExecutor start(InMemoryStore store) {
+        NettingProperties properties = new NettingProperties(true, this.tempDir, 1024, Duration.ofHours(1));
+        NettingTransferExecutor executor = new NettingTransferExecutor(properties, store);
+        executor.start();
+        return executor;
+    }
+
+    static class InMemoryStore implements NettingStore {
+        final Map<Long, Long> accounts = new ConcurrentHashMap<>(Map.of(1L, 200000L, 2L, 100000L));
+        final Map<Long, Long> banks = new ConcurrentHashMap<>(Map.of(1L, 0L));
+        final AtomicInteger settlements = new AtomicInteger();
+        volatile long checkpoint;
+        volatile boolean failNext;
+
+        @Override
+        public long loadCheckpoint() {
+            return this.checkpoint;
+        }
+
+        @Override
+        public OptionalLong loadAccountBalance(long accountId) {
+            Long balance = this.accounts.get(accountId);
+            return balance == null ? OptionalLong.empty() : OptionalLong.of(balance);
+        }
+
+        @Override
+        public boolean bankExists(long bankId) {
+            return this.banks.containsKey(bankId);
+        }
+
+        @Override
+        public int settle(Map<Long, Long> accountDeltas, Map<Long, Long> bankTransfers, long throughSequence) {
+            if (this.failNext) {
+                this.failNext = false;
+                throw new IllegalStateException("Base de datos no disponible");
+            }
+            accountDeltas.forEach((id, delta) -> this.accounts.merge(id, delta, Long::sum));
+            bankTransfers.forEach((id, total) -> this.banks.merge(id, total, Long::sum));
+            this.checkpoint = throughSequence;
+            this.settlements.incrementAndGet();
+            return accountDeltas.size();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.magadiflo.app.unitTest.outbox;
+
+import com.magadiflo.app.outbox.OutboxConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboxConfigUnitTest {
+
+    @Test
+    void should_refuse_to_start_when_transfers_bypass_the_account_service() {
+        for (String property : List.of("app.transfer-engine.enabled", "app.netting.enabled", "app.sharding.enabled")) {
+            MockEnvironment environment = new MockEnvironment().withProperty(property, "true");
+
+            IllegalStateException exception = assertThrows(IllegalStateException.class, () -> new OutboxConfig(environment));
+
+            assertTrue(exception.getMessage().contains(property));
+            assertTrue(exception.getMessage().contains("app.outbox.enabled"));
+        }
+    }
+
+    @Test
+    void should_start_when_transfers_go_through_the_account_service() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.group-commit.enabled", "true")
+                .withProperty("app.scheduled-transfers.enabled", "true");
+
+        assertDoesNotThrow(() -> new OutboxConfig(environment));
+    }
+}
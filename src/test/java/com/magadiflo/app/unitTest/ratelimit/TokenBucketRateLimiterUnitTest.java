@@ -0,0 +1,99 @@
+package com.magadiflo.app.unitTest.ratelimit;
+
+import com.magadiflo.app.exceptions.TooManyRequestsException;
+import com.magadiflo.app.ratelimit.LoadShedder;
+import com.magadiflo.app.ratelimit.RateLimitProperties;
+import com.magadiflo.app.ratelimit.TokenBucketRateLimiter;
+import com.magadiflo.app.ratelimit.TransferRateLimiter;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketRateLimiterUnitTest {
+
+    @Test
+    void should_reject_when_bucket_is_empty_and_allow_after_refill() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 1, 4, 16);
+        long now = 0L;
+
+        assertEquals(0L, limiter.tryAcquire(1L, now));
+        assertEquals(0L, limiter.tryAcquire(1L, now));
+
+        long wait = limiter.tryAcquire(1L, now);
+        assertTrue(wait > 0);
+        assertTrue(wait <= TimeUnit.SECONDS.toNanos(1));
+
+        assertEquals(0L, limiter.tryAcquire(1L, now + TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    @Test
+    void should_keep_independent_buckets_per_key() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 4, 16);
+
+        assertEquals(0L, limiter.tryAcquire(1L, 0L));
+        assertTrue(limiter.tryAcquire(1L, 0L) > 0);
+        assertEquals(0L, limiter.tryAcquire(2L, 0L));
+    }
+
+    @Test
+    void should_bound_the_number_of_tracked_keys() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(5, 1, 1, 16);
+
+        for (long key = 0; key < 10_000; key++) {
+            limiter.tryAcquire(key, key);
+        }
+
+        assertTrue(limiter.size() <= 24);
+    }
+
+    @Test
+    void should_keep_active_keys_when_the_stripe_is_full() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1, 1, 16);
+        assertEquals(0L, limiter.tryAcquire(-1L, 0L));
+
+        for (long key = 0; key < 10_000; key++) {
+            limiter.tryAcquire(key, 2 * key + 1);
+            assertTrue(limiter.tryAcquire(-1L, 2 * key + 2) > 0);
+        }
+
+        assertTrue(limiter.size() <= 16);
+    }
+
+    @Test
+    void should_refund_the_client_token_when_the_account_is_limited() {
+        RateLimitProperties properties = new RateLimitProperties(true, 1, 0.001, 2, 0.001, 1, 16, 64, 10,
+                Duration.ofSeconds(1));
+        TransferRateLimiter limiter = new TransferRateLimiter(properties, Mockito.mock(ObjectProvider.class));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr("10.0.0.1");
+
+        limiter.acquire(1L, request);
+        limiter.release();
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire(1L, request));
+
+        limiter.acquire(2L, request);
+        limiter.release();
+        request.addHeader("X-Client-Id", "another-client");
+        assertThrows(TooManyRequestsException.class, () -> limiter.acquire(3L, request));
+    }
+
+    @Test
+    void should_shed_load_when_connections_are_pending() {
+        int[] pending = {0};
+        LoadShedder shedder = new LoadShedder(1, 2, () -> pending[0]);
+
+        assertTrue(shedder.tryAcquire());
+        assertFalse(shedder.tryAcquire());
+        shedder.release();
+
+        pending[0] = 3;
+        assertFalse(shedder.tryAcquire());
+        assertEquals(0, shedder.inFlight());
+    }
+}
@@ -0,0 +1,86 @@
+package com.magadiflo.app.unitTest.scheduledtransfer;
+
+import com.magadiflo.app.scheduledtransfer.HierarchicalTimingWheel;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelUnitTest {
+
+    @Test
+    void should_fire_entries_in_deadline_order_across_levels() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(10, 4, 3, 0);
+        for (long deadline : new long[]{5_000, 35, 650, 10, 160, 41, 639}) {
+            wheel.schedule(deadline, deadline);
+        }
+        List<Long> fired = new ArrayList<>();
+
+        wheel.advance(9, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(700, fired::add);
+        assertEquals(List.of(10L, 35L, 41L, 160L, 639L, 650L), fired);
+        assertEquals(1, wheel.size());
+
+        wheel.advance(4_999, fired::add);
+        assertEquals(6, fired.size());
+        wheel.advance(5_000, fired::add);
+        assertEquals(5_000L, fired.get(6));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void should_not_fire_cancelled_entries() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(10, 8, 2, 0);
+        HierarchicalTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelada", 100);
+        wheel.schedule("vigente", 100);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        List<String> fired = new ArrayList<>();
+        wheel.advance(200, fired::add);
+
+        assertEquals(List.of("vigente"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void should_fire_overdue_entries_on_the_next_advance() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(100, 16, 2, 10_000);
+        wheel.schedule("vencida", 1_000);
+        List<String> fired = new ArrayList<>();
+
+        wheel.advance(10_000, fired::add);
+
+        assertEquals(List.of("vencida"), fired);
+    }
+
+    @Test
+    void should_fire_every_entry_once_and_never_early() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1, 64, 3, 0);
+        Random random = new Random(42);
+        int entries = 100_000;
+        for (int i = 0; i < entries; i++) {
+            long deadline = random.nextInt(500_000);
+            wheel.schedule(deadline * entries + i, deadline);
+        }
+        Set<Long> fired = new HashSet<>();
+
+        for (long now = 0; now < 500_000 + 997; now += 997) {
+            long current = Math.min(now, 500_000);
+            wheel.advance(current, value -> {
+                assertTrue(value / entries <= current);
+                assertTrue(fired.add(value));
+            });
+        }
+
+        assertEquals(entries, fired.size());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -4,6 +4,7 @@ import com.magadiflo.app.data.DataTest;
 import com.magadiflo.app.exceptions.InsufficientMoneyException;
 import com.magadiflo.app.models.Account;
 import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.models.dto.TransactionDTO;
 import com.magadiflo.app.repositories.IAccountRepository;
 import com.magadiflo.app.repositories.IBankRepository;
 import com.magadiflo.app.services.impl.AccountServiceImpl;
@@ -12,6 +13,8 @@ import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -37,8 +40,12 @@ class AccountServiceImplUnitTest {
         Long accountIdDestination = 2L;
         Long bankId = 1L;
 
-        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(DataTest.account001());
-        when(this.accountRepository.findById(accountIdDestination)).thenReturn(DataTest.account002());
+        Optional<Account> accountOrigen = DataTest.account001();
+        Optional<Account> accountDestination = DataTest.account002();
+        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(accountOrigen);
+        when(this.accountRepository.findById(accountIdDestination)).thenReturn(accountDestination);
+        when(this.accountRepository.findBalanceById(accountIdOrigen)).thenAnswer(invocation -> DataTest.balance(accountOrigen));
+        when(this.accountRepository.findBalanceById(accountIdDestination)).thenAnswer(invocation -> DataTest.balance(accountDestination));
         when(this.bankRepository.findById(bankId)).thenReturn(DataTest.bank());
 
         BigDecimal balanceOriginal = this.accountService.reviewBalance(accountIdOrigen);
@@ -58,8 +65,10 @@ class AccountServiceImplUnitTest {
         int total = this.accountService.reviewTotalTransfers(bankId);
         assertEquals(1, total);
 
-        verify(this.accountRepository, times(3)).findById(accountIdOrigen);
-        verify(this.accountRepository, times(3)).findById(accountIdDestination);
+        verify(this.accountRepository).findById(accountIdOrigen);
+        verify(this.accountRepository).findById(accountIdDestination);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdOrigen);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdDestination);
         verify(this.accountRepository, times(2)).save(any(Account.class));
 
         verify(this.bankRepository, times(2)).findById(bankId);
@@ -72,8 +81,12 @@ class AccountServiceImplUnitTest {
         Long accountIdDestination = 2L;
         Long bankId = 1L;
 
-        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(DataTest.account001());
-        when(this.accountRepository.findById(accountIdDestination)).thenReturn(DataTest.account002());
+        Optional<Account> accountOrigen = DataTest.account001();
+        Optional<Account> accountDestination = DataTest.account002();
+        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(accountOrigen);
+        when(this.accountRepository.findById(accountIdDestination)).thenReturn(accountDestination);
+        when(this.accountRepository.findBalanceById(accountIdOrigen)).thenAnswer(invocation -> DataTest.balance(accountOrigen));
+        when(this.accountRepository.findBalanceById(accountIdDestination)).thenAnswer(invocation -> DataTest.balance(accountDestination));
         when(this.bankRepository.findById(bankId)).thenReturn(DataTest.bank());
 
         BigDecimal balanceOriginal = this.accountService.reviewBalance(accountIdOrigen);
@@ -97,14 +110,62 @@ class AccountServiceImplUnitTest {
         int total = this.accountService.reviewTotalTransfers(bankId);
         assertEquals(0, total);
 
-        verify(this.accountRepository, times(3)).findById(accountIdOrigen);
-        verify(this.accountRepository, times(3)).findById(accountIdDestination);
+        verify(this.accountRepository).findById(accountIdOrigen);
+        verify(this.accountRepository).findById(accountIdDestination);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdOrigen);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdDestination);
         verify(this.accountRepository, never()).save(any(Account.class));
 
         verify(this.bankRepository, times(1)).findById(bankId);
         verify(this.bankRepository, never()).save(any(Bank.class));
     }
 
+    @Test
+    void should_apply_valid_transfers_and_report_rejected_ones() {
+        Optional<Account> account001 = DataTest.account001();
+        Optional<Account> account002 = DataTest.account002();
+        when(this.accountRepository.findById(1L)).thenReturn(account001);
+        when(this.accountRepository.findById(2L)).thenReturn(account002);
+        when(this.accountRepository.findBalanceById(1L)).thenAnswer(invocation -> DataTest.balance(account001));
+        when(this.accountRepository.findBalanceById(2L)).thenAnswer(invocation -> DataTest.balance(account002));
+        when(this.bankRepository.findById(1L)).thenReturn(DataTest.bank());
+
+        Map<Integer, RuntimeException> failures = this.accountService.transferAll(List.of(
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("500")),
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("5000")),
+                new TransactionDTO(1L, 2L, 1L, new BigDecimal("100"))));
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(InsufficientMoneyException.class, failures.get(1));
+        assertEquals(1600D, this.accountService.reviewBalance(1L).doubleValue());
+        assertEquals(1400D, this.accountService.reviewBalance(2L).doubleValue());
+        assertEquals(2, this.accountService.reviewTotalTransfers(1L));
+        verify(this.accountRepository, times(4)).save(any(Account.class));
+        verify(this.bankRepository, times(2)).save(any(Bank.class));
+    }
+
+    @Test
+    void should_reject_incomplete_transfers_without_failing_the_group() {
+        Optional<Account> account001 = DataTest.account001();
+        Optional<Account> account002 = DataTest.account002();
+        when(this.accountRepository.findById(1L)).thenReturn(account001);
+        when(this.accountRepository.findById(2L)).thenReturn(account002);
+        when(this.accountRepository.findBalanceById(1L)).thenAnswer(invocation -> DataTest.balance(account001));
+        when(this.accountRepository.findBalanceById(2L)).thenAnswer(invocation -> DataTest.balance(account002));
+        when(this.bankRepository.findById(1L)).thenReturn(DataTest.bank());
+
+        Map<Integer, RuntimeException> failures = this.accountService.transferAll(List.of(
+                new TransactionDTO(1L, 1L, 2L, null),
+                new TransactionDTO(1L, null, 2L, new BigDecimal("100")),
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("-5")),
+                new TransactionDTO(1L, 1L, 2L, new BigDecimal("100"))));
+
+        assertEquals(3, failures.size());
+        failures.values().forEach(failure -> assertInstanceOf(IllegalArgumentException.class, failure));
+        assertEquals(1900D, this.accountService.reviewBalance(1L).doubleValue());
+        verify(this.accountRepository, times(2)).save(any(Account.class));
+    }
+
     @Test
     void canVerifyThatTwoInstancesAreTheSame() {
         when(this.accountRepository.findById(1L)).thenReturn(DataTest.account001());
@@ -121,14 +182,14 @@ class AccountServiceImplUnitTest {
     @Test
     void should_find_all_accounts() {
         List<Account> accountsRepo = List.of(DataTest.account001().get(), DataTest.account002().get());
-        when(this.accountRepository.findAll()).thenReturn(accountsRepo);
+        when(this.accountRepository.findAllUnmanaged()).thenReturn(accountsRepo);
 
         List<Account> accounts = this.accountService.findAll();
 
         assertFalse(accounts.isEmpty());
         assertEquals(accountsRepo.size(), accounts.size());
         assertTrue(accounts.contains(DataTest.account002().get()));
-        verify(this.accountRepository).findAll();
+        verify(this.accountRepository).findAllUnmanaged();
     }
 
     @Test
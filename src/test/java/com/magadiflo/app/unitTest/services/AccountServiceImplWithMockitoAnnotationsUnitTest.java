@@ -4,6 +4,7 @@ import com.magadiflo.app.data.DataTest;
 import com.magadiflo.app.exceptions.InsufficientMoneyException;
 import com.magadiflo.app.models.Account;
 import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.models.dto.PayrollCreditDTO;
 import com.magadiflo.app.repositories.IAccountRepository;
 import com.magadiflo.app.repositories.IBankRepository;
 import com.magadiflo.app.services.impl.AccountServiceImpl;
@@ -14,7 +15,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.sql.Statement;
 import java.util.List;
+import java.util.Optional;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -34,8 +40,12 @@ class AccountServiceImplWithMockitoAnnotationsUnitTest {
         Long accountIdDestination = 2L;
         Long bankId = 1L;
 
-        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(DataTest.account001());
-        when(this.accountRepository.findById(accountIdDestination)).thenReturn(DataTest.account002());
+        Optional<Account> accountOrigen = DataTest.account001();
+        Optional<Account> accountDestination = DataTest.account002();
+        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(accountOrigen);
+        when(this.accountRepository.findById(accountIdDestination)).thenReturn(accountDestination);
+        when(this.accountRepository.findBalanceById(accountIdOrigen)).thenAnswer(invocation -> DataTest.balance(accountOrigen));
+        when(this.accountRepository.findBalanceById(accountIdDestination)).thenAnswer(invocation -> DataTest.balance(accountDestination));
         when(this.bankRepository.findById(bankId)).thenReturn(DataTest.bank());
 
         BigDecimal balanceOriginal = this.accountService.reviewBalance(accountIdOrigen);
@@ -55,8 +65,10 @@ class AccountServiceImplWithMockitoAnnotationsUnitTest {
         int total = this.accountService.reviewTotalTransfers(bankId);
         assertEquals(1, total);
 
-        verify(this.accountRepository, times(3)).findById(accountIdOrigen);
-        verify(this.accountRepository, times(3)).findById(accountIdDestination);
+        verify(this.accountRepository).findById(accountIdOrigen);
+        verify(this.accountRepository).findById(accountIdDestination);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdOrigen);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdDestination);
         verify(this.accountRepository, times(2)).save(any(Account.class));
 
         verify(this.bankRepository, times(2)).findById(bankId);
@@ -69,8 +81,12 @@ class AccountServiceImplWithMockitoAnnotationsUnitTest {
         Long accountIdDestination = 2L;
         Long bankId = 1L;
 
-        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(DataTest.account001());
-        when(this.accountRepository.findById(accountIdDestination)).thenReturn(DataTest.account002());
+        Optional<Account> accountOrigen = DataTest.account001();
+        Optional<Account> accountDestination = DataTest.account002();
+        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(accountOrigen);
+        when(this.accountRepository.findById(accountIdDestination)).thenReturn(accountDestination);
+        when(this.accountRepository.findBalanceById(accountIdOrigen)).thenAnswer(invocation -> DataTest.balance(accountOrigen));
+        when(this.accountRepository.findBalanceById(accountIdDestination)).thenAnswer(invocation -> DataTest.balance(accountDestination));
         when(this.bankRepository.findById(bankId)).thenReturn(DataTest.bank());
 
         BigDecimal balanceOriginal = this.accountService.reviewBalance(accountIdOrigen);
@@ -94,8 +110,10 @@ class AccountServiceImplWithMockitoAnnotationsUnitTest {
         int total = this.accountService.reviewTotalTransfers(bankId);
         assertEquals(0, total);
 
-        verify(this.accountRepository, times(3)).findById(accountIdOrigen);
-        verify(this.accountRepository, times(3)).findById(accountIdDestination);
+        verify(this.accountRepository).findById(accountIdOrigen);
+        verify(this.accountRepository).findById(accountIdDestination);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdOrigen);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdDestination);
         verify(this.accountRepository, never()).save(any(Account.class));
 
         verify(this.bankRepository, times(1)).findById(bankId);
@@ -118,14 +136,14 @@ class AccountServiceImplWithMockitoAnnotationsUnitTest {
     @Test
     void should_find_all_accounts() {
         List<Account> accountsRepo = List.of(DataTest.account001().get(), DataTest.account002().get());
-        when(this.accountRepository.findAll()).thenReturn(accountsRepo);
+        when(this.accountRepository.findAllUnmanaged()).thenReturn(accountsRepo);
 
         List<Account> accounts = this.accountService.findAll();
 
         assertFalse(accounts.isEmpty());
         assertEquals(accountsRepo.size(), accounts.size());
         assertTrue(accounts.contains(DataTest.account002().get()));
-        verify(this.accountRepository).findAll();
+        verify(this.accountRepository).findAllUnmanaged();
     }
 
     @Test
@@ -146,4 +164,52 @@ class AccountServiceImplWithMockitoAnnotationsUnitTest {
         assertEquals(account.getPerson(), accountSaved.getPerson());
         assertEquals(account.getBalance(), accountSaved.getBalance());
     }
-}
\ No newline at end of file
+
+    @Test
+    void should_debit_once_and_credit_all_legs_in_one_batch() {
+        List<PayrollCreditDTO> credits = List.of(new PayrollCreditDTO(2L, new BigDecimal("300")),
+                new PayrollCreditDTO(3L, new BigDecimal("200")),
+                new PayrollCreditDTO(2L, new BigDecimal("100")));
+        when(this.accountRepository.countByIdIn(Set.of(2L, 3L))).thenReturn(2L);
+        when(this.accountRepository.debitIfSufficient(1L, new BigDecimal("600"))).thenReturn(1);
+        when(this.accountRepository.creditAll(any())).thenReturn(new int[]{1, Statement.SUCCESS_NO_INFO});
+        when(this.bankRepository.incrementTotalTransfers(1L, 3)).thenReturn(1);
+
+        this.accountService.transferToMany(1L, 1L, credits);
+
+        verify(this.accountRepository).debitIfSufficient(1L, new BigDecimal("600"));
+        verify(this.accountRepository).creditAll(Map.of(2L, new BigDecimal("400"), 3L, new BigDecimal("200")));
+        verify(this.bankRepository).incrementTotalTransfers(1L, 3);
+        verify(this.accountRepository, never()).findById(any());
+        verify(this.accountRepository, never()).save(any());
+    }
+
+    @Test
+    void should_fail_the_payroll_when_a_destination_is_not_credited() {
+        List<PayrollCreditDTO> credits = List.of(new PayrollCreditDTO(2L, new BigDecimal("300")),
+                new PayrollCreditDTO(3L, new BigDecimal("200")));
+        when(this.accountRepository.countByIdIn(Set.of(2L, 3L))).thenReturn(2L);
+        when(this.accountRepository.debitIfSufficient(1L, new BigDecimal("500"))).thenReturn(1);
+        when(this.accountRepository.creditAll(any())).thenReturn(new int[]{1, 0});
+
+        NoSuchElementException exception = assertThrows(NoSuchElementException.class,
+                () -> this.accountService.transferToMany(1L, 1L, credits));
+
+        assertEquals("No existe el id de la cuenta destino 3", exception.getMessage());
+        verify(this.bankRepository, never()).incrementTotalTransfers(any(), anyInt());
+    }
+
+    @Test
+    void should_not_credit_any_leg_when_the_payroll_exceeds_the_balance() {
+        List<PayrollCreditDTO> credits = List.of(new PayrollCreditDTO(2L, new BigDecimal("1500")),
+                new PayrollCreditDTO(3L, new BigDecimal("1500")));
+        when(this.accountRepository.countByIdIn(Set.of(2L, 3L))).thenReturn(2L);
+        when(this.accountRepository.debitIfSufficient(1L, new BigDecimal("3000"))).thenReturn(0);
+        when(this.accountRepository.findById(1L)).thenReturn(DataTest.account001());
+
+        assertThrows(InsufficientMoneyException.class, () -> this.accountService.transferToMany(1L, 1L, credits));
+
+        verify(this.accountRepository, never()).creditAll(any());
+        verify(this.bankRepository, never()).incrementTotalTransfers(any(), anyInt());
+    }
+}
@@ -6,25 +6,35 @@ import com.magadiflo.app.models.Account;
 import com.magadiflo.app.models.Bank;
 import com.magadiflo.app.repositories.IAccountRepository;
 import com.magadiflo.app.repositories.IBankRepository;
+import com.magadiflo.app.services.AccountLookupProperties;
 import com.magadiflo.app.services.IAccountService;
 import com.magadiflo.app.services.impl.AccountServiceImpl;
+import com.magadiflo.app.velocity.VelocityGuard;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest(classes = AccountServiceImpl.class)
+@EnableConfigurationProperties(AccountLookupProperties.class)
 class AccountServiceImplWithSpringBootAnnotationsUnitTest {
     @MockBean
     IAccountRepository accountRepository;
     @MockBean
     IBankRepository bankRepository;
+    @MockBean
+    VelocityGuard velocityGuard;
+    @MockBean
+    PlatformTransactionManager transactionManager;
     @Autowired
     IAccountService accountService;
 
@@ -34,8 +44,12 @@ class AccountServiceImplWithSpringBootAnnotationsUnitTest {
         Long accountIdDestination = 2L;
         Long bankId = 1L;
 
-        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(DataTest.account001());
-        when(this.accountRepository.findById(accountIdDestination)).thenReturn(DataTest.account002());
+        Optional<Account> accountOrigen = DataTest.account001();
+        Optional<Account> accountDestination = DataTest.account002();
+        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(accountOrigen);
+        when(this.accountRepository.findById(accountIdDestination)).thenReturn(accountDestination);
+        when(this.accountRepository.findBalanceById(accountIdOrigen)).thenAnswer(invocation -> DataTest.balance(accountOrigen));
+        when(this.accountRepository.findBalanceById(accountIdDestination)).thenAnswer(invocation -> DataTest.balance(accountDestination));
         when(this.bankRepository.findById(bankId)).thenReturn(DataTest.bank());
 
         BigDecimal balanceOriginal = this.accountService.reviewBalance(accountIdOrigen);
@@ -55,8 +69,10 @@ class AccountServiceImplWithSpringBootAnnotationsUnitTest {
         int total = this.accountService.reviewTotalTransfers(bankId);
         assertEquals(1, total);
 
-        verify(this.accountRepository, times(3)).findById(accountIdOrigen);
-        verify(this.accountRepository, times(3)).findById(accountIdDestination);
+        verify(this.accountRepository).findById(accountIdOrigen);
+        verify(this.accountRepository).findById(accountIdDestination);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdOrigen);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdDestination);
         verify(this.accountRepository, times(2)).save(any(Account.class));
 
         verify(this.bankRepository, times(2)).findById(bankId);
@@ -69,8 +85,12 @@ class AccountServiceImplWithSpringBootAnnotationsUnitTest {
         Long accountIdDestination = 2L;
         Long bankId = 1L;
 
-        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(DataTest.account001());
-        when(this.accountRepository.findById(accountIdDestination)).thenReturn(DataTest.account002());
+        Optional<Account> accountOrigen = DataTest.account001();
+        Optional<Account> accountDestination = DataTest.account002();
+        when(this.accountRepository.findById(accountIdOrigen)).thenReturn(accountOrigen);
+        when(this.accountRepository.findById(accountIdDestination)).thenReturn(accountDestination);
+        when(this.accountRepository.findBalanceById(accountIdOrigen)).thenAnswer(invocation -> DataTest.balance(accountOrigen));
+        when(this.accountRepository.findBalanceById(accountIdDestination)).thenAnswer(invocation -> DataTest.balance(accountDestination));
         when(this.bankRepository.findById(bankId)).thenReturn(DataTest.bank());
 
         BigDecimal balanceOriginal = this.accountService.reviewBalance(accountIdOrigen);
@@ -94,8 +114,10 @@ class AccountServiceImplWithSpringBootAnnotationsUnitTest {
         int total = this.accountService.reviewTotalTransfers(bankId);
         assertEquals(0, total);
 
-        verify(this.accountRepository, times(3)).findById(accountIdOrigen);
-        verify(this.accountRepository, times(3)).findById(accountIdDestination);
+        verify(this.accountRepository).findById(accountIdOrigen);
+        verify(this.accountRepository).findById(accountIdDestination);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdOrigen);
+        verify(this.accountRepository, times(2)).findBalanceById(accountIdDestination);
         verify(this.accountRepository, never()).save(any(Account.class));
 
         verify(this.bankRepository, times(1)).findById(bankId);
@@ -118,14 +140,14 @@ class AccountServiceImplWithSpringBootAnnotationsUnitTest {
     @Test
     void should_find_all_accounts() {
         List<Account> accountsRepo = List.of(DataTest.account001().get(), DataTest.account002().get());
-        when(this.accountRepository.findAll()).thenReturn(accountsRepo);
+        when(this.accountRepository.findAllUnmanaged()).thenReturn(accountsRepo);
 
         List<Account> accounts = this.accountService.findAll();
 
         assertFalse(accounts.isEmpty());
         assertEquals(accountsRepo.size(), accounts.size());
         assertTrue(accounts.contains(DataTest.account002().get()));
-        verify(this.accountRepository).findAll();
+        verify(this.accountRepository).findAllUnmanaged();
     }
 
     @Test
@@ -0,0 +1,39 @@
+package com.magadiflo.app.unitTest.sharding;
+
+import com.magadiflo.app.sharding.ShardRouter;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardRouterUnitTest {
+
+    @Test
+    void should_route_the_same_id_to_the_same_shard() {
+        ShardRouter router = new ShardRouter(3);
+
+        for (long id = 1; id <= 100; id++) {
+            int shard = router.shardFor(id);
+            assertTrue(shard >= 0 && shard < 3);
+            assertEquals(shard, new ShardRouter(3).shardFor(id));
+        }
+    }
+
+    @Test
+    void should_spread_consecutive_ids_evenly() {
+        ShardRouter router = new ShardRouter(4);
+        int[] counts = new int[4];
+
+        for (long id = 1; id <= 40_000; id++) {
+            counts[router.shardFor(id)]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(Math.abs(count - 10_000) < 500, "Reparto desigual: " + count);
+        }
+    }
+
+    @Test
+    void should_reject_an_empty_shard_set() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardRouter(0));
+    }
+}
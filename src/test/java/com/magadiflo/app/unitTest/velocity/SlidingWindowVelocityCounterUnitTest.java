@@ -0,0 +1,87 @@
+package com.magadiflo.app.unitTest.velocity;
+
+import com.magadiflo.app.velocity.SlidingWindowVelocityCounter;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowVelocityCounterUnitTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 1_000 * SECOND;
+
+    @Test
+    void should_reject_when_the_transfer_count_is_exceeded() {
+        SlidingWindowVelocityCounter counter = new SlidingWindowVelocityCounter(10, 3, 1_000_000L, 4, 16);
+
+        assertEquals(0L, counter.tryRecord(1L, 100L, START));
+        assertEquals(0L, counter.tryRecord(1L, 100L, START + 2 * SECOND));
+        assertEquals(0L, counter.tryRecord(1L, 100L, START + 4 * SECOND));
+
+        assertEquals(5L, counter.tryRecord(1L, 100L, START + 5 * SECOND));
+        assertEquals(0L, counter.tryRecord(2L, 100L, START + 5 * SECOND));
+        assertEquals(0L, counter.tryRecord(1L, 100L, START + 10 * SECOND));
+    }
+
+    @Test
+    void should_reject_when_the_amount_is_exceeded() {
+        SlidingWindowVelocityCounter counter = new SlidingWindowVelocityCounter(60, 100, 10_000L, 4, 16);
+
+        assertEquals(0L, counter.tryRecord(1L, 6_000L, START));
+        assertEquals(0L, counter.tryRecord(1L, 3_000L, START + SECOND));
+
+        assertEquals(30L, counter.tryRecord(1L, 2_000L, START + 30 * SECOND));
+        assertEquals(0L, counter.tryRecord(1L, 1_000L, START + 30 * SECOND));
+        assertEquals(60L, counter.tryRecord(3L, 10_001L, START));
+        assertEquals(0L, counter.tryRecord(1L, 6_000L, START + 60 * SECOND));
+    }
+
+    @Test
+    void should_forget_released_transfers() {
+        SlidingWindowVelocityCounter counter = new SlidingWindowVelocityCounter(10, 1, 1_000L, 1, 16);
+
+        assertEquals(0L, counter.tryRecord(1L, 500L, START));
+        assertTrue(counter.tryRecord(1L, 500L, START + SECOND) > 0);
+
+        counter.release(1L, 500L, START);
+
+        assertEquals(0L, counter.tryRecord(1L, 500L, START + SECOND));
+    }
+
+    @Test
+    void should_bound_the_tracked_accounts() {
+        SlidingWindowVelocityCounter counter = new SlidingWindowVelocityCounter(5, 10, 1_000L, 2, 8);
+        long reserved = counter.reservedBytes();
+
+        for (long key = 0; key < 1_000; key++) {
+            assertEquals(0L, counter.tryRecord(key, 1L, START));
+        }
+
+        assertEquals(16, counter.size());
+        assertEquals(1_000 - 16, counter.evictions());
+        assertEquals(reserved, counter.reservedBytes());
+
+        for (long key = 1_000; key < 1_008; key++) {
+            counter.tryRecord(key, 1L, START + 10 * SECOND);
+        }
+        assertTrue(counter.size() <= 16);
+        assertEquals(0L, counter.tryRecord(999L, 1_000L, START + 10 * SECOND));
+    }
+
+    @Test
+    void should_evict_the_least_recently_used_account() {
+        SlidingWindowVelocityCounter counter = new SlidingWindowVelocityCounter(60, 1, 1_000L, 1, 4);
+
+        for (long key = 0; key < 4; key++) {
+            assertEquals(0L, counter.tryRecord(key, 1L, START + key * SECOND));
+        }
+        assertTrue(counter.tryRecord(0L, 1L, START + 4 * SECOND) > 0);
+
+        assertEquals(0L, counter.tryRecord(4L, 1L, START + 5 * SECOND));
+
+        assertEquals(1, counter.evictions());
+        assertTrue(counter.tryRecord(0L, 1L, START + 5 * SECOND) > 0);
+        assertEquals(0L, counter.tryRecord(1L, 1L, START + 5 * SECOND));
+    }
+}
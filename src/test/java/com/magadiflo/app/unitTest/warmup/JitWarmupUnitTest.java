@@ -0,0 +1,56 @@
+package com.magadiflo.app.unitTest.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.magadiflo.app.controllers.AccountController;
+import com.magadiflo.app.models.Account;
+import com.magadiflo.app.models.Bank;
+import com.magadiflo.app.repositories.IAccountRepository;
+import com.magadiflo.app.repositories.IBankRepository;
+import com.magadiflo.app.services.IAccountService;
+import com.magadiflo.app.warmup.JitWarmup;
+import com.magadiflo.app.warmup.WarmupProperties;
+import com.magadiflo.app.warmup.WarmupResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JitWarmupUnitTest {
+
+    @Test
+    void should_pick_the_accounts_with_a_bounded_query_and_stop_before_iterating_past_the_deadline() {
+        AccountController accountController = mock(AccountController.class);
+        IAccountService accountService = mock(IAccountService.class);
+        IAccountRepository accountRepository = mock(IAccountRepository.class);
+        IBankRepository bankRepository = mock(IBankRepository.class);
+        when(accountRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(
+                new Account(1L, "Martín", new BigDecimal("2000")), new Account(2L, "Alicia", new BigDecimal("1000")))));
+        when(bankRepository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(new Bank(1L, "BCP", 0))));
+        WarmupProperties properties = new WarmupProperties(true, 5000, Duration.ZERO, 200, 0.05, 3);
+        JitWarmup warmup = new JitWarmup(properties, accountController, accountService, accountRepository,
+                bankRepository, new ObjectMapper(), mock(PlatformTransactionManager.class), emptyProvider(),
+                emptyProvider(), emptyProvider(), emptyProvider());
+
+        warmup.warmUp();
+
+        WarmupResult result = warmup.result();
+        assertEquals("timeout", result.reason());
+        assertEquals(0, result.iterations());
+        verify(accountRepository, never()).findAll();
+        verify(accountService, never()).findAll();
+        verifyNoInteractions(accountController);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> emptyProvider() {
+        return mock(ObjectProvider.class);
+    }
+}
@@ -0,0 +1,57 @@
+package com.magadiflo.app.unitTest.warmup;
+
+import com.magadiflo.app.warmup.PlateauDetector;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlateauDetectorUnitTest {
+
+    @Test
+    void should_reach_plateau_after_consecutive_stable_windows() {
+        PlateauDetector detector = new PlateauDetector(4, 0.05, 2);
+
+        assertFalse(recordWindow(detector, 4, 1_000));
+        assertFalse(recordWindow(detector, 4, 500));
+        assertFalse(recordWindow(detector, 4, 200));
+        assertFalse(recordWindow(detector, 4, 205));
+        assertTrue(recordWindow(detector, 4, 198));
+
+        assertEquals(1_000, detector.firstMedian());
+        assertEquals(198, detector.lastMedian());
+    }
+
+    @Test
+    void should_restart_the_count_when_latency_changes_again() {
+        PlateauDetector detector = new PlateauDetector(2, 0.05, 2);
+
+        assertFalse(recordWindow(detector, 2, 100));
+        assertFalse(recordWindow(detector, 2, 101));
+        assertFalse(recordWindow(detector, 2, 50));
+        assertFalse(recordWindow(detector, 2, 50));
+        assertTrue(recordWindow(detector, 2, 51));
+    }
+
+    @Test
+    void should_use_the_median_of_each_window() {
+        PlateauDetector detector = new PlateauDetector(3, 0.05, 1);
+
+        assertFalse(detector.record(100));
+        assertFalse(detector.record(10_000));
+        assertFalse(detector.record(110));
+        assertFalse(detector.record(105));
+        assertFalse(detector.record(5));
+        assertTrue(detector.record(112));
+
+        assertEquals(110, detector.firstMedian());
+        assertEquals(105, detector.lastMedian());
+    }
+
+    private static boolean recordWindow(PlateauDetector detector, int windowSize, long nanos) {
+        boolean plateau = false;
+        for (int i = 0; i < windowSize && !plateau; i++) {
+            plateau = detector.record(nanos);
+        }
+        return plateau;
+    }
+}